@@ -1,17 +1,27 @@
 package gr.uom.java.ast;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.lang.ref.WeakReference;
+
 import org.eclipse.jdt.core.ITypeRoot;
+import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.core.dom.ASTNode;
 import org.eclipse.jdt.core.dom.CompilationUnit;
 import org.eclipse.jdt.core.dom.NodeFinder;
 
-public class ASTInformation {
+public class ASTInformation implements Serializable {
+	private static final long serialVersionUID = 1L;
 
-	private ITypeRoot iTypeRoot;
+	//the type root is serialized through its handle identifier
+	private transient ITypeRoot iTypeRoot;
 	private int startPosition;
 	private int length;
 	private int nodeType;
-	private volatile int hashCode = 0;
+	private transient volatile int hashCode = 0;
+	private transient volatile RecoveredASTNode recoveredASTNode;
 	
 	public ASTInformation(ITypeRoot iTypeRoot, ASTNode astNode) {
 		this.iTypeRoot = iTypeRoot;
@@ -21,8 +31,15 @@ public class ASTInformation {
 	}
 
 	public ASTNode recoverASTNode() {
-        CompilationUnit compilationUnit = CompilationUnitCache.getInstance().getCompilationUnit(iTypeRoot);
-        ASTNode astNode = NodeFinder.perform(compilationUnit, startPosition, length);
+		CompilationUnit compilationUnit = CompilationUnitCache.getInstance().getCompilationUnit(iTypeRoot);
+		RecoveredASTNode recovered = recoveredASTNode;
+		if(recovered != null) {
+			ASTNode astNode = recovered.getASTNode(compilationUnit);
+			if(astNode != null)
+				return astNode;
+		}
+		ASTNode astNode = NodeFinder.perform(compilationUnit, startPosition, length);
+		recoveredASTNode = new RecoveredASTNode(compilationUnit, astNode);
 		return astNode;
 	}
 	
@@ -60,7 +77,39 @@ public class ASTInformation {
 			result = 37*result + startPosition;
 			result = 37*result + length;
 			result = 37*result + nodeType;
+			hashCode = result;
 		}
 		return hashCode;
 	}
+
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		out.defaultWriteObject();
+		out.writeUTF(iTypeRoot.getHandleIdentifier());
+	}
+
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		iTypeRoot = (ITypeRoot)JavaCore.create(in.readUTF());
+	}
+
+	//the recovered node is weakly referenced, so that it does not prevent the eviction of its compilation unit from the cache.
+	//it is reused only if the compilation unit returned by the cache is still the one it was recovered from.
+	private static class RecoveredASTNode {
+		private WeakReference<CompilationUnit> compilationUnit;
+		private WeakReference<ASTNode> astNode;
+
+		private RecoveredASTNode(CompilationUnit compilationUnit, ASTNode astNode) {
+			this.compilationUnit = new WeakReference<CompilationUnit>(compilationUnit);
+			this.astNode = new WeakReference<ASTNode>(astNode);
+		}
+
+		private ASTNode getASTNode(CompilationUnit currentCompilationUnit) {
+			if(compilationUnit.get() == currentCompilationUnit) {
+				ASTNode node = astNode.get();
+				if(node != null && node.getRoot() == currentCompilationUnit)
+					return node;
+			}
+			return null;
+		}
+	}
 }
@@ -1,17 +1,39 @@
 package gr.uom.java.ast;
 
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
 import org.eclipse.jdt.core.ITypeRoot;
 import org.eclipse.jdt.core.dom.ASTNode;
 
 public class ASTInformationGenerator {
 
-	private static ITypeRoot iTypeRoot;
+	//the current ITypeRoot is kept per thread, so that compilation units can be parsed concurrently
+	private static final ThreadLocal<ITypeRoot> iTypeRoot = new ThreadLocal<ITypeRoot>();
+	//canonical ASTInformation for every (type root, start position, length, node type),
+	//so that the AST node memoized by an ASTInformation is shared by all the objects referring to the same node
+	private static final Map<ASTInformation, WeakReference<ASTInformation>> internedASTInformation =
+		new WeakHashMap<ASTInformation, WeakReference<ASTInformation>>();
 	
 	public static void setCurrentITypeRoot(ITypeRoot typeRoot) {
-		iTypeRoot = typeRoot;
+		iTypeRoot.set(typeRoot);
 	}
 
 	public static ASTInformation generateASTInformation(ASTNode astNode) {
-		return new ASTInformation(iTypeRoot, astNode);
+		return intern(new ASTInformation(iTypeRoot.get(), astNode));
+	}
+
+	private static ASTInformation intern(ASTInformation astInformation) {
+		synchronized(internedASTInformation) {
+			WeakReference<ASTInformation> reference = internedASTInformation.get(astInformation);
+			if(reference != null) {
+				ASTInformation canonical = reference.get();
+				if(canonical != null)
+					return canonical;
+			}
+			internedASTInformation.put(astInformation, new WeakReference<ASTInformation>(astInformation));
+			return astInformation;
+		}
 	}
 }
@@ -14,9 +14,12 @@ import org.eclipse.jdt.core.IJavaElement;
 import org.eclipse.jdt.core.IJavaProject;
 import org.eclipse.jdt.core.IPackageFragment;
 import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.IType;
 import org.eclipse.jdt.core.JavaModelException;
 import org.eclipse.jdt.core.dom.AST;
+import org.eclipse.jdt.core.dom.ASTNode;
 import org.eclipse.jdt.core.dom.ASTParser;
+import org.eclipse.jdt.core.dom.ASTVisitor;
 import org.eclipse.jdt.core.dom.AbstractTypeDeclaration;
 import org.eclipse.jdt.core.dom.Annotation;
 import org.eclipse.jdt.core.dom.AnonymousClassDeclaration;
@@ -28,27 +31,41 @@ import org.eclipse.jdt.core.dom.EnumConstantDeclaration;
 import org.eclipse.jdt.core.dom.EnumDeclaration;
 import org.eclipse.jdt.core.dom.Expression;
 import org.eclipse.jdt.core.dom.FieldDeclaration;
+import org.eclipse.jdt.core.dom.IBinding;
 import org.eclipse.jdt.core.dom.IExtendedModifier;
+import org.eclipse.jdt.core.dom.IMethodBinding;
 import org.eclipse.jdt.core.dom.ITypeBinding;
+import org.eclipse.jdt.core.dom.IVariableBinding;
 import org.eclipse.jdt.core.dom.MethodDeclaration;
 import org.eclipse.jdt.core.dom.Modifier;
+import org.eclipse.jdt.core.dom.SimpleName;
 import org.eclipse.jdt.core.dom.SingleVariableDeclaration;
 import org.eclipse.jdt.core.dom.Statement;
 import org.eclipse.jdt.core.dom.Type;
 import org.eclipse.jdt.core.dom.TypeDeclaration;
 import org.eclipse.jdt.core.dom.TypeDeclarationStatement;
 import org.eclipse.jdt.core.dom.VariableDeclarationFragment;
+import org.eclipse.jface.preference.IPreferenceStore;
 import org.eclipse.jface.text.BadLocationException;
 import org.eclipse.jface.text.IDocument;
 
 import gr.uom.java.ast.decomposition.AbstractExpression;
 import gr.uom.java.ast.decomposition.MethodBodyObject;
+import gr.uom.java.ast.util.BindingKeyTable;
+import gr.uom.java.ast.util.ParallelTasks;
 import gr.uom.java.ast.util.StatementExtractor;
+import gr.uom.java.distance.EntityDictionary;
+import gr.uom.java.jdeodorant.preferences.PreferenceConstants;
+import gr.uom.java.jdeodorant.refactoring.Activator;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
 
 public class ASTReader {
 
@@ -56,35 +73,80 @@ public class ASTReader {
 	private static IJavaProject examinedProject;
 
 	public ASTReader(IJavaProject iJavaProject, IProgressMonitor monitor) {
+		List<ICompilationUnit> iCompilationUnits = getCompilationUnits(iJavaProject);
 		if(monitor != null)
-			monitor.beginTask("Parsing selected Java Project", getNumberOfCompilationUnits(iJavaProject));
+			monitor.beginTask("Parsing selected Java Project", iCompilationUnits.size());
 		systemObject = new SystemObject();
 		examinedProject = iJavaProject;
-		try {
-			IPackageFragmentRoot[] iPackageFragmentRoots = iJavaProject.getPackageFragmentRoots();
-			for(IPackageFragmentRoot iPackageFragmentRoot : iPackageFragmentRoots) {
-				IJavaElement[] children = iPackageFragmentRoot.getChildren();
-				for(IJavaElement child : children) {
-					if(child.getElementType() == IJavaElement.PACKAGE_FRAGMENT) {
-						IPackageFragment iPackageFragment = (IPackageFragment)child;
-						ICompilationUnit[] iCompilationUnits = iPackageFragment.getCompilationUnits();
-						for(ICompilationUnit iCompilationUnit : iCompilationUnits) {
-							if(monitor != null && monitor.isCanceled())
-				    			throw new OperationCanceledException();
-							systemObject.addClasses(parseAST(iCompilationUnit));
-							if(monitor != null)
-								monitor.worked(1);
-						}
-					}
-				}
+		//the entity and binding key ids of the previous system are not used by the analyses of the new system,
+		//so the indices keyed on them are cleared together with the binding key table
+		EntityDictionary.clear();
+		CompilationUnitCache.getInstance().clearIndex();
+		LibraryClassStorage.getInstance().clearIndex();
+		BindingKeyTable.clear();
+		IPreferenceStore store = Activator.getDefault().getPreferenceStore();
+		SystemObjectSnapshot snapshot = null;
+		if(store.getBoolean(PreferenceConstants.P_ENABLE_SYSTEM_OBJECT_SNAPSHOT)) {
+			snapshot = SystemObjectSnapshot.load(iJavaProject);
+			snapshot.invalidateChangedCompilationUnits(iCompilationUnits);
+		}
+		int parsingThreadCount = ParallelTasks.getThreadCount(store.getInt(PreferenceConstants.P_PROJECT_PARSING_THREAD_COUNT));
+		if(parsingThreadCount > 1 && iCompilationUnits.size() > 1) {
+			parseInParallel(iCompilationUnits, parsingThreadCount, snapshot, monitor);
+		}
+		else {
+			for(ICompilationUnit iCompilationUnit : iCompilationUnits) {
+				if(monitor != null && monitor.isCanceled())
+	    			throw new OperationCanceledException();
+				addCompilationUnit(iCompilationUnit, parseCompilationUnit(iCompilationUnit, snapshot), snapshot);
+				if(monitor != null)
+					monitor.worked(1);
 			}
-		} catch (JavaModelException e) {
-			e.printStackTrace();
 		}
+		if(snapshot != null)
+			snapshot.save();
 		if(monitor != null)
 			monitor.done();
 	}
 
+	private void parseInParallel(List<ICompilationUnit> iCompilationUnits, int parsingThreadCount,
+			final SystemObjectSnapshot snapshot, IProgressMonitor monitor) {
+		List<Callable<CompilationUnitSnapshot>> tasks = new ArrayList<Callable<CompilationUnitSnapshot>>();
+		for(final ICompilationUnit iCompilationUnit : iCompilationUnits) {
+			tasks.add(new Callable<CompilationUnitSnapshot>() {
+				public CompilationUnitSnapshot call() {
+					return parseCompilationUnit(iCompilationUnit, snapshot);
+				}
+			});
+		}
+		List<CompilationUnitSnapshot> compilationUnitSnapshots = ParallelTasks.runInParallel(tasks, parsingThreadCount, monitor);
+		//the results are merged in the order of the compilation units, so that the class order is the same as in serial parsing
+		for(int i=0; i<iCompilationUnits.size(); i++) {
+			addCompilationUnit(iCompilationUnits.get(i), compilationUnitSnapshots.get(i), snapshot);
+		}
+	}
+
+	//the compilation unit is restored from the snapshot if neither it nor the compilation units it refers to have changed since it was stored
+	private CompilationUnitSnapshot parseCompilationUnit(ICompilationUnit iCompilationUnit, SystemObjectSnapshot snapshot) {
+		if(snapshot == null)
+			return new CompilationUnitSnapshot(null, parseAST(iCompilationUnit));
+		CompilationUnitSnapshot compilationUnitSnapshot = snapshot.get(iCompilationUnit);
+		if(compilationUnitSnapshot == null) {
+			CompilationUnit compilationUnit = createCompilationUnit(iCompilationUnit);
+			compilationUnitSnapshot = new CompilationUnitSnapshot(snapshot.getContentHash(iCompilationUnit),
+					parseAST(compilationUnit, (IFile)iCompilationUnit.getResource()));
+			compilationUnitSnapshot.setReferencedCompilationUnits(getReferencedCompilationUnits(compilationUnit));
+		}
+		return compilationUnitSnapshot;
+	}
+
+	private void addCompilationUnit(ICompilationUnit iCompilationUnit, CompilationUnitSnapshot compilationUnitSnapshot, SystemObjectSnapshot snapshot) {
+		systemObject.addClasses(compilationUnitSnapshot.getClassObjects());
+		compilationUnitSnapshot.addAccessorMethods(systemObject);
+		if(snapshot != null)
+			snapshot.put(iCompilationUnit, compilationUnitSnapshot);
+	}
+
 	public ASTReader(IJavaProject iJavaProject, SystemObject existingSystemObject, IProgressMonitor monitor) {
 		Set<ICompilationUnit> changedCompilationUnits = new LinkedHashSet<ICompilationUnit>();
 		Set<ICompilationUnit> addedCompilationUnits = new LinkedHashSet<ICompilationUnit>();
@@ -112,18 +174,20 @@ public class ASTReader {
 			systemObject.removeClasses(removedCompilationUnitFile);
 		}
 		for(ICompilationUnit changedCompilationUnit : changedCompilationUnits) {
-			List<ClassObject> changedClassObjects = parseAST(changedCompilationUnit);
-			for(ClassObject changedClassObject : changedClassObjects) {
+			CompilationUnitSnapshot changedCompilationUnitSnapshot = new CompilationUnitSnapshot(null, parseAST(changedCompilationUnit));
+			for(ClassObject changedClassObject : changedCompilationUnitSnapshot.getClassObjects()) {
 				systemObject.replaceClass(changedClassObject);
 			}
+			changedCompilationUnitSnapshot.addAccessorMethods(systemObject);
 			if(monitor != null)
 				monitor.worked(1);
 		}
 		for(ICompilationUnit addedCompilationUnit : addedCompilationUnits) {
-			List<ClassObject> addedClassObjects = parseAST(addedCompilationUnit);
-			for(ClassObject addedClassObject : addedClassObjects) {
+			CompilationUnitSnapshot addedCompilationUnitSnapshot = new CompilationUnitSnapshot(null, parseAST(addedCompilationUnit));
+			for(ClassObject addedClassObject : addedCompilationUnitSnapshot.getClassObjects()) {
 				systemObject.addClass(addedClassObject);
 			}
+			addedCompilationUnitSnapshot.addAccessorMethods(systemObject);
 			if(monitor != null)
 				monitor.worked(1);
 		}
@@ -133,7 +197,11 @@ public class ASTReader {
 	}
 
 	public static int getNumberOfCompilationUnits(IJavaProject iJavaProject) {
-		int numberOfCompilationUnits = 0;
+		return getCompilationUnits(iJavaProject).size();
+	}
+
+	private static List<ICompilationUnit> getCompilationUnits(IJavaProject iJavaProject) {
+		List<ICompilationUnit> compilationUnits = new ArrayList<ICompilationUnit>();
 		try {
 			IPackageFragmentRoot[] iPackageFragmentRoots = iJavaProject.getPackageFragmentRoots();
 			for(IPackageFragmentRoot iPackageFragmentRoot : iPackageFragmentRoots) {
@@ -142,14 +210,16 @@ public class ASTReader {
 					if(child.getElementType() == IJavaElement.PACKAGE_FRAGMENT) {
 						IPackageFragment iPackageFragment = (IPackageFragment)child;
 						ICompilationUnit[] iCompilationUnits = iPackageFragment.getCompilationUnits();
-						numberOfCompilationUnits += iCompilationUnits.length;
+						for(ICompilationUnit iCompilationUnit : iCompilationUnits) {
+							compilationUnits.add(iCompilationUnit);
+						}
 					}
 				}
 			}
 		} catch (JavaModelException e) {
 			e.printStackTrace();
 		}
-		return numberOfCompilationUnits;
+		return compilationUnits;
 	}
 
 	private List<AbstractTypeDeclaration> getRecursivelyInnerTypes(AbstractTypeDeclaration typeDeclaration) {
@@ -185,15 +255,19 @@ public class ASTReader {
 	}
 
 	private List<ClassObject> parseAST(ICompilationUnit iCompilationUnit) {
-		ASTInformationGenerator.setCurrentITypeRoot(iCompilationUnit);
 		IFile iFile = (IFile)iCompilationUnit.getResource();
+		CompilationUnit compilationUnit = createCompilationUnit(iCompilationUnit);
+        
+        return parseAST(compilationUnit, iFile);
+	}
+
+	private CompilationUnit createCompilationUnit(ICompilationUnit iCompilationUnit) {
+		ASTInformationGenerator.setCurrentITypeRoot(iCompilationUnit);
         ASTParser parser = ASTParser.newParser(AST.JLS4);
         parser.setKind(ASTParser.K_COMPILATION_UNIT);
         parser.setSource(iCompilationUnit);
         parser.setResolveBindings(true); // we need bindings later on
-        CompilationUnit compilationUnit = (CompilationUnit)parser.createAST(null);
-        
-        return parseAST(compilationUnit, iFile);
+        return (CompilationUnit)parser.createAST(null);
 	}
 
 	private List<ClassObject> parseAST(CompilationUnit compilationUnit, IFile iFile) {
@@ -208,6 +282,7 @@ public class ASTReader {
 		IDocument document = textFileBuffer.getDocument();
 		List<Comment> comments = compilationUnit.getCommentList();
 		List<ClassObject> classObjects = new ArrayList<ClassObject>();
+		Map<AbstractTypeDeclaration, ClassObject> classObjectMap = new HashMap<AbstractTypeDeclaration, ClassObject>();
         List<AbstractTypeDeclaration> topLevelTypeDeclarations = compilationUnit.types();
         for(AbstractTypeDeclaration abstractTypeDeclaration : topLevelTypeDeclarations) {
         	if(abstractTypeDeclaration instanceof TypeDeclaration) {
@@ -219,10 +294,12 @@ public class ASTReader {
         			if(typeDeclaration instanceof TypeDeclaration) {
         				final ClassObject classObject = processTypeDeclaration(iFile, document, (TypeDeclaration)typeDeclaration, comments);
         				classObjects.add(classObject);
+        				classObjectMap.put(typeDeclaration, classObject);
         			}
         			else if(typeDeclaration instanceof EnumDeclaration) {
         				final ClassObject classObject = processEnumDeclaration(iFile, document, (EnumDeclaration)typeDeclaration, comments);
         				classObjects.add(classObject);
+        				classObjectMap.put(typeDeclaration, classObject);
         			}
         		}
         	}
@@ -230,11 +307,79 @@ public class ASTReader {
         		EnumDeclaration enumDeclaration = (EnumDeclaration)abstractTypeDeclaration;
         		final ClassObject classObject = processEnumDeclaration(iFile, document, enumDeclaration, comments);
 	        	classObjects.add(classObject);
+	        	classObjectMap.put(enumDeclaration, classObject);
         	}
         }
+        processAnonymousClassDeclarations(compilationUnit, classObjectMap);
         return classObjects;
 	}
 
+	//the supertypes of every anonymous class are added to the closest enclosing class, so that the type hierarchy index knows the types having anonymous subclasses
+	private void processAnonymousClassDeclarations(CompilationUnit compilationUnit, final Map<AbstractTypeDeclaration, ClassObject> classObjectMap) {
+		compilationUnit.accept(new ASTVisitor() {
+			public boolean visit(AnonymousClassDeclaration anonymousClassDeclaration) {
+				ClassObject classObject = null;
+				ASTNode parent = anonymousClassDeclaration.getParent();
+				while(parent != null && classObject == null) {
+					if(parent instanceof AbstractTypeDeclaration)
+						classObject = classObjectMap.get(parent);
+					parent = parent.getParent();
+				}
+				ITypeBinding anonymousTypeBinding = anonymousClassDeclaration.resolveBinding();
+				if(classObject != null && anonymousTypeBinding != null) {
+					ITypeBinding superclassTypeBinding = anonymousTypeBinding.getSuperclass();
+					if(superclassTypeBinding != null)
+						classObject.addAnonymousSuperType(getTypeName(superclassTypeBinding));
+					for(ITypeBinding interfaceTypeBinding : anonymousTypeBinding.getInterfaces()) {
+						classObject.addAnonymousSuperType(getTypeName(interfaceTypeBinding));
+					}
+				}
+				return true;
+			}
+		});
+	}
+
+	//the other compilation units of the project declaring the types, methods and fields the names of the compilation unit are bound to
+	private Set<String> getReferencedCompilationUnits(final CompilationUnit compilationUnit) {
+		final Set<String> referencedCompilationUnits = new LinkedHashSet<String>();
+		final Set<ITypeBinding> referencedTypes = new HashSet<ITypeBinding>();
+		compilationUnit.accept(new ASTVisitor() {
+			public boolean visit(SimpleName simpleName) {
+				IBinding binding = simpleName.resolveBinding();
+				ITypeBinding typeBinding = null;
+				if(binding instanceof ITypeBinding)
+					typeBinding = (ITypeBinding)binding;
+				else if(binding instanceof IMethodBinding)
+					typeBinding = ((IMethodBinding)binding).getDeclaringClass();
+				else if(binding instanceof IVariableBinding && ((IVariableBinding)binding).isField())
+					typeBinding = ((IVariableBinding)binding).getDeclaringClass();
+				if(typeBinding != null) {
+					if(typeBinding.isArray())
+						typeBinding = typeBinding.getElementType();
+					typeBinding = typeBinding.getErasure();
+					if(referencedTypes.add(typeBinding)) {
+						IJavaElement javaElement = typeBinding.getJavaElement();
+						if(javaElement instanceof IType) {
+							ICompilationUnit iCompilationUnit = ((IType)javaElement).getCompilationUnit();
+							if(iCompilationUnit != null && !iCompilationUnit.equals(compilationUnit.getJavaElement()))
+								referencedCompilationUnits.add(iCompilationUnit.getHandleIdentifier());
+						}
+					}
+				}
+				return false;
+			}
+		});
+		return referencedCompilationUnits;
+	}
+
+	//the same name as the one given to the ClassObject of the type
+	private static String getTypeName(ITypeBinding typeBinding) {
+		ITypeBinding erasure = typeBinding.getErasure();
+		if(erasure.isLocal())
+			return erasure.getDeclaringClass().getQualifiedName() + "." + erasure.getName();
+		return erasure.getQualifiedName();
+	}
+
 	private List<CommentObject> processComments(IFile iFile, IDocument iDocument,
 			AbstractTypeDeclaration typeDeclaration, List<Comment> comments) {
 		List<CommentObject> commentList = new ArrayList<CommentObject>();
@@ -528,21 +673,10 @@ public class ASTReader {
 				methodObject.setNative(true);
 			
 			classObject.addMethod(methodObject);
-			FieldInstructionObject fieldInstruction = methodObject.isGetter();
-			if(fieldInstruction != null)
-				systemObject.addGetter(methodObject.generateMethodInvocation(), fieldInstruction);
-			fieldInstruction = methodObject.isSetter();
-			if(fieldInstruction != null)
-				systemObject.addSetter(methodObject.generateMethodInvocation(), fieldInstruction);
-			fieldInstruction = methodObject.isCollectionAdder();
-			if(fieldInstruction != null)
-				systemObject.addCollectionAdder(methodObject.generateMethodInvocation(), fieldInstruction);
-			MethodInvocationObject methodInvocation = methodObject.isDelegate();
-			if(methodInvocation != null)
-				systemObject.addDelegate(methodObject.generateMethodInvocation(), methodInvocation);
 		}
 	}
 
+	//invoked on the thread that merges the parsed classes, since the SystemObject maps are not thread-safe
     public static SystemObject getSystemObject() {
 		return systemObject;
 	}
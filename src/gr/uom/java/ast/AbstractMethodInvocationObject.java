@@ -1,12 +1,16 @@
 package gr.uom.java.ast;
 
+import gr.uom.java.ast.util.StringInterner;
+
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Set;
 
-public abstract class AbstractMethodInvocationObject {
+public abstract class AbstractMethodInvocationObject implements Serializable {
+	private static final long serialVersionUID = 1L;
 	private String originClassName;
     private String methodName;
     private TypeObject returnType;
@@ -15,11 +19,11 @@ public abstract class AbstractMethodInvocationObject {
     private boolean _static;
     //private MethodInvocation methodInvocation;
     protected ASTInformation methodInvocation;
-    private volatile int hashCode = 0;
+    private transient volatile int hashCode = 0;
 
     public AbstractMethodInvocationObject(String originClassName, String methodName, TypeObject returnType) {
-        this.originClassName = originClassName;
-        this.methodName = methodName;
+        this.originClassName = StringInterner.intern(originClassName);
+        this.methodName = StringInterner.intern(methodName);
         this.returnType = returnType;
         this.parameterList = new ArrayList<TypeObject>();
         this.thrownExceptions = new LinkedHashSet<String>();
@@ -27,8 +31,8 @@ public abstract class AbstractMethodInvocationObject {
     }
 
     public AbstractMethodInvocationObject(String originClassName, String methodName, TypeObject returnType, List<TypeObject> parameterList) {
-        this.originClassName = originClassName;
-        this.methodName = methodName;
+        this.originClassName = StringInterner.intern(originClassName);
+        this.methodName = StringInterner.intern(methodName);
         this.returnType = returnType;
         this.parameterList = parameterList;
         this._static = false;
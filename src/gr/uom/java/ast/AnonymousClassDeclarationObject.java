@@ -9,6 +9,7 @@ import org.eclipse.jdt.core.ITypeRoot;
 import org.eclipse.jdt.core.dom.AnonymousClassDeclaration;
 
 public class AnonymousClassDeclarationObject extends ClassDeclarationObject {
+	private static final long serialVersionUID = 1L;
 	private ASTInformation anonymousClassDeclaration;
 	private ClassObject classObject;
 	
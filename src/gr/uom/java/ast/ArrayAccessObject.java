@@ -1,8 +1,11 @@
 package gr.uom.java.ast;
 
+import java.io.Serializable;
+
 import org.eclipse.jdt.core.dom.ArrayAccess;
 
-public class ArrayAccessObject {
+public class ArrayAccessObject implements Serializable {
+	private static final long serialVersionUID = 1L;
 	private TypeObject type;
 	private ASTInformation arrayAccess;
 	
@@ -3,6 +3,7 @@ package gr.uom.java.ast;
 import org.eclipse.jdt.core.dom.ArrayCreation;
 
 public class ArrayCreationObject extends CreationObject {
+	private static final long serialVersionUID = 1L;
 
 	public ArrayCreationObject(TypeObject type) {
 		super(type);
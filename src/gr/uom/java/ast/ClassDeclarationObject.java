@@ -3,6 +3,7 @@ package gr.uom.java.ast;
 import gr.uom.java.ast.decomposition.CatchClauseObject;
 import gr.uom.java.ast.decomposition.TryStatementObject;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -12,7 +13,8 @@ import java.util.Set;
 import org.eclipse.core.resources.IFile;
 import org.eclipse.jdt.core.ITypeRoot;
 
-public abstract class ClassDeclarationObject {
+public abstract class ClassDeclarationObject implements Serializable {
+	private static final long serialVersionUID = 1L;
 	protected String name;
 	protected List<MethodObject> methodList;
 	protected List<FieldObject> fieldList;
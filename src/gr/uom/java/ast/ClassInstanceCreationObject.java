@@ -9,6 +9,7 @@ import java.util.Set;
 import org.eclipse.jdt.core.dom.ClassInstanceCreation;
 
 public class ClassInstanceCreationObject extends CreationObject {
+	private static final long serialVersionUID = 1L;
 
 	private List<TypeObject> parameterList;
 	private Set<String> thrownExceptions;
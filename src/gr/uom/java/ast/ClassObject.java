@@ -3,22 +3,30 @@ package gr.uom.java.ast;
 import gr.uom.java.ast.decomposition.MethodBodyObject;
 import gr.uom.java.jdeodorant.refactoring.manipulators.TypeCheckElimination;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.ListIterator;
 
 import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.Path;
 import org.eclipse.jdt.core.ITypeRoot;
 import org.eclipse.jdt.core.dom.AbstractTypeDeclaration;
 import org.eclipse.jdt.core.dom.EnumDeclaration;
 import org.eclipse.jdt.core.dom.TypeDeclaration;
 
 public class ClassObject extends ClassDeclarationObject {
+	private static final long serialVersionUID = 2L;
 
 	private List<ConstructorObject> constructorList;
 	private List<EnumConstantDeclarationObject> enumConstantDeclarationList;
 	private TypeObject superclass;
 	private List<TypeObject> interfaceList;
+	//the types extended or implemented by the anonymous classes declared within the class
+	private List<String> anonymousSuperTypeList;
 	private boolean _abstract;
     private boolean _interface;
     private boolean _static;
@@ -26,11 +34,13 @@ public class ClassObject extends ClassDeclarationObject {
     private Access access;
     //private TypeDeclaration typeDeclaration;
     private ASTInformation typeDeclaration;
-    private IFile iFile;
+    //the file is serialized through its workspace-relative path
+    private transient IFile iFile;
 
     public ClassObject() {
 		this.constructorList = new ArrayList<ConstructorObject>();
 		this.interfaceList = new ArrayList<TypeObject>();
+		this.anonymousSuperTypeList = new ArrayList<String>();
 		this.enumConstantDeclarationList = new ArrayList<EnumConstantDeclarationObject>();
 		this._abstract = false;
         this._interface = false;
@@ -184,6 +194,12 @@ public class ClassObject extends ClassDeclarationObject {
 	public boolean addInterface(TypeObject i) {
 		return interfaceList.add(i);
 	}
+
+	public boolean addAnonymousSuperType(String superType) {
+		if(!anonymousSuperTypeList.contains(superType))
+			return anonymousSuperTypeList.add(superType);
+		return false;
+	}
 	
 	public boolean addConstructor(ConstructorObject c) {
 		return constructorList.add(c);
@@ -201,6 +217,10 @@ public class ClassObject extends ClassDeclarationObject {
 		return interfaceList.listIterator();
 	}
 
+	public ListIterator<String> getAnonymousSuperTypeIterator() {
+		return anonymousSuperTypeList.listIterator();
+	}
+
     public ListIterator<TypeObject> getSuperclassIterator() {
 		List<TypeObject> superclassList = new ArrayList<TypeObject>(interfaceList);
 		superclassList.add(superclass);
@@ -211,6 +231,22 @@ public class ClassObject extends ClassDeclarationObject {
 		return enumConstantDeclarationList.listIterator();
 	}
 
+	//the estimated memory held by the collections of the method bodies of the class
+	public HeapFootprint getHeapFootprint() {
+		HeapFootprint footprint = new HeapFootprint();
+		for(ConstructorObject constructor : constructorList) {
+			MethodBodyObject methodBody = constructor.getMethodBody();
+			if(methodBody != null)
+				footprint.add(methodBody.getHeapFootprint());
+		}
+		for(MethodObject method : getMethodList()) {
+			MethodBodyObject methodBody = method.getMethodBody();
+			if(methodBody != null)
+				footprint.add(methodBody.getHeapFootprint());
+		}
+		return footprint;
+	}
+
 	public TypeObject getSuperclass() {
 		return superclass;
 	}
@@ -281,4 +317,16 @@ public class ClassObject extends ClassDeclarationObject {
 
         return sb.toString();
     }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        out.writeObject(iFile != null ? iFile.getFullPath().toString() : null);
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        String path = (String)in.readObject();
+        if(path != null)
+            iFile = ResourcesPlugin.getWorkspace().getRoot().getFile(new Path(path));
+    }
 }
\ No newline at end of file
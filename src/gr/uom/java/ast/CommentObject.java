@@ -1,15 +1,18 @@
 package gr.uom.java.ast;
 
+import java.io.Serializable;
+
 import org.eclipse.jdt.core.ITypeRoot;
 import org.eclipse.jdt.core.dom.Comment;
 
-public class CommentObject {
+public class CommentObject implements Serializable {
+	private static final long serialVersionUID = 1L;
 	private ASTInformation comment;
 	private String text;
 	private CommentType type;
 	private int startLine;
 	private int endLine;
-	private volatile int hashCode = 0;
+	private transient volatile int hashCode = 0;
 	
 	public CommentObject(String text, CommentType type, int startLine, int endLine) {
 		this.text = text;
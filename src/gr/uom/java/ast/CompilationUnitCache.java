@@ -1,15 +1,12 @@
 package gr.uom.java.ast;
 
 import gr.uom.java.ast.decomposition.cfg.AbstractVariable;
+import gr.uom.java.ast.util.IntHashMap;
 import gr.uom.java.jdeodorant.preferences.PreferenceConstants;
 import gr.uom.java.jdeodorant.refactoring.Activator;
 
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedHashSet;
-import java.util.LinkedList;
-import java.util.List;
-import java.util.Map;
 import java.util.Set;
 
 import org.eclipse.jdt.core.IClassFile;
@@ -22,28 +19,23 @@ import org.eclipse.jface.preference.IPreferenceStore;
 
 public class CompilationUnitCache extends Indexer {
 
+	private static final long MEGABYTE = 1024 * 1024;
 	private static CompilationUnitCache instance;
-	private LinkedList<ITypeRoot> iTypeRootList;
-	private LinkedList<CompilationUnit> compilationUnitList;
-	private List<ITypeRoot> lockedTypeRoots;
+	private CompilationUnitLRUCache projectCompilationUnitCache;
+	//the same cache instance as projectCompilationUnitCache, when the project and library units share the memory budget
+	private CompilationUnitLRUCache libraryCompilationUnitCache;
 	private Set<ICompilationUnit> changedCompilationUnits;
 	private Set<ICompilationUnit> addedCompilationUnits;
 	private Set<ICompilationUnit> removedCompilationUnits;
-	//String key corresponds to MethodDeclaration.resolveBinding.getKey()
-	private Map<String, HashMap<Integer, LinkedHashSet<AbstractVariable>>> usedFieldsForMethodArgumentsMap;
-	//String key corresponds to MethodDeclaration.resolveBinding.getKey()
-	private Map<String, HashMap<Integer, LinkedHashSet<AbstractVariable>>> definedFieldsForMethodArgumentsMap;
-	//String key corresponds to MethodDeclaration.resolveBinding.getKey()
-	private Map<String, LinkedHashSet<AbstractVariable>> usedFieldsForMethodExpressionMap;
-	//String key corresponds to MethodDeclaration.resolveBinding.getKey()
-	private Map<String, LinkedHashSet<AbstractVariable>> definedFieldsForMethodExpressionMap;
-	//String key corresponds to MethodDeclaration.resolveBinding.getKey()
-	private Map<String, LinkedHashSet<String>> thrownExceptionTypesForMethodExpressionMap;
+	//the fields and exception types of the analyzed method invocations are cached separately for every thread, since every thread analyzes its own method
+	//and clears the cache when the method is analyzed, without affecting the methods analyzed by the other threads
+	private ThreadLocal<MethodAnalysisCache> methodAnalysisCache;
 
 	public void addUsedFieldForMethodArgument(AbstractVariable field, MethodObject mo, int argPosition) {
-		String methodBindingKey = mo.getMethodDeclaration().resolveBinding().getKey();
-		if(usedFieldsForMethodArgumentsMap.containsKey(methodBindingKey)) {
-			HashMap<Integer, LinkedHashSet<AbstractVariable>> argumentMap = usedFieldsForMethodArgumentsMap.get(methodBindingKey);
+		MethodAnalysisCache cache = methodAnalysisCache.get();
+		int methodId = mo.getBindingKeyId();
+		if(cache.usedFieldsForMethodArgumentsMap.containsKey(methodId)) {
+			HashMap<Integer, LinkedHashSet<AbstractVariable>> argumentMap = cache.usedFieldsForMethodArgumentsMap.get(methodId);
 			if(argumentMap.containsKey(argPosition)) {
 				LinkedHashSet<AbstractVariable> fieldSet = argumentMap.get(argPosition);
 				fieldSet.add(field);
@@ -59,28 +51,30 @@ public class CompilationUnitCache extends Indexer {
 			LinkedHashSet<AbstractVariable> fieldSet = new LinkedHashSet<AbstractVariable>();
 			fieldSet.add(field);
 			argumentMap.put(argPosition, fieldSet);
-			usedFieldsForMethodArgumentsMap.put(methodBindingKey, argumentMap);
+			cache.usedFieldsForMethodArgumentsMap.put(methodId, argumentMap);
 		}
 	}
 
 	public void setEmptyUsedFieldsForMethodArgument(MethodObject mo, int argPosition) {
-		String methodBindingKey = mo.getMethodDeclaration().resolveBinding().getKey();
-		if(usedFieldsForMethodArgumentsMap.containsKey(methodBindingKey)) {
-			HashMap<Integer, LinkedHashSet<AbstractVariable>> argumentMap = usedFieldsForMethodArgumentsMap.get(methodBindingKey);
+		MethodAnalysisCache cache = methodAnalysisCache.get();
+		int methodId = mo.getBindingKeyId();
+		if(cache.usedFieldsForMethodArgumentsMap.containsKey(methodId)) {
+			HashMap<Integer, LinkedHashSet<AbstractVariable>> argumentMap = cache.usedFieldsForMethodArgumentsMap.get(methodId);
 			argumentMap.put(argPosition, new LinkedHashSet<AbstractVariable>());
 		}
 		else {
 			HashMap<Integer, LinkedHashSet<AbstractVariable>> argumentMap = new HashMap<Integer, LinkedHashSet<AbstractVariable>>();
 			LinkedHashSet<AbstractVariable> fieldSet = new LinkedHashSet<AbstractVariable>();
 			argumentMap.put(argPosition, fieldSet);
-			usedFieldsForMethodArgumentsMap.put(methodBindingKey, argumentMap);
+			cache.usedFieldsForMethodArgumentsMap.put(methodId, argumentMap);
 		}
 	}
 
 	public void addDefinedFieldForMethodArgument(AbstractVariable field, MethodObject mo, int argPosition) {
-		String methodBindingKey = mo.getMethodDeclaration().resolveBinding().getKey();
-		if(definedFieldsForMethodArgumentsMap.containsKey(methodBindingKey)) {
-			HashMap<Integer, LinkedHashSet<AbstractVariable>> argumentMap = definedFieldsForMethodArgumentsMap.get(methodBindingKey);
+		MethodAnalysisCache cache = methodAnalysisCache.get();
+		int methodId = mo.getBindingKeyId();
+		if(cache.definedFieldsForMethodArgumentsMap.containsKey(methodId)) {
+			HashMap<Integer, LinkedHashSet<AbstractVariable>> argumentMap = cache.definedFieldsForMethodArgumentsMap.get(methodId);
 			if(argumentMap.containsKey(argPosition)) {
 				LinkedHashSet<AbstractVariable> fieldSet = argumentMap.get(argPosition);
 				fieldSet.add(field);
@@ -96,33 +90,35 @@ public class CompilationUnitCache extends Indexer {
 			LinkedHashSet<AbstractVariable> fieldSet = new LinkedHashSet<AbstractVariable>();
 			fieldSet.add(field);
 			argumentMap.put(argPosition, fieldSet);
-			definedFieldsForMethodArgumentsMap.put(methodBindingKey, argumentMap);
+			cache.definedFieldsForMethodArgumentsMap.put(methodId, argumentMap);
 		}
 	}
 
 	public void setEmptyDefinedFieldsForMethodArgument(MethodObject mo, int argPosition) {
-		String methodBindingKey = mo.getMethodDeclaration().resolveBinding().getKey();
-		if(definedFieldsForMethodArgumentsMap.containsKey(methodBindingKey)) {
-			HashMap<Integer, LinkedHashSet<AbstractVariable>> argumentMap = definedFieldsForMethodArgumentsMap.get(methodBindingKey);
+		MethodAnalysisCache cache = methodAnalysisCache.get();
+		int methodId = mo.getBindingKeyId();
+		if(cache.definedFieldsForMethodArgumentsMap.containsKey(methodId)) {
+			HashMap<Integer, LinkedHashSet<AbstractVariable>> argumentMap = cache.definedFieldsForMethodArgumentsMap.get(methodId);
 			argumentMap.put(argPosition, new LinkedHashSet<AbstractVariable>());
 		}
 		else {
 			HashMap<Integer, LinkedHashSet<AbstractVariable>> argumentMap = new HashMap<Integer, LinkedHashSet<AbstractVariable>>();
 			LinkedHashSet<AbstractVariable> fieldSet = new LinkedHashSet<AbstractVariable>();
 			argumentMap.put(argPosition, fieldSet);
-			definedFieldsForMethodArgumentsMap.put(methodBindingKey, argumentMap);
+			cache.definedFieldsForMethodArgumentsMap.put(methodId, argumentMap);
 		}
 	}
 
 	public boolean containsMethodArgument(MethodObject mo, int argPosition) {
-		String methodBindingKey = mo.getMethodDeclaration().resolveBinding().getKey();
-		if(usedFieldsForMethodArgumentsMap.containsKey(methodBindingKey)) {
-			HashMap<Integer, LinkedHashSet<AbstractVariable>> argumentMap = usedFieldsForMethodArgumentsMap.get(methodBindingKey);
+		MethodAnalysisCache cache = methodAnalysisCache.get();
+		int methodId = mo.getBindingKeyId();
+		if(cache.usedFieldsForMethodArgumentsMap.containsKey(methodId)) {
+			HashMap<Integer, LinkedHashSet<AbstractVariable>> argumentMap = cache.usedFieldsForMethodArgumentsMap.get(methodId);
 			if(argumentMap.containsKey(argPosition))
 				return true;
 		}
-		if(definedFieldsForMethodArgumentsMap.containsKey(methodBindingKey)) {
-			HashMap<Integer, LinkedHashSet<AbstractVariable>> argumentMap = definedFieldsForMethodArgumentsMap.get(methodBindingKey);
+		if(cache.definedFieldsForMethodArgumentsMap.containsKey(methodId)) {
+			HashMap<Integer, LinkedHashSet<AbstractVariable>> argumentMap = cache.definedFieldsForMethodArgumentsMap.get(methodId);
 			if(argumentMap.containsKey(argPosition))
 				return true;
 		}
@@ -130,209 +126,235 @@ public class CompilationUnitCache extends Indexer {
 	}
 
 	public Set<AbstractVariable> getUsedFieldsForMethodArgument(MethodObject mo, int argPosition) {
-		String methodBindingKey = mo.getMethodDeclaration().resolveBinding().getKey();
-		if(usedFieldsForMethodArgumentsMap.containsKey(methodBindingKey)) {
-			HashMap<Integer, LinkedHashSet<AbstractVariable>> argumentMap = usedFieldsForMethodArgumentsMap.get(methodBindingKey);
+		MethodAnalysisCache cache = methodAnalysisCache.get();
+		int methodId = mo.getBindingKeyId();
+		if(cache.usedFieldsForMethodArgumentsMap.containsKey(methodId)) {
+			HashMap<Integer, LinkedHashSet<AbstractVariable>> argumentMap = cache.usedFieldsForMethodArgumentsMap.get(methodId);
 			if(argumentMap.containsKey(argPosition))
-				return argumentMap.get(argPosition);
+				return new LinkedHashSet<AbstractVariable>(argumentMap.get(argPosition));
 		}
 		return new LinkedHashSet<AbstractVariable>();
 	}
 
 	public Set<AbstractVariable> getDefinedFieldsForMethodArgument(MethodObject mo, int argPosition) {
-		String methodBindingKey = mo.getMethodDeclaration().resolveBinding().getKey();
-		if(definedFieldsForMethodArgumentsMap.containsKey(methodBindingKey)) {
-			HashMap<Integer, LinkedHashSet<AbstractVariable>> argumentMap = definedFieldsForMethodArgumentsMap.get(methodBindingKey);
+		MethodAnalysisCache cache = methodAnalysisCache.get();
+		int methodId = mo.getBindingKeyId();
+		if(cache.definedFieldsForMethodArgumentsMap.containsKey(methodId)) {
+			HashMap<Integer, LinkedHashSet<AbstractVariable>> argumentMap = cache.definedFieldsForMethodArgumentsMap.get(methodId);
 			if(argumentMap.containsKey(argPosition))
-				return argumentMap.get(argPosition);
+				return new LinkedHashSet<AbstractVariable>(argumentMap.get(argPosition));
 		}
 		return new LinkedHashSet<AbstractVariable>();
 	}
 
 	public void addUsedFieldForMethodExpression(AbstractVariable field, MethodObject mo) {
-		String methodBindingKey = mo.getMethodDeclaration().resolveBinding().getKey();
-		if(usedFieldsForMethodExpressionMap.containsKey(methodBindingKey)) {
-			LinkedHashSet<AbstractVariable> fields = usedFieldsForMethodExpressionMap.get(methodBindingKey);
+		MethodAnalysisCache cache = methodAnalysisCache.get();
+		int methodId = mo.getBindingKeyId();
+		if(cache.usedFieldsForMethodExpressionMap.containsKey(methodId)) {
+			LinkedHashSet<AbstractVariable> fields = cache.usedFieldsForMethodExpressionMap.get(methodId);
 			fields.add(field);
 		}
 		else {
 			LinkedHashSet<AbstractVariable> fields = new LinkedHashSet<AbstractVariable>();
 			fields.add(field);
-			usedFieldsForMethodExpressionMap.put(methodBindingKey, fields);
+			cache.usedFieldsForMethodExpressionMap.put(methodId, fields);
 		}
 	}
 
 	public void setEmptyUsedFieldsForMethodExpression(MethodObject mo) {
-		String methodBindingKey = mo.getMethodDeclaration().resolveBinding().getKey();
+		MethodAnalysisCache cache = methodAnalysisCache.get();
+		int methodId = mo.getBindingKeyId();
 		LinkedHashSet<AbstractVariable> usedFields = new LinkedHashSet<AbstractVariable>();
-		usedFieldsForMethodExpressionMap.put(methodBindingKey, usedFields);
+		cache.usedFieldsForMethodExpressionMap.put(methodId, usedFields);
 	}
 
 	public void addDefinedFieldForMethodExpression(AbstractVariable field, MethodObject mo) {
-		String methodBindingKey = mo.getMethodDeclaration().resolveBinding().getKey();
-		if(definedFieldsForMethodExpressionMap.containsKey(methodBindingKey)) {
-			LinkedHashSet<AbstractVariable> fields = definedFieldsForMethodExpressionMap.get(methodBindingKey);
+		MethodAnalysisCache cache = methodAnalysisCache.get();
+		int methodId = mo.getBindingKeyId();
+		if(cache.definedFieldsForMethodExpressionMap.containsKey(methodId)) {
+			LinkedHashSet<AbstractVariable> fields = cache.definedFieldsForMethodExpressionMap.get(methodId);
 			fields.add(field);
 		}
 		else {
 			LinkedHashSet<AbstractVariable> fields = new LinkedHashSet<AbstractVariable>();
 			fields.add(field);
-			definedFieldsForMethodExpressionMap.put(methodBindingKey, fields);
+			cache.definedFieldsForMethodExpressionMap.put(methodId, fields);
 		}
 	}
 
 	public void setEmptyDefinedFieldsForMethodExpression(MethodObject mo) {
-		String methodBindingKey = mo.getMethodDeclaration().resolveBinding().getKey();
+		MethodAnalysisCache cache = methodAnalysisCache.get();
+		int methodId = mo.getBindingKeyId();
 		LinkedHashSet<AbstractVariable> usedFields = new LinkedHashSet<AbstractVariable>();
-		definedFieldsForMethodExpressionMap.put(methodBindingKey, usedFields);
+		cache.definedFieldsForMethodExpressionMap.put(methodId, usedFields);
 	}
 
 	public void setThrownExceptionTypesForMethodExpression(MethodObject mo, LinkedHashSet<String> thrownExceptionTypes) {
-		String methodBindingKey = mo.getMethodDeclaration().resolveBinding().getKey();
-		thrownExceptionTypesForMethodExpressionMap.put(methodBindingKey, thrownExceptionTypes);
+		MethodAnalysisCache cache = methodAnalysisCache.get();
+		int methodId = mo.getBindingKeyId();
+		cache.thrownExceptionTypesForMethodExpressionMap.put(methodId, thrownExceptionTypes);
 	}
 
 	public boolean containsMethodExpression(MethodObject mo) {
-		String methodBindingKey = mo.getMethodDeclaration().resolveBinding().getKey();
-		if(usedFieldsForMethodExpressionMap.containsKey(methodBindingKey))
-			return true;
-		if(definedFieldsForMethodExpressionMap.containsKey(methodBindingKey))
+		MethodAnalysisCache cache = methodAnalysisCache.get();
+		int methodId = mo.getBindingKeyId();
+		if(cache.usedFieldsForMethodExpressionMap.containsKey(methodId) &&
+				cache.definedFieldsForMethodExpressionMap.containsKey(methodId) &&
+				cache.thrownExceptionTypesForMethodExpressionMap.containsKey(methodId))
 			return true;
 		return false;
 	}
 
 	public Set<AbstractVariable> getUsedFieldsForMethodExpression(MethodObject mo) {
-		String methodBindingKey = mo.getMethodDeclaration().resolveBinding().getKey();
-		return usedFieldsForMethodExpressionMap.get(methodBindingKey);
+		MethodAnalysisCache cache = methodAnalysisCache.get();
+		int methodId = mo.getBindingKeyId();
+		return new LinkedHashSet<AbstractVariable>(cache.usedFieldsForMethodExpressionMap.get(methodId));
 	}
 
 	public Set<AbstractVariable> getDefinedFieldsForMethodExpression(MethodObject mo) {
-		String methodBindingKey = mo.getMethodDeclaration().resolveBinding().getKey();
-		return definedFieldsForMethodExpressionMap.get(methodBindingKey);
+		MethodAnalysisCache cache = methodAnalysisCache.get();
+		int methodId = mo.getBindingKeyId();
+		return new LinkedHashSet<AbstractVariable>(cache.definedFieldsForMethodExpressionMap.get(methodId));
 	}
 
 	public Set<String> getThrownExceptionTypesForMethodExpression(MethodObject mo) {
-		String methodBindingKey = mo.getMethodDeclaration().resolveBinding().getKey();
-		return thrownExceptionTypesForMethodExpressionMap.get(methodBindingKey);
+		MethodAnalysisCache cache = methodAnalysisCache.get();
+		int methodId = mo.getBindingKeyId();
+		return new LinkedHashSet<String>(cache.thrownExceptionTypesForMethodExpressionMap.get(methodId));
 	}
 
 	private CompilationUnitCache() {
 		super();
-		this.iTypeRootList = new LinkedList<ITypeRoot>();
-		this.lockedTypeRoots = new ArrayList<ITypeRoot>();
-		this.compilationUnitList = new LinkedList<CompilationUnit>();
+		initializeCaches();
 		this.changedCompilationUnits = new LinkedHashSet<ICompilationUnit>();
 		this.addedCompilationUnits = new LinkedHashSet<ICompilationUnit>();
 		this.removedCompilationUnits = new LinkedHashSet<ICompilationUnit>();
-		this.usedFieldsForMethodArgumentsMap = new HashMap<String, HashMap<Integer, LinkedHashSet<AbstractVariable>>>();
-		this.definedFieldsForMethodArgumentsMap = new HashMap<String, HashMap<Integer, LinkedHashSet<AbstractVariable>>>();
-		this.usedFieldsForMethodExpressionMap = new HashMap<String, LinkedHashSet<AbstractVariable>>();
-		this.definedFieldsForMethodExpressionMap = new HashMap<String, LinkedHashSet<AbstractVariable>>();
-		this.thrownExceptionTypesForMethodExpressionMap = new HashMap<String, LinkedHashSet<String>>();
+		this.methodAnalysisCache = new ThreadLocal<MethodAnalysisCache>() {
+			protected MethodAnalysisCache initialValue() {
+				return new MethodAnalysisCache();
+			}
+		};
 	}
 
-	public static CompilationUnitCache getInstance() {
+	public static synchronized CompilationUnitCache getInstance() {
 		if(instance == null) {
 			instance = new CompilationUnitCache();
 		}
 		return instance;
 	}
 
+	private void initializeCaches() {
+		IPreferenceStore store = Activator.getDefault().getPreferenceStore();
+		long projectCacheMemory = store.getInt(PreferenceConstants.P_PROJECT_COMPILATION_UNIT_CACHE_MEMORY) * MEGABYTE;
+		long libraryCacheMemory = store.getInt(PreferenceConstants.P_LIBRARY_COMPILATION_UNIT_CACHE_MEMORY) * MEGABYTE;
+		if(store.getBoolean(PreferenceConstants.P_SHARE_COMPILATION_UNIT_CACHE_MEMORY)) {
+			this.projectCompilationUnitCache = new CompilationUnitLRUCache(projectCacheMemory + libraryCacheMemory);
+			this.libraryCompilationUnitCache = projectCompilationUnitCache;
+		}
+		else {
+			this.projectCompilationUnitCache = new CompilationUnitLRUCache(projectCacheMemory);
+			this.libraryCompilationUnitCache = new CompilationUnitLRUCache(libraryCacheMemory);
+		}
+	}
+
+	public synchronized CompilationUnitLRUCache getProjectCompilationUnitCache() {
+		return projectCompilationUnitCache;
+	}
+
+	public synchronized CompilationUnitLRUCache getLibraryCompilationUnitCache() {
+		return libraryCompilationUnitCache;
+	}
+
 	public CompilationUnit getCompilationUnit(ITypeRoot iTypeRoot) {
 		if(iTypeRoot instanceof IClassFile) {
 			IClassFile classFile = (IClassFile)iTypeRoot;
 			return LibraryClassStorage.getInstance().getCompilationUnit(classFile);
 		}
 		else {
-			if(iTypeRootList.contains(iTypeRoot)) {
-				int position = iTypeRootList.indexOf(iTypeRoot);
-				return compilationUnitList.get(position);
-			}
-			else {
+			CompilationUnitLRUCache cache = getProjectCompilationUnitCache();
+			CompilationUnit compilationUnit = cache.get(iTypeRoot);
+			if(compilationUnit == null) {
 				ASTParser parser = ASTParser.newParser(AST.JLS4);
 				parser.setKind(ASTParser.K_COMPILATION_UNIT);
 				parser.setSource(iTypeRoot);
 				parser.setResolveBindings(true);
-				CompilationUnit compilationUnit = (CompilationUnit)parser.createAST(null);
-				
-				IPreferenceStore store = Activator.getDefault().getPreferenceStore();
-				int maximumCacheSize = store.getInt(PreferenceConstants.P_PROJECT_COMPILATION_UNIT_CACHE_SIZE);
-				if(iTypeRootList.size() < maximumCacheSize) {
-					iTypeRootList.add(iTypeRoot);
-					compilationUnitList.add(compilationUnit);
-				}
-				else {
-					if(!lockedTypeRoots.isEmpty()) {
-						int indexToBeRemoved = 0;
-						int counter = 0;
-						for(ITypeRoot lockedTypeRoot : lockedTypeRoots) {
-							if(iTypeRootList.get(counter).equals(lockedTypeRoot)) {
-								indexToBeRemoved++;
-							}
-							counter++;
-						}
-						iTypeRootList.remove(indexToBeRemoved);
-						compilationUnitList.remove(indexToBeRemoved);
-					}
-					else {
-						iTypeRootList.removeFirst();
-						compilationUnitList.removeFirst();
-					}
-					iTypeRootList.add(iTypeRoot);
-					compilationUnitList.add(compilationUnit);
-				}
-				return compilationUnit;
+				compilationUnit = cache.put(iTypeRoot, (CompilationUnit)parser.createAST(null));
 			}
+			return compilationUnit;
 		}
 	}
 
-	public void compilationUnitChanged(ICompilationUnit compilationUnit) {
+	public synchronized void compilationUnitChanged(ICompilationUnit compilationUnit) {
 		changedCompilationUnits.add(compilationUnit);
 	}
 
-	public void compilationUnitAdded(ICompilationUnit compilationUnit) {
+	public synchronized void compilationUnitAdded(ICompilationUnit compilationUnit) {
 		addedCompilationUnits.add(compilationUnit);
 	}
 
-	public void compilationUnitRemoved(ICompilationUnit compilationUnit) {
+	public synchronized void compilationUnitRemoved(ICompilationUnit compilationUnit) {
 		addedCompilationUnits.remove(compilationUnit);
 		removedCompilationUnits.add(compilationUnit);
 	}
 
-	public Set<ICompilationUnit> getChangedCompilationUnits() {
+	public synchronized Set<ICompilationUnit> getChangedCompilationUnits() {
 		return changedCompilationUnits;
 	}
 
-	public Set<ICompilationUnit> getAddedCompilationUnits() {
+	public synchronized Set<ICompilationUnit> getAddedCompilationUnits() {
 		return addedCompilationUnits;
 	}
 
-	public Set<ICompilationUnit> getRemovedCompilationUnits() {
+	public synchronized Set<ICompilationUnit> getRemovedCompilationUnits() {
 		return removedCompilationUnits;
 	}
 
-	public void lock(ITypeRoot iTypeRoot) {
-		if(!lockedTypeRoots.contains(iTypeRoot))
-			lockedTypeRoots.add(iTypeRoot);
+	//the compilation unit of the type root is not evicted from the cache until the returned pin is released
+	public CompilationUnitPin pin(ITypeRoot iTypeRoot) {
+		if(iTypeRoot instanceof IClassFile)
+			return getLibraryCompilationUnitCache().pin(iTypeRoot);
+		else
+			return getProjectCompilationUnitCache().pin(iTypeRoot);
 	}
 
-	public void releaseLock() {
-		lockedTypeRoots.clear();
-		usedFieldsForMethodArgumentsMap.clear();
-		definedFieldsForMethodArgumentsMap.clear();
-		usedFieldsForMethodExpressionMap.clear();
-		definedFieldsForMethodExpressionMap.clear();
+	//clears the method analysis cache of the current thread
+	public void clearMethodAnalysisCache() {
+		MethodAnalysisCache cache = methodAnalysisCache.get();
+		cache.usedFieldsForMethodArgumentsMap.clear();
+		cache.definedFieldsForMethodArgumentsMap.clear();
+		cache.usedFieldsForMethodExpressionMap.clear();
+		cache.definedFieldsForMethodExpressionMap.clear();
+		cache.thrownExceptionTypesForMethodExpressionMap.clear();
 	}
 
-	public void clearAffectedCompilationUnits() {
+	public synchronized void clearIndex() {
+		super.clearIndex();
+		clearMethodAnalysisCache();
+	}
+
+	public synchronized void clearAffectedCompilationUnits() {
 		changedCompilationUnits.clear();
 		addedCompilationUnits.clear();
 		removedCompilationUnits.clear();
 	}
 
-	public void clearCache() {
-		lockedTypeRoots.clear();
-		iTypeRootList.clear();
-		compilationUnitList.clear();
+	public synchronized void clearCache() {
+		projectCompilationUnitCache.clear();
+		libraryCompilationUnitCache.clear();
+		//the memory budget preferences may have changed since the previous analysis
+		initializeCaches();
+	}
+
+	private static class MethodAnalysisCache {
+		//int key corresponds to the BindingKeyTable id of MethodDeclaration.resolveBinding.getKey()
+		private IntHashMap<HashMap<Integer, LinkedHashSet<AbstractVariable>>> usedFieldsForMethodArgumentsMap = new IntHashMap<HashMap<Integer, LinkedHashSet<AbstractVariable>>>();
+		//int key corresponds to the BindingKeyTable id of MethodDeclaration.resolveBinding.getKey()
+		private IntHashMap<HashMap<Integer, LinkedHashSet<AbstractVariable>>> definedFieldsForMethodArgumentsMap = new IntHashMap<HashMap<Integer, LinkedHashSet<AbstractVariable>>>();
+		//int key corresponds to the BindingKeyTable id of MethodDeclaration.resolveBinding.getKey()
+		private IntHashMap<LinkedHashSet<AbstractVariable>> usedFieldsForMethodExpressionMap = new IntHashMap<LinkedHashSet<AbstractVariable>>();
+		//int key corresponds to the BindingKeyTable id of MethodDeclaration.resolveBinding.getKey()
+		private IntHashMap<LinkedHashSet<AbstractVariable>> definedFieldsForMethodExpressionMap = new IntHashMap<LinkedHashSet<AbstractVariable>>();
+		//int key corresponds to the BindingKeyTable id of MethodDeclaration.resolveBinding.getKey()
+		private IntHashMap<LinkedHashSet<String>> thrownExceptionTypesForMethodExpressionMap = new IntHashMap<LinkedHashSet<String>>();
 	}
 }
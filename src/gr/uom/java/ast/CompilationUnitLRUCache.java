@@ -0,0 +1,145 @@
+package gr.uom.java.ast;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.jdt.core.ITypeRoot;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+
+public class CompilationUnitLRUCache {
+	private long maximumSize;
+	private long estimatedSize;
+	//access-ordered map, the iteration starts from the least recently used compilation unit
+	private LinkedHashMap<ITypeRoot, CacheEntry> cacheEntryMap;
+	//the compilation unit of a pinned type root is never evicted
+	private Map<ITypeRoot, Integer> pinCountMap;
+	private long hitCount;
+	private long missCount;
+	private long evictionCount;
+
+	//maximumSize corresponds to the estimated memory footprint (in bytes) of the cached ASTs
+	public CompilationUnitLRUCache(long maximumSize) {
+		this.maximumSize = maximumSize;
+		this.estimatedSize = 0;
+		this.cacheEntryMap = new LinkedHashMap<ITypeRoot, CacheEntry>(16, 0.75f, true);
+		this.pinCountMap = new HashMap<ITypeRoot, Integer>();
+	}
+
+	public synchronized CompilationUnit get(ITypeRoot iTypeRoot) {
+		CacheEntry cacheEntry = cacheEntryMap.get(iTypeRoot);
+		if(cacheEntry != null) {
+			hitCount++;
+			return cacheEntry.compilationUnit;
+		}
+		missCount++;
+		return null;
+	}
+
+	//if a compilation unit has been already cached for the type root (e.g., parsed concurrently by another thread),
+	//the cached compilation unit is returned, so that all clients recover their AST nodes from the same AST
+	public synchronized CompilationUnit put(ITypeRoot iTypeRoot, CompilationUnit compilationUnit) {
+		CacheEntry cacheEntry = cacheEntryMap.get(iTypeRoot);
+		if(cacheEntry != null) {
+			return cacheEntry.compilationUnit;
+		}
+		cacheEntry = new CacheEntry(compilationUnit, compilationUnit.subtreeBytes());
+		cacheEntryMap.put(iTypeRoot, cacheEntry);
+		estimatedSize += cacheEntry.estimatedSize;
+		evict(iTypeRoot);
+		return compilationUnit;
+	}
+
+	public synchronized CompilationUnitPin pin(ITypeRoot iTypeRoot) {
+		Integer pinCount = pinCountMap.get(iTypeRoot);
+		if(pinCount == null)
+			pinCountMap.put(iTypeRoot, 1);
+		else
+			pinCountMap.put(iTypeRoot, pinCount + 1);
+		return new CompilationUnitPin(this, iTypeRoot);
+	}
+
+	synchronized void unpin(ITypeRoot iTypeRoot) {
+		Integer pinCount = pinCountMap.get(iTypeRoot);
+		if(pinCount != null) {
+			if(pinCount > 1) {
+				pinCountMap.put(iTypeRoot, pinCount - 1);
+			}
+			else {
+				pinCountMap.remove(iTypeRoot);
+				//the cache may have grown beyond its maximum size while the type root was pinned
+				evict(null);
+			}
+		}
+	}
+
+	private void evict(ITypeRoot lastCachedTypeRoot) {
+		Iterator<Map.Entry<ITypeRoot, CacheEntry>> iterator = cacheEntryMap.entrySet().iterator();
+		while(estimatedSize > maximumSize && iterator.hasNext()) {
+			Map.Entry<ITypeRoot, CacheEntry> entry = iterator.next();
+			ITypeRoot iTypeRoot = entry.getKey();
+			if(!iTypeRoot.equals(lastCachedTypeRoot) && !pinCountMap.containsKey(iTypeRoot)) {
+				iterator.remove();
+				estimatedSize -= entry.getValue().estimatedSize;
+				evictionCount++;
+			}
+		}
+	}
+
+	public synchronized void setMaximumSize(long maximumSize) {
+		this.maximumSize = maximumSize;
+		evict(null);
+	}
+
+	public synchronized void clear() {
+		cacheEntryMap.clear();
+		pinCountMap.clear();
+		estimatedSize = 0;
+	}
+
+	public synchronized int size() {
+		return cacheEntryMap.size();
+	}
+
+	public synchronized long getEstimatedSize() {
+		return estimatedSize;
+	}
+
+	public synchronized long getMaximumSize() {
+		return maximumSize;
+	}
+
+	public synchronized long getHitCount() {
+		return hitCount;
+	}
+
+	public synchronized long getMissCount() {
+		return missCount;
+	}
+
+	public synchronized long getEvictionCount() {
+		return evictionCount;
+	}
+
+	public synchronized String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("units=").append(cacheEntryMap.size());
+		sb.append(", pinned=").append(pinCountMap.size());
+		sb.append(", size=").append(estimatedSize).append("/").append(maximumSize);
+		sb.append(", hits=").append(hitCount);
+		sb.append(", misses=").append(missCount);
+		sb.append(", evictions=").append(evictionCount);
+		return sb.toString();
+	}
+
+	private static class CacheEntry {
+		private CompilationUnit compilationUnit;
+		private long estimatedSize;
+
+		private CacheEntry(CompilationUnit compilationUnit, long estimatedSize) {
+			this.compilationUnit = compilationUnit;
+			this.estimatedSize = estimatedSize;
+		}
+	}
+}
@@ -0,0 +1,26 @@
+package gr.uom.java.ast;
+
+import org.eclipse.jdt.core.ITypeRoot;
+
+public class CompilationUnitPin {
+	private CompilationUnitLRUCache cache;
+	private ITypeRoot iTypeRoot;
+	private boolean released;
+
+	CompilationUnitPin(CompilationUnitLRUCache cache, ITypeRoot iTypeRoot) {
+		this.cache = cache;
+		this.iTypeRoot = iTypeRoot;
+		this.released = false;
+	}
+
+	public ITypeRoot getITypeRoot() {
+		return iTypeRoot;
+	}
+
+	public synchronized void unpin() {
+		if(!released) {
+			cache.unpin(iTypeRoot);
+			released = true;
+		}
+	}
+}
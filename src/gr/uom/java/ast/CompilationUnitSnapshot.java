@@ -0,0 +1,75 @@
+package gr.uom.java.ast;
+
+import java.io.Serializable;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+//the classes declared in a compilation unit together with their accessor and delegate methods,
+//so that a compilation unit restored from a SystemObjectSnapshot does not have to be parsed,
+//and the handle identifiers of the other compilation units it refers to
+public class CompilationUnitSnapshot implements Serializable {
+	private static final long serialVersionUID = 2L;
+	private String contentHash;
+	private Set<String> referencedCompilationUnits;
+	private List<ClassObject> classObjects;
+	private Map<MethodInvocationObject, FieldInstructionObject> getterMap;
+	private Map<MethodInvocationObject, FieldInstructionObject> setterMap;
+	private Map<MethodInvocationObject, FieldInstructionObject> collectionAdderMap;
+	private Map<MethodInvocationObject, MethodInvocationObject> delegateMap;
+
+	public CompilationUnitSnapshot(String contentHash, List<ClassObject> classObjects) {
+		this.contentHash = contentHash;
+		this.referencedCompilationUnits = new LinkedHashSet<String>();
+		this.classObjects = classObjects;
+		this.getterMap = new LinkedHashMap<MethodInvocationObject, FieldInstructionObject>();
+		this.setterMap = new LinkedHashMap<MethodInvocationObject, FieldInstructionObject>();
+		this.collectionAdderMap = new LinkedHashMap<MethodInvocationObject, FieldInstructionObject>();
+		this.delegateMap = new LinkedHashMap<MethodInvocationObject, MethodInvocationObject>();
+		for(ClassObject classObject : classObjects) {
+			for(MethodObject methodObject : classObject.getMethodList()) {
+				FieldInstructionObject fieldInstruction = methodObject.isGetter();
+				if(fieldInstruction != null)
+					getterMap.put(methodObject.generateMethodInvocation(), fieldInstruction);
+				fieldInstruction = methodObject.isSetter();
+				if(fieldInstruction != null)
+					setterMap.put(methodObject.generateMethodInvocation(), fieldInstruction);
+				fieldInstruction = methodObject.isCollectionAdder();
+				if(fieldInstruction != null)
+					collectionAdderMap.put(methodObject.generateMethodInvocation(), fieldInstruction);
+				MethodInvocationObject methodInvocation = methodObject.isDelegate();
+				if(methodInvocation != null)
+					delegateMap.put(methodObject.generateMethodInvocation(), methodInvocation);
+			}
+		}
+	}
+
+	public String getContentHash() {
+		return contentHash;
+	}
+
+	public Set<String> getReferencedCompilationUnits() {
+		return referencedCompilationUnits;
+	}
+
+	public void setReferencedCompilationUnits(Set<String> referencedCompilationUnits) {
+		this.referencedCompilationUnits = referencedCompilationUnits;
+	}
+
+	public List<ClassObject> getClassObjects() {
+		return classObjects;
+	}
+
+	public void addAccessorMethods(SystemObject systemObject) {
+		for(MethodInvocationObject methodInvocation : getterMap.keySet())
+			systemObject.addGetter(methodInvocation, getterMap.get(methodInvocation));
+		for(MethodInvocationObject methodInvocation : setterMap.keySet())
+			systemObject.addSetter(methodInvocation, setterMap.get(methodInvocation));
+		for(MethodInvocationObject methodInvocation : collectionAdderMap.keySet())
+			systemObject.addCollectionAdder(methodInvocation, collectionAdderMap.get(methodInvocation));
+		for(MethodInvocationObject methodInvocation : delegateMap.keySet())
+			systemObject.addDelegate(methodInvocation, delegateMap.get(methodInvocation));
+	}
+}
@@ -4,6 +4,7 @@ import gr.uom.java.ast.decomposition.MethodBodyObject;
 import gr.uom.java.ast.decomposition.cfg.AbstractVariable;
 import gr.uom.java.ast.decomposition.cfg.PlainVariable;
 
+import java.io.Serializable;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -14,7 +15,8 @@ import java.util.Set;
 
 import org.eclipse.jdt.core.dom.MethodDeclaration;
 
-public class ConstructorObject implements AbstractMethodDeclaration {
+public class ConstructorObject implements AbstractMethodDeclaration, Serializable {
+    private static final long serialVersionUID = 1L;
 
     protected String name;
 	protected List<ParameterObject> parameterList;
@@ -24,7 +26,7 @@ public class ConstructorObject implements AbstractMethodDeclaration {
     protected MethodBodyObject methodBody;
     //protected MethodDeclaration methodDeclaration;
     protected ASTInformation methodDeclaration;
-    private volatile int hashCode = 0;
+    private transient volatile int hashCode = 0;
 
     public ConstructorObject() {
 		this.parameterList = new ArrayList<ParameterObject>();
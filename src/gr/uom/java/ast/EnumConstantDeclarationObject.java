@@ -2,17 +2,19 @@ package gr.uom.java.ast;
 
 import gr.uom.java.ast.decomposition.AbstractExpression;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 
 import org.eclipse.jdt.core.dom.EnumConstantDeclaration;
 
-public class EnumConstantDeclarationObject {
+public class EnumConstantDeclarationObject implements Serializable {
+	private static final long serialVersionUID = 1L;
 	private String name;
 	private List<AbstractExpression> arguments;
 	private String enumName;
 	private ASTInformation enumConstantDeclaration;
-    private volatile int hashCode = 0;
+    private transient volatile int hashCode = 0;
     
     public EnumConstantDeclarationObject(String name) {
 		this.name = name;
@@ -1,8 +1,13 @@
 package gr.uom.java.ast;
 
+import gr.uom.java.ast.util.StringInterner;
+
+import java.io.Serializable;
+
 import org.eclipse.jdt.core.dom.SimpleName;
 
-public class FieldInstructionObject {
+public class FieldInstructionObject implements Serializable {
+    private static final long serialVersionUID = 1L;
 
     private String ownerClass;
     private TypeObject type;
@@ -10,12 +15,12 @@ public class FieldInstructionObject {
     private boolean _static;
     //private SimpleName simpleName;
     private ASTInformation simpleName;
-    private volatile int hashCode = 0;
+    private transient volatile int hashCode = 0;
 
     public FieldInstructionObject(String ownerClass, TypeObject type, String name) {
-        this.ownerClass = ownerClass;
+        this.ownerClass = StringInterner.intern(ownerClass);
         this.type = type;
-        this.name = name;
+        this.name = StringInterner.intern(name);
         this._static = false;
     }
 
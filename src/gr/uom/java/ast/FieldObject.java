@@ -1,5 +1,8 @@
 package gr.uom.java.ast;
 
+import gr.uom.java.ast.util.BindingKeyTable;
+
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.ListIterator;
@@ -9,7 +12,8 @@ import org.eclipse.jdt.core.dom.SimpleName;
 import org.eclipse.jdt.core.dom.VariableDeclaration;
 import org.eclipse.jdt.core.dom.VariableDeclarationFragment;
 
-public class FieldObject implements VariableDeclarationObject {
+public class FieldObject implements VariableDeclarationObject, Serializable {
+    private static final long serialVersionUID = 1L;
 
     private String name;
     private TypeObject type;
@@ -19,7 +23,9 @@ public class FieldObject implements VariableDeclarationObject {
     private String className;
     //private VariableDeclarationFragment fragment;
     private ASTInformation fragment;
-    private volatile int hashCode = 0;
+    private transient volatile int hashCode = 0;
+    //the versioned BindingKeyTable id of the field binding key, resolved on first use and whenever the table has been cleared
+    private transient volatile long bindingKeyId = BindingKeyTable.NO_ID;
 
     public FieldObject(TypeObject type, String name) {
         this.type = type;
@@ -138,4 +144,13 @@ public class FieldObject implements VariableDeclarationObject {
 	public VariableDeclaration getVariableDeclaration() {
 		return getVariableDeclarationFragment();
 	}
+
+	public int getBindingKeyId() {
+		long versionedId = bindingKeyId;
+		if(!BindingKeyTable.isCurrent(versionedId)) {
+			versionedId = BindingKeyTable.getVersionedId(getVariableDeclarationFragment().resolveBinding());
+			bindingKeyId = versionedId;
+		}
+		return BindingKeyTable.getId(versionedId);
+	}
 }
\ No newline at end of file
@@ -0,0 +1,121 @@
+package gr.uom.java.ast;
+
+import gr.uom.java.ast.util.ArraySet;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+/*
+ * An estimation of the memory held by the collections of the method fragments (statements and expressions) of a class.
+ * The sizes assume a 64-bit virtual machine with compressed references (12-byte object headers, 4-byte references,
+ * objects aligned to 8 bytes). The elements of the collections are not included, since they are shared
+ * between a fragment and its parent fragments, whereas every fragment holds its own collections.
+ */
+public class HeapFootprint {
+	private static final int REFERENCE_SIZE = 4;
+	private static final int ARRAY_LIST_SIZE = 24;
+	private static final int ARRAY_HEADER_SIZE = 16;
+	private static final int ARRAY_SET_SIZE = 24;
+	private static final int HASH_SET_SIZE = 16;
+	private static final int LINKED_HASH_MAP_SIZE = 56;
+	private static final int LINKED_HASH_MAP_ENTRY_SIZE = 40;
+	private int fragmentCount;
+	private int collectionCount;
+	private int emptyCollectionCount;
+	private int elementCount;
+	private long estimatedBytes;
+
+	public void addFragment() {
+		fragmentCount++;
+	}
+
+	public void addCollection(Collection<?> collection) {
+		if(collection == null)
+			return;
+		collectionCount++;
+		if(collection.isEmpty())
+			emptyCollectionCount++;
+		elementCount += collection.size();
+		if(collection instanceof ArrayList) {
+			//the capacity of an ArrayList is not accessible, so the list is assumed to be trimmed
+			estimatedBytes += ARRAY_LIST_SIZE + arraySize(collection.size());
+		}
+		else if(collection instanceof ArraySet) {
+			estimatedBytes += ARRAY_SET_SIZE + arraySize(((ArraySet<?>)collection).getCapacity());
+		}
+		else if(collection instanceof HashSet) {
+			estimatedBytes += HASH_SET_SIZE + hashMapSize(collection.size());
+		}
+	}
+
+	public void addMap(Map<?, ?> map) {
+		if(map == null)
+			return;
+		collectionCount++;
+		if(map.isEmpty())
+			emptyCollectionCount++;
+		elementCount += map.size();
+		if(map instanceof HashMap)
+			estimatedBytes += hashMapSize(map.size());
+		for(Object value : map.values()) {
+			if(value instanceof Collection)
+				addCollection((Collection<?>)value);
+		}
+	}
+
+	public void add(HeapFootprint footprint) {
+		fragmentCount += footprint.fragmentCount;
+		collectionCount += footprint.collectionCount;
+		emptyCollectionCount += footprint.emptyCollectionCount;
+		elementCount += footprint.elementCount;
+		estimatedBytes += footprint.estimatedBytes;
+	}
+
+	private static long arraySize(int length) {
+		return align(ARRAY_HEADER_SIZE + REFERENCE_SIZE * (long)length);
+	}
+
+	private static long hashMapSize(int size) {
+		int tableLength = 16;
+		while(tableLength * 0.75 < size)
+			tableLength *= 2;
+		return LINKED_HASH_MAP_SIZE + arraySize(tableLength) + LINKED_HASH_MAP_ENTRY_SIZE * (long)size;
+	}
+
+	private static long align(long size) {
+		return (size + 7) & ~7L;
+	}
+
+	public int getFragmentCount() {
+		return fragmentCount;
+	}
+
+	public int getCollectionCount() {
+		return collectionCount;
+	}
+
+	public int getEmptyCollectionCount() {
+		return emptyCollectionCount;
+	}
+
+	public int getElementCount() {
+		return elementCount;
+	}
+
+	public long getEstimatedBytes() {
+		return estimatedBytes;
+	}
+
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("fragments=").append(fragmentCount);
+		sb.append(", collections=").append(collectionCount);
+		sb.append(", empty collections=").append(emptyCollectionCount);
+		sb.append(", elements=").append(elementCount);
+		sb.append(", estimated bytes=").append(estimatedBytes);
+		return sb.toString();
+	}
+}
@@ -3,9 +3,18 @@ package gr.uom.java.ast;
 import gr.uom.java.ast.decomposition.cfg.AbstractVariable;
 import gr.uom.java.ast.decomposition.cfg.CompositeVariable;
 import gr.uom.java.ast.decomposition.cfg.PlainVariable;
+import gr.uom.java.ast.util.BindingKeyTable;
+import gr.uom.java.ast.util.IntHashMap;
+import gr.uom.java.ast.util.IntLinkedSet;
+import gr.uom.java.ast.util.math.AdjacencyList;
+import gr.uom.java.ast.util.math.Node;
+import gr.uom.java.ast.util.math.TarjanAlgorithm;
 
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -25,33 +34,48 @@ import org.eclipse.jdt.core.search.SearchPattern;
 import org.eclipse.jdt.core.search.SearchRequestor;
 
 public class Indexer {
-	//String key and value correspond to MethodDeclaration.resolveBinding.getKey()
-	private Map<String, LinkedHashSet<String>> methodInvocationMap;
-	//String key corresponds to MethodDeclaration.resolveBinding.getKey()
-	private Map<String, LinkedHashSet<PlainVariable>> definedFieldMap;
-	//String key corresponds to MethodDeclaration.resolveBinding.getKey()
-	private Map<String, LinkedHashSet<PlainVariable>> usedFieldMap;
+	//int key and values correspond to the BindingKeyTable id of MethodDeclaration.resolveBinding.getKey()
+	private IntHashMap<IntLinkedSet> methodInvocationMap;
+	//int key corresponds to the BindingKeyTable id of MethodDeclaration.resolveBinding.getKey()
+	private IntHashMap<LinkedHashSet<PlainVariable>> definedFieldMap;
+	//int key corresponds to the BindingKeyTable id of MethodDeclaration.resolveBinding.getKey()
+	private IntHashMap<LinkedHashSet<PlainVariable>> usedFieldMap;
 	private Map<IType, LinkedHashSet<IType>> subTypeMap;
-	//String key and value correspond to MethodDeclaration.resolveBinding.getKey()
-	private Map<String, LinkedHashSet<String>> overridingMethodMap;
-	//String key and value correspond to MethodDeclaration.resolveBinding.getKey()
-	private Map<String, HashMap<PlainVariable, LinkedHashSet<String>>> methodInvocationThroughReferenceMap;
-	//String corresponds to MethodDeclaration.resolveBinding.getKey()
-	private Set<String> abstractMethodSet;
-	private Set<String> nativeMethodSet;
+	//int key and values correspond to the BindingKeyTable id of MethodDeclaration.resolveBinding.getKey()
+	private IntHashMap<IntLinkedSet> overridingMethodMap;
+	//int key and values correspond to the BindingKeyTable id of MethodDeclaration.resolveBinding.getKey()
+	private IntHashMap<HashMap<PlainVariable, IntLinkedSet>> methodInvocationThroughReferenceMap;
+	//the bits correspond to the BindingKeyTable id of MethodDeclaration.resolveBinding.getKey()
+	private BitSet abstractMethodSet;
+	private BitSet nativeMethodSet;
+	//the fields recursively defined and used by the analyzed methods, computed once for every strongly connected component
+	//of the call graph and discarded when the call graph changes
+	private IntHashMap<LinkedHashSet<PlainVariable>> definedFieldSummaryMap;
+	private IntHashMap<LinkedHashSet<PlainVariable>> usedFieldSummaryMap;
 	
 	public Indexer() {
-		this.methodInvocationMap = new HashMap<String, LinkedHashSet<String>>();
-		this.definedFieldMap = new HashMap<String, LinkedHashSet<PlainVariable>>();
-		this.usedFieldMap = new HashMap<String, LinkedHashSet<PlainVariable>>();
+		this.methodInvocationMap = new IntHashMap<IntLinkedSet>();
+		this.definedFieldMap = new IntHashMap<LinkedHashSet<PlainVariable>>();
+		this.usedFieldMap = new IntHashMap<LinkedHashSet<PlainVariable>>();
 		this.subTypeMap = new HashMap<IType, LinkedHashSet<IType>>();
-		this.overridingMethodMap = new HashMap<String, LinkedHashSet<String>>();
-		this.methodInvocationThroughReferenceMap = new HashMap<String, HashMap<PlainVariable, LinkedHashSet<String>>>();
-		this.abstractMethodSet = new LinkedHashSet<String>();
-		this.nativeMethodSet = new LinkedHashSet<String>();
+		this.overridingMethodMap = new IntHashMap<IntLinkedSet>();
+		this.methodInvocationThroughReferenceMap = new IntHashMap<HashMap<PlainVariable, IntLinkedSet>>();
+		this.abstractMethodSet = new BitSet();
+		this.nativeMethodSet = new BitSet();
+		this.definedFieldSummaryMap = new IntHashMap<LinkedHashSet<PlainVariable>>();
+		this.usedFieldSummaryMap = new IntHashMap<LinkedHashSet<PlainVariable>>();
 	}
 	
-	public Set<IType> getSubTypes(IType superType) {
+	public synchronized Set<IType> getSubTypes(IType superType) {
+		//the subtypes of the types declared in the examined project are found in the type hierarchy index without searching,
+		//unless the type has anonymous subclasses, which are not indexed
+		SystemObject systemObject = ASTReader.getSystemObject();
+		if(systemObject != null) {
+			TypeHierarchyIndex typeHierarchyIndex = systemObject.getTypeHierarchyIndex();
+			String superTypeName = superType.getFullyQualifiedName('.');
+			if(typeHierarchyIndex.containsClass(superTypeName) && !typeHierarchyIndex.hasAnonymousSubTypes(superTypeName))
+				return typeHierarchyIndex.getSubTypes(superType, ASTReader.getExaminedProject());
+		}
 		if(subTypeMap.containsKey(superType)) {
 			Set<IType> subTypes = subTypeMap.get(superType);
 			LinkedHashSet<IType> subTypesOfAbstractSubTypes = new LinkedHashSet<IType>();
@@ -103,128 +127,116 @@ public class Indexer {
 		}
 	}
 	
-	public void addInvokedMethod(MethodDeclaration originalMethod, MethodDeclaration invokedMethod) {
-		String originalMethodBindingKey = originalMethod.resolveBinding().getKey();
-		String invokedMethodBindingKey = invokedMethod.resolveBinding().getKey();
+	public synchronized void addInvokedMethod(MethodDeclaration originalMethod, MethodDeclaration invokedMethod) {
+		int originalMethodId = BindingKeyTable.getId(originalMethod.resolveBinding());
+		int invokedMethodId = BindingKeyTable.getId(invokedMethod.resolveBinding());
 		//check if the invoked method is abstract or native
 		if(invokedMethod.getBody() == null)
-			abstractMethodSet.add(invokedMethodBindingKey);
+			abstractMethodSet.set(invokedMethodId);
 		if((invokedMethod.getModifiers() & Modifier.NATIVE) != 0)
-			nativeMethodSet.add(invokedMethodBindingKey);
-		if(methodInvocationMap.containsKey(originalMethodBindingKey)) {
-			LinkedHashSet<String> invokedMethods = methodInvocationMap.get(originalMethodBindingKey);
-			invokedMethods.add(invokedMethodBindingKey);
-		}
-		else {
-			LinkedHashSet<String> invokedMethods = new LinkedHashSet<String>();
-			invokedMethods.add(invokedMethodBindingKey);
-			methodInvocationMap.put(originalMethodBindingKey, invokedMethods);
+			nativeMethodSet.set(invokedMethodId);
+		clearFieldSummaries();
+		IntLinkedSet invokedMethods = methodInvocationMap.get(originalMethodId);
+		if(invokedMethods == null) {
+			invokedMethods = new IntLinkedSet();
+			methodInvocationMap.put(originalMethodId, invokedMethods);
 		}
+		invokedMethods.add(invokedMethodId);
 	}
 	
-	public void addInvokedMethodThroughReference(MethodDeclaration originalMethod, MethodDeclaration invokedMethod, PlainVariable fieldReference) {
-		String originalMethodBindingKey = originalMethod.resolveBinding().getKey();
-		String invokedMethodBindingKey = invokedMethod.resolveBinding().getKey();
+	public synchronized void addInvokedMethodThroughReference(MethodDeclaration originalMethod, MethodDeclaration invokedMethod, PlainVariable fieldReference) {
+		int originalMethodId = BindingKeyTable.getId(originalMethod.resolveBinding());
+		int invokedMethodId = BindingKeyTable.getId(invokedMethod.resolveBinding());
 		//check if the invoked method is abstract or native
 		if(invokedMethod.getBody() == null)
-			abstractMethodSet.add(invokedMethodBindingKey);
+			abstractMethodSet.set(invokedMethodId);
 		if((invokedMethod.getModifiers() & Modifier.NATIVE) != 0)
-			nativeMethodSet.add(invokedMethodBindingKey);
-		if(methodInvocationThroughReferenceMap.containsKey(originalMethodBindingKey)) {
-			HashMap<PlainVariable, LinkedHashSet<String>> invokedMethodsThroughReference = methodInvocationThroughReferenceMap.get(originalMethodBindingKey);
-			if(invokedMethodsThroughReference.containsKey(fieldReference)) {
-				LinkedHashSet<String> invokedMethods = invokedMethodsThroughReference.get(fieldReference);
-				invokedMethods.add(invokedMethodBindingKey);
-			}
-			else {
-				LinkedHashSet<String> invokedMethods = new LinkedHashSet<String>();
-				invokedMethods.add(invokedMethodBindingKey);
-				invokedMethodsThroughReference.put(fieldReference, invokedMethods);
-			}
+			nativeMethodSet.set(invokedMethodId);
+		HashMap<PlainVariable, IntLinkedSet> invokedMethodsThroughReference = methodInvocationThroughReferenceMap.get(originalMethodId);
+		if(invokedMethodsThroughReference == null) {
+			invokedMethodsThroughReference = new HashMap<PlainVariable, IntLinkedSet>();
+			methodInvocationThroughReferenceMap.put(originalMethodId, invokedMethodsThroughReference);
 		}
-		else {
-			LinkedHashSet<String> invokedMethods = new LinkedHashSet<String>();
-			invokedMethods.add(invokedMethodBindingKey);
-			HashMap<PlainVariable, LinkedHashSet<String>> invokedMethodsThroughReference = new HashMap<PlainVariable, LinkedHashSet<String>>();
+		IntLinkedSet invokedMethods = invokedMethodsThroughReference.get(fieldReference);
+		if(invokedMethods == null) {
+			invokedMethods = new IntLinkedSet();
 			invokedMethodsThroughReference.put(fieldReference, invokedMethods);
-			methodInvocationThroughReferenceMap.put(originalMethodBindingKey, invokedMethodsThroughReference);
 		}
+		invokedMethods.add(invokedMethodId);
 	}
 	
-	public Set<PlainVariable> getInvocationReferences(String originalMethodBindingKey) {
-		//String originalMethodBindingKey = originalMethod.resolveBinding().getKey();
-		if(methodInvocationThroughReferenceMap.containsKey(originalMethodBindingKey)) {
-			HashMap<PlainVariable, LinkedHashSet<String>> invokedMethodsThroughReference = methodInvocationThroughReferenceMap.get(originalMethodBindingKey);
-			return invokedMethodsThroughReference.keySet();
+	public synchronized Set<PlainVariable> getInvocationReferences(int originalMethodId) {
+		HashMap<PlainVariable, IntLinkedSet> invokedMethodsThroughReference = methodInvocationThroughReferenceMap.get(originalMethodId);
+		if(invokedMethodsThroughReference != null) {
+			return new LinkedHashSet<PlainVariable>(invokedMethodsThroughReference.keySet());
 		}
 		return null;
 	}
 	
-	public void addOverridingMethod(MethodDeclaration abstractMethod, MethodDeclaration overridingMethod) {
-		String abstractMethodBindingKey = abstractMethod.resolveBinding().getKey();
-		String overridingMethodBindingKey = overridingMethod.resolveBinding().getKey();
+	public synchronized void addOverridingMethod(MethodDeclaration abstractMethod, MethodDeclaration overridingMethod) {
+		int abstractMethodId = BindingKeyTable.getId(abstractMethod.resolveBinding());
+		int overridingMethodId = BindingKeyTable.getId(overridingMethod.resolveBinding());
 		//check if the overriding method is abstract or native
 		if(overridingMethod.getBody() == null)
-			abstractMethodSet.add(overridingMethodBindingKey);
+			abstractMethodSet.set(overridingMethodId);
 		if((overridingMethod.getModifiers() & Modifier.NATIVE) != 0)
-			nativeMethodSet.add(overridingMethodBindingKey);
-		if(overridingMethodMap.containsKey(abstractMethodBindingKey)) {
-			LinkedHashSet<String> overridingMethods = overridingMethodMap.get(abstractMethodBindingKey);
-			overridingMethods.add(overridingMethodBindingKey);
-		}
-		else {
-			LinkedHashSet<String> overridingMethods = new LinkedHashSet<String>();
-			overridingMethods.add(overridingMethodBindingKey);
-			overridingMethodMap.put(abstractMethodBindingKey, overridingMethods);
+			nativeMethodSet.set(overridingMethodId);
+		clearFieldSummaries();
+		IntLinkedSet overridingMethods = overridingMethodMap.get(abstractMethodId);
+		if(overridingMethods == null) {
+			overridingMethods = new IntLinkedSet();
+			overridingMethodMap.put(abstractMethodId, overridingMethods);
 		}
+		overridingMethods.add(overridingMethodId);
 	}
 	
-	public void setDefinedFields(MethodDeclaration method, LinkedHashSet<PlainVariable> fields) {
-		String methodBindingKey = method.resolveBinding().getKey();
-		definedFieldMap.put(methodBindingKey, fields);
+	public synchronized void setDefinedFields(MethodDeclaration method, LinkedHashSet<PlainVariable> fields) {
+		definedFieldMap.put(BindingKeyTable.getId(method.resolveBinding()), fields);
+		clearFieldSummaries();
 	}
 	
-	public void setUsedFields(MethodDeclaration method, LinkedHashSet<PlainVariable> fields) {
-		String methodBindingKey = method.resolveBinding().getKey();
-		usedFieldMap.put(methodBindingKey, fields);
+	public synchronized void setUsedFields(MethodDeclaration method, LinkedHashSet<PlainVariable> fields) {
+		usedFieldMap.put(BindingKeyTable.getId(method.resolveBinding()), fields);
+		clearFieldSummaries();
 	}
 	
-	public boolean isAnalyzed(String methodBindingKey) {
-		//String methodBindingKey = method.resolveBinding().getKey();
-		if(definedFieldMap.containsKey(methodBindingKey) && usedFieldMap.containsKey(methodBindingKey))
+	public synchronized boolean isAnalyzed(int methodId) {
+		if(definedFieldMap.containsKey(methodId) && usedFieldMap.containsKey(methodId))
 			return true;
 		else
 			return false;
 	}
 	
-	public LinkedHashSet<PlainVariable> getRecursivelyDefinedFields(String methodBindingKey,
-			Set<String> processedMethods) {
+	public synchronized LinkedHashSet<PlainVariable> getRecursivelyDefinedFields(int methodId, BitSet processedMethods) {
 		LinkedHashSet<PlainVariable> definedFields = new LinkedHashSet<PlainVariable>();
-		if(definedFieldMap.containsKey(methodBindingKey))
-			definedFields.addAll(definedFieldMap.get(methodBindingKey));
-		processedMethods.add(methodBindingKey);
-		LinkedHashSet<String> invokedMethods = methodInvocationMap.get(methodBindingKey);
+		LinkedHashSet<PlainVariable> fields = definedFieldMap.get(methodId);
+		if(fields != null)
+			definedFields.addAll(fields);
+		processedMethods.set(methodId);
+		IntLinkedSet invokedMethods = methodInvocationMap.get(methodId);
 		if(invokedMethods != null) {
-			for(String invokedMethodBindingKey : invokedMethods) {
-				if(!processedMethods.contains(invokedMethodBindingKey)) {
-					if(!abstractMethodSet.contains(invokedMethodBindingKey)) {
-						if(nativeMethodSet.contains(invokedMethodBindingKey)) {
+			for(int i=0; i<invokedMethods.size(); i++) {
+				int invokedMethodId = invokedMethods.get(i);
+				if(!processedMethods.get(invokedMethodId)) {
+					if(!abstractMethodSet.get(invokedMethodId)) {
+						if(nativeMethodSet.get(invokedMethodId)) {
 							//method is native
 						}
 						else {
-							definedFields.addAll(getRecursivelyDefinedFields(invokedMethodBindingKey, processedMethods));
+							definedFields.addAll(getRecursivelyDefinedFields(invokedMethodId, processedMethods));
 						}
 					}
 					else {
-						LinkedHashSet<String> overridingMethods = overridingMethodMap.get(invokedMethodBindingKey);
-						processedMethods.add(invokedMethodBindingKey);
+						IntLinkedSet overridingMethods = overridingMethodMap.get(invokedMethodId);
+						processedMethods.set(invokedMethodId);
 						if(overridingMethods != null) {
-							for(String overridingMethodBindingKey : overridingMethods) {
-								if(nativeMethodSet.contains(overridingMethodBindingKey)) {
+							for(int j=0; j<overridingMethods.size(); j++) {
+								int overridingMethodId = overridingMethods.get(j);
+								if(nativeMethodSet.get(overridingMethodId)) {
 									//method is native
 								}
 								else {
-									definedFields.addAll(getRecursivelyDefinedFields(overridingMethodBindingKey, processedMethods));
+									definedFields.addAll(getRecursivelyDefinedFields(overridingMethodId, processedMethods));
 								}
 							}
 						}
@@ -235,34 +247,36 @@ public class Indexer {
 		return definedFields;
 	}
 	
-	public LinkedHashSet<PlainVariable> getRecursivelyUsedFields(String methodBindingKey,
-			Set<String> processedMethods) {
+	public synchronized LinkedHashSet<PlainVariable> getRecursivelyUsedFields(int methodId, BitSet processedMethods) {
 		LinkedHashSet<PlainVariable> usedFields = new LinkedHashSet<PlainVariable>();
-		if(usedFieldMap.containsKey(methodBindingKey))
-			usedFields.addAll(usedFieldMap.get(methodBindingKey));
-		processedMethods.add(methodBindingKey);
-		LinkedHashSet<String> invokedMethods = methodInvocationMap.get(methodBindingKey);
+		LinkedHashSet<PlainVariable> fields = usedFieldMap.get(methodId);
+		if(fields != null)
+			usedFields.addAll(fields);
+		processedMethods.set(methodId);
+		IntLinkedSet invokedMethods = methodInvocationMap.get(methodId);
 		if(invokedMethods != null) {
-			for(String invokedMethodBindingKey : invokedMethods) {
-				if(!processedMethods.contains(invokedMethodBindingKey)) {
-					if(!abstractMethodSet.contains(invokedMethodBindingKey)) {
-						if(nativeMethodSet.contains(invokedMethodBindingKey)) {
+			for(int i=0; i<invokedMethods.size(); i++) {
+				int invokedMethodId = invokedMethods.get(i);
+				if(!processedMethods.get(invokedMethodId)) {
+					if(!abstractMethodSet.get(invokedMethodId)) {
+						if(nativeMethodSet.get(invokedMethodId)) {
 							//method is native
 						}
 						else {
-							usedFields.addAll(getRecursivelyUsedFields(invokedMethodBindingKey, processedMethods));
+							usedFields.addAll(getRecursivelyUsedFields(invokedMethodId, processedMethods));
 						}
 					}
 					else {
-						LinkedHashSet<String> overridingMethods = overridingMethodMap.get(invokedMethodBindingKey);
-						processedMethods.add(invokedMethodBindingKey);
+						IntLinkedSet overridingMethods = overridingMethodMap.get(invokedMethodId);
+						processedMethods.set(invokedMethodId);
 						if(overridingMethods != null) {
-							for(String overridingMethodBindingKey : overridingMethods) {
-								if(nativeMethodSet.contains(overridingMethodBindingKey)) {
+							for(int j=0; j<overridingMethods.size(); j++) {
+								int overridingMethodId = overridingMethods.get(j);
+								if(nativeMethodSet.get(overridingMethodId)) {
 									//method is native
 								}
 								else {
-									usedFields.addAll(getRecursivelyUsedFields(overridingMethodBindingKey, processedMethods));
+									usedFields.addAll(getRecursivelyUsedFields(overridingMethodId, processedMethods));
 								}
 							}
 						}
@@ -273,40 +287,159 @@ public class Indexer {
 		return usedFields;
 	}
 	
-	public LinkedHashSet<AbstractVariable> getRecursivelyDefinedFieldsThroughReference(String methodBindingKey,
-			AbstractVariable fieldReference, Set<String> processedMethods) {
-		LinkedHashSet<AbstractVariable> definedFields = new LinkedHashSet<AbstractVariable>();
-		processedMethods.add(methodBindingKey);
-		HashMap<PlainVariable, LinkedHashSet<String>> invokedMethodsThroughReference = methodInvocationThroughReferenceMap.get(methodBindingKey);
-		if(invokedMethodsThroughReference != null) {
-			PlainVariable reference = null;
-			if(fieldReference instanceof PlainVariable) {
-				reference = (PlainVariable)fieldReference;
+	//the same fields as getRecursivelyDefinedFields(methodId, new BitSet()), but an abstract method invoked
+	//after being reached as an overriding method is always expanded to its own overriding methods
+	public synchronized LinkedHashSet<PlainVariable> getRecursivelyDefinedFields(int methodId) {
+		if(!definedFieldSummaryMap.containsKey(methodId))
+			computeFieldSummaries(methodId);
+		return new LinkedHashSet<PlainVariable>(definedFieldSummaryMap.get(methodId));
+	}
+	
+	public synchronized LinkedHashSet<PlainVariable> getRecursivelyUsedFields(int methodId) {
+		if(!usedFieldSummaryMap.containsKey(methodId))
+			computeFieldSummaries(methodId);
+		return new LinkedHashSet<PlainVariable>(usedFieldSummaryMap.get(methodId));
+	}
+	
+	//the index is keyed on BindingKeyTable ids, so it is cleared whenever the ids are released
+	public synchronized void clearIndex() {
+		methodInvocationMap.clear();
+		definedFieldMap.clear();
+		usedFieldMap.clear();
+		overridingMethodMap.clear();
+		methodInvocationThroughReferenceMap.clear();
+		abstractMethodSet.clear();
+		nativeMethodSet.clear();
+		clearFieldSummaries();
+	}
+	
+	private void clearFieldSummaries() {
+		definedFieldSummaryMap.clear();
+		usedFieldSummaryMap.clear();
+	}
+	
+	//the methods whose fields are recursively collected by a method, abstract invoked methods are replaced by their overriding methods
+	private IntLinkedSet getSummarySuccessors(int methodId) {
+		IntLinkedSet successors = new IntLinkedSet();
+		IntLinkedSet invokedMethods = methodInvocationMap.get(methodId);
+		if(invokedMethods != null) {
+			for(int i=0; i<invokedMethods.size(); i++) {
+				int invokedMethodId = invokedMethods.get(i);
+				if(!abstractMethodSet.get(invokedMethodId)) {
+					if(!nativeMethodSet.get(invokedMethodId))
+						successors.add(invokedMethodId);
+				}
+				else {
+					IntLinkedSet overridingMethods = overridingMethodMap.get(invokedMethodId);
+					if(overridingMethods != null) {
+						for(int j=0; j<overridingMethods.size(); j++) {
+							int overridingMethodId = overridingMethods.get(j);
+							if(!nativeMethodSet.get(overridingMethodId))
+								successors.add(overridingMethodId);
+						}
+					}
+				}
+			}
+		}
+		return successors;
+	}
+	
+	/*
+	 * Condenses the part of the call graph reachable from the method, which has not been summarized yet, into its strongly connected components.
+	 * The components are visited bottom-up, so the fields of a component are the fields of its methods
+	 * together with the already computed fields of the components invoked by its methods,
+	 * and all the methods of a component share the same fields.
+	 */
+	private void computeFieldSummaries(int methodId) {
+		IntHashMap<MethodNode> nodeMap = new IntHashMap<MethodNode>();
+		AdjacencyList adjacencyList = new AdjacencyList();
+		List<MethodNode> workList = new ArrayList<MethodNode>();
+		MethodNode methodNode = new MethodNode(methodId);
+		nodeMap.put(methodId, methodNode);
+		workList.add(methodNode);
+		while(!workList.isEmpty()) {
+			MethodNode node = workList.remove(workList.size()-1);
+			IntLinkedSet successors = getSummarySuccessors(node.methodId);
+			for(int i=0; i<successors.size(); i++) {
+				int successor = successors.get(i);
+				if(!definedFieldSummaryMap.containsKey(successor)) {
+					MethodNode successorNode = nodeMap.get(successor);
+					if(successorNode == null) {
+						//the same node instance has to be used for every edge, since Tarjan's algorithm keeps its state in the nodes
+						successorNode = new MethodNode(successor);
+						nodeMap.put(successor, successorNode);
+						workList.add(successorNode);
+					}
+					adjacencyList.addEdge(node, successorNode, 1);
+				}
 			}
-			else if(fieldReference instanceof CompositeVariable) {
-				CompositeVariable composite = (CompositeVariable)fieldReference;
-				reference = composite.getFinalVariable();
+		}
+		List<LinkedHashSet<Node>> components = new ArrayList<LinkedHashSet<Node>>();
+		if(adjacencyList.getSourceNodeSet().isEmpty()) {
+			LinkedHashSet<Node> component = new LinkedHashSet<Node>();
+			component.add(methodNode);
+			components.add(component);
+		}
+		else {
+			TarjanAlgorithm tarjan = new TarjanAlgorithm(adjacencyList);
+			components.addAll(tarjan.getStronglyConnectedComponents());
+		}
+		for(LinkedHashSet<Node> component : components) {
+			LinkedHashSet<PlainVariable> definedFields = new LinkedHashSet<PlainVariable>();
+			LinkedHashSet<PlainVariable> usedFields = new LinkedHashSet<PlainVariable>();
+			for(Node node : component) {
+				int id = ((MethodNode)node).methodId;
+				if(definedFieldMap.containsKey(id))
+					definedFields.addAll(definedFieldMap.get(id));
+				if(usedFieldMap.containsKey(id))
+					usedFields.addAll(usedFieldMap.get(id));
+			}
+			for(Node node : component) {
+				IntLinkedSet successors = getSummarySuccessors(((MethodNode)node).methodId);
+				for(int i=0; i<successors.size(); i++) {
+					int successor = successors.get(i);
+					//the successors in the same component have not been summarized yet
+					if(definedFieldSummaryMap.containsKey(successor)) {
+						definedFields.addAll(definedFieldSummaryMap.get(successor));
+						usedFields.addAll(usedFieldSummaryMap.get(successor));
+					}
+				}
+			}
+			for(Node node : component) {
+				int id = ((MethodNode)node).methodId;
+				definedFieldSummaryMap.put(id, definedFields);
+				usedFieldSummaryMap.put(id, usedFields);
 			}
-			LinkedHashSet<String> invokedMethods = invokedMethodsThroughReference.get(reference);
+		}
+	}
+	
+	public synchronized LinkedHashSet<AbstractVariable> getRecursivelyDefinedFieldsThroughReference(int methodId,
+			AbstractVariable fieldReference, BitSet processedMethods) {
+		LinkedHashSet<AbstractVariable> definedFields = new LinkedHashSet<AbstractVariable>();
+		processedMethods.set(methodId);
+		HashMap<PlainVariable, IntLinkedSet> invokedMethodsThroughReference = methodInvocationThroughReferenceMap.get(methodId);
+		if(invokedMethodsThroughReference != null) {
+			IntLinkedSet invokedMethods = invokedMethodsThroughReference.get(getReference(fieldReference));
 			if(invokedMethods != null) {
-				for(String invokedMethodBindingKey : invokedMethods) {
-					if(!processedMethods.contains(invokedMethodBindingKey)) {
-						if(nativeMethodSet.contains(invokedMethodBindingKey)) {
+				for(int i=0; i<invokedMethods.size(); i++) {
+					int invokedMethodId = invokedMethods.get(i);
+					if(!processedMethods.get(invokedMethodId)) {
+						if(nativeMethodSet.get(invokedMethodId)) {
 							//method is native
 						}
 						else {
-							LinkedHashSet<PlainVariable> definedFieldsInInvokedMethod = definedFieldMap.get(invokedMethodBindingKey);
+							LinkedHashSet<PlainVariable> definedFieldsInInvokedMethod = definedFieldMap.get(invokedMethodId);
 							if(definedFieldsInInvokedMethod != null) {
 								for(PlainVariable rightSide : definedFieldsInInvokedMethod) {
 									AbstractVariable definedField = composeVariable(fieldReference, rightSide);
 									definedFields.add(definedField);
 								}
 							}
-							LinkedHashSet<PlainVariable> usedFieldsInInvokedMethod = usedFieldMap.get(invokedMethodBindingKey);
+							LinkedHashSet<PlainVariable> usedFieldsInInvokedMethod = usedFieldMap.get(invokedMethodId);
 							if(usedFieldsInInvokedMethod != null) {
 								for(PlainVariable rightSide : usedFieldsInInvokedMethod) {
 									AbstractVariable usedField = composeVariable(fieldReference, rightSide);
-									definedFields.addAll(getRecursivelyDefinedFieldsThroughReference(invokedMethodBindingKey, usedField, processedMethods));
+									definedFields.addAll(getRecursivelyDefinedFieldsThroughReference(invokedMethodId, usedField, processedMethods));
 								}
 							}
 						}
@@ -317,34 +450,27 @@ public class Indexer {
 		return definedFields;
 	}
 	
-	public LinkedHashSet<AbstractVariable> getRecursivelyUsedFieldsThroughReference(String methodBindingKey,
-			AbstractVariable fieldReference, Set<String> processedMethods) {
+	public synchronized LinkedHashSet<AbstractVariable> getRecursivelyUsedFieldsThroughReference(int methodId,
+			AbstractVariable fieldReference, BitSet processedMethods) {
 		LinkedHashSet<AbstractVariable> usedFields = new LinkedHashSet<AbstractVariable>();
-		processedMethods.add(methodBindingKey);
-		HashMap<PlainVariable, LinkedHashSet<String>> invokedMethodsThroughReference = methodInvocationThroughReferenceMap.get(methodBindingKey);
+		processedMethods.set(methodId);
+		HashMap<PlainVariable, IntLinkedSet> invokedMethodsThroughReference = methodInvocationThroughReferenceMap.get(methodId);
 		if(invokedMethodsThroughReference != null) {
-			PlainVariable reference = null;
-			if(fieldReference instanceof PlainVariable) {
-				reference = (PlainVariable)fieldReference;
-			}
-			else if(fieldReference instanceof CompositeVariable) {
-				CompositeVariable composite = (CompositeVariable)fieldReference;
-				reference = composite.getFinalVariable();
-			}
-			LinkedHashSet<String> invokedMethods = invokedMethodsThroughReference.get(reference);
+			IntLinkedSet invokedMethods = invokedMethodsThroughReference.get(getReference(fieldReference));
 			if(invokedMethods != null) {
-				for(String invokedMethod : invokedMethods) {
-					if(!processedMethods.contains(invokedMethod)) {
-						if(nativeMethodSet.contains(invokedMethod)) {
+				for(int i=0; i<invokedMethods.size(); i++) {
+					int invokedMethodId = invokedMethods.get(i);
+					if(!processedMethods.get(invokedMethodId)) {
+						if(nativeMethodSet.get(invokedMethodId)) {
 							//method is native
 						}
 						else {
-							LinkedHashSet<PlainVariable> usedFieldsInInvokedMethod = usedFieldMap.get(invokedMethod);
+							LinkedHashSet<PlainVariable> usedFieldsInInvokedMethod = usedFieldMap.get(invokedMethodId);
 							if(usedFieldsInInvokedMethod != null) {
 								for(PlainVariable rightSide : usedFieldsInInvokedMethod) {
 									AbstractVariable usedField = composeVariable(fieldReference, rightSide);
 									usedFields.add(usedField);
-									usedFields.addAll(getRecursivelyUsedFieldsThroughReference(invokedMethod, usedField, processedMethods));
+									usedFields.addAll(getRecursivelyUsedFieldsThroughReference(invokedMethodId, usedField, processedMethods));
 								}
 							}
 						}
@@ -355,6 +481,18 @@ public class Indexer {
 		return usedFields;
 	}
 	
+	private PlainVariable getReference(AbstractVariable fieldReference) {
+		PlainVariable reference = null;
+		if(fieldReference instanceof PlainVariable) {
+			reference = (PlainVariable)fieldReference;
+		}
+		else if(fieldReference instanceof CompositeVariable) {
+			CompositeVariable composite = (CompositeVariable)fieldReference;
+			reference = composite.getFinalVariable();
+		}
+		return reference;
+	}
+	
 	private AbstractVariable composeVariable(AbstractVariable leftSide, AbstractVariable rightSide) {
 		if(leftSide instanceof CompositeVariable) {
 			CompositeVariable leftSideCompositeVariable = (CompositeVariable)leftSide;
@@ -369,4 +507,14 @@ public class Indexer {
 					leftSide.getVariableType(), leftSide.isField(), leftSide.isParameter(), rightSide);
 		}
 	}
+
+	//a call graph node of Tarjan's algorithm carrying the id of its method
+	private static class MethodNode extends Node {
+		private final int methodId;
+		
+		private MethodNode(int methodId) {
+			super(String.valueOf(methodId));
+			this.methodId = methodId;
+		}
+	}
 }
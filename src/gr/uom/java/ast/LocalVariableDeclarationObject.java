@@ -1,15 +1,18 @@
 package gr.uom.java.ast;
 
+import java.io.Serializable;
+
 import org.eclipse.jdt.core.dom.ASTNode;
 import org.eclipse.jdt.core.dom.SimpleName;
 import org.eclipse.jdt.core.dom.VariableDeclaration;
 
-public class LocalVariableDeclarationObject implements VariableDeclarationObject {
+public class LocalVariableDeclarationObject implements VariableDeclarationObject, Serializable {
+	private static final long serialVersionUID = 1L;
 	private TypeObject type;
     private String name;
     //private VariableDeclaration variableDeclaration;
     private ASTInformation variableDeclaration;
-    private volatile int hashCode = 0;
+    private transient volatile int hashCode = 0;
 
     public LocalVariableDeclarationObject(TypeObject type, String name) {
         this.type = type;
@@ -1,15 +1,18 @@
 package gr.uom.java.ast;
 
+import java.io.Serializable;
+
 import org.eclipse.jdt.core.dom.ASTNode;
 import org.eclipse.jdt.core.dom.QualifiedName;
 import org.eclipse.jdt.core.dom.SimpleName;
 
-public class LocalVariableInstructionObject {
+public class LocalVariableInstructionObject implements Serializable {
+	private static final long serialVersionUID = 1L;
 	private TypeObject type;
     private String name;
     //private SimpleName simpleName;
     private ASTInformation simpleName;
-    private volatile int hashCode = 0;
+    private transient volatile int hashCode = 0;
 
     public LocalVariableInstructionObject(TypeObject type, String name) {
         this.type = type;
@@ -0,0 +1,82 @@
+package gr.uom.java.ast;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/*
+ * An inverted index of the classes of a SystemObject, from every method invocation, super method invocation and field instruction
+ * to the classes having a method that contains it. It answers the same queries as ClassObject.containsMethodInvocation,
+ * containsSuperMethodInvocation and containsFieldInstruction over all the classes of the system, without visiting the classes.
+ * ClassObject does not override equals, so the classes are kept by identity, like the excluded class of the queries.
+ */
+public class MemberAccessIndex {
+	private Map<MethodInvocationObject, Set<ClassObject>> methodInvocationMap;
+	private Map<SuperMethodInvocationObject, Set<ClassObject>> superMethodInvocationMap;
+	private Map<FieldInstructionObject, Set<ClassObject>> fieldInstructionMap;
+
+	public MemberAccessIndex() {
+		this.methodInvocationMap = new HashMap<MethodInvocationObject, Set<ClassObject>>();
+		this.superMethodInvocationMap = new HashMap<SuperMethodInvocationObject, Set<ClassObject>>();
+		this.fieldInstructionMap = new HashMap<FieldInstructionObject, Set<ClassObject>>();
+	}
+
+	public void addClass(ClassObject classObject) {
+		for(MethodObject method : classObject.getMethodList()) {
+			for(MethodInvocationObject methodInvocation : method.getMethodInvocations())
+				add(methodInvocationMap, methodInvocation, classObject);
+			for(SuperMethodInvocationObject superMethodInvocation : method.getSuperMethodInvocations())
+				add(superMethodInvocationMap, superMethodInvocation, classObject);
+			for(FieldInstructionObject fieldInstruction : method.getFieldInstructions())
+				add(fieldInstructionMap, fieldInstruction, classObject);
+		}
+	}
+
+	public void removeClass(ClassObject classObject) {
+		for(MethodObject method : classObject.getMethodList()) {
+			for(MethodInvocationObject methodInvocation : method.getMethodInvocations())
+				remove(methodInvocationMap, methodInvocation, classObject);
+			for(SuperMethodInvocationObject superMethodInvocation : method.getSuperMethodInvocations())
+				remove(superMethodInvocationMap, superMethodInvocation, classObject);
+			for(FieldInstructionObject fieldInstruction : method.getFieldInstructions())
+				remove(fieldInstructionMap, fieldInstruction, classObject);
+		}
+	}
+
+	private static <K> void add(Map<K, Set<ClassObject>> map, K key, ClassObject classObject) {
+		Set<ClassObject> classes = map.get(key);
+		if(classes == null) {
+			classes = new HashSet<ClassObject>(2);
+			map.put(key, classes);
+		}
+		classes.add(classObject);
+	}
+
+	private static <K> void remove(Map<K, Set<ClassObject>> map, K key, ClassObject classObject) {
+		Set<ClassObject> classes = map.get(key);
+		if(classes != null) {
+			classes.remove(classObject);
+			if(classes.isEmpty())
+				map.remove(key);
+		}
+	}
+
+	private static boolean containsOtherClass(Set<ClassObject> classes, ClassObject excludedClass) {
+		if(classes == null)
+			return false;
+		return classes.size() > 1 || !classes.contains(excludedClass);
+	}
+
+	public boolean containsMethodInvocation(MethodInvocationObject methodInvocation, ClassObject excludedClass) {
+		return containsOtherClass(methodInvocationMap.get(methodInvocation), excludedClass);
+	}
+
+	public boolean containsFieldInstruction(FieldInstructionObject fieldInstruction, ClassObject excludedClass) {
+		return containsOtherClass(fieldInstructionMap.get(fieldInstruction), excludedClass);
+	}
+
+	public boolean containsSuperMethodInvocation(SuperMethodInvocationObject superMethodInvocation) {
+		return superMethodInvocationMap.containsKey(superMethodInvocation);
+	}
+}
@@ -0,0 +1,42 @@
+package gr.uom.java.ast;
+
+import gr.uom.java.ast.decomposition.cfg.AbstractVariable;
+import gr.uom.java.ast.decomposition.cfg.MethodCallSummary;
+import gr.uom.java.ast.util.IntHashMap;
+
+import java.util.HashMap;
+
+/*
+ * The summaries of the methods of a SystemObject, computed by MethodCallAnalyzer for every method and variable through which the method is invoked.
+ * A summary depends on the methods reachable from the method, so all the summaries are discarded whenever a class of the system is added, replaced or removed.
+ */
+public class MethodCallSummaryIndex {
+	//int key corresponds to the BindingKeyTable id of MethodDeclaration.resolveBinding.getKey(), AbstractVariable key is the variable through which the method is invoked (null for this)
+	private IntHashMap<HashMap<AbstractVariable, MethodCallSummary>> summaryMap;
+
+	public MethodCallSummaryIndex() {
+		this.summaryMap = new IntHashMap<HashMap<AbstractVariable, MethodCallSummary>>();
+	}
+
+	//returns null if the method has not been summarized for the variable
+	public synchronized MethodCallSummary get(MethodObject methodObject, AbstractVariable variable) {
+		HashMap<AbstractVariable, MethodCallSummary> variableMap = summaryMap.get(methodObject.getBindingKeyId());
+		if(variableMap != null)
+			return variableMap.get(variable);
+		return null;
+	}
+
+	public synchronized void put(MethodObject methodObject, AbstractVariable variable, MethodCallSummary summary) {
+		int methodId = methodObject.getBindingKeyId();
+		HashMap<AbstractVariable, MethodCallSummary> variableMap = summaryMap.get(methodId);
+		if(variableMap == null) {
+			variableMap = new HashMap<AbstractVariable, MethodCallSummary>();
+			summaryMap.put(methodId, variableMap);
+		}
+		variableMap.put(variable, summary);
+	}
+
+	public synchronized void clear() {
+		summaryMap.clear();
+	}
+}
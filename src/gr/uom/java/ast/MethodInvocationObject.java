@@ -5,6 +5,7 @@ import java.util.List;
 import org.eclipse.jdt.core.dom.MethodInvocation;
 
 public class MethodInvocationObject extends AbstractMethodInvocationObject {
+    private static final long serialVersionUID = 1L;
 
     public MethodInvocationObject(String originClassName, String methodName, TypeObject returnType) {
         super(originClassName, methodName, returnType);
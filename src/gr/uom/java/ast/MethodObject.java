@@ -6,8 +6,10 @@ import gr.uom.java.ast.decomposition.MethodBodyObject;
 import gr.uom.java.ast.decomposition.StatementObject;
 import gr.uom.java.ast.decomposition.cfg.AbstractVariable;
 import gr.uom.java.ast.decomposition.cfg.PlainVariable;
+import gr.uom.java.ast.util.BindingKeyTable;
 import gr.uom.java.ast.util.MethodDeclarationUtility;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -36,7 +38,8 @@ import org.eclipse.jdt.core.dom.Statement;
 import org.eclipse.jdt.core.dom.ThisExpression;
 import org.eclipse.jdt.core.dom.TypeDeclaration;
 
-public class MethodObject implements AbstractMethodDeclaration {
+public class MethodObject implements AbstractMethodDeclaration, Serializable {
+    private static final long serialVersionUID = 1L;
 
     private TypeObject returnType;
     private boolean _abstract;
@@ -45,7 +48,9 @@ public class MethodObject implements AbstractMethodDeclaration {
     private boolean _native;
     private ConstructorObject constructorObject;
     private boolean testAnnotation;
-    private volatile int hashCode = 0;
+    private transient volatile int hashCode = 0;
+    //the versioned BindingKeyTable id of the method binding key, resolved on first use and whenever the table has been cleared
+    private transient volatile long bindingKeyId = BindingKeyTable.NO_ID;
 
     public MethodObject(ConstructorObject co) {
         this.constructorObject = co;
@@ -116,6 +121,15 @@ public class MethodObject implements AbstractMethodDeclaration {
     	return constructorObject.getMethodDeclaration();
     }
 
+    public int getBindingKeyId() {
+    	long versionedId = bindingKeyId;
+    	if(!BindingKeyTable.isCurrent(versionedId)) {
+    		versionedId = BindingKeyTable.getVersionedId(getMethodDeclaration().resolveBinding());
+    		bindingKeyId = versionedId;
+    	}
+    	return BindingKeyTable.getId(versionedId);
+    }
+
     public MethodBodyObject getMethodBody() {
     	return constructorObject.getMethodBody();
     }
@@ -1,15 +1,18 @@
 package gr.uom.java.ast;
 
+import java.io.Serializable;
+
 import org.eclipse.jdt.core.dom.SingleVariableDeclaration;
 import org.eclipse.jdt.core.dom.VariableDeclaration;
 
-public class ParameterObject implements VariableDeclarationObject {
+public class ParameterObject implements VariableDeclarationObject, Serializable {
+	private static final long serialVersionUID = 1L;
 	private TypeObject type;
 	private String name;
 	private boolean varargs;
 	//private SingleVariableDeclaration singleVariableDeclaration;
 	private ASTInformation singleVariableDeclaration;
-	private volatile int hashCode = 0;
+	private transient volatile int hashCode = 0;
 
 	public ParameterObject(TypeObject type, String name, boolean varargs) {
 		this.type = type;
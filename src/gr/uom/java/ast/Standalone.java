@@ -1,22 +1,12 @@
 package gr.uom.java.ast;
 
-import gr.uom.java.ast.decomposition.cfg.CFG;
-import gr.uom.java.ast.decomposition.cfg.PDG;
-import gr.uom.java.ast.decomposition.cfg.PDGObjectSliceUnion;
-import gr.uom.java.ast.decomposition.cfg.PDGObjectSliceUnionCollection;
-import gr.uom.java.ast.decomposition.cfg.PDGSliceUnion;
-import gr.uom.java.ast.decomposition.cfg.PDGSliceUnionCollection;
-import gr.uom.java.ast.decomposition.cfg.PlainVariable;
-import gr.uom.java.ast.util.StatementExtractor;
 import gr.uom.java.distance.DistanceMatrix;
 import gr.uom.java.distance.ExtractClassCandidateRefactoring;
 import gr.uom.java.distance.ExtractClassCandidateGroup;
 import gr.uom.java.distance.MoveMethodCandidateRefactoring;
 import gr.uom.java.distance.MySystem;
-import gr.uom.java.jdeodorant.preferences.PreferenceConstants;
-import gr.uom.java.jdeodorant.refactoring.Activator;
-import gr.uom.java.jdeodorant.refactoring.manipulators.ASTSlice;
 import gr.uom.java.jdeodorant.refactoring.manipulators.ASTSliceGroup;
+import gr.uom.java.jdeodorant.refactoring.manipulators.ASTSliceGroupGenerator;
 import gr.uom.java.jdeodorant.refactoring.manipulators.TypeCheckEliminationGroup;
 
 import java.util.ArrayList;
@@ -24,18 +14,15 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.ListIterator;
 import java.util.Set;
 import java.util.TreeSet;
 
 import org.eclipse.jdt.core.IJavaProject;
-import org.eclipse.jdt.core.ITypeRoot;
-import org.eclipse.jdt.core.dom.VariableDeclaration;
-import org.eclipse.jface.preference.IPreferenceStore;
 
 public class Standalone {
 
-	public static List<MoveMethodCandidateRefactoring> getMoveMethodRefactoringOpportunities(IJavaProject project) {
+	//the project is parsed incrementally if it is the project parsed by the previous analysis
+	public static SystemObject parseProject(IJavaProject project) {
 		CompilationUnitCache.getInstance().clearCache();
 		if(ASTReader.getSystemObject() != null && project.equals(ASTReader.getExaminedProject())) {
 			new ASTReader(project, ASTReader.getSystemObject(), null);
@@ -43,8 +30,14 @@ public class Standalone {
 		else {
 			new ASTReader(project, null);
 		}
-		SystemObject systemObject = ASTReader.getSystemObject();
-		
+		return ASTReader.getSystemObject();
+	}
+
+	public static List<MoveMethodCandidateRefactoring> getMoveMethodRefactoringOpportunities(IJavaProject project) {
+		return getMoveMethodRefactoringOpportunities(parseProject(project));
+	}
+
+	public static List<MoveMethodCandidateRefactoring> getMoveMethodRefactoringOpportunities(SystemObject systemObject) {
 		Set<ClassObject> classObjectsToBeExamined = new LinkedHashSet<ClassObject>();
 		classObjectsToBeExamined.addAll(systemObject.getClassObjects());
 		
@@ -65,15 +58,10 @@ public class Standalone {
 	}
 
 	public static Set<ExtractClassCandidateGroup> getExtractClassRefactoringOpportunities(IJavaProject project) {
-		CompilationUnitCache.getInstance().clearCache();
-		if(ASTReader.getSystemObject() != null && project.equals(ASTReader.getExaminedProject())) {
-			new ASTReader(project, ASTReader.getSystemObject(), null);
-		}
-		else {
-			new ASTReader(project, null);
-		}
-		SystemObject systemObject = ASTReader.getSystemObject();
-		
+		return getExtractClassRefactoringOpportunities(parseProject(project));
+	}
+
+	public static Set<ExtractClassCandidateGroup> getExtractClassRefactoringOpportunities(SystemObject systemObject) {
 		Set<ClassObject> classObjectsToBeExamined = new LinkedHashSet<ClassObject>();
 		classObjectsToBeExamined.addAll(systemObject.getClassObjects());
 		
@@ -108,15 +96,10 @@ public class Standalone {
 	}
 
 	public static Set<TypeCheckEliminationGroup> getTypeCheckEliminationRefactoringOpportunities(IJavaProject project) {
-		CompilationUnitCache.getInstance().clearCache();
-		if(ASTReader.getSystemObject() != null && project.equals(ASTReader.getExaminedProject())) {
-			new ASTReader(project, ASTReader.getSystemObject(), null);
-		}
-		else {
-			new ASTReader(project, null);
-		}
-		SystemObject systemObject = ASTReader.getSystemObject();
-		
+		return getTypeCheckEliminationRefactoringOpportunities(parseProject(project));
+	}
+
+	public static Set<TypeCheckEliminationGroup> getTypeCheckEliminationRefactoringOpportunities(SystemObject systemObject) {
 		Set<ClassObject> classObjectsToBeExamined = new LinkedHashSet<ClassObject>();
 		classObjectsToBeExamined.addAll(systemObject.getClassObjects());
 		
@@ -127,105 +110,15 @@ public class Standalone {
 	}
 
 	public static Set<ASTSliceGroup> getExtractMethodRefactoringOpportunities(IJavaProject project) {
-		CompilationUnitCache.getInstance().clearCache();
-		if(ASTReader.getSystemObject() != null && project.equals(ASTReader.getExaminedProject())) {
-			new ASTReader(project, ASTReader.getSystemObject(), null);
-		}
-		else {
-			new ASTReader(project, null);
-		}
-		SystemObject systemObject = ASTReader.getSystemObject();
-		
+		return getExtractMethodRefactoringOpportunities(parseProject(project));
+	}
+
+	public static Set<ASTSliceGroup> getExtractMethodRefactoringOpportunities(SystemObject systemObject) {
 		Set<ClassObject> classObjectsToBeExamined = new LinkedHashSet<ClassObject>();
 		classObjectsToBeExamined.addAll(systemObject.getClassObjects());
 		
 		Set<ASTSliceGroup> extractedSliceGroups = new TreeSet<ASTSliceGroup>();
-		
-		for(ClassObject classObject : classObjectsToBeExamined) {
-			if(!classObject.isEnum() && !classObject.isInterface()) {
-				ListIterator<MethodObject> methodIterator = classObject.getMethodIterator();
-				while(methodIterator.hasNext()) {
-					MethodObject methodObject = methodIterator.next();
-					processMethod(extractedSliceGroups,classObject, methodObject);
-				}
-			}
-		}
+		extractedSliceGroups.addAll(new ASTSliceGroupGenerator().generateSliceGroups(classObjectsToBeExamined, null));
 		return extractedSliceGroups;
 	}
-	
-	private static void processMethod(Set<ASTSliceGroup> extractedSliceGroups, ClassObject classObject, MethodObject methodObject) {
-		if(methodObject.getMethodBody() != null) {
-			IPreferenceStore store = Activator.getDefault().getPreferenceStore();
-			int minimumMethodSize = store.getInt(PreferenceConstants.P_MINIMUM_METHOD_SIZE);
-			StatementExtractor statementExtractor = new StatementExtractor();
-			int numberOfStatements = statementExtractor.getTotalNumberOfStatements(methodObject.getMethodBody().getCompositeStatement().getStatement());
-			if(numberOfStatements >= minimumMethodSize) {
-				ITypeRoot typeRoot = classObject.getITypeRoot();
-				CompilationUnitCache.getInstance().lock(typeRoot);
-				CFG cfg = new CFG(methodObject);
-				PDG pdg = new PDG(cfg, classObject.getIFile(), classObject.getFieldsAccessedInsideMethod(methodObject), null);
-				for(VariableDeclaration declaration : pdg.getVariableDeclarationsInMethod()) {
-					PlainVariable variable = new PlainVariable(declaration);
-					PDGSliceUnionCollection sliceUnionCollection = new PDGSliceUnionCollection(pdg, variable);
-					double sumOfExtractedStatementsInGroup = 0.0;
-					double sumOfDuplicatedStatementsInGroup = 0.0;
-					double sumOfDuplicationRatioInGroup = 0.0;
-					int maximumNumberOfExtractedStatementsInGroup = 0;
-					int groupSize = sliceUnionCollection.getSliceUnions().size();
-					ASTSliceGroup sliceGroup = new ASTSliceGroup();
-					for(PDGSliceUnion sliceUnion : sliceUnionCollection.getSliceUnions()) {
-						ASTSlice slice = new ASTSlice(sliceUnion);
-						int numberOfExtractedStatements = slice.getSliceStatements().size();
-						int numberOfRemovableStatements = slice.getRemovableStatements().size();
-						int numberOfDuplicatedStatements = numberOfExtractedStatements - numberOfRemovableStatements;
-						double duplicationRatio = (double)numberOfDuplicatedStatements/(double)numberOfExtractedStatements;
-						sumOfExtractedStatementsInGroup += numberOfExtractedStatements;
-						sumOfDuplicatedStatementsInGroup += numberOfDuplicatedStatements;
-						sumOfDuplicationRatioInGroup += duplicationRatio;
-						if(numberOfExtractedStatements > maximumNumberOfExtractedStatementsInGroup)
-							maximumNumberOfExtractedStatementsInGroup = numberOfExtractedStatements;
-						sliceGroup.addCandidate(slice);
-					}
-					if(!sliceGroup.getCandidates().isEmpty()) {
-						sliceGroup.setAverageNumberOfExtractedStatementsInGroup(sumOfExtractedStatementsInGroup/(double)groupSize);
-						sliceGroup.setAverageNumberOfDuplicatedStatementsInGroup(sumOfDuplicatedStatementsInGroup/(double)groupSize);
-						sliceGroup.setAverageDuplicationRatioInGroup(sumOfDuplicationRatioInGroup/(double)groupSize);
-						sliceGroup.setMaximumNumberOfExtractedStatementsInGroup(maximumNumberOfExtractedStatementsInGroup);
-						extractedSliceGroups.add(sliceGroup);
-					}
-				}
-				for(VariableDeclaration declaration : pdg.getVariableDeclarationsAndAccessedFieldsInMethod()) {
-					PlainVariable variable = new PlainVariable(declaration);
-					PDGObjectSliceUnionCollection objectSliceUnionCollection = new PDGObjectSliceUnionCollection(pdg, variable);
-					double sumOfExtractedStatementsInGroup = 0.0;
-					double sumOfDuplicatedStatementsInGroup = 0.0;
-					double sumOfDuplicationRatioInGroup = 0.0;
-					int maximumNumberOfExtractedStatementsInGroup = 0;
-					int groupSize = objectSliceUnionCollection.getSliceUnions().size();
-					ASTSliceGroup sliceGroup = new ASTSliceGroup();
-					for(PDGObjectSliceUnion objectSliceUnion : objectSliceUnionCollection.getSliceUnions()) {
-						ASTSlice slice = new ASTSlice(objectSliceUnion);
-						int numberOfExtractedStatements = slice.getSliceStatements().size();
-						int numberOfRemovableStatements = slice.getRemovableStatements().size();
-						int numberOfDuplicatedStatements = numberOfExtractedStatements - numberOfRemovableStatements;
-						double duplicationRatio = (double)numberOfDuplicatedStatements/(double)numberOfExtractedStatements;
-						sumOfExtractedStatementsInGroup += numberOfExtractedStatements;
-						sumOfDuplicatedStatementsInGroup += numberOfDuplicatedStatements;
-						sumOfDuplicationRatioInGroup += duplicationRatio;
-						if(numberOfExtractedStatements > maximumNumberOfExtractedStatementsInGroup)
-							maximumNumberOfExtractedStatementsInGroup = numberOfExtractedStatements;
-						sliceGroup.addCandidate(slice);
-					}
-					if(!sliceGroup.getCandidates().isEmpty()) {
-						sliceGroup.setAverageNumberOfExtractedStatementsInGroup(sumOfExtractedStatementsInGroup/(double)groupSize);
-						sliceGroup.setAverageNumberOfDuplicatedStatementsInGroup(sumOfDuplicatedStatementsInGroup/(double)groupSize);
-						sliceGroup.setAverageDuplicationRatioInGroup(sumOfDuplicationRatioInGroup/(double)groupSize);
-						sliceGroup.setMaximumNumberOfExtractedStatementsInGroup(maximumNumberOfExtractedStatementsInGroup);
-						extractedSliceGroups.add(sliceGroup);
-					}
-				}
-				CompilationUnitCache.getInstance().releaseLock();
-			}
-		}
-	}
 }
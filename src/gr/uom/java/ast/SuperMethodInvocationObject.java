@@ -5,6 +5,7 @@ import java.util.List;
 import org.eclipse.jdt.core.dom.SuperMethodInvocation;
 
 public class SuperMethodInvocationObject extends AbstractMethodInvocationObject {
+    private static final long serialVersionUID = 1L;
 
     public SuperMethodInvocationObject(String originClassName, String methodName, TypeObject returnType) {
         super(originClassName, methodName, returnType);
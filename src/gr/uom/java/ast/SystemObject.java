@@ -47,27 +47,52 @@ import org.eclipse.jdt.core.dom.VariableDeclarationStatement;
 
 public class SystemObject {
 
+    /*
+     * The classes are kept at stable ids, which do not change when other classes are replaced or removed.
+     * A removed class leaves a tombstone (null) at its id, and the tombstones are compacted
+     * when they exceed the live classes, so the ids change only during compaction.
+     */
+    private static final int MINIMUM_COMPACTION_SIZE = 64;
     private List<ClassObject> classList;
+    private int tombstoneCount;
     //Map that has as key the classname and as value
-    //the position of className in the classNameList
+    //the id of the class in the classList
     private Map<String, Integer> classNameMap;
+    //the ids of the classes declared in every file
+    private Map<IFile, Set<Integer>> fileClassMap;
     private Map<MethodInvocationObject, FieldInstructionObject> getterMap;
     private Map<MethodInvocationObject, FieldInstructionObject> setterMap;
     private Map<MethodInvocationObject, FieldInstructionObject> collectionAdderMap;
     private Map<MethodInvocationObject, MethodInvocationObject> delegateMap;
+    //built the first time it is requested, and updated together with the class list
+    private TypeHierarchyIndex typeHierarchyIndex;
+    //the classes containing every method invocation and field instruction, updated together with the class list
+    private MemberAccessIndex memberAccessIndex;
+    //the summaries of the analyzed method invocations, discarded whenever the class list changes
+    private MethodCallSummaryIndex methodCallSummaryIndex;
 
     public SystemObject() {
         this.classList = new ArrayList<ClassObject>();
+        this.tombstoneCount = 0;
         this.classNameMap = new HashMap<String, Integer>();
+        this.fileClassMap = new HashMap<IFile, Set<Integer>>();
         this.getterMap = new LinkedHashMap<MethodInvocationObject, FieldInstructionObject>();
         this.setterMap = new LinkedHashMap<MethodInvocationObject, FieldInstructionObject>();
         this.collectionAdderMap = new LinkedHashMap<MethodInvocationObject, FieldInstructionObject>();
         this.delegateMap = new LinkedHashMap<MethodInvocationObject, MethodInvocationObject>();
+        this.memberAccessIndex = new MemberAccessIndex();
+        this.methodCallSummaryIndex = new MethodCallSummaryIndex();
     }
 
     public void addClass(ClassObject c) {
-        classNameMap.put(c.getName(),classList.size());
+        int id = classList.size();
+        classNameMap.put(c.getName(),id);
         classList.add(c);
+        addToFile(c, id);
+        memberAccessIndex.addClass(c);
+        methodCallSummaryIndex.clear();
+        if(typeHierarchyIndex != null)
+        	typeHierarchyIndex.addClass(c);
     }
     
     public void addClasses(List<ClassObject> classObjects) {
@@ -78,8 +103,14 @@ public class SystemObject {
     public void replaceClass(ClassObject c) {
     	int position = getPositionInClassList(c.getName());
     	if(position != -1) {
-    		classList.remove(position);
-    		classList.add(position, c);
+    		ClassObject oldClass = classList.set(position, c);
+    		removeFromFile(oldClass, position);
+    		addToFile(c, position);
+    		memberAccessIndex.removeClass(oldClass);
+    		memberAccessIndex.addClass(c);
+    		methodCallSummaryIndex.clear();
+    		if(typeHierarchyIndex != null)
+    			typeHierarchyIndex.addClass(c);
     	}
     	else {
     		addClass(c);
@@ -88,9 +119,10 @@ public class SystemObject {
     
     public void removeClasses(IFile file) {
     	List<ClassObject> classesToBeRemoved = new ArrayList<ClassObject>();
-    	for(ClassObject classObject : classList) {
-    		if(classObject.getIFile().equals(file))
-    			classesToBeRemoved.add(classObject);
+    	Set<Integer> ids = fileClassMap.get(file);
+    	if(ids != null) {
+    		for(Integer id : ids)
+    			classesToBeRemoved.add(classList.get(id));
     	}
     	for(ClassObject classObject : classesToBeRemoved) {
     		removeClass(classObject);
@@ -100,15 +132,67 @@ public class SystemObject {
     public void removeClass(ClassObject c) {
     	int position = getPositionInClassList(c.getName());
     	if(position != -1) {
-    		for(int i=position+1; i<classList.size(); i++) {
-    			ClassObject classObject = classList.get(i);
-    			classNameMap.put(classObject.getName(), classNameMap.get(classObject.getName())-1);
-    		}
     		classNameMap.remove(c.getName());
-    		classList.remove(c);
+    		ClassObject oldClass = classList.set(position, null);
+    		tombstoneCount++;
+    		removeFromFile(oldClass, position);
+    		memberAccessIndex.removeClass(oldClass);
+    		methodCallSummaryIndex.clear();
+    		if(typeHierarchyIndex != null)
+    			typeHierarchyIndex.removeClass(c.getName());
+    		if(classList.size() >= MINIMUM_COMPACTION_SIZE && 2*tombstoneCount > classList.size())
+    			compact();
+    	}
+    }
+    
+    private void addToFile(ClassObject c, int id) {
+    	IFile file = c.getIFile();
+    	if(file != null) {
+    		Set<Integer> ids = fileClassMap.get(file);
+    		if(ids == null) {
+    			ids = new LinkedHashSet<Integer>();
+    			fileClassMap.put(file, ids);
+    		}
+    		ids.add(id);
     	}
     }
     
+    private void removeFromFile(ClassObject c, int id) {
+    	IFile file = c.getIFile();
+    	if(file != null) {
+    		Set<Integer> ids = fileClassMap.get(file);
+    		if(ids != null) {
+    			ids.remove(id);
+    			if(ids.isEmpty())
+    				fileClassMap.remove(file);
+    		}
+    	}
+    }
+    
+    //removes the tombstones and assigns new ids to the classes, preserving their order
+    private void compact() {
+    	List<ClassObject> liveClassList = new ArrayList<ClassObject>(classList.size() - tombstoneCount);
+    	Map<Integer, Integer> idMap = new HashMap<Integer, Integer>();
+    	for(int i=0; i<classList.size(); i++) {
+    		ClassObject classObject = classList.get(i);
+    		if(classObject != null) {
+    			idMap.put(i, liveClassList.size());
+    			liveClassList.add(classObject);
+    		}
+    	}
+    	for(Map.Entry<String, Integer> entry : classNameMap.entrySet()) {
+    		entry.setValue(idMap.get(entry.getValue()));
+    	}
+    	for(Map.Entry<IFile, Set<Integer>> entry : fileClassMap.entrySet()) {
+    		Set<Integer> ids = new LinkedHashSet<Integer>();
+    		for(Integer id : entry.getValue())
+    			ids.add(idMap.get(id));
+    		entry.setValue(ids);
+    	}
+    	classList = liveClassList;
+    	tombstoneCount = 0;
+    }
+    
     public void addGetter(MethodInvocationObject methodInvocation, FieldInstructionObject fieldInstruction) {
     	getterMap.put(methodInvocation, fieldInstruction);
     }
@@ -156,27 +240,15 @@ public class SystemObject {
     }
 
     public boolean containsMethodInvocation(MethodInvocationObject methodInvocation, ClassObject excludedClass) {
-    	for(ClassObject classObject : classList) {
-    		if(!excludedClass.equals(classObject) && classObject.containsMethodInvocation(methodInvocation))
-    			return true;
-    	}
-    	return false;
+    	return memberAccessIndex.containsMethodInvocation(methodInvocation, excludedClass);
     }
 
     public boolean containsFieldInstruction(FieldInstructionObject fieldInstruction, ClassObject excludedClass) {
-    	for(ClassObject classObject : classList) {
-    		if(!excludedClass.equals(classObject) && classObject.containsFieldInstruction(fieldInstruction))
-    			return true;
-    	}
-    	return false;
+    	return memberAccessIndex.containsFieldInstruction(fieldInstruction, excludedClass);
     }
 
     public boolean containsSuperMethodInvocation(SuperMethodInvocationObject superMethodInvocation) {
-    	for(ClassObject classObject : classList) {
-    		if(classObject.containsSuperMethodInvocation(superMethodInvocation))
-    			return true;
-    	}
-    	return false;
+    	return memberAccessIndex.containsSuperMethodInvocation(superMethodInvocation);
     }
 
     public ClassObject getClassObject(String className) {
@@ -187,16 +259,38 @@ public class SystemObject {
             return null;
     }
 
+    //returns null if the class at the id has been removed
     public ClassObject getClassObject(int pos) {
         return classList.get(pos);
     }
 
+    public synchronized TypeHierarchyIndex getTypeHierarchyIndex() {
+    	if(typeHierarchyIndex == null)
+    		typeHierarchyIndex = new TypeHierarchyIndex(this);
+    	return typeHierarchyIndex;
+    }
+
+    public MethodCallSummaryIndex getMethodCallSummaryIndex() {
+    	return methodCallSummaryIndex;
+    }
+
     public ListIterator<ClassObject> getClassListIterator() {
-        return classList.listIterator();
+        return getLiveClassList().listIterator();
+    }
+
+    private List<ClassObject> getLiveClassList() {
+        if(tombstoneCount == 0)
+            return Collections.unmodifiableList(classList);
+        List<ClassObject> liveClassList = new ArrayList<ClassObject>(classList.size() - tombstoneCount);
+        for(ClassObject classObject : classList) {
+            if(classObject != null)
+                liveClassList.add(classObject);
+        }
+        return liveClassList;
     }
 
     public int getClassNumber() {
-        return classList.size();
+        return classList.size() - tombstoneCount;
     }
 
     public int getPositionInClassList(String className) {
@@ -209,7 +303,7 @@ public class SystemObject {
 
     public Set<ClassObject> getClassObjects() {
     	Set<ClassObject> classObjectSet = new LinkedHashSet<ClassObject>();
-    	classObjectSet.addAll(classList);
+    	classObjectSet.addAll(getLiveClassList());
     	return classObjectSet;
     }
 
@@ -345,8 +439,8 @@ public class SystemObject {
 
     public List<String> getClassNames() {
         List<String> names = new ArrayList<String>();
-        for(int i=0; i<classList.size(); i++) {
-            names.add(getClassObject(i).getName());
+        for(ClassObject classObject : getLiveClassList()) {
+            names.add(classObject.getName());
         }
         return names;
     }
@@ -859,9 +953,34 @@ public class SystemObject {
 		return typeCheckEliminationGroup;
 	}
 
+    //one line per class, starting from the classes with the largest estimated footprint, followed by the total
+    public String getHeapFootprintReport() {
+        List<ClassObject> classes = new ArrayList<ClassObject>(getLiveClassList());
+        final Map<ClassObject, HeapFootprint> footprintMap = new HashMap<ClassObject, HeapFootprint>();
+        HeapFootprint total = new HeapFootprint();
+        for(ClassObject classObject : classes) {
+            HeapFootprint footprint = classObject.getHeapFootprint();
+            footprintMap.put(classObject, footprint);
+            total.add(footprint);
+        }
+        Collections.sort(classes, new Comparator<ClassObject>() {
+            public int compare(ClassObject class1, ClassObject class2) {
+                long bytes1 = footprintMap.get(class1).getEstimatedBytes();
+                long bytes2 = footprintMap.get(class2).getEstimatedBytes();
+                return bytes2 < bytes1 ? -1 : (bytes2 == bytes1 ? 0 : 1);
+            }
+        });
+        StringBuilder sb = new StringBuilder();
+        for(ClassObject classObject : classes) {
+            sb.append(classObject.getName()).append(": ").append(footprintMap.get(classObject)).append("\n");
+        }
+        sb.append("total: ").append(total).append("\n");
+        return sb.toString();
+    }
+
     public String toString() {
         StringBuilder sb = new StringBuilder();
-        for(ClassObject classObject : classList) {
+        for(ClassObject classObject : getLiveClassList()) {
             sb.append(classObject.toString());
             sb.append("\n--------------------------------------------------------------------------------\n");
         }
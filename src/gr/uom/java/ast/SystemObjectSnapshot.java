@@ -0,0 +1,263 @@
+package gr.uom.java.ast;
+
+import gr.uom.java.jdeodorant.refactoring.Activator;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.jdt.core.IClasspathEntry;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.JavaModelException;
+
+/*
+ * The parsed compilation units of a project, stored in the state location of the plug-in between Eclipse sessions.
+ * A compilation unit is restored only if the hash of its contents is the same as the hash of the contents it was parsed from,
+ * and the same holds for every compilation unit it refers to, directly or through other compilation units,
+ * since the bindings resolved while parsing it depend on the declarations of the compilation units it refers to.
+ * The whole snapshot is discarded if a compilation unit has been added or removed, since it may change the bindings of any other compilation unit,
+ * if the classpath or the compiler settings of the project have changed, or if it was written by a different version of the serialized classes.
+ */
+public class SystemObjectSnapshot {
+	//incremented whenever a serialized class changes, together with the serialVersionUID of the class
+	private static final int FORMAT_VERSION = 4;
+	private File file;
+	private String projectKey;
+	//String key corresponds to ICompilationUnit.getHandleIdentifier()
+	private Map<String, CompilationUnitSnapshot> storedSnapshotMap;
+	private Map<String, CompilationUnitSnapshot> currentSnapshotMap;
+	private Map<String, String> contentHashMap;
+	private int restoredCount;
+
+	private SystemObjectSnapshot(File file, String projectKey) {
+		this.file = file;
+		this.projectKey = projectKey;
+		this.storedSnapshotMap = new HashMap<String, CompilationUnitSnapshot>();
+		this.currentSnapshotMap = new LinkedHashMap<String, CompilationUnitSnapshot>();
+		this.contentHashMap = new HashMap<String, String>();
+	}
+
+	public static SystemObjectSnapshot load(IJavaProject iJavaProject) {
+		File directory = Activator.getDefault().getStateLocation().append("snapshots").toFile();
+		File file = new File(directory, iJavaProject.getElementName() + ".snapshot");
+		SystemObjectSnapshot snapshot = new SystemObjectSnapshot(file, getProjectKey(iJavaProject));
+		if(file.exists())
+			snapshot.read();
+		return snapshot;
+	}
+
+	private void read() {
+		ObjectInputStream in = null;
+		try {
+			in = new BundleObjectInputStream(new BufferedInputStream(new FileInputStream(file)));
+			if(in.readInt() == FORMAT_VERSION && in.readUTF().equals(projectKey)) {
+				int size = in.readInt();
+				for(int i=0; i<size; i++) {
+					String handleIdentifier = in.readUTF();
+					CompilationUnitSnapshot compilationUnitSnapshot = (CompilationUnitSnapshot)in.readObject();
+					storedSnapshotMap.put(handleIdentifier, compilationUnitSnapshot);
+				}
+			}
+		} catch (InvalidClassException e) {
+			//written by a different version of the plug-in
+			storedSnapshotMap.clear();
+		} catch (IOException e) {
+			storedSnapshotMap.clear();
+			e.printStackTrace();
+		} catch (ClassNotFoundException e) {
+			storedSnapshotMap.clear();
+			e.printStackTrace();
+		} finally {
+			close(in);
+		}
+	}
+
+	//computes the content hashes of the compilation units of the project, and discards the stored compilation units that cannot be restored
+	public synchronized void invalidateChangedCompilationUnits(List<ICompilationUnit> iCompilationUnits) {
+		Set<String> invalidCompilationUnits = new LinkedHashSet<String>();
+		boolean addedCompilationUnits = false;
+		for(ICompilationUnit iCompilationUnit : iCompilationUnits) {
+			String handleIdentifier = iCompilationUnit.getHandleIdentifier();
+			String contentHash = computeContentHash(iCompilationUnit);
+			contentHashMap.put(handleIdentifier, contentHash);
+			CompilationUnitSnapshot compilationUnitSnapshot = storedSnapshotMap.get(handleIdentifier);
+			if(compilationUnitSnapshot == null)
+				addedCompilationUnits = true;
+			else if(contentHash == null || !contentHash.equals(compilationUnitSnapshot.getContentHash()))
+				invalidCompilationUnits.add(handleIdentifier);
+		}
+		if(addedCompilationUnits || !contentHashMap.keySet().containsAll(storedSnapshotMap.keySet())) {
+			storedSnapshotMap.clear();
+			return;
+		}
+		Map<String, Set<String>> referringCompilationUnitMap = new HashMap<String, Set<String>>();
+		for(String handleIdentifier : storedSnapshotMap.keySet()) {
+			for(String referencedCompilationUnit : storedSnapshotMap.get(handleIdentifier).getReferencedCompilationUnits()) {
+				Set<String> referringCompilationUnits = referringCompilationUnitMap.get(referencedCompilationUnit);
+				if(referringCompilationUnits == null) {
+					referringCompilationUnits = new LinkedHashSet<String>();
+					referringCompilationUnitMap.put(referencedCompilationUnit, referringCompilationUnits);
+				}
+				referringCompilationUnits.add(handleIdentifier);
+			}
+		}
+		List<String> worklist = new ArrayList<String>(invalidCompilationUnits);
+		while(!worklist.isEmpty()) {
+			Set<String> referringCompilationUnits = referringCompilationUnitMap.get(worklist.remove(worklist.size()-1));
+			if(referringCompilationUnits != null) {
+				for(String referringCompilationUnit : referringCompilationUnits) {
+					if(invalidCompilationUnits.add(referringCompilationUnit))
+						worklist.add(referringCompilationUnit);
+				}
+			}
+		}
+		storedSnapshotMap.keySet().removeAll(invalidCompilationUnits);
+	}
+
+	//returns null if the compilation unit has not been stored, or it cannot be restored
+	public synchronized CompilationUnitSnapshot get(ICompilationUnit iCompilationUnit) {
+		CompilationUnitSnapshot compilationUnitSnapshot = storedSnapshotMap.get(iCompilationUnit.getHandleIdentifier());
+		if(compilationUnitSnapshot != null)
+			restoredCount++;
+		return compilationUnitSnapshot;
+	}
+
+	public synchronized String getContentHash(ICompilationUnit iCompilationUnit) {
+		return contentHashMap.get(iCompilationUnit.getHandleIdentifier());
+	}
+
+	public synchronized void put(ICompilationUnit iCompilationUnit, CompilationUnitSnapshot compilationUnitSnapshot) {
+		if(compilationUnitSnapshot.getContentHash() != null)
+			currentSnapshotMap.put(iCompilationUnit.getHandleIdentifier(), compilationUnitSnapshot);
+	}
+
+	public synchronized int getRestoredCount() {
+		return restoredCount;
+	}
+
+	//the compilation units that were not put since the snapshot was loaded (e.g., removed compilation units) are not saved
+	public synchronized void save() {
+		if(restoredCount == storedSnapshotMap.size() && restoredCount == currentSnapshotMap.size())
+			return;
+		File directory = file.getParentFile();
+		if(!directory.exists() && !directory.mkdirs())
+			return;
+		File temporaryFile = new File(directory, file.getName() + ".tmp");
+		ObjectOutputStream out = null;
+		boolean written = false;
+		try {
+			out = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(temporaryFile)));
+			out.writeInt(FORMAT_VERSION);
+			out.writeUTF(projectKey);
+			out.writeInt(currentSnapshotMap.size());
+			for(String handleIdentifier : currentSnapshotMap.keySet()) {
+				out.writeUTF(handleIdentifier);
+				out.writeObject(currentSnapshotMap.get(handleIdentifier));
+				//the compilation units do not share objects, so the written objects do not have to be remembered
+				out.reset();
+			}
+			out.flush();
+			written = true;
+		} catch (IOException e) {
+			e.printStackTrace();
+		} finally {
+			close(out);
+		}
+		if(written) {
+			file.delete();
+			if(!temporaryFile.renameTo(file))
+				temporaryFile.delete();
+		}
+		else {
+			temporaryFile.delete();
+		}
+	}
+
+	private static String computeContentHash(ICompilationUnit iCompilationUnit) {
+		try {
+			String source = iCompilationUnit.getSource();
+			if(source != null)
+				return getHash(source);
+		} catch (JavaModelException e) {
+			e.printStackTrace();
+		}
+		return null;
+	}
+
+	private static String getProjectKey(IJavaProject iJavaProject) {
+		StringBuilder sb = new StringBuilder();
+		try {
+			for(IClasspathEntry classpathEntry : iJavaProject.getRawClasspath())
+				sb.append(classpathEntry.toString()).append("\n");
+		} catch (JavaModelException e) {
+			e.printStackTrace();
+		}
+		sb.append(iJavaProject.getOption(JavaCore.COMPILER_SOURCE, true)).append("\n");
+		sb.append(iJavaProject.getOption(JavaCore.COMPILER_COMPLIANCE, true));
+		return getHash(sb.toString());
+	}
+
+	private static String getHash(String text) {
+		try {
+			MessageDigest messageDigest = MessageDigest.getInstance("SHA-1");
+			byte[] digest = messageDigest.digest(text.getBytes("UTF-8"));
+			StringBuilder sb = new StringBuilder();
+			for(byte b : digest) {
+				sb.append(Character.forDigit((b >> 4) & 0xF, 16));
+				sb.append(Character.forDigit(b & 0xF, 16));
+			}
+			return sb.toString();
+		} catch (NoSuchAlgorithmException e) {
+			e.printStackTrace();
+		} catch (UnsupportedEncodingException e) {
+			e.printStackTrace();
+		}
+		return null;
+	}
+
+	private static void close(Closeable closeable) {
+		if(closeable != null) {
+			try {
+				closeable.close();
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		}
+	}
+
+	//resolves the serialized classes through the class loader of the plug-in
+	private static class BundleObjectInputStream extends ObjectInputStream {
+		private BundleObjectInputStream(InputStream in) throws IOException {
+			super(in);
+		}
+
+		protected Class<?> resolveClass(ObjectStreamClass description) throws IOException, ClassNotFoundException {
+			try {
+				return Class.forName(description.getName(), false, SystemObjectSnapshot.class.getClassLoader());
+			} catch (ClassNotFoundException e) {
+				return super.resolveClass(description);
+			}
+		}
+	}
+}
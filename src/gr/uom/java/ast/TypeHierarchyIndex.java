@@ -0,0 +1,182 @@
+package gr.uom.java.ast;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.JavaModelException;
+
+/*
+ * The type hierarchy of the classes of a SystemObject, built from the superclass and the interfaces of every ClassObject.
+ * Every type name (including the library supertypes of the classes) is assigned a dense id, and the direct subtypes of a type are kept in a bit set.
+ * The subtypes of a type are its direct subtypes together with the subtypes of its abstract direct subtypes (the same subtypes that
+ * Indexer collects with successive IMPLEMENTORS searches), and they are computed once until the hierarchy changes.
+ * The anonymous classes are not indexed, only the classes declaring anonymous subclasses of every type are kept,
+ * so that the subtypes of the types having anonymous subclasses can still be searched.
+ */
+public class TypeHierarchyIndex {
+	private Map<String, Integer> typeIdMap;
+	private List<String> typeNames;
+	//null for the types that are not declared in the system (e.g., library types)
+	private List<ClassObject> classObjects;
+	private List<BitSet> directSubTypes;
+	private List<BitSet> directSuperTypes;
+	//the ids of the classes declaring anonymous subclasses of every type
+	private List<BitSet> anonymousSubTypeDeclarers;
+	private Map<Integer, BitSet> subTypeMap;
+	private Map<Integer, IType> iTypeMap;
+
+	public TypeHierarchyIndex(SystemObject systemObject) {
+		this.typeIdMap = new HashMap<String, Integer>();
+		this.typeNames = new ArrayList<String>();
+		this.classObjects = new ArrayList<ClassObject>();
+		this.directSubTypes = new ArrayList<BitSet>();
+		this.directSuperTypes = new ArrayList<BitSet>();
+		this.anonymousSubTypeDeclarers = new ArrayList<BitSet>();
+		this.subTypeMap = new HashMap<Integer, BitSet>();
+		this.iTypeMap = new HashMap<Integer, IType>();
+		ListIterator<ClassObject> classIterator = systemObject.getClassListIterator();
+		while(classIterator.hasNext()) {
+			addClass(classIterator.next());
+		}
+	}
+
+	private int getTypeId(String typeName) {
+		Integer id = typeIdMap.get(typeName);
+		if(id == null) {
+			id = typeNames.size();
+			typeIdMap.put(typeName, id);
+			typeNames.add(typeName);
+			classObjects.add(null);
+			directSubTypes.add(new BitSet());
+			directSuperTypes.add(new BitSet());
+			anonymousSubTypeDeclarers.add(new BitSet());
+		}
+		return id;
+	}
+
+	public synchronized void addClass(ClassObject classObject) {
+		int id = getTypeId(classObject.getName());
+		if(classObjects.get(id) != null)
+			removeClass(classObject.getName());
+		classObjects.set(id, classObject);
+		if(classObject.getSuperclass() != null)
+			addSuperType(id, classObject.getSuperclass().getClassType());
+		ListIterator<TypeObject> interfaceIterator = classObject.getInterfaceIterator();
+		while(interfaceIterator.hasNext()) {
+			addSuperType(id, interfaceIterator.next().getClassType());
+		}
+		ListIterator<String> anonymousSuperTypeIterator = classObject.getAnonymousSuperTypeIterator();
+		while(anonymousSuperTypeIterator.hasNext()) {
+			anonymousSubTypeDeclarers.get(getTypeId(anonymousSuperTypeIterator.next())).set(id);
+		}
+		subTypeMap.clear();
+		iTypeMap.remove(id);
+	}
+
+	private void addSuperType(int id, String superTypeName) {
+		int superTypeId = getTypeId(superTypeName);
+		directSubTypes.get(superTypeId).set(id);
+		directSuperTypes.get(id).set(superTypeId);
+	}
+
+	//the id of a removed class is kept, so that the ids of the other types do not change
+	public synchronized void removeClass(String className) {
+		Integer id = typeIdMap.get(className);
+		if(id != null && classObjects.get(id) != null) {
+			BitSet superTypes = directSuperTypes.get(id);
+			for(int superTypeId = superTypes.nextSetBit(0); superTypeId >= 0; superTypeId = superTypes.nextSetBit(superTypeId+1)) {
+				directSubTypes.get(superTypeId).clear(id);
+			}
+			superTypes.clear();
+			ListIterator<String> anonymousSuperTypeIterator = classObjects.get(id).getAnonymousSuperTypeIterator();
+			while(anonymousSuperTypeIterator.hasNext()) {
+				anonymousSubTypeDeclarers.get(typeIdMap.get(anonymousSuperTypeIterator.next())).clear(id);
+			}
+			classObjects.set(id, null);
+			subTypeMap.clear();
+			iTypeMap.remove(id);
+		}
+	}
+
+	public synchronized boolean containsClass(String className) {
+		Integer id = typeIdMap.get(className);
+		return id != null && classObjects.get(id) != null;
+	}
+
+	//true if an anonymous class extends the type, or one of its subtypes whose subtypes are collected as well
+	public synchronized boolean hasAnonymousSubTypes(String typeName) {
+		Integer id = typeIdMap.get(typeName);
+		if(id == null)
+			return false;
+		if(!anonymousSubTypeDeclarers.get(id).isEmpty())
+			return true;
+		BitSet subTypeIds = getSubTypes(id);
+		for(int subTypeId = subTypeIds.nextSetBit(0); subTypeId >= 0; subTypeId = subTypeIds.nextSetBit(subTypeId+1)) {
+			ClassObject classObject = classObjects.get(subTypeId);
+			if((classObject.isAbstract() || classObject.isInterface()) && !anonymousSubTypeDeclarers.get(subTypeId).isEmpty())
+				return true;
+		}
+		return false;
+	}
+
+	public synchronized Set<IType> getSubTypes(IType superType, IJavaProject iJavaProject) {
+		Set<IType> subTypes = new LinkedHashSet<IType>();
+		Integer id = typeIdMap.get(superType.getFullyQualifiedName('.'));
+		if(id != null) {
+			BitSet subTypeIds = getSubTypes(id);
+			for(int subTypeId = subTypeIds.nextSetBit(0); subTypeId >= 0; subTypeId = subTypeIds.nextSetBit(subTypeId+1)) {
+				IType subType = getIType(subTypeId, iJavaProject);
+				if(subType != null)
+					subTypes.add(subType);
+			}
+		}
+		return subTypes;
+	}
+
+	private BitSet getSubTypes(int id) {
+		BitSet subTypes = subTypeMap.get(id);
+		if(subTypes == null) {
+			subTypes = new BitSet();
+			BitSet visited = new BitSet();
+			List<Integer> workList = new ArrayList<Integer>();
+			visited.set(id);
+			workList.add(id);
+			while(!workList.isEmpty()) {
+				int typeId = workList.remove(workList.size()-1);
+				BitSet direct = directSubTypes.get(typeId);
+				subTypes.or(direct);
+				for(int subTypeId = direct.nextSetBit(0); subTypeId >= 0; subTypeId = direct.nextSetBit(subTypeId+1)) {
+					ClassObject classObject = classObjects.get(subTypeId);
+					if(!visited.get(subTypeId) && (classObject.isAbstract() || classObject.isInterface())) {
+						visited.set(subTypeId);
+						workList.add(subTypeId);
+					}
+				}
+			}
+			subTypeMap.put(id, subTypes);
+		}
+		return subTypes;
+	}
+
+	private IType getIType(int id, IJavaProject iJavaProject) {
+		IType iType = iTypeMap.get(id);
+		if(iType == null && iJavaProject != null) {
+			try {
+				iType = iJavaProject.findType(typeNames.get(id));
+				if(iType != null)
+					iTypeMap.put(id, iType);
+			} catch (JavaModelException e) {
+				e.printStackTrace();
+			}
+		}
+		return iType;
+	}
+}
@@ -1,16 +1,20 @@
 package gr.uom.java.ast;
 
+import gr.uom.java.ast.util.StringInterner;
+
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 
-public class TypeObject {
+public class TypeObject implements Serializable {
+    private static final long serialVersionUID = 1L;
     private String classType;
     private String genericType;
     private int arrayDimension;
-    private volatile int hashCode = 0;
+    private transient volatile int hashCode = 0;
 
     public TypeObject(String type) {
-        this.classType = type;
+        this.classType = StringInterner.intern(type);
     }
 
     public String getClassType() {
@@ -4,11 +4,12 @@ import java.util.List;
 
 import gr.uom.java.ast.ASTInformation;
 import gr.uom.java.ast.ASTInformationGenerator;
-import gr.uom.java.ast.util.ExpressionExtractor;
+import gr.uom.java.ast.util.CategorizedExpressions;
 
 import org.eclipse.jdt.core.dom.Expression;
 
 public class AbstractExpression extends AbstractMethodFragment {
+	private static final long serialVersionUID = 1L;
 
 	private ASTInformation expression;
 	
@@ -25,15 +26,15 @@ public class AbstractExpression extends AbstractMethodFragment {
 	}
 
 	private void processExpression(Expression expression) {
-		ExpressionExtractor expressionExtractor = new ExpressionExtractor();
-        List<Expression> assignments = expressionExtractor.getAssignments(expression);
-        List<Expression> postfixExpressions = expressionExtractor.getPostfixExpressions(expression);
-        List<Expression> prefixExpressions = expressionExtractor.getPrefixExpressions(expression);
-        processVariables(expressionExtractor.getVariableInstructions(expression), assignments, postfixExpressions, prefixExpressions);
-		processMethodInvocations(expressionExtractor.getMethodInvocations(expression));
-		processClassInstanceCreations(expressionExtractor.getClassInstanceCreations(expression));
-		processArrayCreations(expressionExtractor.getArrayCreations(expression));
-		processLiterals(expressionExtractor.getLiterals(expression));
+		CategorizedExpressions categorizedExpressions = CategorizedExpressions.getInstance(expression);
+        List<Expression> assignments = categorizedExpressions.getAssignments();
+        List<Expression> postfixExpressions = categorizedExpressions.getPostfixExpressions();
+        List<Expression> prefixExpressions = categorizedExpressions.getPrefixExpressions();
+        processVariables(categorizedExpressions.getVariableInstructions(), assignments, postfixExpressions, prefixExpressions);
+		processMethodInvocations(categorizedExpressions.getMethodInvocations());
+		processClassInstanceCreations(categorizedExpressions.getClassInstanceCreations());
+		processArrayCreations(categorizedExpressions.getArrayCreations());
+		processLiterals(categorizedExpressions.getLiterals());
 	}
 
 	public Expression getExpression() {
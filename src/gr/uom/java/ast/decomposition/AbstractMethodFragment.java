@@ -8,6 +8,7 @@ import gr.uom.java.ast.ConstructorObject;
 import gr.uom.java.ast.CreationObject;
 import gr.uom.java.ast.FieldInstructionObject;
 import gr.uom.java.ast.FieldObject;
+import gr.uom.java.ast.HeapFootprint;
 import gr.uom.java.ast.LiteralObject;
 import gr.uom.java.ast.LocalVariableDeclarationObject;
 import gr.uom.java.ast.LocalVariableInstructionObject;
@@ -19,9 +20,12 @@ import gr.uom.java.ast.SuperMethodInvocationObject;
 import gr.uom.java.ast.TypeObject;
 import gr.uom.java.ast.decomposition.cfg.AbstractVariable;
 import gr.uom.java.ast.decomposition.cfg.PlainVariable;
+import gr.uom.java.ast.util.ArraySet;
 import gr.uom.java.ast.util.MethodDeclarationUtility;
 
+import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -57,7 +61,10 @@ import org.eclipse.jdt.core.dom.Type;
 import org.eclipse.jdt.core.dom.VariableDeclaration;
 import org.eclipse.jdt.core.dom.VariableDeclarationFragment;
 
-public abstract class AbstractMethodFragment {
+public abstract class AbstractMethodFragment implements Serializable {
+	private static final long serialVersionUID = 1L;
+	//the sets with up to this number of elements are stored in arrays when the fragment is compacted
+	private static final int MAXIMUM_ARRAY_SET_SIZE = 8;
 	private AbstractMethodFragment parent;
 	
 	private List<MethodInvocationObject> methodInvocationList;
@@ -103,50 +110,22 @@ public abstract class AbstractMethodFragment {
 	private Map<PlainVariable, LinkedHashSet<MethodInvocationObject>> parametersPassedAsArgumentsInMethodInvocations;
 	private Map<PlainVariable, LinkedHashSet<SuperMethodInvocationObject>> parametersPassedAsArgumentsInSuperMethodInvocations;
 	
+	//the collections are allocated when their first element is added, since most of them remain empty for most fragments
 	protected AbstractMethodFragment(AbstractMethodFragment parent) {
 		this.parent = parent;
-		this.methodInvocationList = new ArrayList<MethodInvocationObject>();
-		this.superMethodInvocationList = new ArrayList<SuperMethodInvocationObject>();
-		this.fieldInstructionList = new ArrayList<FieldInstructionObject>();
-		this.superFieldInstructionList = new ArrayList<SuperFieldInstructionObject>();
-		this.localVariableDeclarationList = new ArrayList<LocalVariableDeclarationObject>();
-		this.localVariableInstructionList = new ArrayList<LocalVariableInstructionObject>();
-		this.creationList = new ArrayList<CreationObject>();
-		this.literalList = new ArrayList<LiteralObject>();
-		this.anonymousClassDeclarationList = new ArrayList<AnonymousClassDeclarationObject>();
-		this.exceptionsInThrowStatements = new LinkedHashSet<String>();
 		//this.invokedMethodsThroughFields = new LinkedHashMap<AbstractVariable, LinkedHashSet<MethodInvocationObject>>();
-		this.nonDistinctInvokedMethodsThroughFields = new LinkedHashMap<AbstractVariable, ArrayList<MethodInvocationObject>>();
 		//this.invokedMethodsThroughParameters = new LinkedHashMap<AbstractVariable, LinkedHashSet<MethodInvocationObject>>();
-		this.nonDistinctInvokedMethodsThroughParameters = new LinkedHashMap<AbstractVariable, ArrayList<MethodInvocationObject>>();
 		//this.invokedMethodsThroughLocalVariables = new LinkedHashMap<AbstractVariable, LinkedHashSet<MethodInvocationObject>>();
-		this.nonDistinctInvokedMethodsThroughLocalVariables = new LinkedHashMap<AbstractVariable, ArrayList<MethodInvocationObject>>();
 		//this.invokedMethodsThroughThisReference = new LinkedHashSet<MethodInvocationObject>();
-		this.nonDistinctInvokedMethodsThroughThisReference = new ArrayList<MethodInvocationObject>();
-		this.nonDistinctInvokedStaticMethods = new ArrayList<MethodInvocationObject>();
-		
 		//this.definedFieldsThroughFields = new LinkedHashSet<AbstractVariable>();
-		this.nonDistinctDefinedFieldsThroughFields = new ArrayList<AbstractVariable>();
 		//this.usedFieldsThroughFields = new LinkedHashSet<AbstractVariable>();
-		this.nonDistinctUsedFieldsThroughFields = new ArrayList<AbstractVariable>();
 		//this.definedFieldsThroughParameters = new LinkedHashSet<AbstractVariable>();
-		this.nonDistinctDefinedFieldsThroughParameters = new ArrayList<AbstractVariable>();
 		//this.usedFieldsThroughParameters = new LinkedHashSet<AbstractVariable>();
-		this.nonDistinctUsedFieldsThroughParameters = new ArrayList<AbstractVariable>();
 		//this.definedFieldsThroughLocalVariables = new LinkedHashSet<AbstractVariable>();
-		this.nonDistinctDefinedFieldsThroughLocalVariables = new ArrayList<AbstractVariable>();
 		//this.usedFieldsThroughLocalVariables = new LinkedHashSet<AbstractVariable>();
-		this.nonDistinctUsedFieldsThroughLocalVariables = new ArrayList<AbstractVariable>();
 		//this.definedFieldsThroughThisReference = new LinkedHashSet<PlainVariable>();
-		this.nonDistinctDefinedFieldsThroughThisReference = new ArrayList<PlainVariable>();
 		//this.usedFieldsThroughThisReference = new LinkedHashSet<PlainVariable>();
-		this.nonDistinctUsedFieldsThroughThisReference = new ArrayList<PlainVariable>();
 		
-		this.declaredLocalVariables = new LinkedHashSet<PlainVariable>();
-		this.definedLocalVariables = new LinkedHashSet<PlainVariable>();
-		this.usedLocalVariables = new LinkedHashSet<PlainVariable>();
-		this.parametersPassedAsArgumentsInMethodInvocations = new LinkedHashMap<PlainVariable, LinkedHashSet<MethodInvocationObject>>();
-		this.parametersPassedAsArgumentsInSuperMethodInvocations = new LinkedHashMap<PlainVariable, LinkedHashSet<SuperMethodInvocationObject>>();
 	}
 
     public AbstractMethodFragment getParent() {
@@ -257,49 +236,49 @@ public abstract class AbstractMethodFragment {
 	}
 
 	private void addFieldInstruction(FieldInstructionObject fieldInstruction) {
-		fieldInstructionList.add(fieldInstruction);
+		fieldInstructionList = addElement(fieldInstructionList, fieldInstruction);
 		if(parent != null) {
 			parent.addFieldInstruction(fieldInstruction);
 		}
 	}
 
 	private void addSuperFieldInstruction(SuperFieldInstructionObject superFieldInstruction) {
-		superFieldInstructionList.add(superFieldInstruction);
+		superFieldInstructionList = addElement(superFieldInstructionList, superFieldInstruction);
 		if(parent != null) {
 			parent.addSuperFieldInstruction(superFieldInstruction);
 		}
 	}
 
 	private void addLocalVariableDeclaration(LocalVariableDeclarationObject localVariable) {
-		localVariableDeclarationList.add(localVariable);
+		localVariableDeclarationList = addElement(localVariableDeclarationList, localVariable);
 		if(parent != null) {
 			parent.addLocalVariableDeclaration(localVariable);
 		}
 	}
 
 	private void addLocalVariableInstruction(LocalVariableInstructionObject localVariable) {
-		localVariableInstructionList.add(localVariable);
+		localVariableInstructionList = addElement(localVariableInstructionList, localVariable);
 		if(parent != null) {
 			parent.addLocalVariableInstruction(localVariable);
 		}
 	}
 
 	private void addDeclaredLocalVariable(PlainVariable variable) {
-		declaredLocalVariables.add(variable);
+		declaredLocalVariables = addElement(declaredLocalVariables, variable);
 		if(parent != null) {
 			parent.addDeclaredLocalVariable(variable);
 		}
 	}
 
 	private void addDefinedLocalVariable(PlainVariable variable) {
-		definedLocalVariables.add(variable);
+		definedLocalVariables = addElement(definedLocalVariables, variable);
 		if(parent != null) {
 			parent.addDefinedLocalVariable(variable);
 		}
 	}
 
 	private void addUsedLocalVariable(PlainVariable variable) {
-		usedLocalVariables.add(variable);
+		usedLocalVariables = addElement(usedLocalVariables, variable);
 		if(parent != null) {
 			parent.addUsedLocalVariable(variable);
 		}
@@ -419,14 +398,14 @@ public abstract class AbstractMethodFragment {
 	}
 
 	private void addMethodInvocation(MethodInvocationObject methodInvocationObject) {
-		methodInvocationList.add(methodInvocationObject);
+		methodInvocationList = addElement(methodInvocationList, methodInvocationObject);
 		if(parent != null) {
 			parent.addMethodInvocation(methodInvocationObject);
 		}
 	}
 
 	private void addSuperMethodInvocation(SuperMethodInvocationObject superMethodInvocationObject) {
-		superMethodInvocationList.add(superMethodInvocationObject);
+		superMethodInvocationList = addElement(superMethodInvocationList, superMethodInvocationObject);
 		if(parent != null) {
 			parent.addSuperMethodInvocation(superMethodInvocationObject);
 		}
@@ -584,7 +563,7 @@ public abstract class AbstractMethodFragment {
 	}
 
 	private void addCreation(CreationObject creationObject) {
-		creationList.add(creationObject);
+		creationList = addElement(creationList, creationObject);
 		if(parent != null) {
 			parent.addCreation(creationObject);
 		}
@@ -598,14 +577,14 @@ public abstract class AbstractMethodFragment {
 	}
 
 	private void addLiteral(LiteralObject literalObject) {
-		literalList.add(literalObject);
+		literalList = addElement(literalList, literalObject);
 		if(parent != null) {
 			parent.addLiteral(literalObject);
 		}
 	}
 
 	private void addAnomymousClassDeclaration(AnonymousClassDeclarationObject anonymousClassObject) {
-		anonymousClassDeclarationList.add(anonymousClassObject);
+		anonymousClassDeclarationList = addElement(anonymousClassDeclarationList, anonymousClassObject);
 		if(parent != null) {
 			parent.addAnomymousClassDeclaration(anonymousClassObject);
 		}
@@ -621,7 +600,7 @@ public abstract class AbstractMethodFragment {
 	}
 
 	private void addExceptionInThrowStatement(String exception) {
-		exceptionsInThrowStatements.add(exception);
+		exceptionsInThrowStatements = addElement(exceptionsInThrowStatements, exception);
 		if(parent != null) {
 			parent.addExceptionInThrowStatement(exception);
 		}
@@ -643,6 +622,8 @@ public abstract class AbstractMethodFragment {
 	}
 */
 	private void addNonDistinctInvokedMethodThroughField(AbstractVariable field, MethodInvocationObject methodInvocation) {
+		if(nonDistinctInvokedMethodsThroughFields == null)
+			nonDistinctInvokedMethodsThroughFields = new LinkedHashMap<AbstractVariable, ArrayList<MethodInvocationObject>>();
 		if(nonDistinctInvokedMethodsThroughFields.containsKey(field)) {
 			ArrayList<MethodInvocationObject> methodInvocations = nonDistinctInvokedMethodsThroughFields.get(field);
 			methodInvocations.add(methodInvocation);
@@ -673,6 +654,8 @@ public abstract class AbstractMethodFragment {
 	}
 */
 	private void addNonDistinctInvokedMethodThroughParameter(AbstractVariable parameter, MethodInvocationObject methodInvocation) {
+		if(nonDistinctInvokedMethodsThroughParameters == null)
+			nonDistinctInvokedMethodsThroughParameters = new LinkedHashMap<AbstractVariable, ArrayList<MethodInvocationObject>>();
 		if(nonDistinctInvokedMethodsThroughParameters.containsKey(parameter)) {
 			ArrayList<MethodInvocationObject> methodInvocations = nonDistinctInvokedMethodsThroughParameters.get(parameter);
 			methodInvocations.add(methodInvocation);
@@ -703,6 +686,8 @@ public abstract class AbstractMethodFragment {
 	}
 */
 	private void addNonDistinctInvokedMethodThroughLocalVariable(AbstractVariable localVariable, MethodInvocationObject methodInvocation) {
+		if(nonDistinctInvokedMethodsThroughLocalVariables == null)
+			nonDistinctInvokedMethodsThroughLocalVariables = new LinkedHashMap<AbstractVariable, ArrayList<MethodInvocationObject>>();
 		if(nonDistinctInvokedMethodsThroughLocalVariables.containsKey(localVariable)) {
 			ArrayList<MethodInvocationObject> methodInvocations = nonDistinctInvokedMethodsThroughLocalVariables.get(localVariable);
 			methodInvocations.add(methodInvocation);
@@ -725,20 +710,22 @@ public abstract class AbstractMethodFragment {
 	}
 */
 	private void addNonDistinctInvokedMethodThroughThisReference(MethodInvocationObject methodInvocation) {
-		nonDistinctInvokedMethodsThroughThisReference.add(methodInvocation);
+		nonDistinctInvokedMethodsThroughThisReference = addElement(nonDistinctInvokedMethodsThroughThisReference, methodInvocation);
 		if(parent != null) {
 			parent.addNonDistinctInvokedMethodThroughThisReference(methodInvocation);
 		}
 	}
 
 	private void addStaticallyInvokedMethod(MethodInvocationObject methodInvocation) {
-		nonDistinctInvokedStaticMethods.add(methodInvocation);
+		nonDistinctInvokedStaticMethods = addElement(nonDistinctInvokedStaticMethods, methodInvocation);
 		if(parent != null) {
 			parent.addStaticallyInvokedMethod(methodInvocation);
 		}
 	}
 
 	private void addParameterPassedAsArgumentInMethodInvocation(PlainVariable parameter, MethodInvocationObject methodInvocation) {
+		if(parametersPassedAsArgumentsInMethodInvocations == null)
+			parametersPassedAsArgumentsInMethodInvocations = new LinkedHashMap<PlainVariable, LinkedHashSet<MethodInvocationObject>>();
 		if(parametersPassedAsArgumentsInMethodInvocations.containsKey(parameter)) {
 			LinkedHashSet<MethodInvocationObject> methodInvocations = parametersPassedAsArgumentsInMethodInvocations.get(parameter);
 			methodInvocations.add(methodInvocation);
@@ -754,6 +741,8 @@ public abstract class AbstractMethodFragment {
 	}
 
 	private void addParameterPassedAsArgumentInSuperMethodInvocation(PlainVariable parameter, SuperMethodInvocationObject methodInvocation) {
+		if(parametersPassedAsArgumentsInSuperMethodInvocations == null)
+			parametersPassedAsArgumentsInSuperMethodInvocations = new LinkedHashMap<PlainVariable, LinkedHashSet<SuperMethodInvocationObject>>();
 		if(parametersPassedAsArgumentsInSuperMethodInvocations.containsKey(parameter)) {
 			LinkedHashSet<SuperMethodInvocationObject> methodInvocations = parametersPassedAsArgumentsInSuperMethodInvocations.get(parameter);
 			methodInvocations.add(methodInvocation);
@@ -815,20 +804,20 @@ public abstract class AbstractMethodFragment {
 			PlainVariable initialVariable = variable.getInitialVariable();
 			if(variable instanceof PlainVariable) {
 				//definedFieldsThroughThisReference.add((PlainVariable)variable);
-				nonDistinctDefinedFieldsThroughThisReference.add((PlainVariable)variable);
+				nonDistinctDefinedFieldsThroughThisReference = addElement(nonDistinctDefinedFieldsThroughThisReference, (PlainVariable)variable);
 			}
 			else {
 				if(initialVariable.isField()) {
 					//definedFieldsThroughFields.add(variable);
-					nonDistinctDefinedFieldsThroughFields.add(variable);
+					nonDistinctDefinedFieldsThroughFields = addElement(nonDistinctDefinedFieldsThroughFields, variable);
 				}
 				else if(initialVariable.isParameter()) {
 					//definedFieldsThroughParameters.add(variable);
-					nonDistinctDefinedFieldsThroughParameters.add(variable);
+					nonDistinctDefinedFieldsThroughParameters = addElement(nonDistinctDefinedFieldsThroughParameters, variable);
 				}
 				else {
 					//definedFieldsThroughLocalVariables.add(variable);
-					nonDistinctDefinedFieldsThroughLocalVariables.add(variable);
+					nonDistinctDefinedFieldsThroughLocalVariables = addElement(nonDistinctDefinedFieldsThroughLocalVariables, variable);
 				}
 			}
 			if(parent != null) {
@@ -842,20 +831,20 @@ public abstract class AbstractMethodFragment {
 			PlainVariable initialVariable = variable.getInitialVariable();
 			if(variable instanceof PlainVariable) {
 				//usedFieldsThroughThisReference.add((PlainVariable)variable);
-				nonDistinctUsedFieldsThroughThisReference.add((PlainVariable)variable);
+				nonDistinctUsedFieldsThroughThisReference = addElement(nonDistinctUsedFieldsThroughThisReference, (PlainVariable)variable);
 			}
 			else {
 				if(initialVariable.isField()) {
 					//usedFieldsThroughFields.add(variable);
-					nonDistinctUsedFieldsThroughFields.add(variable);
+					nonDistinctUsedFieldsThroughFields = addElement(nonDistinctUsedFieldsThroughFields, variable);
 				}
 				else if(initialVariable.isParameter()) {
 					//usedFieldsThroughParameters.add(variable);
-					nonDistinctUsedFieldsThroughParameters.add(variable);
+					nonDistinctUsedFieldsThroughParameters = addElement(nonDistinctUsedFieldsThroughParameters, variable);
 				}
 				else {
 					//usedFieldsThroughLocalVariables.add(variable);
-					nonDistinctUsedFieldsThroughLocalVariables.add(variable);
+					nonDistinctUsedFieldsThroughLocalVariables = addElement(nonDistinctUsedFieldsThroughLocalVariables, variable);
 				}
 			}
 			if(parent != null) {
@@ -865,36 +854,36 @@ public abstract class AbstractMethodFragment {
 	}
 
 	public List<FieldInstructionObject> getFieldInstructions() {
-		return fieldInstructionList;
+		return fieldInstructionList != null ? fieldInstructionList : Collections.<FieldInstructionObject>emptyList();
 	}
 
 	public List<SuperFieldInstructionObject> getSuperFieldInstructions() {
-		return superFieldInstructionList;
+		return superFieldInstructionList != null ? superFieldInstructionList : Collections.<SuperFieldInstructionObject>emptyList();
 	}
 
 	public List<LocalVariableDeclarationObject> getLocalVariableDeclarations() {
-		return localVariableDeclarationList;
+		return localVariableDeclarationList != null ? localVariableDeclarationList : Collections.<LocalVariableDeclarationObject>emptyList();
 	}
 
 	public List<LocalVariableInstructionObject> getLocalVariableInstructions() {
-		return localVariableInstructionList;
+		return localVariableInstructionList != null ? localVariableInstructionList : Collections.<LocalVariableInstructionObject>emptyList();
 	}
 
 	public List<MethodInvocationObject> getMethodInvocations() {
-		return methodInvocationList;
+		return methodInvocationList != null ? methodInvocationList : Collections.<MethodInvocationObject>emptyList();
 	}
 
 	public List<SuperMethodInvocationObject> getSuperMethodInvocations() {
-		return superMethodInvocationList;
+		return superMethodInvocationList != null ? superMethodInvocationList : Collections.<SuperMethodInvocationObject>emptyList();
 	}
 
 	public List<CreationObject> getCreations() {
-		return creationList;
+		return creationList != null ? creationList : Collections.<CreationObject>emptyList();
 	}
 
 	public List<ClassInstanceCreationObject> getClassInstanceCreations() {
 		List<ClassInstanceCreationObject> classInstanceCreations = new ArrayList<ClassInstanceCreationObject>();
-		for(CreationObject creation : creationList) {
+		for(CreationObject creation : getCreations()) {
 			if(creation instanceof ClassInstanceCreationObject) {
 				classInstanceCreations.add((ClassInstanceCreationObject)creation);
 			}
@@ -904,7 +893,7 @@ public abstract class AbstractMethodFragment {
 
 	public List<ArrayCreationObject> getArrayCreations() {
 		List<ArrayCreationObject> arrayCreations = new ArrayList<ArrayCreationObject>();
-		for(CreationObject creation : creationList) {
+		for(CreationObject creation : getCreations()) {
 			if(creation instanceof ArrayCreationObject) {
 				arrayCreations.add((ArrayCreationObject)creation);
 			}
@@ -913,38 +902,38 @@ public abstract class AbstractMethodFragment {
 	}
 
 	public List<LiteralObject> getLiterals() {
-		return literalList;
+		return literalList != null ? literalList : Collections.<LiteralObject>emptyList();
 	}
 
 	public List<AnonymousClassDeclarationObject> getAnonymousClassDeclarations() {
-		return anonymousClassDeclarationList;
+		return anonymousClassDeclarationList != null ? anonymousClassDeclarationList : Collections.<AnonymousClassDeclarationObject>emptyList();
 	}
 
 	public Set<String> getExceptionsInThrowStatements() {
-		return exceptionsInThrowStatements;
+		return exceptionsInThrowStatements != null ? exceptionsInThrowStatements : Collections.<String>emptySet();
 	}
 
 	public boolean containsMethodInvocation(MethodInvocationObject methodInvocation) {
-		return methodInvocationList.contains(methodInvocation);
+		return getMethodInvocations().contains(methodInvocation);
 	}
 
 	public boolean containsFieldInstruction(FieldInstructionObject fieldInstruction) {
-		return fieldInstructionList.contains(fieldInstruction);
+		return getFieldInstructions().contains(fieldInstruction);
 	}
 
 	public boolean containsSuperMethodInvocation(SuperMethodInvocationObject superMethodInvocation) {
-		return superMethodInvocationList.contains(superMethodInvocation);
+		return getSuperMethodInvocations().contains(superMethodInvocation);
 	}
 
 	public boolean containsLocalVariableDeclaration(LocalVariableDeclarationObject lvdo) {
-		return localVariableDeclarationList.contains(lvdo);
+		return getLocalVariableDeclarations().contains(lvdo);
 	}
 
 	public Map<AbstractVariable, LinkedHashSet<MethodInvocationObject>> getInvokedMethodsThroughFields() {
 		Map<AbstractVariable, LinkedHashSet<MethodInvocationObject>> invokedMethodsThroughFields =
 				new LinkedHashMap<AbstractVariable, LinkedHashSet<MethodInvocationObject>>();
-		for(AbstractVariable key : nonDistinctInvokedMethodsThroughFields.keySet()) {
-			invokedMethodsThroughFields.put(key, new LinkedHashSet<MethodInvocationObject>(nonDistinctInvokedMethodsThroughFields.get(key)));
+		for(AbstractVariable key : getNonDistinctInvokedMethodsThroughFields().keySet()) {
+			invokedMethodsThroughFields.put(key, new LinkedHashSet<MethodInvocationObject>(getNonDistinctInvokedMethodsThroughFields().get(key)));
 		}
 		return invokedMethodsThroughFields;
 	}
@@ -952,130 +941,227 @@ public abstract class AbstractMethodFragment {
 	public Map<AbstractVariable, LinkedHashSet<MethodInvocationObject>> getInvokedMethodsThroughParameters() {
 		Map<AbstractVariable, LinkedHashSet<MethodInvocationObject>> invokedMethodsThroughParameters =
 				new LinkedHashMap<AbstractVariable, LinkedHashSet<MethodInvocationObject>>();
-		for(AbstractVariable key : nonDistinctInvokedMethodsThroughParameters.keySet()) {
-			invokedMethodsThroughParameters.put(key, new LinkedHashSet<MethodInvocationObject>(nonDistinctInvokedMethodsThroughParameters.get(key)));
+		for(AbstractVariable key : getNonDistinctInvokedMethodsThroughParameters().keySet()) {
+			invokedMethodsThroughParameters.put(key, new LinkedHashSet<MethodInvocationObject>(getNonDistinctInvokedMethodsThroughParameters().get(key)));
 		}
 		return invokedMethodsThroughParameters;
 	}
 
 	public Map<AbstractVariable, ArrayList<MethodInvocationObject>> getNonDistinctInvokedMethodsThroughFields() {
-		return nonDistinctInvokedMethodsThroughFields;
+		return nonDistinctInvokedMethodsThroughFields != null ? nonDistinctInvokedMethodsThroughFields : Collections.<AbstractVariable, ArrayList<MethodInvocationObject>>emptyMap();
 	}
 
 	public Map<AbstractVariable, ArrayList<MethodInvocationObject>> getNonDistinctInvokedMethodsThroughParameters() {
-		return nonDistinctInvokedMethodsThroughParameters;
+		return nonDistinctInvokedMethodsThroughParameters != null ? nonDistinctInvokedMethodsThroughParameters : Collections.<AbstractVariable, ArrayList<MethodInvocationObject>>emptyMap();
 	}
 
 	public Map<AbstractVariable, LinkedHashSet<MethodInvocationObject>> getInvokedMethodsThroughLocalVariables() {
 		Map<AbstractVariable, LinkedHashSet<MethodInvocationObject>> invokedMethodsThroughLocalVariables =
 				new LinkedHashMap<AbstractVariable, LinkedHashSet<MethodInvocationObject>>();
-		for(AbstractVariable key : nonDistinctInvokedMethodsThroughLocalVariables.keySet()) {
-			invokedMethodsThroughLocalVariables.put(key, new LinkedHashSet<MethodInvocationObject>(nonDistinctInvokedMethodsThroughLocalVariables.get(key)));
+		for(AbstractVariable key : getNonDistinctInvokedMethodsThroughLocalVariables().keySet()) {
+			invokedMethodsThroughLocalVariables.put(key, new LinkedHashSet<MethodInvocationObject>(getNonDistinctInvokedMethodsThroughLocalVariables().get(key)));
 		}
 		return invokedMethodsThroughLocalVariables;
 	}
 
 	public Map<AbstractVariable, ArrayList<MethodInvocationObject>> getNonDistinctInvokedMethodsThroughLocalVariables() {
-		return nonDistinctInvokedMethodsThroughLocalVariables;
+		return nonDistinctInvokedMethodsThroughLocalVariables != null ? nonDistinctInvokedMethodsThroughLocalVariables : Collections.<AbstractVariable, ArrayList<MethodInvocationObject>>emptyMap();
 	}
 
 	public Set<MethodInvocationObject> getInvokedMethodsThroughThisReference() {
-		return new LinkedHashSet<MethodInvocationObject>(nonDistinctInvokedMethodsThroughThisReference);
+		return new LinkedHashSet<MethodInvocationObject>(getNonDistinctInvokedMethodsThroughThisReference());
 	}
 
 	public List<MethodInvocationObject> getNonDistinctInvokedMethodsThroughThisReference() {
-		return nonDistinctInvokedMethodsThroughThisReference;
+		return nonDistinctInvokedMethodsThroughThisReference != null ? nonDistinctInvokedMethodsThroughThisReference : Collections.<MethodInvocationObject>emptyList();
 	}
 
 	public Set<MethodInvocationObject> getInvokedStaticMethods() {
-		return new LinkedHashSet<MethodInvocationObject>(nonDistinctInvokedStaticMethods);
+		return new LinkedHashSet<MethodInvocationObject>(getNonDistinctInvokedStaticMethods());
 	}
 
 	public List<MethodInvocationObject> getNonDistinctInvokedStaticMethods() {
-		return nonDistinctInvokedStaticMethods;
+		return nonDistinctInvokedStaticMethods != null ? nonDistinctInvokedStaticMethods : Collections.<MethodInvocationObject>emptyList();
 	}
 
 	public Set<AbstractVariable> getDefinedFieldsThroughFields() {
-		return new LinkedHashSet<AbstractVariable>(nonDistinctDefinedFieldsThroughFields);
+		return new LinkedHashSet<AbstractVariable>(getNonDistinctDefinedFieldsThroughFields());
 	}
 
 	public Set<AbstractVariable> getUsedFieldsThroughFields() {
-		return new LinkedHashSet<AbstractVariable>(nonDistinctUsedFieldsThroughFields);
+		return new LinkedHashSet<AbstractVariable>(getNonDistinctUsedFieldsThroughFields());
 	}
 
 	public List<AbstractVariable> getNonDistinctDefinedFieldsThroughFields() {
-		return nonDistinctDefinedFieldsThroughFields;
+		return nonDistinctDefinedFieldsThroughFields != null ? nonDistinctDefinedFieldsThroughFields : Collections.<AbstractVariable>emptyList();
 	}
 
 	public List<AbstractVariable> getNonDistinctUsedFieldsThroughFields() {
-		return nonDistinctUsedFieldsThroughFields;
+		return nonDistinctUsedFieldsThroughFields != null ? nonDistinctUsedFieldsThroughFields : Collections.<AbstractVariable>emptyList();
 	}
 
 	public Set<AbstractVariable> getDefinedFieldsThroughParameters() {
-		return new LinkedHashSet<AbstractVariable>(nonDistinctDefinedFieldsThroughParameters);
+		return new LinkedHashSet<AbstractVariable>(getNonDistinctDefinedFieldsThroughParameters());
 	}
 
 	public Set<AbstractVariable> getUsedFieldsThroughParameters() {
-		return new LinkedHashSet<AbstractVariable>(nonDistinctUsedFieldsThroughParameters);
+		return new LinkedHashSet<AbstractVariable>(getNonDistinctUsedFieldsThroughParameters());
 	}
 
 	public List<AbstractVariable> getNonDistinctDefinedFieldsThroughParameters() {
-		return nonDistinctDefinedFieldsThroughParameters;
+		return nonDistinctDefinedFieldsThroughParameters != null ? nonDistinctDefinedFieldsThroughParameters : Collections.<AbstractVariable>emptyList();
 	}
 
 	public List<AbstractVariable> getNonDistinctUsedFieldsThroughParameters() {
-		return nonDistinctUsedFieldsThroughParameters;
+		return nonDistinctUsedFieldsThroughParameters != null ? nonDistinctUsedFieldsThroughParameters : Collections.<AbstractVariable>emptyList();
 	}
 
 	public Set<AbstractVariable> getDefinedFieldsThroughLocalVariables() {
-		return new LinkedHashSet<AbstractVariable>(nonDistinctDefinedFieldsThroughLocalVariables);
+		return new LinkedHashSet<AbstractVariable>(getNonDistinctDefinedFieldsThroughLocalVariables());
 	}
 
 	public Set<AbstractVariable> getUsedFieldsThroughLocalVariables() {
-		return new LinkedHashSet<AbstractVariable>(nonDistinctUsedFieldsThroughLocalVariables);
+		return new LinkedHashSet<AbstractVariable>(getNonDistinctUsedFieldsThroughLocalVariables());
 	}
 
 	public List<AbstractVariable> getNonDistinctDefinedFieldsThroughLocalVariables() {
-		return nonDistinctDefinedFieldsThroughLocalVariables;
+		return nonDistinctDefinedFieldsThroughLocalVariables != null ? nonDistinctDefinedFieldsThroughLocalVariables : Collections.<AbstractVariable>emptyList();
 	}
 
 	public List<AbstractVariable> getNonDistinctUsedFieldsThroughLocalVariables() {
-		return nonDistinctUsedFieldsThroughLocalVariables;
+		return nonDistinctUsedFieldsThroughLocalVariables != null ? nonDistinctUsedFieldsThroughLocalVariables : Collections.<AbstractVariable>emptyList();
 	}
 
 	public Set<PlainVariable> getDefinedFieldsThroughThisReference() {
-		return new LinkedHashSet<PlainVariable>(nonDistinctDefinedFieldsThroughThisReference);
+		return new LinkedHashSet<PlainVariable>(getNonDistinctDefinedFieldsThroughThisReference());
 	}
 
 	public List<PlainVariable> getNonDistinctDefinedFieldsThroughThisReference() {
-		return nonDistinctDefinedFieldsThroughThisReference;
+		return nonDistinctDefinedFieldsThroughThisReference != null ? nonDistinctDefinedFieldsThroughThisReference : Collections.<PlainVariable>emptyList();
 	}
 
 	public Set<PlainVariable> getUsedFieldsThroughThisReference() {
-		return new LinkedHashSet<PlainVariable>(nonDistinctUsedFieldsThroughThisReference);
+		return new LinkedHashSet<PlainVariable>(getNonDistinctUsedFieldsThroughThisReference());
 	}
 
 	public List<PlainVariable> getNonDistinctUsedFieldsThroughThisReference() {
-		return nonDistinctUsedFieldsThroughThisReference;
+		return nonDistinctUsedFieldsThroughThisReference != null ? nonDistinctUsedFieldsThroughThisReference : Collections.<PlainVariable>emptyList();
 	}
 
 	public Set<PlainVariable> getDeclaredLocalVariables() {
-		return declaredLocalVariables;
+		return declaredLocalVariables != null ? declaredLocalVariables : Collections.<PlainVariable>emptySet();
 	}
 
 	public Set<PlainVariable> getDefinedLocalVariables() {
-		return definedLocalVariables;
+		return definedLocalVariables != null ? definedLocalVariables : Collections.<PlainVariable>emptySet();
 	}
 
 	public Set<PlainVariable> getUsedLocalVariables() {
-		return usedLocalVariables;
+		return usedLocalVariables != null ? usedLocalVariables : Collections.<PlainVariable>emptySet();
 	}
 
 	public Map<PlainVariable, LinkedHashSet<MethodInvocationObject>> getParametersPassedAsArgumentsInMethodInvocations() {
-		return parametersPassedAsArgumentsInMethodInvocations;
+		return parametersPassedAsArgumentsInMethodInvocations != null ? parametersPassedAsArgumentsInMethodInvocations : Collections.<PlainVariable, LinkedHashSet<MethodInvocationObject>>emptyMap();
 	}
 
 	public Map<PlainVariable, LinkedHashSet<SuperMethodInvocationObject>> getParametersPassedAsArgumentsInSuperMethodInvocations() {
-		return parametersPassedAsArgumentsInSuperMethodInvocations;
+		return parametersPassedAsArgumentsInSuperMethodInvocations != null ? parametersPassedAsArgumentsInSuperMethodInvocations : Collections.<PlainVariable, LinkedHashSet<SuperMethodInvocationObject>>emptyMap();
+	}
+
+	private static <T> List<T> addElement(List<T> list, T element) {
+		if(list == null)
+			list = new ArrayList<T>();
+		list.add(element);
+		return list;
+	}
+
+	private static <T> Set<T> addElement(Set<T> set, T element) {
+		if(set == null)
+			set = new LinkedHashSet<T>();
+		set.add(element);
+		return set;
+	}
+
+	private static <T> List<T> compactList(List<T> list) {
+		if(list instanceof ArrayList)
+			((ArrayList<T>)list).trimToSize();
+		return list;
+	}
+
+	private static <T> Set<T> compactSet(Set<T> set) {
+		if(set != null && set.size() <= MAXIMUM_ARRAY_SET_SIZE && !(set instanceof ArraySet))
+			return new ArraySet<T>(set);
+		return set;
+	}
+
+	//releases the unused capacity of the collections, after all the fragments of a method body have been created
+	void compact() {
+		methodInvocationList = compactList(methodInvocationList);
+		superMethodInvocationList = compactList(superMethodInvocationList);
+		fieldInstructionList = compactList(fieldInstructionList);
+		superFieldInstructionList = compactList(superFieldInstructionList);
+		localVariableDeclarationList = compactList(localVariableDeclarationList);
+		localVariableInstructionList = compactList(localVariableInstructionList);
+		creationList = compactList(creationList);
+		literalList = compactList(literalList);
+		anonymousClassDeclarationList = compactList(anonymousClassDeclarationList);
+		nonDistinctInvokedMethodsThroughThisReference = compactList(nonDistinctInvokedMethodsThroughThisReference);
+		nonDistinctInvokedStaticMethods = compactList(nonDistinctInvokedStaticMethods);
+		nonDistinctDefinedFieldsThroughFields = compactList(nonDistinctDefinedFieldsThroughFields);
+		nonDistinctUsedFieldsThroughFields = compactList(nonDistinctUsedFieldsThroughFields);
+		nonDistinctDefinedFieldsThroughParameters = compactList(nonDistinctDefinedFieldsThroughParameters);
+		nonDistinctUsedFieldsThroughParameters = compactList(nonDistinctUsedFieldsThroughParameters);
+		nonDistinctDefinedFieldsThroughLocalVariables = compactList(nonDistinctDefinedFieldsThroughLocalVariables);
+		nonDistinctUsedFieldsThroughLocalVariables = compactList(nonDistinctUsedFieldsThroughLocalVariables);
+		nonDistinctDefinedFieldsThroughThisReference = compactList(nonDistinctDefinedFieldsThroughThisReference);
+		nonDistinctUsedFieldsThroughThisReference = compactList(nonDistinctUsedFieldsThroughThisReference);
+		exceptionsInThrowStatements = compactSet(exceptionsInThrowStatements);
+		declaredLocalVariables = compactSet(declaredLocalVariables);
+		definedLocalVariables = compactSet(definedLocalVariables);
+		usedLocalVariables = compactSet(usedLocalVariables);
+		if(nonDistinctInvokedMethodsThroughFields != null) {
+			for(ArrayList<MethodInvocationObject> methodInvocations : nonDistinctInvokedMethodsThroughFields.values())
+				methodInvocations.trimToSize();
+		}
+		if(nonDistinctInvokedMethodsThroughParameters != null) {
+			for(ArrayList<MethodInvocationObject> methodInvocations : nonDistinctInvokedMethodsThroughParameters.values())
+				methodInvocations.trimToSize();
+		}
+		if(nonDistinctInvokedMethodsThroughLocalVariables != null) {
+			for(ArrayList<MethodInvocationObject> methodInvocations : nonDistinctInvokedMethodsThroughLocalVariables.values())
+				methodInvocations.trimToSize();
+		}
+	}
+
+	void estimateFootprint(HeapFootprint footprint) {
+		footprint.addFragment();
+		footprint.addCollection(methodInvocationList);
+		footprint.addCollection(superMethodInvocationList);
+		footprint.addCollection(fieldInstructionList);
+		footprint.addCollection(superFieldInstructionList);
+		footprint.addCollection(localVariableDeclarationList);
+		footprint.addCollection(localVariableInstructionList);
+		footprint.addCollection(creationList);
+		footprint.addCollection(literalList);
+		footprint.addCollection(anonymousClassDeclarationList);
+		footprint.addCollection(nonDistinctInvokedMethodsThroughThisReference);
+		footprint.addCollection(nonDistinctInvokedStaticMethods);
+		footprint.addCollection(nonDistinctDefinedFieldsThroughFields);
+		footprint.addCollection(nonDistinctUsedFieldsThroughFields);
+		footprint.addCollection(nonDistinctDefinedFieldsThroughParameters);
+		footprint.addCollection(nonDistinctUsedFieldsThroughParameters);
+		footprint.addCollection(nonDistinctDefinedFieldsThroughLocalVariables);
+		footprint.addCollection(nonDistinctUsedFieldsThroughLocalVariables);
+		footprint.addCollection(nonDistinctDefinedFieldsThroughThisReference);
+		footprint.addCollection(nonDistinctUsedFieldsThroughThisReference);
+		footprint.addCollection(exceptionsInThrowStatements);
+		footprint.addCollection(declaredLocalVariables);
+		footprint.addCollection(definedLocalVariables);
+		footprint.addCollection(usedLocalVariables);
+		footprint.addMap(nonDistinctInvokedMethodsThroughFields);
+		footprint.addMap(nonDistinctInvokedMethodsThroughParameters);
+		footprint.addMap(nonDistinctInvokedMethodsThroughLocalVariables);
+		footprint.addMap(parametersPassedAsArgumentsInMethodInvocations);
+		footprint.addMap(parametersPassedAsArgumentsInSuperMethodInvocations);
 	}
 }
@@ -8,6 +8,7 @@ import gr.uom.java.ast.ASTInformationGenerator;
 import org.eclipse.jdt.core.dom.Statement;
 
 public abstract class AbstractStatement extends AbstractMethodFragment {
+	private static final long serialVersionUID = 1L;
 
 	private ASTInformation statement;
 	private StatementType type;
@@ -1,9 +1,13 @@
 package gr.uom.java.ast.decomposition;
 
+import gr.uom.java.ast.HeapFootprint;
+
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 
-public class CatchClauseObject {
+public class CatchClauseObject implements Serializable {
+	private static final long serialVersionUID = 1L;
 	
 	private CompositeStatementObject body;
 	private List<AbstractExpression> expressionList;
@@ -48,6 +52,26 @@ public class CatchClauseObject {
 		this.exceptionTypes.add(exceptionType);
 	}
 
+	void compact() {
+		((ArrayList<AbstractExpression>)expressionList).trimToSize();
+		((ArrayList<String>)exceptionTypes).trimToSize();
+		if(body != null)
+			body.compact();
+		for(AbstractExpression expression : expressionList) {
+			expression.compact();
+		}
+	}
+
+	void estimateFootprint(HeapFootprint footprint) {
+		footprint.addCollection(expressionList);
+		footprint.addCollection(exceptionTypes);
+		if(body != null)
+			body.estimateFootprint(footprint);
+		for(AbstractExpression expression : expressionList) {
+			expression.estimateFootprint(footprint);
+		}
+	}
+
 	public List<String> stringRepresentation() {
 		List<String> stringRepresentation = new ArrayList<String>();
 		stringRepresentation.add(this.toString());
@@ -3,6 +3,7 @@ package gr.uom.java.ast.decomposition;
 import gr.uom.java.ast.AnonymousClassDeclarationObject;
 import gr.uom.java.ast.CreationObject;
 import gr.uom.java.ast.FieldInstructionObject;
+import gr.uom.java.ast.HeapFootprint;
 import gr.uom.java.ast.LiteralObject;
 import gr.uom.java.ast.LocalVariableDeclarationObject;
 import gr.uom.java.ast.LocalVariableInstructionObject;
@@ -33,6 +34,7 @@ import org.eclipse.jdt.core.dom.Statement;
  */
 
 public class CompositeStatementObject extends AbstractStatement {
+	private static final long serialVersionUID = 1L;
 	
 	private List<AbstractStatement> statementList;
 	private List<AbstractExpression> expressionList;
@@ -61,6 +63,30 @@ public class CompositeStatementObject extends AbstractStatement {
 		return expressionList;
 	}
 
+	void compact() {
+		super.compact();
+		((ArrayList<AbstractStatement>)statementList).trimToSize();
+		((ArrayList<AbstractExpression>)expressionList).trimToSize();
+		for(AbstractStatement statement : statementList) {
+			statement.compact();
+		}
+		for(AbstractExpression expression : expressionList) {
+			expression.compact();
+		}
+	}
+
+	void estimateFootprint(HeapFootprint footprint) {
+		super.estimateFootprint(footprint);
+		footprint.addCollection(statementList);
+		footprint.addCollection(expressionList);
+		for(AbstractStatement statement : statementList) {
+			statement.estimateFootprint(footprint);
+		}
+		for(AbstractExpression expression : expressionList) {
+			expression.estimateFootprint(footprint);
+		}
+	}
+
 	public List<FieldInstructionObject> getFieldInstructionsInExpressions() {
 		List<FieldInstructionObject> fieldInstructions = new ArrayList<FieldInstructionObject>();
 		for(AbstractExpression expression : expressionList) {
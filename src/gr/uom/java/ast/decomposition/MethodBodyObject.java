@@ -3,6 +3,7 @@ package gr.uom.java.ast.decomposition;
 import gr.uom.java.ast.AnonymousClassDeclarationObject;
 import gr.uom.java.ast.CreationObject;
 import gr.uom.java.ast.FieldInstructionObject;
+import gr.uom.java.ast.HeapFootprint;
 import gr.uom.java.ast.LiteralObject;
 import gr.uom.java.ast.LocalVariableDeclarationObject;
 import gr.uom.java.ast.LocalVariableInstructionObject;
@@ -11,10 +12,11 @@ import gr.uom.java.ast.SuperFieldInstructionObject;
 import gr.uom.java.ast.SuperMethodInvocationObject;
 import gr.uom.java.ast.decomposition.cfg.AbstractVariable;
 import gr.uom.java.ast.decomposition.cfg.PlainVariable;
-import gr.uom.java.ast.util.ExpressionExtractor;
+import gr.uom.java.ast.util.CategorizedExpressions;
 import gr.uom.java.ast.util.StatementExtractor;
 import gr.uom.java.jdeodorant.refactoring.manipulators.TypeCheckElimination;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -50,7 +52,8 @@ import org.eclipse.jdt.core.dom.VariableDeclarationExpression;
 import org.eclipse.jdt.core.dom.VariableDeclarationStatement;
 import org.eclipse.jdt.core.dom.WhileStatement;
 
-public class MethodBodyObject {
+public class MethodBodyObject implements Serializable {
+	private static final long serialVersionUID = 1L;
 	
 	private CompositeStatementObject compositeStatement;
 	
@@ -60,6 +63,13 @@ public class MethodBodyObject {
 		for(Statement statement : statements) {
 			processStatement(compositeStatement, statement);
 		}
+		compositeStatement.compact();
+	}
+
+	public HeapFootprint getHeapFootprint() {
+		HeapFootprint footprint = new HeapFootprint();
+		compositeStatement.estimateFootprint(footprint);
+		return footprint;
 	}
 
 	public CompositeStatementObject getCompositeStatement() {
@@ -360,8 +370,7 @@ public class MethodBodyObject {
 	}
 
 	public boolean containsSuperMethodInvocation() {
-		ExpressionExtractor expressionExtractor = new ExpressionExtractor();
-		List<Expression> superMethodInvocations = expressionExtractor.getSuperMethodInvocations(compositeStatement.getStatement());
+		List<Expression> superMethodInvocations = CategorizedExpressions.getInstance(compositeStatement.getStatement()).getSuperMethodInvocations();
 		if(!superMethodInvocations.isEmpty())
 			return true;
 		else
@@ -369,8 +378,7 @@ public class MethodBodyObject {
 	}
 
 	public boolean containsSuperFieldAccess() {
-		ExpressionExtractor expressionExtractor = new ExpressionExtractor();
-		List<Expression> superFieldAccesses = expressionExtractor.getSuperFieldAccesses(compositeStatement.getStatement());
+		List<Expression> superFieldAccesses = CategorizedExpressions.getInstance(compositeStatement.getStatement()).getSuperFieldAccesses();
 		if(!superFieldAccesses.isEmpty())
 			return true;
 		else
@@ -1,6 +1,6 @@
 package gr.uom.java.ast.decomposition;
 
-import gr.uom.java.ast.util.ExpressionExtractor;
+import gr.uom.java.ast.util.CategorizedExpressions;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -25,20 +25,21 @@ import org.eclipse.jdt.core.dom.ThrowStatement;
  */
 
 public class StatementObject extends AbstractStatement {
+	private static final long serialVersionUID = 1L;
 	
 	public StatementObject(Statement statement, StatementType type, AbstractMethodFragment parent) {
 		super(statement, type, parent);
 		
-		ExpressionExtractor expressionExtractor = new ExpressionExtractor();
-        List<Expression> assignments = expressionExtractor.getAssignments(statement);
-        List<Expression> postfixExpressions = expressionExtractor.getPostfixExpressions(statement);
-        List<Expression> prefixExpressions = expressionExtractor.getPrefixExpressions(statement);
-        processVariables(expressionExtractor.getVariableInstructions(statement), assignments, postfixExpressions, prefixExpressions);
-		processMethodInvocations(expressionExtractor.getMethodInvocations(statement));
-		processClassInstanceCreations(expressionExtractor.getClassInstanceCreations(statement));
-		processArrayCreations(expressionExtractor.getArrayCreations(statement));
-		//processArrayAccesses(expressionExtractor.getArrayAccesses(statement));
-		processLiterals(expressionExtractor.getLiterals(statement));
+		CategorizedExpressions categorizedExpressions = CategorizedExpressions.getInstance(statement);
+        List<Expression> assignments = categorizedExpressions.getAssignments();
+        List<Expression> postfixExpressions = categorizedExpressions.getPostfixExpressions();
+        List<Expression> prefixExpressions = categorizedExpressions.getPrefixExpressions();
+        processVariables(categorizedExpressions.getVariableInstructions(), assignments, postfixExpressions, prefixExpressions);
+		processMethodInvocations(categorizedExpressions.getMethodInvocations());
+		processClassInstanceCreations(categorizedExpressions.getClassInstanceCreations());
+		processArrayCreations(categorizedExpressions.getArrayCreations());
+		//processArrayAccesses(categorizedExpressions.getArrayAccesses());
+		processLiterals(categorizedExpressions.getLiterals());
 		if(statement instanceof ThrowStatement) {
 			processThrowStatement((ThrowStatement)statement);
 		}
@@ -4,6 +4,7 @@ import org.eclipse.jdt.core.dom.Statement;
 import org.eclipse.jdt.core.dom.SynchronizedStatement;
 
 public class SynchronizedStatementObject extends CompositeStatementObject {
+	private static final long serialVersionUID = 1L;
 
 	public SynchronizedStatementObject(Statement statement, AbstractMethodFragment parent) {
 		super(statement, StatementType.SYNCHRONIZED, parent);
@@ -1,11 +1,14 @@
 package gr.uom.java.ast.decomposition;
 
+import gr.uom.java.ast.HeapFootprint;
+
 import java.util.ArrayList;
 import java.util.List;
 
 import org.eclipse.jdt.core.dom.Statement;
 
 public class TryStatementObject extends CompositeStatementObject {
+	private static final long serialVersionUID = 1L;
 	private List<CatchClauseObject> catchClauses;
 	private CompositeStatementObject finallyClause;
 	
@@ -35,6 +38,26 @@ public class TryStatementObject extends CompositeStatementObject {
 		return finallyClause;
 	}
 
+	void compact() {
+		super.compact();
+		((ArrayList<CatchClauseObject>)catchClauses).trimToSize();
+		for(CatchClauseObject catchClause : catchClauses) {
+			catchClause.compact();
+		}
+		if(finallyClause != null)
+			finallyClause.compact();
+	}
+
+	void estimateFootprint(HeapFootprint footprint) {
+		super.estimateFootprint(footprint);
+		footprint.addCollection(catchClauses);
+		for(CatchClauseObject catchClause : catchClauses) {
+			catchClause.estimateFootprint(footprint);
+		}
+		if(finallyClause != null)
+			finallyClause.estimateFootprint(footprint);
+	}
+
 	public List<AbstractExpression> getExpressions() {
 		List<AbstractExpression> expressions = new ArrayList<AbstractExpression>();
 		expressions.addAll(super.getExpressions());
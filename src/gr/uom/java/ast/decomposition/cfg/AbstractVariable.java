@@ -1,9 +1,14 @@
 package gr.uom.java.ast.decomposition.cfg;
 
+import gr.uom.java.ast.util.StringInterner;
+
+import java.io.Serializable;
+
 import org.eclipse.jdt.core.dom.IVariableBinding;
 import org.eclipse.jdt.core.dom.VariableDeclaration;
 
-public abstract class AbstractVariable {
+public abstract class AbstractVariable implements Serializable {
+	private static final long serialVersionUID = 1L;
 	//protected VariableDeclaration name;
 	protected String variableBindingKey;
 	protected String variableName;
@@ -13,17 +18,17 @@ public abstract class AbstractVariable {
 	
 	public AbstractVariable(VariableDeclaration name) {
 		IVariableBinding variableBinding = name.resolveBinding();
-		this.variableBindingKey = variableBinding.getKey();
-		this.variableName = variableBinding.getName();
-		this.variableType = variableBinding.getType().getQualifiedName();
+		this.variableBindingKey = StringInterner.intern(variableBinding.getKey());
+		this.variableName = StringInterner.intern(variableBinding.getName());
+		this.variableType = StringInterner.intern(variableBinding.getType().getQualifiedName());
 		this.isField = variableBinding.isField();
 		this.isParameter = variableBinding.isParameter();
 	}
 
 	public AbstractVariable(String variableBindingKey, String variableName, String variableType, boolean isField, boolean isParameter) {
-		this.variableBindingKey = variableBindingKey;
-		this.variableName = variableName;
-		this.variableType = variableType;
+		this.variableBindingKey = StringInterner.intern(variableBindingKey);
+		this.variableName = StringInterner.intern(variableName);
+		this.variableType = StringInterner.intern(variableType);
 		this.isField = isField;
 		this.isParameter = isParameter;
 	}
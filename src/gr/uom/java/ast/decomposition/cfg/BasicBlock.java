@@ -4,7 +4,6 @@ import java.util.ArrayList;
 import java.util.List;
 
 public class BasicBlock {
-	private static int blockNum = 0;
 	private int id;
 	private CFGNode leader;
 	private List<CFGNode> nodes;
@@ -12,9 +11,8 @@ public class BasicBlock {
 	private BasicBlock previousBasicBlock;
 	private BasicBlock nextBasicBlock;
 	
-	public BasicBlock(CFGNode node) {
-		blockNum++;
-		this.id = blockNum;
+	public BasicBlock(CFGNode node, int id) {
+		this.id = id;
 		this.leader = node;
 		node.setBasicBlock(this);
 		this.nodes = new ArrayList<CFGNode>();
@@ -81,10 +79,6 @@ public class BasicBlock {
 		this.nextBasicBlock = nextBasicBlock;
 	}
 
-	public static void resetBlockNum() {
-		blockNum = 0;
-	}
-
 	public String toString() {
 		return leader.toString() + nodes.toString();
 	}
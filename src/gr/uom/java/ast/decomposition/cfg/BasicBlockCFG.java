@@ -1,7 +1,7 @@
 package gr.uom.java.ast.decomposition.cfg;
 
 import java.util.ArrayList;
-import java.util.LinkedHashMap;
+import java.util.BitSet;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -10,11 +10,12 @@ import java.util.TreeSet;
 
 public class BasicBlockCFG {
 	private List<BasicBlock> basicBlocks;
-	private Map<BasicBlock, Set<BasicBlock>> forwardReachableBlocks;
+	//the ids of the blocks forward reachable from every block, indexed by the id of the block
+	private BitSet[] forwardReachableBlockIds;
 	
 	public BasicBlockCFG(CFG cfg) {
 		this.basicBlocks = new ArrayList<BasicBlock>();
-		this.forwardReachableBlocks = new LinkedHashMap<BasicBlock, Set<BasicBlock>>();
+		int blockNum = 0;
 		TreeSet<GraphNode> allNodes = new TreeSet<GraphNode>(cfg.nodes);
 		Map<CFGBlockNode, List<CFGNode>> directlyNestedNodesInBlocks = cfg.getDirectlyNestedNodesInBlocks();
 		for(CFGBlockNode blockNode : directlyNestedNodesInBlocks.keySet()) {
@@ -34,7 +35,7 @@ public class BasicBlockCFG {
 				}
 			}
 			else if(cfgNode.isLeader()) {
-				BasicBlock basicBlock = new BasicBlock(cfgNode);
+				BasicBlock basicBlock = new BasicBlock(cfgNode, ++blockNum);
 				if(!basicBlocks.isEmpty()) {
 					BasicBlock previousBlock = basicBlocks.get(basicBlocks.size()-1);
 					previousBlock.setNextBasicBlock(basicBlock);
@@ -57,7 +58,7 @@ public class BasicBlockCFG {
 				}
 			}
 		}
-		BasicBlock.resetBlockNum();
+		this.forwardReachableBlockIds = new BitSet[blockNum+1];
 	}
 
 	public List<BasicBlock> getBasicBlocks() {
@@ -65,21 +66,35 @@ public class BasicBlockCFG {
 	}
 
 	public Set<BasicBlock> forwardReachableBlocks(BasicBlock basicBlock) {
-		if(forwardReachableBlocks.containsKey(basicBlock))
-			return forwardReachableBlocks.get(basicBlock);
-		Set<BasicBlock> reachableBlocks = new LinkedHashSet<BasicBlock>();
-		reachableBlocks.add(basicBlock);
-		CFGNode lastNode = basicBlock.getLastNode();
-		for(GraphEdge edge : lastNode.outgoingEdges) {
-			Flow flow = (Flow)edge;
-			if(!flow.isLoopbackFlow()) {
-				CFGNode dstNode = (CFGNode)flow.dst;
-				BasicBlock dstBasicBlock = dstNode.getBasicBlock();
-				reachableBlocks.add(dstBasicBlock);
-				reachableBlocks.addAll(forwardReachableBlocks(dstBasicBlock));
+		return getBasicBlocks(forwardReachableBlockIds(basicBlock));
+	}
+
+	//the blocks are numbered in the order they appear in the list of basic blocks, starting from 1
+	public Set<BasicBlock> getBasicBlocks(BitSet blockIds) {
+		Set<BasicBlock> blocks = new LinkedHashSet<BasicBlock>();
+		for(int id = blockIds.nextSetBit(0); id >= 0; id = blockIds.nextSetBit(id+1)) {
+			blocks.add(basicBlocks.get(id-1));
+		}
+		return blocks;
+	}
+
+	//the returned bit set is shared and must not be modified
+	public BitSet forwardReachableBlockIds(BasicBlock basicBlock) {
+		BitSet reachableBlockIds = forwardReachableBlockIds[basicBlock.getId()];
+		if(reachableBlockIds == null) {
+			reachableBlockIds = new BitSet(basicBlocks.size()+1);
+			reachableBlockIds.set(basicBlock.getId());
+			CFGNode lastNode = basicBlock.getLastNode();
+			for(GraphEdge edge : lastNode.outgoingEdges) {
+				Flow flow = (Flow)edge;
+				if(!flow.isLoopbackFlow()) {
+					CFGNode dstNode = (CFGNode)flow.dst;
+					BasicBlock dstBasicBlock = dstNode.getBasicBlock();
+					reachableBlockIds.or(forwardReachableBlockIds(dstBasicBlock));
+				}
 			}
+			forwardReachableBlockIds[basicBlock.getId()] = reachableBlockIds;
 		}
-		forwardReachableBlocks.put(basicBlock, reachableBlocks);
-		return reachableBlocks;
+		return reachableBlockIds;
 	}
 }
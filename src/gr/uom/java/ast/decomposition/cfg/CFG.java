@@ -40,6 +40,7 @@ public class CFG extends Graph {
 	private Map<CFGBranchSwitchNode, List<CFGNode>> switchBreakMap;
 	private Map<CFGBlockNode, List<CFGNode>> directlyNestedNodesInBlocks;
 	private BasicBlockCFG basicBlockCFG;
+	private int nodeNum;
 	
 	public CFG(AbstractMethodDeclaration method) {
 		this.method = method;
@@ -50,11 +51,17 @@ public class CFG extends Graph {
 		if(methodBody != null) {
 			CompositeStatementObject composite = methodBody.getCompositeStatement();
 			process(new ArrayList<CFGNode>(), composite);
-			GraphNode.resetNodeNum();
 			this.basicBlockCFG = new BasicBlockCFG(this);
 		}
 	}
 
+	//node ids are allocated per CFG instance, so that CFGs of different methods can be constructed concurrently
+	private <N extends CFGNode> N allocateId(N node) {
+		nodeNum++;
+		node.id = nodeNum;
+		return node;
+	}
+
 	public AbstractMethodDeclaration getMethod() {
 		return method;
 	}
@@ -73,7 +80,7 @@ public class CFG extends Graph {
 
 	private List<CFGNode> process(List<CFGNode> previousNodes, CompositeStatementObject composite) {
 		if(composite instanceof TryStatementObject) {
-			CFGTryNode tryNode = new CFGTryNode(composite);
+			CFGTryNode tryNode = allocateId(new CFGTryNode(composite));
 			directlyNestedNodeInBlock(tryNode);
 			findBlockNodeControlParent(tryNode);
 			directlyNestedNodesInBlocks.put(tryNode, new ArrayList<CFGNode>());
@@ -81,7 +88,7 @@ public class CFG extends Graph {
 			composite = (CompositeStatementObject)firstStatement;
 		}
 		else if(composite instanceof SynchronizedStatementObject) {
-			CFGSynchronizedNode synchronizedNode = new CFGSynchronizedNode(composite);
+			CFGSynchronizedNode synchronizedNode = allocateId(new CFGSynchronizedNode(composite));
 			directlyNestedNodeInBlock(synchronizedNode);
 			findBlockNodeControlParent(synchronizedNode);
 			directlyNestedNodesInBlocks.put(synchronizedNode, new ArrayList<CFGNode>());
@@ -161,7 +168,7 @@ public class CFG extends Graph {
 	}
 
 	private List<CFGNode> processSynchronizedStatement(List<CFGNode> previousNodes, CompositeStatementObject compositeStatement) {
-		CFGSynchronizedNode synchronizedNode = new CFGSynchronizedNode(compositeStatement);
+		CFGSynchronizedNode synchronizedNode = allocateId(new CFGSynchronizedNode(compositeStatement));
 		directlyNestedNodeInBlock(synchronizedNode);
 		findBlockNodeControlParent(synchronizedNode);
 		nodes.add(synchronizedNode);
@@ -179,7 +186,7 @@ public class CFG extends Graph {
 		TryStatementObject tryStatement = (TryStatementObject)compositeStatement;
 		if(!tryStatement.hasResources()) {
 			//if a try node does not have resources, it is treated as a block and is omitted
-			CFGTryNode tryNode = new CFGTryNode(compositeStatement);
+			CFGTryNode tryNode = allocateId(new CFGTryNode(compositeStatement));
 			//nodes.add(tryNode);
 			directlyNestedNodeInBlock(tryNode);
 			findBlockNodeControlParent(tryNode);
@@ -189,7 +196,7 @@ public class CFG extends Graph {
 		}
 		else {
 			//if a try node has resources, it is treated as a non-composite node
-			CFGTryNode tryNode = new CFGTryNode(compositeStatement);
+			CFGTryNode tryNode = allocateId(new CFGTryNode(compositeStatement));
 			directlyNestedNodeInBlock(tryNode);
 			findBlockNodeControlParent(tryNode);
 			nodes.add(tryNode);
@@ -227,7 +234,7 @@ public class CFG extends Graph {
 	private List<CFGNode> processDoStatement(List<CFGNode> previousNodes, CompositeStatementObject compositeStatement) {
 		List<CFGNode> tmpNodes = previousNodes;
 		previousNodes = process(previousNodes, compositeStatement);
-		CFGBranchNode currentNode = new CFGBranchDoLoopNode(compositeStatement);
+		CFGBranchNode currentNode = allocateId(new CFGBranchDoLoopNode(compositeStatement));
 		nodes.add(currentNode);
 		directlyNestedNodeInBlock(currentNode);
 		createTopDownFlow(previousNodes, currentNode);
@@ -245,7 +252,7 @@ public class CFG extends Graph {
 	}
 
 	private List<CFGNode> processLoopStatement(List<CFGNode> previousNodes, CompositeStatementObject compositeStatement) {
-		CFGBranchNode currentNode = new CFGBranchLoopNode(compositeStatement);
+		CFGBranchNode currentNode = allocateId(new CFGBranchLoopNode(compositeStatement));
 		nodes.add(currentNode);
 		directlyNestedNodeInBlock(currentNode);
 		createTopDownFlow(previousNodes, currentNode);
@@ -483,17 +490,17 @@ public class CFG extends Graph {
 		CFGNode currentNode;
 		Statement astStatement = statement.getStatement();
 		if(astStatement instanceof ReturnStatement)
-			currentNode = new CFGExitNode(statement);
+			currentNode = allocateId(new CFGExitNode(statement));
 		else if(astStatement instanceof SwitchCase)
-			currentNode = new CFGSwitchCaseNode(statement);
+			currentNode = allocateId(new CFGSwitchCaseNode(statement));
 		else if(astStatement instanceof BreakStatement)
-			currentNode = new CFGBreakNode(statement);
+			currentNode = allocateId(new CFGBreakNode(statement));
 		else if(astStatement instanceof ContinueStatement)
-			currentNode = new CFGContinueNode(statement);
+			currentNode = allocateId(new CFGContinueNode(statement));
 		else if(astStatement instanceof ThrowStatement)
-			currentNode = new CFGThrowNode(statement);
+			currentNode = allocateId(new CFGThrowNode(statement));
 		else
-			currentNode = new CFGNode(statement);
+			currentNode = allocateId(new CFGNode(statement));
 		directlyNestedNodeInBlock(currentNode);
 		return currentNode;
 	}
@@ -535,7 +542,7 @@ public class CFG extends Graph {
 	}
 
 	private List<CFGNode> processSwitchStatement(List<CFGNode> previousNodes, CompositeStatementObject compositeStatement, int action) {
-		CFGBranchSwitchNode currentNode = new CFGBranchSwitchNode(compositeStatement);
+		CFGBranchSwitchNode currentNode = allocateId(new CFGBranchSwitchNode(compositeStatement));
 		handleAction(currentNode, action);
 		nodes.add(currentNode);
 		directlyNestedNodeInBlock(currentNode);
@@ -557,7 +564,7 @@ public class CFG extends Graph {
 	}
 
 	private List<CFGNode> processIfStatement(List<CFGNode> previousNodes, CompositeStatementObject compositeStatement, int action) {
-		CFGBranchIfNode currentNode = new CFGBranchIfNode(compositeStatement);
+		CFGBranchIfNode currentNode = allocateId(new CFGBranchIfNode(compositeStatement));
 		handleAction(currentNode, action);
 		
 		nodes.add(currentNode);
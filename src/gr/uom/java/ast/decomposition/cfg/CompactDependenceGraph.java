@@ -0,0 +1,228 @@
+package gr.uom.java.ast.decomposition.cfg;
+
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/*
+ * An immutable storage for the dependences of a finished PDG in compressed sparse row form.
+ * The nodes are numbered and the dependences are stored once in an array grouped by their source node, in the order they were added to the source node.
+ * The incoming dependences of every node are kept as ranges of dependence indices in the order they were added to the node,
+ * and both the outgoing and the incoming dependences are also kept as ranges per dependence type, so that a traversal of a single type does not visit the others.
+ * The incoming and outgoing edge sets of the nodes, as well as the edge set of the PDG, are replaced with read-only views of their ranges.
+ */
+class CompactDependenceGraph {
+	private static final int TYPES = PDGDependenceType.values().length;
+	private PDGNode[] nodes;
+	private GraphEdge[] dependences;
+	private int[] dependenceTargets;
+	//the dependences of node i are within [outgoingOffsets[i], outgoingOffsets[i+1])
+	private int[] outgoingOffsets;
+	private int[] incomingOffsets;
+	private int[] incomingDependences;
+	//the dependences of node i with type t are within [offsets[i*TYPES+t], offsets[i*TYPES+t+1])
+	private int[] outgoingTypeOffsets;
+	private int[] outgoingTypeDependences;
+	private int[] incomingTypeOffsets;
+	private int[] incomingTypeDependences;
+	//the dependences in the order they were added to the PDG
+	private int[] edgeDependences;
+
+	CompactDependenceGraph(PDGMethodEntryNode entryNode, Set<GraphNode> pdgNodes, Set<GraphEdge> pdgEdges) {
+		List<PDGNode> nodeList = new ArrayList<PDGNode>();
+		Map<GraphNode, Integer> nodeIndices = new HashMap<GraphNode, Integer>();
+		nodeIndices.put(entryNode, nodeList.size());
+		nodeList.add(entryNode);
+		for(GraphNode node : pdgNodes) {
+			if(!nodeIndices.containsKey(node)) {
+				nodeIndices.put(node, nodeList.size());
+				nodeList.add((PDGNode)node);
+			}
+		}
+		//nodes that are not in the PDG but have dependences with its nodes are numbered as well
+		for(int i=0; i<nodeList.size(); i++) {
+			PDGNode node = nodeList.get(i);
+			for(GraphEdge edge : node.outgoingEdges) {
+				if(!nodeIndices.containsKey(edge.dst)) {
+					nodeIndices.put(edge.dst, nodeList.size());
+					nodeList.add((PDGNode)edge.dst);
+				}
+			}
+			for(GraphEdge edge : node.incomingEdges) {
+				if(!nodeIndices.containsKey(edge.src)) {
+					nodeIndices.put(edge.src, nodeList.size());
+					nodeList.add((PDGNode)edge.src);
+				}
+			}
+		}
+		this.nodes = nodeList.toArray(new PDGNode[nodeList.size()]);
+		int nodeCount = nodes.length;
+		List<GraphEdge> dependenceList = new ArrayList<GraphEdge>();
+		this.outgoingOffsets = new int[nodeCount+1];
+		for(int i=0; i<nodeCount; i++) {
+			outgoingOffsets[i] = dependenceList.size();
+			dependenceList.addAll(nodes[i].outgoingEdges);
+		}
+		outgoingOffsets[nodeCount] = dependenceList.size();
+		this.dependences = dependenceList.toArray(new GraphEdge[dependenceList.size()]);
+		int dependenceCount = dependences.length;
+		Map<GraphEdge, Integer> dependenceIndices = new HashMap<GraphEdge, Integer>();
+		this.dependenceTargets = new int[dependenceCount];
+		int[] dependenceSources = new int[dependenceCount];
+		int[] dependenceTypes = new int[dependenceCount];
+		for(int i=0; i<nodeCount; i++) {
+			for(int j=outgoingOffsets[i]; j<outgoingOffsets[i+1]; j++) {
+				PDGDependence dependence = (PDGDependence)dependences[j];
+				dependenceIndices.put(dependence, j);
+				dependenceSources[j] = i;
+				dependenceTargets[j] = nodeIndices.get(dependence.dst);
+				dependenceTypes[j] = dependence.getType().ordinal();
+			}
+		}
+		this.incomingOffsets = new int[nodeCount+1];
+		this.incomingDependences = new int[dependenceCount];
+		int position = 0;
+		for(int i=0; i<nodeCount; i++) {
+			incomingOffsets[i] = position;
+			for(GraphEdge edge : nodes[i].incomingEdges) {
+				incomingDependences[position++] = dependenceIndices.get(edge);
+			}
+		}
+		incomingOffsets[nodeCount] = position;
+		this.edgeDependences = new int[pdgEdges.size()];
+		position = 0;
+		for(GraphEdge edge : pdgEdges) {
+			edgeDependences[position++] = dependenceIndices.get(edge);
+		}
+		this.outgoingTypeOffsets = new int[nodeCount*TYPES+1];
+		this.outgoingTypeDependences = groupByType(outgoingOffsets, null, dependenceSources, dependenceTypes, outgoingTypeOffsets);
+		this.incomingTypeOffsets = new int[nodeCount*TYPES+1];
+		this.incomingTypeDependences = groupByType(incomingOffsets, incomingDependences, dependenceTargets, dependenceTypes, incomingTypeOffsets);
+	}
+
+	//a counting sort of the dependences in the given ranges by (node, type), which keeps the order of the dependences within each range
+	private int[] groupByType(int[] offsets, int[] rangeDependences, int[] dependenceNodes, int[] dependenceTypes, int[] typeOffsets) {
+		int nodeCount = offsets.length-1;
+		int size = offsets[nodeCount];
+		for(int k=0; k<size; k++) {
+			int dependence = rangeDependences != null ? rangeDependences[k] : k;
+			typeOffsets[dependenceNodes[dependence]*TYPES + dependenceTypes[dependence] + 1]++;
+		}
+		for(int i=1; i<typeOffsets.length; i++) {
+			typeOffsets[i] += typeOffsets[i-1];
+		}
+		int[] positions = new int[typeOffsets.length-1];
+		System.arraycopy(typeOffsets, 0, positions, 0, positions.length);
+		int[] typeDependences = new int[size];
+		for(int k=0; k<size; k++) {
+			int dependence = rangeDependences != null ? rangeDependences[k] : k;
+			typeDependences[positions[dependenceNodes[dependence]*TYPES + dependenceTypes[dependence]]++] = dependence;
+		}
+		return typeDependences;
+	}
+
+	//assigns the read-only views of the dependences to every node
+	void attachToNodes() {
+		for(int i=0; i<nodes.length; i++) {
+			nodes[i].setDependenceGraph(this, i);
+		}
+	}
+
+	Set<GraphEdge> getEdges() {
+		return new DependenceRange(edgeDependences, 0, edgeDependences.length);
+	}
+
+	Set<GraphEdge> getOutgoingDependences(int node) {
+		return new DependenceRange(null, outgoingOffsets[node], outgoingOffsets[node+1]);
+	}
+
+	Set<GraphEdge> getIncomingDependences(int node) {
+		return new DependenceRange(incomingDependences, incomingOffsets[node], incomingOffsets[node+1]);
+	}
+
+	Set<GraphEdge> getOutgoingDependences(int node, PDGDependenceType type) {
+		int index = node*TYPES + type.ordinal();
+		return new DependenceRange(outgoingTypeDependences, outgoingTypeOffsets[index], outgoingTypeOffsets[index+1]);
+	}
+
+	Set<GraphEdge> getIncomingDependences(int node, PDGDependenceType type) {
+		int index = node*TYPES + type.ordinal();
+		return new DependenceRange(incomingTypeDependences, incomingTypeOffsets[index], incomingTypeOffsets[index+1]);
+	}
+
+	//the incoming dependences followed by the outgoing dependences, where a dependence of the node on itself appears only once
+	Iterator<GraphEdge> getDependenceIterator(final int node) {
+		final Iterator<GraphEdge> incomingIterator = getIncomingDependences(node).iterator();
+		return new Iterator<GraphEdge>() {
+			private int next = nextOutgoing(outgoingOffsets[node]);
+
+			private int nextOutgoing(int position) {
+				while(position < outgoingOffsets[node+1] && dependenceTargets[position] == node)
+					position++;
+				return position;
+			}
+
+			public boolean hasNext() {
+				return incomingIterator.hasNext() || next < outgoingOffsets[node+1];
+			}
+
+			public GraphEdge next() {
+				if(incomingIterator.hasNext())
+					return incomingIterator.next();
+				if(next >= outgoingOffsets[node+1])
+					throw new NoSuchElementException();
+				GraphEdge dependence = dependences[next];
+				next = nextOutgoing(next+1);
+				return dependence;
+			}
+
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+		};
+	}
+
+	private class DependenceRange extends AbstractSet<GraphEdge> {
+		//the indices of the dependences, or null if the range is over the dependence array itself
+		private int[] rangeDependences;
+		private int start;
+		private int end;
+
+		private DependenceRange(int[] rangeDependences, int start, int end) {
+			this.rangeDependences = rangeDependences;
+			this.start = start;
+			this.end = end;
+		}
+
+		public Iterator<GraphEdge> iterator() {
+			return new Iterator<GraphEdge>() {
+				private int position = start;
+
+				public boolean hasNext() {
+					return position < end;
+				}
+
+				public GraphEdge next() {
+					if(position >= end)
+						throw new NoSuchElementException();
+					int dependence = rangeDependences != null ? rangeDependences[position] : position;
+					position++;
+					return dependences[dependence];
+				}
+
+				public void remove() {
+					throw new UnsupportedOperationException();
+				}
+			};
+		}
+
+		public int size() {
+			return end - start;
+		}
+	}
+}
@@ -3,8 +3,9 @@ package gr.uom.java.ast.decomposition.cfg;
 import org.eclipse.jdt.core.dom.VariableDeclaration;
 
 public class CompositeVariable extends AbstractVariable {
+	private static final long serialVersionUID = 1L;
 	private AbstractVariable rightPart;
-	private volatile int hashCode = 0;
+	private transient volatile int hashCode = 0;
 	
 	public CompositeVariable(VariableDeclaration referenceName, AbstractVariable rightPart) {
 		super(referenceName);
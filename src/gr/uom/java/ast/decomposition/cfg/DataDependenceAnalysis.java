@@ -0,0 +1,461 @@
+package gr.uom.java.ast.decomposition.cfg;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/*
+ * The data, anti and output dependences of a PDG computed with a reaching definitions (and reaching uses) analysis over the basic blocks of its CFG.
+ * Every variable defined or used by a node is a fact with a dense id, and a node kills the facts of the variables it defines,
+ * so that the facts of all the variables are propagated together as bit sets with a worklist of blocks until a fixed point is reached.
+ * The dependences are the same as those of a depth-first search of the CFG starting from every defined and used variable,
+ * where a dependence reached through a loopback flow is attributed to the loop set by the last loopback flow crossed by the search.
+ * Since that loop depends on the order the search follows the flows, the dependences of a fact leaving a node through a flow that sets a loop
+ * are found again by such a search, which stops as soon as it has found as many dependences as the analysis.
+ * The dependences of all the other facts are not loop-carried.
+ */
+class DataDependenceAnalysis {
+	private PDGMethodEntryNode entryNode;
+	private PDGNode firstNode;
+	private Map<AbstractVariable, Integer> variableIds;
+	private List<BitSet> variableFacts;
+	//the node and the variable of every definition and use, in the order their dependences are created
+	private List<PDGNode> factNodes;
+	private List<AbstractVariable> factVariables;
+	private BitSet useFacts;
+	private BitSet entryFacts;
+	//the definitions of the variables declared by their node, which have def-order data dependences
+	private BitSet declarationFacts;
+	private Map<PDGNode, BitSet> nodeFacts;
+	private Map<PDGNode, BitSet> killedFacts;
+	private List<BasicBlock> basicBlocks;
+	private Map<BasicBlock, Integer> blockIds;
+	//the loop set by every outgoing flow of a node, or null if the flow does not set a loop
+	private Map<CFGNode, CFGBranchNode[]> flowLoops;
+	private BitSet[] blockGeneratedFacts;
+	private BitSet[] blockKilledFacts;
+	private BitSet[] blockInFacts;
+	//the nodes with dense ids, their successors and the loops set by their outgoing flows, for the search of the loop-carried dependences of a fact
+	private Map<PDGNode, Integer> nodeIds;
+	private PDGNode[] searchNodes;
+	private int[][] successorNodeIds;
+	private CFGBranchNode[][] successorLoops;
+	private BitSet[] variableDefiningNodes;
+	private BitSet[] variableUsingNodes;
+	private int[] nodeSearches;
+	private int searchCount;
+	private boolean searchedUse;
+	private boolean searchedEntryDefinition;
+	private boolean searchedDeclaration;
+	private int searchedNodeId;
+	private BitSet searchedDefiningNodes;
+	private BitSet searchedUsingNodes;
+	private int remainingDependences;
+	private List<PDGNode> searchedDataDependenceNodes;
+	private List<CFGBranchNode> searchedDataDependenceLoops;
+	private List<PDGNode> searchedOtherDependenceNodes;
+	private List<CFGBranchNode> searchedOtherDependenceLoops;
+
+	DataDependenceAnalysis(PDGMethodEntryNode entryNode, Set<GraphNode> nodes, List<BasicBlock> basicBlocks) {
+		this.entryNode = entryNode;
+		this.firstNode = (PDGNode)nodes.iterator().next();
+		this.variableIds = new HashMap<AbstractVariable, Integer>();
+		this.variableFacts = new ArrayList<BitSet>();
+		this.factNodes = new ArrayList<PDGNode>();
+		this.factVariables = new ArrayList<AbstractVariable>();
+		this.useFacts = new BitSet();
+		this.entryFacts = new BitSet();
+		this.declarationFacts = new BitSet();
+		this.nodeFacts = new HashMap<PDGNode, BitSet>();
+		this.nodeIds = new HashMap<PDGNode, Integer>();
+		for(AbstractVariable variable : entryNode.definedVariables) {
+			entryFacts.set(addFact(entryNode, variable, false));
+		}
+		for(GraphNode node : nodes) {
+			PDGNode pdgNode = (PDGNode)node;
+			BitSet facts = new BitSet();
+			for(AbstractVariable variable : pdgNode.definedVariables) {
+				facts.set(addFact(pdgNode, variable, false));
+			}
+			for(AbstractVariable variable : pdgNode.usedVariables) {
+				facts.set(addFact(pdgNode, variable, true));
+			}
+			nodeFacts.put(pdgNode, facts);
+			nodeIds.put(pdgNode, nodeIds.size());
+		}
+		this.killedFacts = new HashMap<PDGNode, BitSet>();
+		for(GraphNode node : nodes) {
+			PDGNode pdgNode = (PDGNode)node;
+			killedFacts.put(pdgNode, getVariableFacts(pdgNode.definedVariables));
+		}
+		this.basicBlocks = basicBlocks;
+		this.blockIds = new HashMap<BasicBlock, Integer>();
+		this.flowLoops = new HashMap<CFGNode, CFGBranchNode[]>();
+		int blockCount = basicBlocks.size();
+		this.blockGeneratedFacts = new BitSet[blockCount];
+		this.blockKilledFacts = new BitSet[blockCount];
+		this.blockInFacts = new BitSet[blockCount];
+		for(int i=0; i<blockCount; i++) {
+			BasicBlock basicBlock = basicBlocks.get(i);
+			blockIds.put(basicBlock, i);
+			BitSet generated = new BitSet();
+			BitSet killed = new BitSet();
+			for(CFGNode cfgNode : basicBlock.getAllNodes()) {
+				flowLoops.put(cfgNode, getFlowLoops(cfgNode));
+				BitSet facts = nodeFacts.get(cfgNode.getPDGNode());
+				generated.andNot(killedFacts.get(cfgNode.getPDGNode()));
+				generated.or(facts);
+				//the facts of the block do not reach its end through its entry, since they reach it (or are killed) from the node they belong to
+				killed.or(killedFacts.get(cfgNode.getPDGNode()));
+				killed.or(facts);
+			}
+			blockGeneratedFacts[i] = generated;
+			blockKilledFacts[i] = killed;
+			blockInFacts[i] = new BitSet();
+		}
+	}
+
+	private int addFact(PDGNode node, AbstractVariable variable, boolean use) {
+		int fact = factNodes.size();
+		factNodes.add(node);
+		factVariables.add(variable);
+		if(use)
+			useFacts.set(fact);
+		else if(node.declaresLocalVariable(variable))
+			declarationFacts.set(fact);
+		Integer variableId = variableIds.get(variable);
+		if(variableId == null) {
+			variableId = variableFacts.size();
+			variableIds.put(variable, variableId);
+			variableFacts.add(new BitSet());
+		}
+		variableFacts.get(variableId).set(fact);
+		return fact;
+	}
+
+	private BitSet getVariableFacts(Set<AbstractVariable> variables) {
+		BitSet facts = new BitSet();
+		for(AbstractVariable variable : variables) {
+			facts.or(variableFacts.get(variableIds.get(variable)));
+		}
+		return facts;
+	}
+
+	//a loop set by a loopback flow holds for the flows following it as well, as it does in the search over the outgoing flows of the node
+	private CFGBranchNode[] getFlowLoops(CFGNode cfgNode) {
+		CFGBranchNode[] loopsOfFlows = new CFGBranchNode[cfgNode.outgoingEdges.size()];
+		CFGBranchNode loop = null;
+		int i = 0;
+		for(GraphEdge edge : cfgNode.outgoingEdges) {
+			Flow flow = (Flow)edge;
+			if(flow.isLoopbackFlow()) {
+				if(flow.dst instanceof CFGBranchLoopNode)
+					loop = (CFGBranchLoopNode)flow.dst;
+				if(flow.src instanceof CFGBranchDoLoopNode)
+					loop = (CFGBranchDoLoopNode)flow.src;
+			}
+			loopsOfFlows[i++] = loop;
+		}
+		return loopsOfFlows;
+	}
+
+	private void propagate() {
+		int blockCount = basicBlocks.size();
+		BitSet[] pendingFacts = new BitSet[blockCount];
+		BitSet pendingBlocks = new BitSet();
+		//the method entry node defines its variables right before the first node, which is the leader of its block
+		Integer firstBlockId = blockIds.get(firstNode.getCFGNode().getBasicBlock());
+		if(firstBlockId != null && !entryFacts.isEmpty())
+			addFacts(pendingFacts, pendingBlocks, firstBlockId, entryFacts);
+		for(int i=0; i<blockCount; i++) {
+			if(!blockGeneratedFacts[i].isEmpty())
+				addSuccessorFacts(i, blockGeneratedFacts[i], pendingFacts, pendingBlocks);
+		}
+		//the blocks are in the order of their nodes, so that the forward flows are mostly followed in a single pass
+		for(int blockId = pendingBlocks.nextSetBit(0); blockId >= 0; blockId = pendingBlocks.nextSetBit(0)) {
+			pendingBlocks.clear(blockId);
+			BitSet newFacts = pendingFacts[blockId];
+			pendingFacts[blockId] = null;
+			newFacts.andNot(blockInFacts[blockId]);
+			if(!newFacts.isEmpty()) {
+				blockInFacts[blockId].or(newFacts);
+				newFacts.andNot(blockKilledFacts[blockId]);
+				if(!newFacts.isEmpty())
+					addSuccessorFacts(blockId, newFacts, pendingFacts, pendingBlocks);
+			}
+		}
+	}
+
+	private void addSuccessorFacts(int blockId, BitSet facts, BitSet[] pendingFacts, BitSet pendingBlocks) {
+		CFGNode lastNode = basicBlocks.get(blockId).getLastNode();
+		for(GraphEdge edge : lastNode.outgoingEdges) {
+			CFGNode dstNode = (CFGNode)edge.dst;
+			addFacts(pendingFacts, pendingBlocks, blockIds.get(dstNode.getBasicBlock()), facts);
+		}
+	}
+
+	private void addFacts(BitSet[] pendingFacts, BitSet pendingBlocks, int blockId, BitSet facts) {
+		if(pendingFacts[blockId] == null)
+			pendingFacts[blockId] = new BitSet();
+		pendingFacts[blockId].or(facts);
+		pendingBlocks.set(blockId);
+	}
+
+	List<PDGDependence> createDependences() {
+		propagate();
+		//the dependences of every flow leaving a node, found from the facts reaching the end of the node that concern the destination node;
+		//they are collected per fact, so that the dependences of every variable are created together
+		DependenceList dataDependences = new DependenceList();
+		DependenceList otherDependences = new DependenceList();
+		List<PDGNode> dstNodes = new ArrayList<PDGNode>();
+		BitSet defFacts = new BitSet();
+		defFacts.set(0, factNodes.size());
+		defFacts.andNot(useFacts);
+		//the facts leaving a node through a flow that sets a loop
+		BitSet loopFacts = new BitSet();
+		Map<PDGNode, BitSet> usedFacts = new HashMap<PDGNode, BitSet>();
+		BitSet dependenceFacts = new BitSet();
+		for(int i=0; i<basicBlocks.size(); i++) {
+			BitSet facts = (BitSet)blockInFacts[i].clone();
+			for(CFGNode cfgNode : basicBlocks.get(i).getAllNodes()) {
+				facts.andNot(killedFacts.get(cfgNode.getPDGNode()));
+				facts.or(nodeFacts.get(cfgNode.getPDGNode()));
+				CFGBranchNode[] loopsOfFlows = flowLoops.get(cfgNode);
+				if(loopsOfFlows.length > 0 && loopsOfFlows[loopsOfFlows.length-1] != null)
+					loopFacts.or(facts);
+				for(GraphEdge edge : cfgNode.outgoingEdges) {
+					PDGNode dstNode = ((CFGNode)edge.dst).getPDGNode();
+					int dstNodeIndex = dstNodes.size();
+					dstNodes.add(dstNode);
+					BitSet dstUsedFacts = usedFacts.get(dstNode);
+					if(dstUsedFacts == null) {
+						dstUsedFacts = getVariableFacts(dstNode.usedVariables);
+						dstUsedFacts.and(defFacts);
+						usedFacts.put(dstNode, dstUsedFacts);
+					}
+					BitSet dstKilledFacts = killedFacts.get(dstNode);
+					if(dstUsedFacts.intersects(facts)) {
+						dependenceFacts.clear();
+						dependenceFacts.or(facts);
+						dependenceFacts.and(dstUsedFacts);
+						dataDependences.add(dependenceFacts, dstNodeIndex);
+					}
+					if(dstKilledFacts.intersects(facts)) {
+						//create def-order data dependence edge
+						dependenceFacts.clear();
+						dependenceFacts.or(facts);
+						dependenceFacts.and(dstKilledFacts);
+						dependenceFacts.and(declarationFacts);
+						dependenceFacts.andNot(nodeFacts.get(dstNode));
+						dataDependences.add(dependenceFacts, dstNodeIndex);
+						dependenceFacts.clear();
+						dependenceFacts.or(facts);
+						dependenceFacts.and(dstKilledFacts);
+						dependenceFacts.andNot(entryFacts);
+						otherDependences.add(dependenceFacts, dstNodeIndex);
+					}
+				}
+			}
+		}
+		int[] dataOffsets = dataDependences.groupByFact(factNodes.size());
+		int[] otherOffsets = otherDependences.groupByFact(factNodes.size());
+		List<PDGDependence> dependences = new ArrayList<PDGDependence>();
+		for(int fact=0; fact<factNodes.size(); fact++) {
+			PDGNode srcNode = factNodes.get(fact);
+			AbstractVariable variable = factVariables.get(fact);
+			if(entryFacts.get(fact)) {
+				if(firstNode.usesLocalVariable(variable)) {
+					PDGDataDependence dataDependence = new PDGDataDependence(entryNode, firstNode, variable, null);
+					dependences.add(dataDependence);
+				}
+				if(firstNode.definesLocalVariable(variable) && entryNode.declaresLocalVariable(variable)) {
+					//create def-order data dependence edge
+					PDGDataDependence dataDependence = new PDGDataDependence(entryNode, firstNode, variable, null);
+					dependences.add(dataDependence);
+				}
+			}
+			if(loopFacts.get(fact)) {
+				int dependenceCount = (dataOffsets[fact+1] - dataOffsets[fact]) + (otherOffsets[fact+1] - otherOffsets[fact]);
+				searchDependences(fact, dependenceCount, dependences);
+			}
+			else {
+				for(int i=dataOffsets[fact]; i<dataOffsets[fact+1]; i++) {
+					PDGNode dstNode = dstNodes.get(dataDependences.getDependence(i));
+					PDGDataDependence dataDependence = new PDGDataDependence(srcNode, dstNode, variable, null);
+					dependences.add(dataDependence);
+				}
+				for(int i=otherOffsets[fact]; i<otherOffsets[fact+1]; i++) {
+					PDGNode dstNode = dstNodes.get(otherDependences.getDependence(i));
+					dependences.add(createOtherDependence(fact, dstNode, null));
+				}
+			}
+		}
+		return dependences;
+	}
+
+	private PDGDependence createOtherDependence(int fact, PDGNode dstNode, CFGBranchNode loop) {
+		if(useFacts.get(fact))
+			return new PDGAntiDependence(factNodes.get(fact), dstNode, factVariables.get(fact), loop);
+		else
+			return new PDGOutputDependence(factNodes.get(fact), dstNode, factVariables.get(fact), loop);
+	}
+
+	private void prepareSearch() {
+		int nodeCount = nodeIds.size();
+		this.searchNodes = new PDGNode[nodeCount];
+		for(PDGNode node : nodeIds.keySet()) {
+			searchNodes[nodeIds.get(node)] = node;
+		}
+		this.successorNodeIds = new int[nodeCount][];
+		this.successorLoops = new CFGBranchNode[nodeCount][];
+		this.variableDefiningNodes = new BitSet[variableFacts.size()];
+		this.variableUsingNodes = new BitSet[variableFacts.size()];
+		for(int i=0; i<variableFacts.size(); i++) {
+			variableDefiningNodes[i] = new BitSet();
+			variableUsingNodes[i] = new BitSet();
+		}
+		for(int nodeId=0; nodeId<nodeCount; nodeId++) {
+			PDGNode node = searchNodes[nodeId];
+			CFGNode cfgNode = node.getCFGNode();
+			int[] successors = new int[cfgNode.outgoingEdges.size()];
+			int i = 0;
+			for(GraphEdge edge : cfgNode.outgoingEdges) {
+				successors[i++] = nodeIds.get(((CFGNode)edge.dst).getPDGNode());
+			}
+			successorNodeIds[nodeId] = successors;
+			successorLoops[nodeId] = flowLoops.get(cfgNode);
+			for(AbstractVariable variable : node.definedVariables) {
+				variableDefiningNodes[variableIds.get(variable)].set(nodeId);
+			}
+			for(AbstractVariable variable : node.usedVariables) {
+				variableUsingNodes[variableIds.get(variable)].set(nodeId);
+			}
+		}
+		this.nodeSearches = new int[nodeCount];
+		this.searchedDataDependenceNodes = new ArrayList<PDGNode>();
+		this.searchedDataDependenceLoops = new ArrayList<CFGBranchNode>();
+		this.searchedOtherDependenceNodes = new ArrayList<PDGNode>();
+		this.searchedOtherDependenceLoops = new ArrayList<CFGBranchNode>();
+	}
+
+	//the dependences of a fact in the order the search finds them, the data dependences of a definition before its output dependences
+	private void searchDependences(int fact, int dependenceCount, List<PDGDependence> dependences) {
+		if(nodeSearches == null)
+			prepareSearch();
+		PDGNode srcNode = factNodes.get(fact);
+		int variableId = variableIds.get(factVariables.get(fact));
+		searchCount++;
+		searchedUse = useFacts.get(fact);
+		searchedEntryDefinition = entryFacts.get(fact);
+		searchedDeclaration = declarationFacts.get(fact);
+		searchedNodeId = searchedEntryDefinition ? -1 : nodeIds.get(srcNode);
+		searchedDefiningNodes = variableDefiningNodes[variableId];
+		searchedUsingNodes = variableUsingNodes[variableId];
+		remainingDependences = dependenceCount;
+		searchedDataDependenceNodes.clear();
+		searchedDataDependenceLoops.clear();
+		searchedOtherDependenceNodes.clear();
+		searchedOtherDependenceLoops.clear();
+		//the search of a variable defined by the method entry node starts from the first node
+		if(searchedEntryDefinition)
+			search(nodeIds.get(firstNode), null);
+		else
+			search(searchedNodeId, null);
+		for(int i=0; i<searchedDataDependenceNodes.size(); i++) {
+			PDGDataDependence dataDependence = new PDGDataDependence(factNodes.get(fact), searchedDataDependenceNodes.get(i),
+					factVariables.get(fact), searchedDataDependenceLoops.get(i));
+			dependences.add(dataDependence);
+		}
+		for(int i=0; i<searchedOtherDependenceNodes.size(); i++) {
+			dependences.add(createOtherDependence(fact, searchedOtherDependenceNodes.get(i), searchedOtherDependenceLoops.get(i)));
+		}
+	}
+
+	private void search(int nodeId, CFGBranchNode loop) {
+		if(nodeSearches[nodeId] == searchCount)
+			return;
+		nodeSearches[nodeId] = searchCount;
+		int[] successors = successorNodeIds[nodeId];
+		CFGBranchNode[] loopsOfFlows = successorLoops[nodeId];
+		for(int i=0; i<successors.length; i++) {
+			if(remainingDependences == 0)
+				return;
+			int dstNodeId = successors[i];
+			CFGBranchNode flowLoop = loopsOfFlows[i] != null ? loopsOfFlows[i] : loop;
+			if(searchedUse) {
+				if(searchedDefiningNodes.get(dstNodeId))
+					addSearchedDependence(searchedOtherDependenceNodes, searchedOtherDependenceLoops, dstNodeId, flowLoop);
+				else
+					search(dstNodeId, flowLoop);
+			}
+			else {
+				if(searchedUsingNodes.get(dstNodeId))
+					addSearchedDependence(searchedDataDependenceNodes, searchedDataDependenceLoops, dstNodeId, flowLoop);
+				if(!searchedDefiningNodes.get(dstNodeId)) {
+					search(dstNodeId, flowLoop);
+				}
+				else {
+					if(searchedDeclaration && dstNodeId != searchedNodeId) {
+						//create def-order data dependence edge
+						addSearchedDependence(searchedDataDependenceNodes, searchedDataDependenceLoops, dstNodeId, flowLoop);
+					}
+					if(!searchedEntryDefinition)
+						addSearchedDependence(searchedOtherDependenceNodes, searchedOtherDependenceLoops, dstNodeId, flowLoop);
+				}
+			}
+		}
+	}
+
+	private void addSearchedDependence(List<PDGNode> dstNodes, List<CFGBranchNode> loops, int dstNodeId, CFGBranchNode loop) {
+		dstNodes.add(searchNodes[dstNodeId]);
+		loops.add(loop);
+		remainingDependences--;
+	}
+
+	//the (fact, dependence) pairs in the order they are found, grouped by fact with a stable counting sort
+	private static class DependenceList {
+		private int[] facts = new int[16];
+		private int[] dependences = new int[16];
+		private int size;
+
+		private void add(BitSet dependenceFacts, int dependence) {
+			for(int fact = dependenceFacts.nextSetBit(0); fact >= 0; fact = dependenceFacts.nextSetBit(fact+1)) {
+				if(size == facts.length) {
+					int[] newFacts = new int[2*size];
+					int[] newDependences = new int[2*size];
+					System.arraycopy(facts, 0, newFacts, 0, size);
+					System.arraycopy(dependences, 0, newDependences, 0, size);
+					facts = newFacts;
+					dependences = newDependences;
+				}
+				facts[size] = fact;
+				dependences[size] = dependence;
+				size++;
+			}
+		}
+
+		private int[] groupByFact(int factCount) {
+			int[] offsets = new int[factCount+1];
+			for(int i=0; i<size; i++) {
+				offsets[facts[i]+1]++;
+			}
+			for(int fact=0; fact<factCount; fact++) {
+				offsets[fact+1] += offsets[fact];
+			}
+			int[] positions = offsets.clone();
+			int[] groupedDependences = new int[size];
+			for(int i=0; i<size; i++) {
+				groupedDependences[positions[facts[i]]++] = dependences[i];
+			}
+			dependences = groupedDependences;
+			return offsets;
+		}
+
+		private int getDependence(int index) {
+			return dependences[index];
+		}
+	}
+}
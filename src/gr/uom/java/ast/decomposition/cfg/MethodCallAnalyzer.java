@@ -5,6 +5,7 @@ import gr.uom.java.ast.ASTReader;
 import gr.uom.java.ast.ClassObject;
 import gr.uom.java.ast.CompilationUnitCache;
 import gr.uom.java.ast.LibraryClassStorage;
+import gr.uom.java.ast.MethodCallSummaryIndex;
 import gr.uom.java.ast.MethodInvocationObject;
 import gr.uom.java.ast.MethodObject;
 import gr.uom.java.ast.ParameterObject;
@@ -13,10 +14,18 @@ import gr.uom.java.ast.SystemObject;
 import gr.uom.java.ast.VariableDeclarationObject;
 import gr.uom.java.ast.decomposition.MethodBodyObject;
 import gr.uom.java.ast.decomposition.matching.ASTNodeMatcher;
+import gr.uom.java.ast.util.BindingKeyTable;
 import gr.uom.java.ast.util.ExpressionExtractor;
+import gr.uom.java.ast.util.IntHashMap;
+import gr.uom.java.ast.util.math.AdjacencyList;
+import gr.uom.java.ast.util.math.Edge;
+import gr.uom.java.ast.util.math.Node;
+import gr.uom.java.ast.util.math.TarjanAlgorithm;
 import gr.uom.java.jdeodorant.preferences.PreferenceConstants;
 import gr.uom.java.jdeodorant.refactoring.Activator;
 
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.ListIterator;
@@ -65,6 +74,14 @@ public class MethodCallAnalyzer {
 		this.maximumCallGraphAnalysisDepth = store.getInt(PreferenceConstants.P_MAXIMUM_CALL_GRAPH_ANALYSIS_DEPTH);
 	}
 
+	private MethodCallAnalyzer(int maximumCallGraphAnalysisDepth) {
+		this.definedVariables = new LinkedHashSet<AbstractVariable>();
+		this.usedVariables = new LinkedHashSet<AbstractVariable>();
+		this.thrownExceptionTypes = new LinkedHashSet<String>();
+		this.variableDeclarationsInMethod = new LinkedHashSet<VariableDeclarationObject>();
+		this.maximumCallGraphAnalysisDepth = maximumCallGraphAnalysisDepth;
+	}
+
 	public void processArgumentsOfInternalMethodInvocation(MethodInvocationObject methodInvocationObject, AbstractVariable variable) {
 		SystemObject systemObject = ASTReader.getSystemObject();
 		MethodInvocation methodInvocation = methodInvocationObject.getMethodInvocation();
@@ -95,7 +112,7 @@ public class MethodCallAnalyzer {
 				else {
 					Set<AbstractVariable> usedVariablesBefore = new LinkedHashSet<AbstractVariable>(this.usedVariables);
 					Set<AbstractVariable> definedVariablesBefore = new LinkedHashSet<AbstractVariable>(this.definedVariables);
-					processInternalMethodInvocation(classObject, methodObject, variable, new LinkedHashSet<String>());
+					processInternalMethodInvocation(classObject, methodObject, variable);
 					//save in cache
 					Set<AbstractVariable> usedVariablesAfter = new LinkedHashSet<AbstractVariable>(this.usedVariables);
 					usedVariablesAfter.removeAll(usedVariablesBefore);
@@ -211,8 +228,9 @@ public class MethodCallAnalyzer {
 			if(variable != null) {
 				LibraryClassStorage instance = LibraryClassStorage.getInstance();
 				IMethodBinding invokedMethodBinding = methodInvocation.resolveMethodBinding();
-				if(instance.isAnalyzed(invokedMethodBinding.getKey())) {
-					handleAlreadyAnalyzedMethod(invokedMethodBinding.getKey(), variable, instance);
+				int invokedMethodId = BindingKeyTable.getId(invokedMethodBinding);
+				if(instance.isAnalyzed(invokedMethodId)) {
+					handleAlreadyAnalyzedMethod(invokedMethodId, variable, instance);
 				}
 				else {
 					MethodDeclaration invokedMethodDeclaration = getInvokedMethodDeclaration(invokedMethodBinding);
@@ -280,14 +298,15 @@ public class MethodCallAnalyzer {
 						if(classObject2 != null) {
 							MethodObject methodObject2 = classObject2.getMethod(methodInvocationObject);
 							if(methodObject2 != null) {
-								processInternalMethodInvocation(classObject2, methodObject2, field, new LinkedHashSet<String>());
+								processInternalMethodInvocation(classObject2, methodObject2, field);
 							}
 						}
 						else {
 							LibraryClassStorage instance = LibraryClassStorage.getInstance();
 							IMethodBinding invokedMethodBinding = methodInvocation2.resolveMethodBinding();
-							if(instance.isAnalyzed(invokedMethodBinding.getKey())) {
-								handleAlreadyAnalyzedMethod(invokedMethodBinding.getKey(), field, instance);
+							int invokedMethodId = BindingKeyTable.getId(invokedMethodBinding);
+							if(instance.isAnalyzed(invokedMethodId)) {
+								handleAlreadyAnalyzedMethod(invokedMethodId, field, instance);
 							}
 							else {
 								MethodDeclaration invokedMethodDeclaration = getInvokedMethodDeclaration(invokedMethodBinding);
@@ -357,13 +376,111 @@ public class MethodCallAnalyzer {
 		return -1;
 	}
 
-	private void processInternalMethodInvocation(ClassObject classObject, MethodObject methodObject, AbstractVariable variableDeclaration, Set<String> processedMethods) {
+	/*
+	 * The variables collected for an invoked method depend only on the method and the variable it is invoked through.
+	 * The methods reachable from the invoked method through this and super method invocations, which have not been summarized yet for the variable,
+	 * are condensed into the strongly connected components of their call graph. The components are visited bottom-up, so the summary of a component
+	 * contains the variables collected from its methods together with the summaries of the components invoked by its methods,
+	 * and all the methods of a component share the same summary.
+	 * The summaries are kept in the MethodCallSummaryIndex of the system, so a method is analyzed once for every variable it is invoked through.
+	 */
+	private void processInternalMethodInvocation(ClassObject classObject, MethodObject methodObject, AbstractVariable variableDeclaration) {
+		MethodCallSummaryIndex summaryIndex = ASTReader.getSystemObject().getMethodCallSummaryIndex();
+		MethodCallSummary summary = summaryIndex.get(methodObject, variableDeclaration);
+		if(summary == null)
+			summary = computeMethodCallSummaries(classObject, methodObject, variableDeclaration, summaryIndex);
+		definedVariables.addAll(summary.getDefinedVariables());
+		usedVariables.addAll(summary.getUsedVariables());
+		thrownExceptionTypes.addAll(summary.getThrownExceptionTypes());
+	}
+
+	private MethodCallSummary computeMethodCallSummaries(ClassObject classObject, MethodObject methodObject, AbstractVariable variableDeclaration,
+			MethodCallSummaryIndex summaryIndex) {
+		IntHashMap<MethodCallNode> nodeMap = new IntHashMap<MethodCallNode>();
+		AdjacencyList adjacencyList = new AdjacencyList();
+		List<MethodCallNode> workList = new ArrayList<MethodCallNode>();
+		MethodCallNode methodNode = new MethodCallNode(classObject, methodObject);
+		nodeMap.put(methodObject.getBindingKeyId(), methodNode);
+		workList.add(methodNode);
+		while(!workList.isEmpty()) {
+			MethodCallNode node = workList.remove(workList.size()-1);
+			for(MethodCallNode invokedNode : getInvokedMethods(node.classObject, node.methodObject, variableDeclaration)) {
+				int invokedMethodId = invokedNode.methodObject.getBindingKeyId();
+				MethodCallNode successorNode = nodeMap.get(invokedMethodId);
+				if(successorNode == null) {
+					//the same node instance has to be used for every edge, since Tarjan's algorithm keeps its state in the nodes
+					successorNode = invokedNode;
+					successorNode.summary = summaryIndex.get(successorNode.methodObject, variableDeclaration);
+					nodeMap.put(invokedMethodId, successorNode);
+					if(successorNode.summary == null)
+						workList.add(successorNode);
+				}
+				adjacencyList.addEdge(node, successorNode, 1);
+			}
+		}
+		List<LinkedHashSet<Node>> components = new ArrayList<LinkedHashSet<Node>>();
+		if(adjacencyList.getSourceNodeSet().isEmpty()) {
+			LinkedHashSet<Node> component = new LinkedHashSet<Node>();
+			component.add(methodNode);
+			components.add(component);
+		}
+		else {
+			TarjanAlgorithm tarjan = new TarjanAlgorithm(adjacencyList);
+			components.addAll(tarjan.getStronglyConnectedComponents());
+		}
+		for(LinkedHashSet<Node> component : components) {
+			//a method summarized before is a component of its own without invoked methods
+			if(((MethodCallNode)component.iterator().next()).summary != null)
+				continue;
+			MethodCallAnalyzer analyzer = new MethodCallAnalyzer(maximumCallGraphAnalysisDepth);
+			for(Node node : component) {
+				MethodCallNode callNode = (MethodCallNode)node;
+				analyzer.processInvokedMethod(callNode.classObject, callNode.methodObject, variableDeclaration);
+			}
+			for(Node node : component) {
+				for(Edge edge : adjacencyList.getAdjacent(node)) {
+					MethodCallSummary successorSummary = ((MethodCallNode)edge.getTarget()).summary;
+					//the successors in the same component have not been summarized yet
+					if(successorSummary != null) {
+						analyzer.definedVariables.addAll(successorSummary.getDefinedVariables());
+						analyzer.usedVariables.addAll(successorSummary.getUsedVariables());
+						analyzer.thrownExceptionTypes.addAll(successorSummary.getThrownExceptionTypes());
+					}
+				}
+			}
+			MethodCallSummary summary = new MethodCallSummary(analyzer.definedVariables, analyzer.usedVariables, analyzer.thrownExceptionTypes);
+			for(Node node : component) {
+				MethodCallNode callNode = (MethodCallNode)node;
+				callNode.summary = summary;
+				summaryIndex.put(callNode.methodObject, variableDeclaration, summary);
+			}
+		}
+		return methodNode.summary;
+	}
+
+	/*
+	 * The methods invoked through a field are summarized for the variable composed with the field, so a field is followed only if none of its plain variables
+	 * is already contained in the variable. Every composed variable has distinct plain variables, and the summaries invoked through fields are always finite.
+	 */
+	private boolean containsPlainVariableOf(AbstractVariable variable, AbstractVariable field) {
+		AbstractVariable rightPart = field;
+		while(rightPart instanceof CompositeVariable) {
+			CompositeVariable composite = (CompositeVariable)rightPart;
+			if(variable.containsPlainVariable(composite.getInitialVariable()))
+				return true;
+			rightPart = composite.getRightPart();
+		}
+		return variable.containsPlainVariable((PlainVariable)rightPart);
+	}
+
+	//the methods whose variables are collected together with the variables of the method, an abstract method is replaced by the methods overriding it
+	private List<MethodCallNode> getInvokedMethods(ClassObject classObject, MethodObject methodObject, AbstractVariable variableDeclaration) {
 		SystemObject systemObject = ASTReader.getSystemObject();
+		List<MethodCallNode> invokedMethods = new ArrayList<MethodCallNode>();
 		if(methodObject.isAbstract() || classObject.isInterface()) {
 			AbstractTypeDeclaration typeDeclaration = classObject.getAbstractTypeDeclaration();
 			IMethodBinding superMethodDeclarationBinding = methodObject.getMethodDeclaration().resolveBinding();
 			IType superType = (IType)typeDeclaration.resolveBinding().getJavaElement();
-			processedMethods.add(superMethodDeclarationBinding.getKey());
 			Set<IType> subTypes = CompilationUnitCache.getInstance().getSubTypes(superType);
 			Set<IType> subTypesToBeAnalyzed = new LinkedHashSet<IType>();
 			if(variableDeclaration != null) {
@@ -386,7 +503,7 @@ public class MethodCallAnalyzer {
 					while(methodIterator.hasNext()) {
 						MethodObject subMethod = methodIterator.next();
 						if(equalSignature(subMethod.getMethodDeclaration().resolveBinding(), superMethodDeclarationBinding)) {
-							processInternalMethodInvocation(subClassObject, subMethod, variableDeclaration, processedMethods);
+							invokedMethods.add(new MethodCallNode(subClassObject, subMethod));
 							break;
 						}
 					}
@@ -394,111 +511,110 @@ public class MethodCallAnalyzer {
 			}
 		}
 		else {
-			for(PlainVariable originalField : methodObject.getDefinedFieldsThroughThisReference()) {
-				boolean alreadyContainsOriginalField = false;
-				if(variableDeclaration != null && originalField instanceof PlainVariable) {
-					if(variableDeclaration.containsPlainVariable((PlainVariable)originalField))
-						alreadyContainsOriginalField = true;
-				}
-				if(!alreadyContainsOriginalField) {
-					AbstractVariable field = null;
-					if(variableDeclaration != null)
-						field = composeVariable(variableDeclaration, originalField);
-					else
-						field = originalField;
-					definedVariables.add(field);
-				}
+			for(MethodInvocationObject methodInvocationObject : methodObject.getInvokedMethodsThroughThisReference()) {
+				MethodObject methodObject2 = classObject.getMethod(methodInvocationObject);
+				if(methodObject2 != null && !methodObject2.equals(methodObject))
+					invokedMethods.add(new MethodCallNode(classObject, methodObject2));
 			}
-			for(PlainVariable originalField : methodObject.getUsedFieldsThroughThisReference()) {
-				boolean alreadyContainsOriginalField = false;
-				if(variableDeclaration != null && originalField instanceof PlainVariable) {
-					if(variableDeclaration.containsPlainVariable((PlainVariable)originalField))
-						alreadyContainsOriginalField = true;
-				}
-				if(!alreadyContainsOriginalField) {
-					AbstractVariable field = null;
-					if(variableDeclaration != null)
-						field = composeVariable(variableDeclaration, originalField);
-					else
-						field = originalField;
-					usedVariables.add(field);
+			for(SuperMethodInvocationObject superMethodInvocationObject : methodObject.getSuperMethodInvocations()) {
+				ClassObject classObject2 = systemObject.getClassObject(superMethodInvocationObject.getOriginClassName());
+				if(classObject2 != null) {
+					MethodObject methodObject2 = classObject2.getMethod(superMethodInvocationObject);
+					if(methodObject2 != null)
+						invokedMethods.add(new MethodCallNode(classObject2, methodObject2));
 				}
 			}
-			thrownExceptionTypes.addAll(methodObject.getExceptionsInThrowStatements());
-			processedMethods.add(methodObject.getMethodDeclaration().resolveBinding().getKey());
-			Map<AbstractVariable, LinkedHashSet<MethodInvocationObject>> invokedMethodsThroughFields = methodObject.getInvokedMethodsThroughFields();
-			for(AbstractVariable originalField : invokedMethodsThroughFields.keySet()) {
-				boolean alreadyContainsOriginalField = false;
-				if(variableDeclaration != null && originalField instanceof PlainVariable) {
-					if(variableDeclaration.containsPlainVariable((PlainVariable)originalField))
-						alreadyContainsOriginalField = true;
-				}
-				if(!alreadyContainsOriginalField) {
-					LinkedHashSet<MethodInvocationObject> methodInvocations = invokedMethodsThroughFields.get(originalField);
-					AbstractVariable field = null;
-					if(variableDeclaration != null)
-						field = composeVariable(variableDeclaration, originalField);
-					else
-						field = originalField;
-					for(MethodInvocationObject methodInvocationObject : methodInvocations) {
-						MethodInvocation methodInvocation2 = methodInvocationObject.getMethodInvocation();
-						ClassObject classObject2 = systemObject.getClassObject(methodInvocationObject.getOriginClassName());
-						if(classObject2 != null) {
-							MethodObject methodObject2 = classObject2.getMethod(methodInvocationObject);
-							if(methodObject2 != null) {
-								if(!processedMethods.contains(methodInvocation2.resolveMethodBinding().getKey()))
-									processInternalMethodInvocation(classObject2, methodObject2, field, new LinkedHashSet<String>());
-							}
-						}
-						else {
-							LibraryClassStorage instance = LibraryClassStorage.getInstance();
-							IMethodBinding invokedMethodBinding = methodInvocation2.resolveMethodBinding();
-							if(instance.isAnalyzed(invokedMethodBinding.getKey())) {
-								handleAlreadyAnalyzedMethod(invokedMethodBinding.getKey(), field, instance);
-							}
-							else {
-								MethodDeclaration invokedMethodDeclaration = getInvokedMethodDeclaration(invokedMethodBinding);
-								if(invokedMethodDeclaration != null)
-									processExternalMethodInvocation(invokedMethodDeclaration, field, new LinkedHashSet<String>(), 0);
-							}
-						}
-					}
-				}
+		}
+		return invokedMethods;
+	}
+
+	//the variables collected from the method itself, the methods it invokes through this and super are collected by their own call graph nodes
+	private void processInvokedMethod(ClassObject classObject, MethodObject methodObject, AbstractVariable variableDeclaration) {
+		if(methodObject.isAbstract() || classObject.isInterface())
+			return;
+		SystemObject systemObject = ASTReader.getSystemObject();
+		for(PlainVariable originalField : methodObject.getDefinedFieldsThroughThisReference()) {
+			boolean alreadyContainsOriginalField = false;
+			if(variableDeclaration != null && originalField instanceof PlainVariable) {
+				if(variableDeclaration.containsPlainVariable((PlainVariable)originalField))
+					alreadyContainsOriginalField = true;
 			}
-			for(MethodInvocationObject methodInvocationObject : methodObject.getInvokedMethodsThroughThisReference()) {
-				MethodObject methodObject2 = classObject.getMethod(methodInvocationObject);
-				if(methodObject2 != null) { 
-					if(!methodObject2.equals(methodObject)) {
-						MethodInvocation methodInvocation2 = methodInvocationObject.getMethodInvocation();
-						if(!processedMethods.contains(methodInvocation2.resolveMethodBinding().getKey()))
-							processInternalMethodInvocation(classObject, methodObject2, variableDeclaration, processedMethods);
-					}
-				}
-				else {
-					//the invoked method is an inherited method
+			if(!alreadyContainsOriginalField) {
+				AbstractVariable field = null;
+				if(variableDeclaration != null)
+					field = composeVariable(variableDeclaration, originalField);
+				else
+					field = originalField;
+				definedVariables.add(field);
+			}
+		}
+		for(PlainVariable originalField : methodObject.getUsedFieldsThroughThisReference()) {
+			boolean alreadyContainsOriginalField = false;
+			if(variableDeclaration != null && originalField instanceof PlainVariable) {
+				if(variableDeclaration.containsPlainVariable((PlainVariable)originalField))
+					alreadyContainsOriginalField = true;
+			}
+			if(!alreadyContainsOriginalField) {
+				AbstractVariable field = null;
+				if(variableDeclaration != null)
+					field = composeVariable(variableDeclaration, originalField);
+				else
+					field = originalField;
+				usedVariables.add(field);
+			}
+		}
+		thrownExceptionTypes.addAll(methodObject.getExceptionsInThrowStatements());
+		Map<AbstractVariable, LinkedHashSet<MethodInvocationObject>> invokedMethodsThroughFields = methodObject.getInvokedMethodsThroughFields();
+		for(AbstractVariable originalField : invokedMethodsThroughFields.keySet()) {
+			boolean alreadyContainsOriginalField = false;
+			if(variableDeclaration != null && containsPlainVariableOf(variableDeclaration, originalField))
+				alreadyContainsOriginalField = true;
+			if(!alreadyContainsOriginalField) {
+				LinkedHashSet<MethodInvocationObject> methodInvocations = invokedMethodsThroughFields.get(originalField);
+				AbstractVariable field = null;
+				if(variableDeclaration != null)
+					field = composeVariable(variableDeclaration, originalField);
+				else
+					field = originalField;
+				for(MethodInvocationObject methodInvocationObject : methodInvocations) {
+					MethodInvocation methodInvocation2 = methodInvocationObject.getMethodInvocation();
 					ClassObject classObject2 = systemObject.getClassObject(methodInvocationObject.getOriginClassName());
 					if(classObject2 != null) {
-						methodObject2 = classObject2.getMethod(methodInvocationObject);
-						if(methodObject2 != null) {
-							thrownExceptionTypes.addAll(methodObject2.getExceptionsInThrowStatements());
-							//the commented code that follows is causing significant performance deterioration. It's time to reconsider the PDG generation strategy
-							/*
-							MethodInvocation methodInvocation2 = methodInvocationObject.getMethodInvocation();
-							if(!processedMethods.contains(methodInvocation2.resolveMethodBinding().getKey()))
-								processInternalMethodInvocation(classObject2, methodObject2, variableDeclaration, processedMethods);
-							*/
+						MethodObject methodObject2 = classObject2.getMethod(methodInvocationObject);
+						//the variable of the invocation has a field that the variable of the method does not have, so its summary does not depend on the summary being computed
+						if(methodObject2 != null)
+							processInternalMethodInvocation(classObject2, methodObject2, field);
+					}
+					else {
+						LibraryClassStorage instance = LibraryClassStorage.getInstance();
+						IMethodBinding invokedMethodBinding = methodInvocation2.resolveMethodBinding();
+						int invokedMethodId = BindingKeyTable.getId(invokedMethodBinding);
+						if(instance.isAnalyzed(invokedMethodId)) {
+							handleAlreadyAnalyzedMethod(invokedMethodId, field, instance);
+						}
+						else {
+							MethodDeclaration invokedMethodDeclaration = getInvokedMethodDeclaration(invokedMethodBinding);
+							if(invokedMethodDeclaration != null)
+								processExternalMethodInvocation(invokedMethodDeclaration, field, new LinkedHashSet<String>(), 0);
 						}
 					}
 				}
 			}
-			for(SuperMethodInvocationObject superMethodInvocationObject : methodObject.getSuperMethodInvocations()) {
-				ClassObject classObject2 = systemObject.getClassObject(superMethodInvocationObject.getOriginClassName());
+		}
+		for(MethodInvocationObject methodInvocationObject : methodObject.getInvokedMethodsThroughThisReference()) {
+			if(classObject.getMethod(methodInvocationObject) == null) {
+				//the invoked method is an inherited method
+				ClassObject classObject2 = systemObject.getClassObject(methodInvocationObject.getOriginClassName());
 				if(classObject2 != null) {
-					MethodObject methodObject2 = classObject2.getMethod(superMethodInvocationObject);
+					MethodObject methodObject2 = classObject2.getMethod(methodInvocationObject);
 					if(methodObject2 != null) {
-						SuperMethodInvocation superMethodInvocation = superMethodInvocationObject.getSuperMethodInvocation();
-						if(!processedMethods.contains(superMethodInvocation.resolveMethodBinding().getKey()))
+						thrownExceptionTypes.addAll(methodObject2.getExceptionsInThrowStatements());
+						//the commented code that follows is causing significant performance deterioration. It's time to reconsider the PDG generation strategy
+						/*
+						MethodInvocation methodInvocation2 = methodInvocationObject.getMethodInvocation();
+						if(!processedMethods.contains(methodInvocation2.resolveMethodBinding().getKey()))
 							processInternalMethodInvocation(classObject2, methodObject2, variableDeclaration, processedMethods);
+						*/
 					}
 				}
 			}
@@ -509,8 +625,9 @@ public class MethodCallAnalyzer {
 			Set<String> processedMethods, int depth) {
 		LibraryClassStorage instance = LibraryClassStorage.getInstance();
 		IMethodBinding methodBinding = methodDeclaration.resolveBinding();
-		if(instance.isAnalyzed(methodBinding.getKey())) {
-			handleAlreadyAnalyzedMethod(methodBinding.getKey(), variableDeclaration, instance);
+		int methodId = BindingKeyTable.getId(methodBinding);
+		if(instance.isAnalyzed(methodId)) {
+			handleAlreadyAnalyzedMethod(methodId, variableDeclaration, instance);
 		}
 		else {
 			Block methodBody = methodDeclaration.getBody();
@@ -642,30 +759,30 @@ public class MethodCallAnalyzer {
 		return invokedMethodDeclaration;
 	}
 
-	private void handleAlreadyAnalyzedMethod(String methodBindingKey, AbstractVariable variableDeclaration, LibraryClassStorage indexer) {
+	private void handleAlreadyAnalyzedMethod(int methodId, AbstractVariable variableDeclaration, LibraryClassStorage indexer) {
 		LinkedHashSet<PlainVariable> recursivelyDefinedFields = 
-			indexer.getRecursivelyDefinedFields(methodBindingKey, new LinkedHashSet<String>());
+			indexer.getRecursivelyDefinedFields(methodId);
 		for(PlainVariable originalField : recursivelyDefinedFields) {
 			AbstractVariable field = composeVariable(variableDeclaration, originalField);
 			definedVariables.add(field);
 		}
 		LinkedHashSet<PlainVariable> recursivelyUsedFields = 
-			indexer.getRecursivelyUsedFields(methodBindingKey, new LinkedHashSet<String>());
+			indexer.getRecursivelyUsedFields(methodId);
 		for(PlainVariable originalField : recursivelyUsedFields) {
 			AbstractVariable field = composeVariable(variableDeclaration, originalField);
 			usedVariables.add(field);
 		}
-		Set<PlainVariable> invocationReferences = indexer.getInvocationReferences(methodBindingKey);
+		Set<PlainVariable> invocationReferences = indexer.getInvocationReferences(methodId);
 		if(invocationReferences != null) {
 			for(PlainVariable invocationReference : invocationReferences) {
 				LinkedHashSet<AbstractVariable> definedFieldsThroughReference = 
-					indexer.getRecursivelyDefinedFieldsThroughReference(methodBindingKey, invocationReference, new LinkedHashSet<String>());
+					indexer.getRecursivelyDefinedFieldsThroughReference(methodId, invocationReference, new BitSet());
 				for(AbstractVariable definedField : definedFieldsThroughReference) {
 					AbstractVariable field = composeVariable(variableDeclaration, definedField);
 					definedVariables.add(field);
 				}
 				LinkedHashSet<AbstractVariable> usedFieldsThroughReference = 
-					indexer.getRecursivelyUsedFieldsThroughReference(methodBindingKey, invocationReference, new LinkedHashSet<String>());
+					indexer.getRecursivelyUsedFieldsThroughReference(methodId, invocationReference, new BitSet());
 				for(AbstractVariable usedField : usedFieldsThroughReference) {
 					AbstractVariable field = composeVariable(variableDeclaration, usedField);
 					usedVariables.add(field);
@@ -894,4 +1011,16 @@ public class MethodCallAnalyzer {
 		return matchingMethodDeclarations;
 	}
 
+	//a call graph node of Tarjan's algorithm carrying the invoked method and its summary, once it has been computed
+	private static class MethodCallNode extends Node {
+		private final ClassObject classObject;
+		private final MethodObject methodObject;
+		private MethodCallSummary summary;
+
+		private MethodCallNode(ClassObject classObject, MethodObject methodObject) {
+			super(String.valueOf(methodObject.getBindingKeyId()));
+			this.classObject = classObject;
+			this.methodObject = methodObject;
+		}
+	}
 }
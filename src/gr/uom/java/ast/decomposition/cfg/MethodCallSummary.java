@@ -0,0 +1,29 @@
+package gr.uom.java.ast.decomposition.cfg;
+
+import java.util.Set;
+
+//the variables defined and used, and the exception types thrown by an internal method invoked through a variable,
+//together with the methods it reaches through this and super method invocations
+public class MethodCallSummary {
+	private Set<AbstractVariable> definedVariables;
+	private Set<AbstractVariable> usedVariables;
+	private Set<String> thrownExceptionTypes;
+
+	MethodCallSummary(Set<AbstractVariable> definedVariables, Set<AbstractVariable> usedVariables, Set<String> thrownExceptionTypes) {
+		this.definedVariables = definedVariables;
+		this.usedVariables = usedVariables;
+		this.thrownExceptionTypes = thrownExceptionTypes;
+	}
+
+	public Set<AbstractVariable> getDefinedVariables() {
+		return definedVariables;
+	}
+
+	public Set<AbstractVariable> getUsedVariables() {
+		return usedVariables;
+	}
+
+	public Set<String> getThrownExceptionTypes() {
+		return thrownExceptionTypes;
+	}
+}
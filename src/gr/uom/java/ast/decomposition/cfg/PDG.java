@@ -9,6 +9,7 @@ import gr.uom.java.jdeodorant.preferences.PreferenceConstants;
 import gr.uom.java.jdeodorant.refactoring.Activator;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
@@ -32,7 +33,9 @@ public class PDG extends Graph {
 	private Map<CFGBranchNode, Set<CFGNode>> nestingMap;
 	private Set<VariableDeclarationObject> variableDeclarationsInMethod;
 	private Set<FieldObject> fieldsAccessedInMethod;
-	private Map<PDGNode, Set<BasicBlock>> dominatedBlockMap;
+	private Map<PDGNode, BitSet> dominatedBlockMap;
+	private Map<BasicBlock, BitSet> boundaryBlockMap;
+	private Map<BasicBlock, PDGSliceIndex> sliceIndexMap;
 	private IFile iFile;
 	private IProgressMonitor monitor;
 	
@@ -72,11 +75,16 @@ public class PDG extends Graph {
 				performAliasAnalysis();
 			createDataDependencies();
 		}
-		this.dominatedBlockMap = new LinkedHashMap<PDGNode, Set<BasicBlock>>();
-		GraphNode.resetNodeNum();
+		this.dominatedBlockMap = new LinkedHashMap<PDGNode, BitSet>();
+		this.boundaryBlockMap = new LinkedHashMap<BasicBlock, BitSet>();
+		this.sliceIndexMap = new LinkedHashMap<BasicBlock, PDGSliceIndex>();
 		handleSwitchCaseNodes();
 		handleJumpNodes();
 		handleThrowExceptionNodes();
+		//the dependences are final, the nodes and the PDG read them from a compact storage from now on
+		CompactDependenceGraph dependenceGraph = new CompactDependenceGraph(entryNode, nodes, edges);
+		dependenceGraph.attachToNodes();
+		this.edges = dependenceGraph.getEdges();
 		if(monitor != null)
 			monitor.done();
 	}
@@ -555,30 +563,9 @@ public class PDG extends Graph {
 	}
 
 	private void createDataDependencies() {
-		PDGNode firstPDGNode = (PDGNode)nodes.toArray()[0];
-		for(AbstractVariable variableInstruction : entryNode.definedVariables) {
-			if(firstPDGNode.usesLocalVariable(variableInstruction)) {
-				PDGDataDependence dataDependence = new PDGDataDependence(entryNode, firstPDGNode, variableInstruction, null);
-				edges.add(dataDependence);
-			}
-			if(!firstPDGNode.definesLocalVariable(variableInstruction)) {
-				dataDependenceSearch(entryNode, variableInstruction, firstPDGNode, new LinkedHashSet<PDGNode>(), null);
-			}
-			else if(entryNode.declaresLocalVariable(variableInstruction)) {
-				//create def-order data dependence edge
-				PDGDataDependence dataDependence = new PDGDataDependence(entryNode, firstPDGNode, variableInstruction, null);
-				edges.add(dataDependence);
-			}
-		}
-		for(GraphNode node : nodes) {
-			PDGNode pdgNode = (PDGNode)node;
-			for(AbstractVariable variableInstruction : pdgNode.definedVariables) {
-				dataDependenceSearch(pdgNode, variableInstruction, pdgNode, new LinkedHashSet<PDGNode>(), null);
-				outputDependenceSearch(pdgNode, variableInstruction, pdgNode, new LinkedHashSet<PDGNode>(), null);
-			}
-			for(AbstractVariable variableInstruction : pdgNode.usedVariables) {
-				antiDependenceSearch(pdgNode, variableInstruction, pdgNode, new LinkedHashSet<PDGNode>(), null);
-			}
+		DataDependenceAnalysis dataDependenceAnalysis = new DataDependenceAnalysis(entryNode, nodes, getBasicBlocks());
+		for(PDGDependence dependence : dataDependenceAnalysis.createDependences()) {
+			edges.add(dependence);
 		}
 	}
 
@@ -607,93 +594,6 @@ public class PDG extends Graph {
 		}
 	}
 
-	private void dataDependenceSearch(PDGNode initialNode, AbstractVariable variableInstruction,
-			PDGNode currentNode, Set<PDGNode> visitedNodes, CFGBranchNode loop) {
-		if(visitedNodes.contains(currentNode))
-			return;
-		else
-			visitedNodes.add(currentNode);
-		CFGNode currentCFGNode = currentNode.getCFGNode();
-		for(GraphEdge edge : currentCFGNode.outgoingEdges) {
-			Flow flow = (Flow)edge;
-			CFGNode srcCFGNode = (CFGNode)flow.src;
-			CFGNode dstCFGNode = (CFGNode)flow.dst;
-			if(flow.isLoopbackFlow()) {
-				if(dstCFGNode instanceof CFGBranchLoopNode)
-					loop = (CFGBranchLoopNode)dstCFGNode;
-				if(srcCFGNode instanceof CFGBranchDoLoopNode)
-					loop = (CFGBranchDoLoopNode)srcCFGNode;
-			}
-			PDGNode dstPDGNode = dstCFGNode.getPDGNode();
-			if(dstPDGNode.usesLocalVariable(variableInstruction)) {
-				PDGDataDependence dataDependence = new PDGDataDependence(initialNode, dstPDGNode, variableInstruction, loop);
-				edges.add(dataDependence);
-			}
-			if(!dstPDGNode.definesLocalVariable(variableInstruction)) {
-				dataDependenceSearch(initialNode, variableInstruction, dstPDGNode, visitedNodes, loop);
-			}
-			else if(initialNode.declaresLocalVariable(variableInstruction) && !initialNode.equals(dstPDGNode)) {
-				//create def-order data dependence edge
-				PDGDataDependence dataDependence = new PDGDataDependence(initialNode, dstPDGNode, variableInstruction, loop);
-				edges.add(dataDependence);
-			}
-		}
-	}
-
-	private void antiDependenceSearch(PDGNode initialNode, AbstractVariable variableInstruction,
-			PDGNode currentNode, Set<PDGNode> visitedNodes, CFGBranchNode loop) {
-		if(visitedNodes.contains(currentNode))
-			return;
-		else
-			visitedNodes.add(currentNode);
-		CFGNode currentCFGNode = currentNode.getCFGNode();
-		for(GraphEdge edge : currentCFGNode.outgoingEdges) {
-			Flow flow = (Flow)edge;
-			CFGNode srcCFGNode = (CFGNode)flow.src;
-			CFGNode dstCFGNode = (CFGNode)flow.dst;
-			if(flow.isLoopbackFlow()) {
-				if(dstCFGNode instanceof CFGBranchLoopNode)
-					loop = (CFGBranchLoopNode)dstCFGNode;
-				if(srcCFGNode instanceof CFGBranchDoLoopNode)
-					loop = (CFGBranchDoLoopNode)srcCFGNode;
-			}
-			PDGNode dstPDGNode = dstCFGNode.getPDGNode();
-			if(dstPDGNode.definesLocalVariable(variableInstruction)) {
-				PDGAntiDependence antiDependence = new PDGAntiDependence(initialNode, dstPDGNode, variableInstruction, loop);
-				edges.add(antiDependence);
-			}
-			else
-				antiDependenceSearch(initialNode, variableInstruction, dstPDGNode, visitedNodes, loop);
-		}
-	}
-
-	private void outputDependenceSearch(PDGNode initialNode, AbstractVariable variableInstruction,
-			PDGNode currentNode, Set<PDGNode> visitedNodes, CFGBranchNode loop) {
-		if(visitedNodes.contains(currentNode))
-			return;
-		else
-			visitedNodes.add(currentNode);
-		CFGNode currentCFGNode = currentNode.getCFGNode();
-		for(GraphEdge edge : currentCFGNode.outgoingEdges) {
-			Flow flow = (Flow)edge;
-			CFGNode srcCFGNode = (CFGNode)flow.src;
-			CFGNode dstCFGNode = (CFGNode)flow.dst;
-			if(flow.isLoopbackFlow()) {
-				if(dstCFGNode instanceof CFGBranchLoopNode)
-					loop = (CFGBranchLoopNode)dstCFGNode;
-				if(srcCFGNode instanceof CFGBranchDoLoopNode)
-					loop = (CFGBranchDoLoopNode)srcCFGNode;
-			}
-			PDGNode dstPDGNode = dstCFGNode.getPDGNode();
-			if(dstPDGNode.definesLocalVariable(variableInstruction)) {
-				PDGOutputDependence outputDependence = new PDGOutputDependence(initialNode, dstPDGNode, variableInstruction, loop);
-				edges.add(outputDependence);
-			}
-			else
-				outputDependenceSearch(initialNode, variableInstruction, dstPDGNode, visitedNodes, loop);
-		}
-	}
-
 	public List<BasicBlock> getBasicBlocks() {
 		return cfg.getBasicBlocks();
 	}
@@ -702,6 +602,10 @@ public class PDG extends Graph {
 		return cfg.getBasicBlockCFG().forwardReachableBlocks(basicBlock);
 	}
 
+	private BitSet forwardReachableBlockIds(BasicBlock basicBlock) {
+		return cfg.getBasicBlockCFG().forwardReachableBlockIds(basicBlock);
+	}
+
 	//returns the node (branch or method entry) that directly dominates the leader of the block
 	private PDGNode directlyDominates(BasicBlock block) {
 		CFGNode leaderCFGNode = block.getLeader();
@@ -716,47 +620,44 @@ public class PDG extends Graph {
 		return null;
 	}
 
-	private Set<BasicBlock> dominatedBlocks(BasicBlock block) {
-		PDGNode pdgNode = directlyDominates(block);
-		if(dominatedBlockMap.containsKey(pdgNode)) {
-			return dominatedBlockMap.get(pdgNode);
-		}
-		else {
-			Set<BasicBlock> dominatedBlocks = dominatedBlocks(pdgNode);
-			dominatedBlockMap.put(pdgNode, dominatedBlocks);
-			return dominatedBlocks;
-		}
+	//the ids of the blocks dominated by the node that directly dominates the leader of the block
+	private BitSet dominatedBlockIds(BasicBlock block) {
+		return dominatedBlockIds(directlyDominates(block));
 	}
 	
-	private Set<BasicBlock> dominatedBlocks(PDGNode branchNode) {
-		Set<BasicBlock> dominatedBlocks = new LinkedHashSet<BasicBlock>();
-		for(GraphEdge edge : branchNode.outgoingEdges) {
-			PDGDependence dependence = (PDGDependence)edge;
-			if(dependence instanceof PDGControlDependence) {
-				PDGNode dstNode = (PDGNode)dependence.dst;
-				BasicBlock dstBlock = dstNode.getBasicBlock();
-				dominatedBlocks.add(dstBlock);
-				PDGNode dstBlockLastNode = dstBlock.getLastNode().getPDGNode();
-				if(dstBlockLastNode instanceof PDGControlPredicateNode && !dstBlockLastNode.equals(branchNode))
-					dominatedBlocks.addAll(dominatedBlocks(dstBlockLastNode));
+	private BitSet dominatedBlockIds(PDGNode branchNode) {
+		BitSet dominatedBlockIds = dominatedBlockMap.get(branchNode);
+		if(dominatedBlockIds == null) {
+			dominatedBlockIds = new BitSet();
+			for(GraphEdge edge : branchNode.outgoingEdges) {
+				PDGDependence dependence = (PDGDependence)edge;
+				if(dependence instanceof PDGControlDependence) {
+					PDGNode dstNode = (PDGNode)dependence.dst;
+					BasicBlock dstBlock = dstNode.getBasicBlock();
+					dominatedBlockIds.set(dstBlock.getId());
+					PDGNode dstBlockLastNode = dstBlock.getLastNode().getPDGNode();
+					if(dstBlockLastNode instanceof PDGControlPredicateNode && !dstBlockLastNode.equals(branchNode))
+						dominatedBlockIds.or(dominatedBlockIds(dstBlockLastNode));
+				}
 			}
+			dominatedBlockMap.put(branchNode, dominatedBlockIds);
 		}
-		return dominatedBlocks;
+		return dominatedBlockIds;
 	}
 
 	public Set<BasicBlock> boundaryBlocks(PDGNode node) {
-		Set<BasicBlock> boundaryBlocks = new LinkedHashSet<BasicBlock>();
 		BasicBlock srcBlock = node.getBasicBlock();
-		for(BasicBlock block : getBasicBlocks()) {
-			Set<BasicBlock> forwardReachableBlocks = forwardReachableBlocks(block);
-			Set<BasicBlock> dominatedBlocks = dominatedBlocks(block);
-			Set<BasicBlock> intersection = new LinkedHashSet<BasicBlock>();
-			intersection.addAll(forwardReachableBlocks);
-			intersection.retainAll(dominatedBlocks);
-			if(intersection.contains(srcBlock))
-				boundaryBlocks.add(block);
+		BitSet boundaryBlockIds = boundaryBlockMap.get(srcBlock);
+		if(boundaryBlockIds == null) {
+			boundaryBlockIds = new BitSet();
+			int srcBlockId = srcBlock.getId();
+			for(BasicBlock block : getBasicBlocks()) {
+				if(forwardReachableBlockIds(block).get(srcBlockId) && dominatedBlockIds(block).get(srcBlockId))
+					boundaryBlockIds.set(block.getId());
+			}
+			boundaryBlockMap.put(srcBlock, boundaryBlockIds);
 		}
-		return boundaryBlocks;
+		return cfg.getBasicBlockCFG().getBasicBlocks(boundaryBlockIds);
 	}
 
 	public Set<PDGNode> blockBasedRegion(BasicBlock block) {
@@ -771,6 +672,16 @@ public class PDG extends Graph {
 		return regionNodes;
 	}
 
+	//the slices computed within the block-based region of a boundary block are shared by all the slices with that boundary block
+	PDGSliceIndex getSliceIndex(BasicBlock boundaryBlock) {
+		PDGSliceIndex sliceIndex = sliceIndexMap.get(boundaryBlock);
+		if(sliceIndex == null) {
+			sliceIndex = new PDGSliceIndex(this, boundaryBlock);
+			sliceIndexMap.put(boundaryBlock, sliceIndex);
+		}
+		return sliceIndex;
+	}
+
 	public Set<AbstractVariable> getReturnedVariables() {
 		Set<AbstractVariable> returnedVariables = new LinkedHashSet<AbstractVariable>();
 		for(GraphNode node : nodes) {
@@ -39,6 +39,9 @@ public class PDGNode extends GraphNode implements Comparable<PDGNode> {
 	private Set<AbstractVariable> originalDefinedVariables;
 	private Set<AbstractVariable> originalUsedVariables;
 	private MethodCallAnalyzer methodCallAnalyzer;
+	//set when the PDG is finished, the dependences of the node are then read from the compact storage of the PDG
+	private CompactDependenceGraph dependenceGraph;
+	private int dependenceGraphIndex;
 	
 	public PDGNode() {
 		super();
@@ -85,7 +88,28 @@ public class PDGNode extends GraphNode implements Comparable<PDGNode> {
 		return thrownExceptionTypes;
 	}
 
+	void setDependenceGraph(CompactDependenceGraph dependenceGraph, int index) {
+		this.dependenceGraph = dependenceGraph;
+		this.dependenceGraphIndex = index;
+		this.incomingEdges = dependenceGraph.getIncomingDependences(index);
+		this.outgoingEdges = dependenceGraph.getOutgoingDependences(index);
+	}
+
+	private Set<GraphEdge> getOutgoingDependences(PDGDependenceType type) {
+		if(dependenceGraph != null)
+			return dependenceGraph.getOutgoingDependences(dependenceGraphIndex, type);
+		return outgoingEdges;
+	}
+
+	private Set<GraphEdge> getIncomingDependences(PDGDependenceType type) {
+		if(dependenceGraph != null)
+			return dependenceGraph.getIncomingDependences(dependenceGraphIndex, type);
+		return incomingEdges;
+	}
+
 	public Iterator<GraphEdge> getDependenceIterator() {
+		if(dependenceGraph != null)
+			return dependenceGraph.getDependenceIterator(dependenceGraphIndex);
 		Set<GraphEdge> allEdges = new LinkedHashSet<GraphEdge>();
 		allEdges.addAll(incomingEdges);
 		allEdges.addAll(outgoingEdges);
@@ -102,7 +126,7 @@ public class PDGNode extends GraphNode implements Comparable<PDGNode> {
 
 	public Set<PDGNode> getControlDependentNodes() {
 		Set<PDGNode> nodes = new LinkedHashSet<PDGNode>();
-		for(GraphEdge edge : outgoingEdges) {
+		for(GraphEdge edge : getOutgoingDependences(PDGDependenceType.CONTROL)) {
 			PDGDependence dependence = (PDGDependence)edge;
 			if(dependence instanceof PDGControlDependence) {
 				PDGControlDependence controlDependence = (PDGControlDependence)dependence;
@@ -115,7 +139,7 @@ public class PDGNode extends GraphNode implements Comparable<PDGNode> {
 
 	public Set<PDGNode> getTrueControlDependentNodes() {
 		Set<PDGNode> nodes = new LinkedHashSet<PDGNode>();
-		for(GraphEdge edge : outgoingEdges) {
+		for(GraphEdge edge : getOutgoingDependences(PDGDependenceType.CONTROL)) {
 			PDGDependence dependence = (PDGDependence)edge;
 			if(dependence instanceof PDGControlDependence) {
 				PDGControlDependence controlDependence = (PDGControlDependence)dependence;
@@ -129,7 +153,7 @@ public class PDGNode extends GraphNode implements Comparable<PDGNode> {
 	}
 
 	public PDGNode getControlDependenceParent() {
-		for(GraphEdge edge : incomingEdges) {
+		for(GraphEdge edge : getIncomingDependences(PDGDependenceType.CONTROL)) {
 			PDGDependence dependence = (PDGDependence)edge;
 			if(dependence instanceof PDGControlDependence) {
 				PDGNode srcNode = (PDGNode)dependence.src;
@@ -160,7 +184,7 @@ public class PDGNode extends GraphNode implements Comparable<PDGNode> {
 	}
 
 	public PDGControlDependence getIncomingControlDependence() {
-		for(GraphEdge edge : incomingEdges) {
+		for(GraphEdge edge : getIncomingDependences(PDGDependenceType.CONTROL)) {
 			PDGDependence dependence = (PDGDependence)edge;
 			if(dependence instanceof PDGControlDependence) {
 				return (PDGControlDependence)dependence;
@@ -4,6 +4,7 @@ import gr.uom.java.ast.AbstractMethodDeclaration;
 import gr.uom.java.jdeodorant.preferences.PreferenceConstants;
 import gr.uom.java.jdeodorant.refactoring.Activator;
 
+import java.util.BitSet;
 import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
@@ -116,39 +117,26 @@ public class PDGObjectSliceUnion {
 					nCD.add(srcPDGNode);
 			}
 		}
-		Set<PDGNode> controlIndispensableNodes = new LinkedHashSet<PDGNode>();
+		PDGSliceIndex sliceIndex = subgraph.getSliceIndex();
+		BitSet controlIndispensableNodes = new BitSet();
 		for(PDGNode p : nCD) {
 			for(AbstractVariable usedVariable : p.usedVariables) {
-				Set<PDGNode> pSliceNodes = subgraph.computeSlice(p, usedVariable);
-				for(GraphNode node : pdg.nodes) {
-					PDGNode q = (PDGNode)node;
-					if(pSliceNodes.contains(q) || q.equals(p))
-						controlIndispensableNodes.add(q);
-				}
+				controlIndispensableNodes.or(sliceIndex.getSlice(p, usedVariable));
+				controlIndispensableNodes.set(p.getId());
 			}
 			if(p.usedVariables.isEmpty()) {
-				Set<PDGNode> pSliceNodes = subgraph.computeSlice(p);
-				for(GraphNode node : pdg.nodes) {
-					PDGNode q = (PDGNode)node;
-					if(pSliceNodes.contains(q) || q.equals(p))
-						controlIndispensableNodes.add(q);
-				}
+				controlIndispensableNodes.or(sliceIndex.getSlice(p));
 			}
 		}
-		Set<PDGNode> dataIndispensableNodes = new LinkedHashSet<PDGNode>();
+		BitSet dataIndispensableNodes = new BitSet();
 		for(PDGNode p : nDD) {
 			for(AbstractVariable definedVariable : p.definedVariables) {
-				Set<PDGNode> pSliceNodes = subgraph.computeSlice(p, definedVariable);
-				for(GraphNode node : pdg.nodes) {
-					PDGNode q = (PDGNode)node;
-					if(pSliceNodes.contains(q))
-						dataIndispensableNodes.add(q);
-				}
+				dataIndispensableNodes.or(sliceIndex.getSlice(p, definedVariable));
 			}
 		}
 		this.indispensableNodes = new TreeSet<PDGNode>();
-		indispensableNodes.addAll(controlIndispensableNodes);
-		indispensableNodes.addAll(dataIndispensableNodes);
+		indispensableNodes.addAll(sliceIndex.getNodes(controlIndispensableNodes));
+		indispensableNodes.addAll(sliceIndex.getNodes(dataIndispensableNodes));
 		Set<PDGNode> throwStatementNodesToBeAddedToDuplicatedNodesDueToIndispensableNodes = new TreeSet<PDGNode>();
 		for(PDGNode throwNode : throwStatementNodes) {
 			for(PDGNode indispensableNode : indispensableNodes) {
@@ -2,6 +2,7 @@ package gr.uom.java.ast.decomposition.cfg;
 
 import gr.uom.java.ast.AbstractMethodDeclaration;
 
+import java.util.BitSet;
 import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
@@ -25,6 +26,7 @@ public class PDGSlice extends Graph {
 	private Set<AbstractVariable> returnedVariablesInOriginalMethod;
 	private IFile iFile;
 	private int methodSize;
+	private PDGSliceIndex sliceIndex;
 	
 	public PDGSlice(PDG pdg, BasicBlock boundaryBlock) {
 		super();
@@ -34,47 +36,9 @@ public class PDGSlice extends Graph {
 		this.methodSize = pdg.getTotalNumberOfStatements();
 		this.returnedVariablesInOriginalMethod = pdg.getReturnedVariables();
 		this.boundaryBlock = boundaryBlock;
-		Set<PDGNode> regionNodes = pdg.blockBasedRegion(boundaryBlock);
-		for(PDGNode node : regionNodes) {
-			nodes.add(node);
-		}
-		for(GraphEdge edge : pdg.edges) {
-			PDGDependence dependence = (PDGDependence)edge;
-			if(nodes.contains(dependence.src) && nodes.contains(dependence.dst)) {
-				if(dependence instanceof PDGDataDependence) {
-					PDGDataDependence dataDependence = (PDGDataDependence)dependence;
-					if(dataDependence.isLoopCarried()) {
-						PDGNode loopNode = dataDependence.getLoop().getPDGNode();
-						if(nodes.contains(loopNode))
-							edges.add(dataDependence);
-					}
-					else
-						edges.add(dataDependence);
-				}
-				else if(dependence instanceof PDGAntiDependence) {
-					PDGAntiDependence antiDependence = (PDGAntiDependence)dependence;
-					if(antiDependence.isLoopCarried()) {
-						PDGNode loopNode = antiDependence.getLoop().getPDGNode();
-						if(nodes.contains(loopNode))
-							edges.add(antiDependence);
-					}
-					else
-						edges.add(antiDependence);
-				}
-				else if(dependence instanceof PDGOutputDependence) {
-					PDGOutputDependence outputDependence = (PDGOutputDependence)dependence;
-					if(outputDependence.isLoopCarried()) {
-						PDGNode loopNode = outputDependence.getLoop().getPDGNode();
-						if(nodes.contains(loopNode))
-							edges.add(outputDependence);
-					}
-					else
-						edges.add(outputDependence);
-				}
-				else
-					edges.add(dependence);
-			}
-		}
+		this.sliceIndex = pdg.getSliceIndex(boundaryBlock);
+		nodes.addAll(sliceIndex.getRegionNodes());
+		edges.addAll(sliceIndex.getRegionEdges());
 	}
 
 	public PDGSlice(PDG pdg, BasicBlock boundaryBlock, PDGNode nodeCriterion, AbstractVariable localVariableCriterion) {
@@ -110,31 +74,22 @@ public class PDGSlice extends Graph {
 					nCD.add(srcPDGNode);
 			}
 		}
-		Set<PDGNode> controlIndispensableNodes = new LinkedHashSet<PDGNode>();
+		BitSet controlIndispensableNodes = new BitSet();
 		for(PDGNode p : nCD) {
 			for(AbstractVariable usedVariable : p.usedVariables) {
-				Set<PDGNode> pSliceNodes = computeSlice(p, usedVariable);
-				for(GraphNode node : pdg.nodes) {
-					PDGNode q = (PDGNode)node;
-					if(pSliceNodes.contains(q) || q.equals(p))
-						controlIndispensableNodes.add(q);
-				}
+				controlIndispensableNodes.or(sliceIndex.getSlice(p, usedVariable));
+				controlIndispensableNodes.set(p.getId());
 			}
 		}
-		Set<PDGNode> dataIndispensableNodes = new LinkedHashSet<PDGNode>();
+		BitSet dataIndispensableNodes = new BitSet();
 		for(PDGNode p : nDD) {
 			for(AbstractVariable definedVariable : p.definedVariables) {
-				Set<PDGNode> pSliceNodes = computeSlice(p, definedVariable);
-				for(GraphNode node : pdg.nodes) {
-					PDGNode q = (PDGNode)node;
-					if(pSliceNodes.contains(q))
-						dataIndispensableNodes.add(q);
-				}
+				dataIndispensableNodes.or(sliceIndex.getSlice(p, definedVariable));
 			}
 		}
 		this.indispensableNodes = new TreeSet<PDGNode>();
-		indispensableNodes.addAll(controlIndispensableNodes);
-		indispensableNodes.addAll(dataIndispensableNodes);
+		indispensableNodes.addAll(sliceIndex.getNodes(controlIndispensableNodes));
+		indispensableNodes.addAll(sliceIndex.getNodes(dataIndispensableNodes));
 		this.removableNodes = new LinkedHashSet<PDGNode>();
 		for(GraphNode node : pdg.nodes) {
 			PDGNode pdgNode = (PDGNode)node;
@@ -434,54 +389,15 @@ public class PDGSlice extends Graph {
 	}
 
 	public Set<PDGNode> computeSlice(PDGNode nodeCriterion, AbstractVariable localVariableCriterion) {
-		Set<PDGNode> sliceNodes = new LinkedHashSet<PDGNode>();
-		if(nodeCriterion.definesLocalVariable(localVariableCriterion)) {
-			sliceNodes.addAll(traverseBackward(nodeCriterion, new LinkedHashSet<PDGNode>()));
-		}
-		else if(nodeCriterion.usesLocalVariable(localVariableCriterion)) {
-			Set<PDGNode> defNodes = getDefNodes(nodeCriterion, localVariableCriterion);
-			for(PDGNode defNode : defNodes) {
-				sliceNodes.addAll(traverseBackward(defNode, new LinkedHashSet<PDGNode>()));
-			}
-			sliceNodes.addAll(traverseBackward(nodeCriterion, new LinkedHashSet<PDGNode>()));
-		}
-		return sliceNodes;
+		return sliceIndex.getNodes(sliceIndex.getSlice(nodeCriterion, localVariableCriterion));
 	}
 
 	public Set<PDGNode> computeSlice(PDGNode nodeCriterion) {
-		Set<PDGNode> sliceNodes = new LinkedHashSet<PDGNode>();
-		sliceNodes.addAll(traverseBackward(nodeCriterion, new LinkedHashSet<PDGNode>()));
-		return sliceNodes;
-	}
-
-	private Set<PDGNode> getDefNodes(PDGNode node, AbstractVariable localVariable) {
-		Set<PDGNode> defNodes = new LinkedHashSet<PDGNode>();
-		for(GraphEdge edge : node.incomingEdges) {
-			PDGDependence dependence = (PDGDependence)edge;
-			if(edges.contains(dependence) && dependence instanceof PDGDataDependence) {
-				PDGDataDependence dataDependence = (PDGDataDependence)dependence;
-				if(dataDependence.getData().equals(localVariable)) {
-					PDGNode srcPDGNode = (PDGNode)dependence.src;
-					defNodes.add(srcPDGNode);
-				}
-			}
-		}
-		return defNodes;
+		return sliceIndex.getNodes(sliceIndex.getSlice(nodeCriterion));
 	}
 
-	private Set<PDGNode> traverseBackward(PDGNode node, Set<PDGNode> visitedNodes) {
-		Set<PDGNode> sliceNodes = new LinkedHashSet<PDGNode>();
-		sliceNodes.add(node);
-		visitedNodes.add(node);
-		for(GraphEdge edge : node.incomingEdges) {
-			PDGDependence dependence = (PDGDependence)edge;
-			if(edges.contains(dependence) && !(dependence instanceof PDGAntiDependence) && !(dependence instanceof PDGOutputDependence)) {
-				PDGNode srcPDGNode = (PDGNode)dependence.src;
-				if(!visitedNodes.contains(srcPDGNode))
-					sliceNodes.addAll(traverseBackward(srcPDGNode, visitedNodes));
-			}
-		}
-		return sliceNodes;
+	PDGSliceIndex getSliceIndex() {
+		return sliceIndex;
 	}
 
 	public String toString() {
@@ -0,0 +1,152 @@
+package gr.uom.java.ast.decomposition.cfg;
+
+import gr.uom.java.ast.util.IntHashMap;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/*
+ * The block-based region of a PDG for a boundary block along with the backward slices computed within the region.
+ * A slice is a bit set over the ids of the PDG nodes and is memoized for every node and every (node, variable) criterion,
+ * so that the slice unions built for the same boundary block share the traversals of their criteria.
+ * A backward traversal does not expand a node whose slice is already known, but adds the whole slice of the node instead.
+ * The returned bit sets are shared and must not be modified.
+ */
+class PDGSliceIndex {
+	private PDGNode[] nodesById;
+	private Set<PDGNode> regionNodes;
+	private Set<GraphEdge> regionEdges;
+	//the ids of the sources of the region edges (other than anti and output dependences) incoming to every node
+	private int[][] slicePredecessors;
+	private BitSet[] nodeSlices;
+	private IntHashMap<Map<AbstractVariable, BitSet>> variableSlices;
+
+	PDGSliceIndex(PDG pdg, BasicBlock boundaryBlock) {
+		int maxId = pdg.getEntryNode().getId();
+		for(GraphNode node : pdg.nodes) {
+			maxId = Math.max(maxId, node.getId());
+		}
+		this.nodesById = new PDGNode[maxId + 1];
+		nodesById[pdg.getEntryNode().getId()] = pdg.getEntryNode();
+		for(GraphNode node : pdg.nodes) {
+			nodesById[node.getId()] = (PDGNode)node;
+		}
+		this.regionNodes = pdg.blockBasedRegion(boundaryBlock);
+		this.regionEdges = new LinkedHashSet<GraphEdge>();
+		for(GraphEdge edge : pdg.edges) {
+			PDGDependence dependence = (PDGDependence)edge;
+			if(regionNodes.contains(dependence.src) && regionNodes.contains(dependence.dst)) {
+				if(dependence instanceof PDGAbstractDataDependence) {
+					PDGAbstractDataDependence dataDependence = (PDGAbstractDataDependence)dependence;
+					if(dataDependence.isLoopCarried()) {
+						PDGNode loopNode = dataDependence.getLoop().getPDGNode();
+						if(regionNodes.contains(loopNode))
+							regionEdges.add(dataDependence);
+					}
+					else
+						regionEdges.add(dataDependence);
+				}
+				else
+					regionEdges.add(dependence);
+			}
+		}
+		int[] predecessorCounts = new int[nodesById.length];
+		for(GraphEdge edge : regionEdges) {
+			if(!(edge instanceof PDGAntiDependence) && !(edge instanceof PDGOutputDependence))
+				predecessorCounts[edge.dst.getId()]++;
+		}
+		this.slicePredecessors = new int[nodesById.length][];
+		for(int i=0; i<nodesById.length; i++) {
+			slicePredecessors[i] = new int[predecessorCounts[i]];
+			predecessorCounts[i] = 0;
+		}
+		for(GraphEdge edge : regionEdges) {
+			if(!(edge instanceof PDGAntiDependence) && !(edge instanceof PDGOutputDependence)) {
+				int dstId = edge.dst.getId();
+				slicePredecessors[dstId][predecessorCounts[dstId]++] = edge.src.getId();
+			}
+		}
+		this.nodeSlices = new BitSet[nodesById.length];
+		this.variableSlices = new IntHashMap<Map<AbstractVariable, BitSet>>();
+	}
+
+	Set<PDGNode> getRegionNodes() {
+		return regionNodes;
+	}
+
+	Set<GraphEdge> getRegionEdges() {
+		return regionEdges;
+	}
+
+	//the nodes the given node depends on (transitively) through data and control dependences within the region, including the node itself
+	BitSet getSlice(PDGNode nodeCriterion) {
+		int id = nodeCriterion.getId();
+		BitSet slice = nodeSlices[id];
+		if(slice == null) {
+			slice = new BitSet(nodesById.length);
+			int[] stack = new int[nodesById.length];
+			int top = 0;
+			slice.set(id);
+			stack[top++] = id;
+			while(top > 0) {
+				int nodeId = stack[--top];
+				for(int predecessorId : slicePredecessors[nodeId]) {
+					if(!slice.get(predecessorId)) {
+						BitSet predecessorSlice = nodeSlices[predecessorId];
+						if(predecessorSlice != null) {
+							slice.or(predecessorSlice);
+						}
+						else {
+							slice.set(predecessorId);
+							stack[top++] = predecessorId;
+						}
+					}
+				}
+			}
+			nodeSlices[id] = slice;
+		}
+		return slice;
+	}
+
+	BitSet getSlice(PDGNode nodeCriterion, AbstractVariable localVariableCriterion) {
+		int id = nodeCriterion.getId();
+		Map<AbstractVariable, BitSet> slices = variableSlices.get(id);
+		if(slices == null) {
+			slices = new HashMap<AbstractVariable, BitSet>();
+			variableSlices.put(id, slices);
+		}
+		BitSet slice = slices.get(localVariableCriterion);
+		if(slice == null) {
+			if(nodeCriterion.definesLocalVariable(localVariableCriterion)) {
+				slice = getSlice(nodeCriterion);
+			}
+			else if(nodeCriterion.usesLocalVariable(localVariableCriterion)) {
+				slice = (BitSet)getSlice(nodeCriterion).clone();
+				for(GraphEdge edge : nodeCriterion.incomingEdges) {
+					if(edge instanceof PDGDataDependence && regionEdges.contains(edge)) {
+						PDGDataDependence dataDependence = (PDGDataDependence)edge;
+						if(dataDependence.getData().equals(localVariableCriterion))
+							slice.or(getSlice((PDGNode)dataDependence.src));
+					}
+				}
+			}
+			else {
+				slice = new BitSet();
+			}
+			slices.put(localVariableCriterion, slice);
+		}
+		return slice;
+	}
+
+	//the nodes of the given slice in the order of their ids
+	Set<PDGNode> getNodes(BitSet slice) {
+		Set<PDGNode> nodes = new LinkedHashSet<PDGNode>();
+		for(int id = slice.nextSetBit(0); id >= 0; id = slice.nextSetBit(id + 1)) {
+			nodes.add(nodesById[id]);
+		}
+		return nodes;
+	}
+}
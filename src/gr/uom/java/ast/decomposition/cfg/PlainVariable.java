@@ -3,7 +3,8 @@ package gr.uom.java.ast.decomposition.cfg;
 import org.eclipse.jdt.core.dom.VariableDeclaration;
 
 public class PlainVariable extends AbstractVariable {
-	private volatile int hashCode = 0;
+	private static final long serialVersionUID = 1L;
+	private transient volatile int hashCode = 0;
 	
 	public PlainVariable(VariableDeclaration variableName) {
 		super(variableName);
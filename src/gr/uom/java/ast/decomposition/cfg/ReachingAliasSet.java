@@ -1,129 +1,164 @@
 package gr.uom.java.ast.decomposition.cfg;
 
+import gr.uom.java.ast.util.PersistentIntMap;
+
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.eclipse.jdt.core.dom.VariableDeclaration;
 
+/*
+ * The alias sets reaching a node are kept in persistent maps from the ids of the variables to the ids of their alias sets,
+ * and from the ids of the alias sets to their variables in the order they were inserted.
+ * A copy shares both maps with the original, and an update replaces only the paths of the changed ids,
+ * so that the alias search can copy the reaching alias sets for every flow it follows.
+ */
 public class ReachingAliasSet {
+	//the ids of the variables (by binding key) and the ids of the alias sets, shared by all the copies of a reaching alias set
+	private AliasContext context;
+	private PersistentIntMap<Integer> aliasSetIds;
+	private PersistentIntMap<int[]> aliasSets;
 
-	private List<LinkedHashSet<VariableDeclaration>> aliasSets;
-	
 	public ReachingAliasSet() {
-		this.aliasSets = new ArrayList<LinkedHashSet<VariableDeclaration>>();
+		this.context = new AliasContext();
+		this.aliasSetIds = PersistentIntMap.empty();
+		this.aliasSets = PersistentIntMap.empty();
 	}
-	
-	private ReachingAliasSet(List<LinkedHashSet<VariableDeclaration>> aliasSets) {
+
+	private ReachingAliasSet(AliasContext context, PersistentIntMap<Integer> aliasSetIds, PersistentIntMap<int[]> aliasSets) {
+		this.context = context;
+		this.aliasSetIds = aliasSetIds;
 		this.aliasSets = aliasSets;
 	}
-	
+
 	public void insertAlias(VariableDeclaration leftHandSideReference, VariableDeclaration rightHandSideReference) {
-		boolean rightHandSideReferenceFound = false;
-		for(LinkedHashSet<VariableDeclaration> aliasSet : aliasSets) {
-			if(aliasSet.contains(rightHandSideReference)) {
-				rightHandSideReferenceFound = true;
-				aliasSet.add(leftHandSideReference);
-			}
-		}
-		if(!rightHandSideReferenceFound) {
-			LinkedHashSet<VariableDeclaration> aliasSet = new LinkedHashSet<VariableDeclaration>();
-			aliasSet.add(leftHandSideReference);
-			aliasSet.add(rightHandSideReference);
-			aliasSets.add(aliasSet);
+		int leftHandSideId = context.getId(leftHandSideReference);
+		int rightHandSideId = context.getId(rightHandSideReference);
+		if(leftHandSideId == rightHandSideId)
+			return;
+		Integer rightHandSideAliasSetId = aliasSetIds.get(rightHandSideId);
+		if(rightHandSideAliasSetId != null && rightHandSideAliasSetId.equals(aliasSetIds.get(leftHandSideId)))
+			return;
+		removeFromAliasSet(leftHandSideId);
+		if(rightHandSideAliasSetId != null) {
+			int[] aliasSet = aliasSets.get(rightHandSideAliasSetId);
+			int[] newAliasSet = new int[aliasSet.length+1];
+			System.arraycopy(aliasSet, 0, newAliasSet, 0, aliasSet.length);
+			newAliasSet[aliasSet.length] = leftHandSideId;
+			aliasSets = aliasSets.put(rightHandSideAliasSetId, newAliasSet);
+			aliasSetIds = aliasSetIds.put(leftHandSideId, rightHandSideAliasSetId);
 		}
-		List<LinkedHashSet<VariableDeclaration>> aliasSetsToBeRemoved = new ArrayList<LinkedHashSet<VariableDeclaration>>();
-		for(LinkedHashSet<VariableDeclaration> aliasSet : aliasSets) {
-			if(aliasSet.contains(leftHandSideReference)) {
-				if(!aliasSet.contains(rightHandSideReference))
-					aliasSet.remove(leftHandSideReference);
-				if(aliasSet.size() == 1)
-					aliasSetsToBeRemoved.add(aliasSet);
-			}
-		}
-		for(LinkedHashSet<VariableDeclaration> aliasSet : aliasSetsToBeRemoved) {
-			aliasSets.remove(aliasSet);
+		else {
+			int aliasSetId = context.nextAliasSetId++;
+			aliasSets = aliasSets.put(aliasSetId, new int[] {leftHandSideId, rightHandSideId});
+			aliasSetIds = aliasSetIds.put(leftHandSideId, aliasSetId);
+			aliasSetIds = aliasSetIds.put(rightHandSideId, aliasSetId);
 		}
 	}
-	
+
 	public void removeAlias(VariableDeclaration leftHandSideReference) {
-		List<LinkedHashSet<VariableDeclaration>> aliasSetsToBeRemoved = new ArrayList<LinkedHashSet<VariableDeclaration>>();
-		for(LinkedHashSet<VariableDeclaration> aliasSet : aliasSets) {
-			if(aliasSet.contains(leftHandSideReference)) {
-				aliasSet.remove(leftHandSideReference);
-				if(aliasSet.size() == 1)
-					aliasSetsToBeRemoved.add(aliasSet);
+		Integer leftHandSideId = context.lookupId(leftHandSideReference);
+		if(leftHandSideId != null)
+			removeFromAliasSet(leftHandSideId);
+	}
+
+	//an alias set left with a single variable is removed
+	private void removeFromAliasSet(int id) {
+		Integer aliasSetId = aliasSetIds.get(id);
+		if(aliasSetId != null) {
+			int[] aliasSet = aliasSets.get(aliasSetId);
+			aliasSetIds = aliasSetIds.remove(id);
+			if(aliasSet.length == 2) {
+				aliasSetIds = aliasSetIds.remove(aliasSet[0] == id ? aliasSet[1] : aliasSet[0]);
+				aliasSets = aliasSets.remove(aliasSetId);
+			}
+			else {
+				int[] newAliasSet = new int[aliasSet.length-1];
+				int i = 0;
+				for(int alias : aliasSet) {
+					if(alias != id)
+						newAliasSet[i++] = alias;
+				}
+				aliasSets = aliasSets.put(aliasSetId, newAliasSet);
 			}
-		}
-		for(LinkedHashSet<VariableDeclaration> aliasSet : aliasSetsToBeRemoved) {
-			aliasSets.remove(aliasSet);
 		}
 	}
-	
+
 	public boolean containsAlias(VariableDeclaration variableDeclaration) {
-		for(LinkedHashSet<VariableDeclaration> aliasSet : aliasSets) {
-			if(aliasSet.contains(variableDeclaration))
-				return true;
-		}
-		return false;
+		Integer id = context.lookupId(variableDeclaration);
+		return id != null && aliasSetIds.containsKey(id);
 	}
-	
+
 	public boolean containsAlias(AbstractVariable variable) {
-		for(LinkedHashSet<VariableDeclaration> aliasSet : aliasSets) {
-			for(VariableDeclaration alias : aliasSet) {
-				if(alias.resolveBinding().getKey().equals(variable.getVariableBindingKey()))
-					return true;
-			}
-		}
-		return false;
+		Integer id = context.lookupId(variable.getVariableBindingKey());
+		return id != null && aliasSetIds.containsKey(id);
 	}
-	
+
 	public Set<VariableDeclaration> getAliases(VariableDeclaration variableDeclaration) {
-		for(LinkedHashSet<VariableDeclaration> aliasSet : aliasSets) {
-			if(aliasSet.contains(variableDeclaration)) {
-				Set<VariableDeclaration> aliases = new LinkedHashSet<VariableDeclaration>();
-				for(VariableDeclaration alias : aliasSet) {
-					if(!alias.equals(variableDeclaration))
-						aliases.add(alias);
-				}
-				return aliases;
-			}
-		}
-		return null;
+		return getAliases(context.lookupId(variableDeclaration));
 	}
-	
+
 	public Set<VariableDeclaration> getAliases(AbstractVariable variable) {
-		for(LinkedHashSet<VariableDeclaration> aliasSet : aliasSets) {
-			boolean containsVariable = false;
-			for(VariableDeclaration alias : aliasSet) {
-				if(alias.resolveBinding().getKey().equals(variable.getVariableBindingKey())) {
-					containsVariable = true;
-					break;
-				}
-			}
-			if(containsVariable) {
+		return getAliases(context.lookupId(variable.getVariableBindingKey()));
+	}
+
+	private Set<VariableDeclaration> getAliases(Integer id) {
+		if(id != null) {
+			Integer aliasSetId = aliasSetIds.get(id);
+			if(aliasSetId != null) {
 				Set<VariableDeclaration> aliases = new LinkedHashSet<VariableDeclaration>();
-				for(VariableDeclaration alias : aliasSet) {
-					if(!alias.resolveBinding().getKey().equals(variable.getVariableBindingKey()))
-						aliases.add(alias);
+				for(int alias : aliasSets.get(aliasSetId)) {
+					if(alias != id)
+						aliases.add(context.declarations.get(alias));
 				}
 				return aliases;
 			}
 		}
 		return null;
 	}
-	
+
 	public ReachingAliasSet copy() {
-		List<LinkedHashSet<VariableDeclaration>> aliasSetsCopy = new ArrayList<LinkedHashSet<VariableDeclaration>>();
-		for(LinkedHashSet<VariableDeclaration> aliasSet : aliasSets) {
-			LinkedHashSet<VariableDeclaration> aliasSetCopy = new LinkedHashSet<VariableDeclaration>(aliasSet);
-			aliasSetsCopy.add(aliasSetCopy);
-		}
-		return new ReachingAliasSet(aliasSetsCopy);
+		return new ReachingAliasSet(context, aliasSetIds, aliasSets);
 	}
-	
+
 	public String toString() {
-		return aliasSets.toString();
+		List<Set<VariableDeclaration>> aliasSetList = new ArrayList<Set<VariableDeclaration>>();
+		for(int aliasSetId : aliasSets.keys()) {
+			Set<VariableDeclaration> aliasSet = new LinkedHashSet<VariableDeclaration>();
+			for(int alias : aliasSets.get(aliasSetId)) {
+				aliasSet.add(context.declarations.get(alias));
+			}
+			aliasSetList.add(aliasSet);
+		}
+		return aliasSetList.toString();
+	}
+
+	private static class AliasContext {
+		private Map<String, Integer> variableIds = new HashMap<String, Integer>();
+		private List<VariableDeclaration> declarations = new ArrayList<VariableDeclaration>();
+		private int nextAliasSetId = 0;
+
+		private int getId(VariableDeclaration variableDeclaration) {
+			String key = variableDeclaration.resolveBinding().getKey();
+			Integer id = variableIds.get(key);
+			if(id == null) {
+				id = declarations.size();
+				variableIds.put(key, id);
+				declarations.add(variableDeclaration);
+			}
+			return id;
+		}
+
+		private Integer lookupId(VariableDeclaration variableDeclaration) {
+			return variableIds.get(variableDeclaration.resolveBinding().getKey());
+		}
+
+		private Integer lookupId(String variableBindingKey) {
+			return variableIds.get(variableBindingKey);
+		}
 	}
 }
@@ -17,6 +17,17 @@ public class PDGMapper {
 	
 	public PDGMapper(PDG pdg1, PDG pdg2, IProgressMonitor monitor) {
 		this.subTreeMappers = new ArrayList<PDGSubTreeMapper>();
+		//the node ids are allocated per CFG, so the node pairs of these PDGs are compared in their own cache scope
+		NodePairComparisonCache cache = NodePairComparisonCache.openScope();
+		try {
+			mapSubTrees(pdg1, pdg2, monitor);
+		}
+		finally {
+			cache.close();
+		}
+	}
+
+	private void mapSubTrees(PDG pdg1, PDG pdg2, IProgressMonitor monitor) {
 		ControlDependenceTreeNode controlDependenceTreePDG1 = new ControlDependenceTreeGenerator(pdg1).getRoot();
 		ControlDependenceTreeNode controlDependenceTreePDG2 = new ControlDependenceTreeGenerator(pdg2).getRoot();
 		CompilationUnit cu1 = (CompilationUnit)pdg1.getMethod().getMethodDeclaration().getRoot();
@@ -77,7 +88,6 @@ public class PDGMapper {
 			if(!mapper.getCloneStructureRoot().getChildren().isEmpty())
 				subTreeMappers.add(mapper);
 		}
-		NodePairComparisonCache.getInstance().clearCache();
 	}
 
 	private ControlDependenceTreeNode generateControlDependenceSubTree(ControlDependenceTreeNode completeTreeRoot, List<ControlDependenceTreeNode> subTreeNodes) {
@@ -104,18 +104,16 @@ public class ASTNodeMatcher extends ASTMatcher{
 	public boolean match(PDGNode nodeG1, PDGNode nodeG2) {
 		NodePair pair = new NodePair(nodeG1.getId(), nodeG2.getId());
 		NodePairComparisonCache cache = NodePairComparisonCache.getInstance();
-		if(cache.containsNodePair(pair)) {
-			this.differences.addAll(cache.getDifferencesForNodePair(pair));
-			this.additionallyMatchedFragments1.addAll(cache.getAdditionallyMatchedFragments1(pair));
-			this.additionallyMatchedFragments2.addAll(cache.getAdditionallyMatchedFragments2(pair));
-			return cache.getMatchForNodePair(pair);
+		NodePairComparisonCache.NodePairComparison comparison = cache.getComparison(pair);
+		if(comparison != null) {
+			this.differences.addAll(comparison.getDifferences());
+			this.additionallyMatchedFragments1.addAll(comparison.getAdditionallyMatchedFragments1());
+			this.additionallyMatchedFragments2.addAll(comparison.getAdditionallyMatchedFragments2());
+			return comparison.getMatch();
 		}
 		else {
 			boolean match = nodeG1.getASTStatement().subtreeMatch(this, nodeG2.getASTStatement());
-			cache.addDifferencesForNodePair(pair, this.differences);
-			cache.addMatchForNodePair(pair, match);
-			cache.setAdditionallyMatchedFragments1(pair, this.additionallyMatchedFragments1);
-			cache.setAdditionallyMatchedFragments2(pair, this.additionallyMatchedFragments2);
+			cache.addComparison(pair, this.differences, match, this.additionallyMatchedFragments1, this.additionallyMatchedFragments2);
 			return match;
 		}
 	}
@@ -9,6 +9,11 @@ public class NodePair {
 		this.id2 = id2;
 	}
 
+	//compact id of the pair, used as key in NodePairComparisonCache
+	public long getKey() {
+		return ((long)id1 << 32) | (id2 & 0xFFFFFFFFL);
+	}
+
 	public int hashCode() {
 		final int prime = 31;
 		int result = 17;
@@ -2,75 +2,231 @@ package gr.uom.java.ast.decomposition.matching;
 
 import gr.uom.java.ast.decomposition.AbstractMethodFragment;
 
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
+/*
+ * The node pairs are keyed on PDG node ids, which are allocated per CFG, so a cache is only valid within the scope of an analysis
+ * comparing the same pair of PDGs. An analysis opens its own scope, which becomes the cache of the current thread until it is closed.
+ * The cache is split in shards locked independently, and each shard evicts its least recently used comparisons
+ * when their weight (the number of differences and additionally matched fragments) exceeds its share of the maximum weight.
+ */
 public class NodePairComparisonCache {
-	private static NodePairComparisonCache instance;
-	private Map<NodePair, List<ASTNodeDifference>> differenceMap;
-	private Map<NodePair, Boolean> matchMap;
-	private Map<NodePair, List<AbstractMethodFragment>> additionallyMatchedFragmentMap1;
-	private Map<NodePair, List<AbstractMethodFragment>> additionallyMatchedFragmentMap2;
-	
-	private NodePairComparisonCache() {
-		differenceMap = new LinkedHashMap<NodePair, List<ASTNodeDifference>>();
-		matchMap = new LinkedHashMap<NodePair, Boolean>();
-		additionallyMatchedFragmentMap1 = new LinkedHashMap<NodePair, List<AbstractMethodFragment>>();
-		additionallyMatchedFragmentMap2 = new LinkedHashMap<NodePair, List<AbstractMethodFragment>>();
-	}
-	
+	private static final int SHARD_COUNT = 16;
+	private static final int DEFAULT_MAXIMUM_WEIGHT = 1 << 18;
+	//a thread that has not opened a scope has its own unscoped cache
+	private static final ThreadLocal<NodePairComparisonCache> currentScope = new ThreadLocal<NodePairComparisonCache>() {
+		protected NodePairComparisonCache initialValue() {
+			return new NodePairComparisonCache(DEFAULT_MAXIMUM_WEIGHT);
+		}
+	};
+	private static final AtomicLong totalHitCount = new AtomicLong();
+	private static final AtomicLong totalMissCount = new AtomicLong();
+	private static final AtomicLong totalEvictionCount = new AtomicLong();
+	private Shard[] shards;
+	private AtomicLong hitCount;
+	private AtomicLong missCount;
+	private AtomicLong evictionCount;
+	private NodePairComparisonCache previousScope;
+
+	private NodePairComparisonCache(int maximumWeight) {
+		shards = new Shard[SHARD_COUNT];
+		for(int i=0; i<SHARD_COUNT; i++) {
+			shards[i] = new Shard(Math.max(1, maximumWeight / SHARD_COUNT));
+		}
+		hitCount = new AtomicLong();
+		missCount = new AtomicLong();
+		evictionCount = new AtomicLong();
+	}
+
 	public static NodePairComparisonCache getInstance() {
-		if(instance == null) {
-			instance = new NodePairComparisonCache();
+		return currentScope.get();
+	}
+
+	//opens a new scope for the current thread, the previous scope is restored when the new scope is closed
+	public static NodePairComparisonCache openScope() {
+		NodePairComparisonCache scope = new NodePairComparisonCache(DEFAULT_MAXIMUM_WEIGHT);
+		scope.previousScope = currentScope.get();
+		currentScope.set(scope);
+		return scope;
+	}
+
+	public void close() {
+		clearCache();
+		if(currentScope.get() == this) {
+			if(previousScope != null)
+				currentScope.set(previousScope);
+			else
+				currentScope.remove();
 		}
-		return instance;
+		previousScope = null;
 	}
-	
+
 	public void clearCache() {
-		differenceMap.clear();
-		matchMap.clear();
-		additionallyMatchedFragmentMap1.clear();
-		additionallyMatchedFragmentMap2.clear();
+		for(Shard shard : shards) {
+			synchronized(shard) {
+				shard.comparisonMap.clear();
+				shard.weight = 0;
+			}
+		}
 	}
 
-	public boolean containsNodePair(NodePair pair) {
-		return differenceMap.containsKey(pair) && matchMap.containsKey(pair);
+	private Shard getShard(long key) {
+		int hash = (int)(key ^ (key >>> 32));
+		hash ^= (hash >>> 16);
+		hash *= 0x85EBCA6B;
+		hash ^= (hash >>> 13);
+		return shards[hash & (SHARD_COUNT - 1)];
 	}
 
-	public List<ASTNodeDifference> getDifferencesForNodePair(NodePair pair) {
-		return differenceMap.get(pair);
+	//returns null if the node pair has not been compared in this scope
+	public NodePairComparison getComparison(NodePair pair) {
+		long key = pair.getKey();
+		Shard shard = getShard(key);
+		NodePairComparison comparison;
+		synchronized(shard) {
+			comparison = shard.comparisonMap.get(key);
+		}
+		if(comparison != null) {
+			hitCount.incrementAndGet();
+			totalHitCount.incrementAndGet();
+		}
+		else {
+			missCount.incrementAndGet();
+			totalMissCount.incrementAndGet();
+		}
+		return comparison;
 	}
-	
-	public boolean getMatchForNodePair(NodePair pair) {
-		return matchMap.get(pair);
+
+	//if the node pair has been concurrently compared by another thread, the first comparison is kept
+	public void addComparison(NodePair pair, List<ASTNodeDifference> differences, boolean match,
+			List<AbstractMethodFragment> additionallyMatchedFragments1, List<AbstractMethodFragment> additionallyMatchedFragments2) {
+		NodePairComparison comparison = new NodePairComparison(differences, match, additionallyMatchedFragments1, additionallyMatchedFragments2);
+		long key = pair.getKey();
+		Shard shard = getShard(key);
+		int evicted = 0;
+		synchronized(shard) {
+			if(!shard.comparisonMap.containsKey(key)) {
+				shard.comparisonMap.put(key, comparison);
+				shard.weight += comparison.weight;
+				Iterator<NodePairComparison> iterator = shard.comparisonMap.values().iterator();
+				while(shard.weight > shard.maximumWeight && shard.comparisonMap.size() > 1) {
+					NodePairComparison eldest = iterator.next();
+					iterator.remove();
+					shard.weight -= eldest.weight;
+					evicted++;
+				}
+			}
+		}
+		if(evicted > 0) {
+			evictionCount.addAndGet(evicted);
+			totalEvictionCount.addAndGet(evicted);
+		}
 	}
 
-	public List<AbstractMethodFragment> getAdditionallyMatchedFragments1(NodePair pair) {
-		return additionallyMatchedFragmentMap1.get(pair);
+	public int getMapSize() {
+		int size = 0;
+		for(Shard shard : shards) {
+			synchronized(shard) {
+				size += shard.comparisonMap.size();
+			}
+		}
+		return size;
 	}
 
-	public List<AbstractMethodFragment> getAdditionallyMatchedFragments2(NodePair pair) {
-		return additionallyMatchedFragmentMap2.get(pair);
+	public long getHitCount() {
+		return hitCount.get();
 	}
 
-	public void addDifferencesForNodePair(NodePair pair, List<ASTNodeDifference> differences) {
-		differenceMap.put(pair, differences);
+	public long getMissCount() {
+		return missCount.get();
 	}
-	
-	public void addMatchForNodePair(NodePair pair, boolean match) {
-		matchMap.put(pair, match);
+
+	public long getEvictionCount() {
+		return evictionCount.get();
 	}
-	
-	public void setAdditionallyMatchedFragments1(NodePair pair, List<AbstractMethodFragment> fragments) {
-		additionallyMatchedFragmentMap1.put(pair, fragments);
+
+	public double getHitRate() {
+		return hitRate(hitCount.get(), missCount.get());
 	}
-	
-	public void setAdditionallyMatchedFragments2(NodePair pair, List<AbstractMethodFragment> fragments) {
-		additionallyMatchedFragmentMap2.put(pair, fragments);
+
+	//statistics of all the scopes since the plug-in was loaded
+	public static long getTotalHitCount() {
+		return totalHitCount.get();
 	}
 
-	public int getMapSize() {
-		return matchMap.size();
+	public static long getTotalMissCount() {
+		return totalMissCount.get();
+	}
+
+	public static long getTotalEvictionCount() {
+		return totalEvictionCount.get();
+	}
+
+	public static double getTotalHitRate() {
+		return hitRate(totalHitCount.get(), totalMissCount.get());
+	}
+
+	private static double hitRate(long hits, long misses) {
+		long lookups = hits + misses;
+		return lookups == 0 ? 0.0 : (double)hits/(double)lookups;
+	}
+
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("pairs=").append(getMapSize());
+		sb.append(", hits=").append(hitCount.get());
+		sb.append(", misses=").append(missCount.get());
+		sb.append(", evictions=").append(evictionCount.get());
+		sb.append(", hit rate=").append(getHitRate());
+		return sb.toString();
+	}
+
+	public static class NodePairComparison {
+		private List<ASTNodeDifference> differences;
+		private boolean match;
+		private List<AbstractMethodFragment> additionallyMatchedFragments1;
+		private List<AbstractMethodFragment> additionallyMatchedFragments2;
+		private int weight;
+
+		private NodePairComparison(List<ASTNodeDifference> differences, boolean match,
+				List<AbstractMethodFragment> additionallyMatchedFragments1, List<AbstractMethodFragment> additionallyMatchedFragments2) {
+			this.differences = differences;
+			this.match = match;
+			this.additionallyMatchedFragments1 = additionallyMatchedFragments1;
+			this.additionallyMatchedFragments2 = additionallyMatchedFragments2;
+			this.weight = 1 + differences.size() + additionallyMatchedFragments1.size() + additionallyMatchedFragments2.size();
+		}
+
+		public List<ASTNodeDifference> getDifferences() {
+			return differences;
+		}
+
+		public boolean getMatch() {
+			return match;
+		}
+
+		public List<AbstractMethodFragment> getAdditionallyMatchedFragments1() {
+			return additionallyMatchedFragments1;
+		}
+
+		public List<AbstractMethodFragment> getAdditionallyMatchedFragments2() {
+			return additionallyMatchedFragments2;
+		}
+	}
+
+	private static class Shard {
+		//access-ordered map, the iteration starts from the least recently used comparison
+		private Map<Long, NodePairComparison> comparisonMap;
+		private int maximumWeight;
+		private int weight;
+
+		private Shard(int maximumWeight) {
+			this.comparisonMap = new LinkedHashMap<Long, NodePairComparison>(16, 0.75f, true);
+			this.maximumWeight = maximumWeight;
+		}
 	}
 }
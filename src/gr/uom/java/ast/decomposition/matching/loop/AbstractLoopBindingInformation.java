@@ -66,7 +66,7 @@ public class AbstractLoopBindingInformation
 		dataStructureAccessMethods.add("Ljava/lang/String;.charAt(I)C");						// .charAt(int) (from String)
 	}
 	
-	public static AbstractLoopBindingInformation getInstance()
+	public static synchronized AbstractLoopBindingInformation getInstance()
 	{
 		if (instance == null)
 		{
@@ -0,0 +1,101 @@
+package gr.uom.java.ast.util;
+
+import java.io.Serializable;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/*
+ * A set backed by an array, which preserves the insertion order of its elements like a LinkedHashSet.
+ * The lookups are linear, so it is meant for small sets, for which it takes a fraction of the memory of a LinkedHashSet.
+ */
+public class ArraySet<E> extends AbstractSet<E> implements Serializable {
+	private static final long serialVersionUID = 1L;
+	private Object[] elements;
+	private int size;
+
+	public ArraySet(Collection<? extends E> collection) {
+		this.elements = new Object[collection.size()];
+		for(E element : collection)
+			add(element);
+		if(size < elements.length)
+			resize(size);
+	}
+
+	private void resize(int length) {
+		Object[] resized = new Object[length];
+		System.arraycopy(elements, 0, resized, 0, size);
+		elements = resized;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean contains(Object o) {
+		return indexOf(o) != -1;
+	}
+
+	private int indexOf(Object o) {
+		for(int i=0; i<size; i++) {
+			if(o == null ? elements[i] == null : o.equals(elements[i]))
+				return i;
+		}
+		return -1;
+	}
+
+	public boolean add(E element) {
+		if(indexOf(element) != -1)
+			return false;
+		if(size == elements.length)
+			resize(Math.max(2, 2*size));
+		elements[size++] = element;
+		return true;
+	}
+
+	public boolean remove(Object o) {
+		int index = indexOf(o);
+		if(index == -1)
+			return false;
+		removeAt(index);
+		return true;
+	}
+
+	private void removeAt(int index) {
+		System.arraycopy(elements, index+1, elements, index, size-index-1);
+		elements[--size] = null;
+	}
+
+	public Iterator<E> iterator() {
+		return new Iterator<E>() {
+			private int next = 0;
+			private int last = -1;
+
+			public boolean hasNext() {
+				return next < size;
+			}
+
+			@SuppressWarnings("unchecked")
+			public E next() {
+				if(next >= size)
+					throw new NoSuchElementException();
+				last = next++;
+				return (E)elements[last];
+			}
+
+			public void remove() {
+				if(last == -1)
+					throw new IllegalStateException();
+				removeAt(last);
+				next = last;
+				last = -1;
+			}
+		};
+	}
+
+	//the number of references held by the backing array
+	public int getCapacity() {
+		return elements.length;
+	}
+}
@@ -0,0 +1,76 @@
+package gr.uom.java.ast.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jdt.core.dom.IBinding;
+
+/*
+ * Assigns a dense int id to every binding key of a method or field, so that the analysis caches can be keyed on ints
+ * instead of the (often very long) binding key strings. The same binding key always gets the same id until the table is cleared
+ * for a newly parsed system, and id 0 is never assigned, so that it can denote a not yet resolved id.
+ * Every clearing starts a new generation, so that an id cached along with its generation can be detected as stale.
+ */
+public class BindingKeyTable {
+	public static final int NO_ID = 0;
+	private static final Map<String, Integer> idMap = new HashMap<String, Integer>();
+	private static final List<String> keys = new ArrayList<String>();
+	private static volatile int generation = 0;
+
+	static {
+		keys.add(null);
+	}
+
+	public static synchronized int getId(String bindingKey) {
+		Integer id = idMap.get(bindingKey);
+		if(id == null) {
+			bindingKey = StringInterner.intern(bindingKey);
+			id = keys.size();
+			idMap.put(bindingKey, id);
+			keys.add(bindingKey);
+		}
+		return id;
+	}
+
+	public static int getId(IBinding binding) {
+		return getId(binding.getKey());
+	}
+
+	//the id of the binding in the low 32 bits and the current generation in the high 32 bits
+	public static synchronized long getVersionedId(IBinding binding) {
+		return ((long)generation << 32) | getId(binding.getKey());
+	}
+
+	public static int getId(long versionedId) {
+		return (int)versionedId;
+	}
+
+	//false if the versioned id has not been resolved or belongs to a previous generation
+	public static boolean isCurrent(long versionedId) {
+		return (int)versionedId != NO_ID && (int)(versionedId >>> 32) == generation;
+	}
+
+	//returns NO_ID if the binding key has not been assigned an id
+	public static synchronized int lookupId(String bindingKey) {
+		Integer id = idMap.get(bindingKey);
+		return id != null ? id : NO_ID;
+	}
+
+	public static synchronized String getKey(int id) {
+		return keys.get(id);
+	}
+
+	public static synchronized int size() {
+		return keys.size() - 1;
+	}
+
+	//releases the ids of the previously parsed system, the caches keyed on them must be cleared as well
+	public static synchronized void clear() {
+		idMap.clear();
+		keys.clear();
+		keys.add(null);
+		generation++;
+	}
+}
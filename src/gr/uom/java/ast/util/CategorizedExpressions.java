@@ -0,0 +1,206 @@
+package gr.uom.java.ast.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.Expression;
+import org.eclipse.jdt.core.dom.Statement;
+
+/*
+ * The expressions of a statement (or an expression) classified in all the categories of ExpressionExtractor
+ * with a single traversal of its subtree, instead of a traversal for every category.
+ * The expressions of every category are in the same order as returned by the corresponding method of ExpressionExtractor.
+ * The result is stored as a property of the AST node, so that it is shared by all the fragments created for the same node
+ * and it is discarded together with the AST. The returned lists cannot be modified.
+ */
+public class CategorizedExpressions {
+	private static final String PROPERTY_NAME = CategorizedExpressions.class.getName();
+	private List<Expression> allExpressions;
+	private List<List<Expression>> categorizedExpressions;
+
+	private enum Category {
+		VARIABLE_INSTRUCTION(new InstanceOfSimpleName()),
+		METHOD_INVOCATION(new InstanceOfMethodInvocation()),
+		SUPER_METHOD_INVOCATION(new InstanceOfSuperMethodInvocation()),
+		FIELD_ACCESS(new InstanceOfFieldAccess()),
+		SUPER_FIELD_ACCESS(new InstanceOfSuperFieldAccess()),
+		CLASS_INSTANCE_CREATION(new InstanceOfClassInstanceCreation()),
+		ARRAY_CREATION(new InstanceOfArrayCreation()),
+		ARRAY_ACCESS(new InstanceOfArrayAccess()),
+		THIS_EXPRESSION(new InstanceOfThisExpression()),
+		TYPE_LITERAL(new InstanceOfTypeLiteral()),
+		LITERAL(new InstanceOfLiteral()),
+		CAST_EXPRESSION(new InstanceOfCastExpression()),
+		INFIX_EXPRESSION(new InstanceOfInfixExpression()),
+		INSTANCEOF_EXPRESSION(new InstanceOfInstanceofExpression()),
+		ASSIGNMENT(new InstanceOfAssignment()),
+		POSTFIX_EXPRESSION(new InstanceOfPostfixExpression()),
+		PREFIX_EXPRESSION(new InstanceOfPrefixExpression()),
+		VARIABLE_DECLARATION_EXPRESSION(new InstanceOfVariableDeclarationExpression()),
+		CONDITIONAL_EXPRESSION(new InstanceOfConditionalExpression()),
+		VARIABLE_MODIFIER(new InstanceOfVariableModifier());
+
+		private ExpressionInstanceChecker instanceChecker;
+
+		private Category(ExpressionInstanceChecker instanceChecker) {
+			this.instanceChecker = instanceChecker;
+		}
+	}
+
+	private CategorizedExpressions(List<Expression> allExpressions) {
+		this.allExpressions = Collections.unmodifiableList(allExpressions);
+		Category[] categories = Category.values();
+		List<List<Expression>> expressionLists = new ArrayList<List<Expression>>(categories.length);
+		for(int i=0; i<categories.length; i++)
+			expressionLists.add(null);
+		for(Expression expression : allExpressions) {
+			for(Category category : categories) {
+				if(category.instanceChecker.instanceOf(expression)) {
+					List<Expression> expressionList = expressionLists.get(category.ordinal());
+					if(expressionList == null) {
+						expressionList = new ArrayList<Expression>();
+						expressionLists.set(category.ordinal(), expressionList);
+					}
+					expressionList.add(expression);
+				}
+			}
+		}
+		this.categorizedExpressions = new ArrayList<List<Expression>>(categories.length);
+		for(List<Expression> expressionList : expressionLists) {
+			if(expressionList == null)
+				categorizedExpressions.add(Collections.<Expression>emptyList());
+			else
+				categorizedExpressions.add(Collections.unmodifiableList(expressionList));
+		}
+	}
+
+	public static CategorizedExpressions getInstance(Statement statement) {
+		return getInstance((ASTNode)statement);
+	}
+
+	public static CategorizedExpressions getInstance(Expression expression) {
+		return getInstance((ASTNode)expression);
+	}
+
+	private static CategorizedExpressions getInstance(ASTNode node) {
+		synchronized(node) {
+			CategorizedExpressions categorizedExpressions = (CategorizedExpressions)node.getProperty(PROPERTY_NAME);
+			if(categorizedExpressions == null) {
+				ExpressionExtractor expressionExtractor = new ExpressionExtractor();
+				categorizedExpressions = new CategorizedExpressions(expressionExtractor.getAllExpressions(node));
+				node.setProperty(PROPERTY_NAME, categorizedExpressions);
+			}
+			return categorizedExpressions;
+		}
+	}
+
+	private List<Expression> getExpressions(Category category) {
+		return categorizedExpressions.get(category.ordinal());
+	}
+
+	public List<Expression> getAllExpressions() {
+		return allExpressions;
+	}
+
+	// returns a List of SimpleName objects
+	public List<Expression> getVariableInstructions() {
+		return getExpressions(Category.VARIABLE_INSTRUCTION);
+	}
+
+	// returns a List of MethodInvocation and SuperMethodInvocation objects
+	public List<Expression> getMethodInvocations() {
+		return getExpressions(Category.METHOD_INVOCATION);
+	}
+
+	// returns a List of SuperMethodInvocation objects
+	public List<Expression> getSuperMethodInvocations() {
+		return getExpressions(Category.SUPER_METHOD_INVOCATION);
+	}
+
+	// returns a List of FieldAccess objects
+	public List<Expression> getFieldAccesses() {
+		return getExpressions(Category.FIELD_ACCESS);
+	}
+
+	// returns a List of SuperFieldAccess objects
+	public List<Expression> getSuperFieldAccesses() {
+		return getExpressions(Category.SUPER_FIELD_ACCESS);
+	}
+
+	// returns a List of ClassInstanceCreation objects
+	public List<Expression> getClassInstanceCreations() {
+		return getExpressions(Category.CLASS_INSTANCE_CREATION);
+	}
+
+	// returns a List of ArrayCreation objects
+	public List<Expression> getArrayCreations() {
+		return getExpressions(Category.ARRAY_CREATION);
+	}
+
+	// returns a List of ArrayAccess objects
+	public List<Expression> getArrayAccesses() {
+		return getExpressions(Category.ARRAY_ACCESS);
+	}
+
+	// returns a List of ThisExpression objects
+	public List<Expression> getThisExpressions() {
+		return getExpressions(Category.THIS_EXPRESSION);
+	}
+
+	// returns a List of TypeLiteral objects
+	public List<Expression> getTypeLiterals() {
+		return getExpressions(Category.TYPE_LITERAL);
+	}
+
+	// returns a List of Type, String, Boolean, Character, Number, and Null Literal objects
+	public List<Expression> getLiterals() {
+		return getExpressions(Category.LITERAL);
+	}
+
+	// returns a List of CastExpression objects
+	public List<Expression> getCastExpressions() {
+		return getExpressions(Category.CAST_EXPRESSION);
+	}
+
+	// returns a List of InfixExpression objects
+	public List<Expression> getInfixExpressions() {
+		return getExpressions(Category.INFIX_EXPRESSION);
+	}
+
+	// returns a List of InstanceofExpression objects
+	public List<Expression> getInstanceofExpressions() {
+		return getExpressions(Category.INSTANCEOF_EXPRESSION);
+	}
+
+	// returns a List of Assignment objects
+	public List<Expression> getAssignments() {
+		return getExpressions(Category.ASSIGNMENT);
+	}
+
+	// returns a List of PostfixExpression objects
+	public List<Expression> getPostfixExpressions() {
+		return getExpressions(Category.POSTFIX_EXPRESSION);
+	}
+
+	// returns a List of PrefixExpression objects
+	public List<Expression> getPrefixExpressions() {
+		return getExpressions(Category.PREFIX_EXPRESSION);
+	}
+
+	// returns a List of VariableDeclarationExpression objects
+	public List<Expression> getVariableDeclarationExpressions() {
+		return getExpressions(Category.VARIABLE_DECLARATION_EXPRESSION);
+	}
+
+	// returns a List of ConditionalExpression objects
+	public List<Expression> getConditionalExpressions() {
+		return getExpressions(Category.CONDITIONAL_EXPRESSION);
+	}
+
+	// returns a List of variable updaters (i.e. Assignment, PrefixExpression, PostfixExpression, or MethodInvocation objects)
+	public List<Expression> getVariableModifiers() {
+		return getExpressions(Category.VARIABLE_MODIFIER);
+	}
+}
@@ -301,245 +301,254 @@ public class ExpressionExtractor {
 
 	private List<Expression> getExpressions(Statement statement) {
 		List<Expression> expressionList = new ArrayList<Expression>();
+		getExpressions(statement, expressionList);
+		return expressionList;
+	}
+
+	private List<Expression> getExpressions(Expression expression) {
+		List<Expression> expressionList = new ArrayList<Expression>();
+		getExpressions(expression, expressionList);
+		return expressionList;
+	}
+
+	//the expressions are appended to the given list, instead of merging the lists returned for every visited node
+	private void getExpressions(Statement statement, List<Expression> expressionList) {
 		if(statement instanceof Block) {
 			Block block = (Block)statement;
 			List<Statement> blockStatements = block.statements();
 			for(Statement blockStatement : blockStatements)
-				expressionList.addAll(getExpressions(blockStatement));
+				getExpressions(blockStatement, expressionList);
 		}
 		else if(statement instanceof IfStatement) {
 			IfStatement ifStatement = (IfStatement)statement;
 			Expression expression = ifStatement.getExpression();
-			expressionList.addAll(getExpressions(expression));
-			expressionList.addAll(getExpressions(ifStatement.getThenStatement()));
+			getExpressions(expression, expressionList);
+			getExpressions(ifStatement.getThenStatement(), expressionList);
 			if(ifStatement.getElseStatement() != null) {
-				expressionList.addAll(getExpressions(ifStatement.getElseStatement()));
+				getExpressions(ifStatement.getElseStatement(), expressionList);
 			}
 		}
 		else if(statement instanceof ForStatement) {
 			ForStatement forStatement = (ForStatement)statement;
 			List<Expression> initializers = forStatement.initializers();
 			for(Expression initializer : initializers)
-				expressionList.addAll(getExpressions(initializer));
+				getExpressions(initializer, expressionList);
 			Expression expression = forStatement.getExpression();
 			if(expression != null)
-				expressionList.addAll(getExpressions(expression));
+				getExpressions(expression, expressionList);
 			List<Expression> updaters = forStatement.updaters();
 			for(Expression updater : updaters)
-				expressionList.addAll(getExpressions(updater));
-			expressionList.addAll(getExpressions(forStatement.getBody()));
+				getExpressions(updater, expressionList);
+			getExpressions(forStatement.getBody(), expressionList);
 		}
 		else if(statement instanceof EnhancedForStatement) {
 			EnhancedForStatement enhancedForStatement = (EnhancedForStatement)statement;
 			Expression expression = enhancedForStatement.getExpression();
 			SingleVariableDeclaration variableDeclaration = enhancedForStatement.getParameter();
-			expressionList.addAll(getExpressions(variableDeclaration.getName()));
+			getExpressions(variableDeclaration.getName(), expressionList);
 			if(variableDeclaration.getInitializer() != null)
-				expressionList.addAll(getExpressions(variableDeclaration.getInitializer()));
-			expressionList.addAll(getExpressions(expression));
-			expressionList.addAll(getExpressions(enhancedForStatement.getBody()));
+				getExpressions(variableDeclaration.getInitializer(), expressionList);
+			getExpressions(expression, expressionList);
+			getExpressions(enhancedForStatement.getBody(), expressionList);
 		}
 		else if(statement instanceof WhileStatement) {
 			WhileStatement whileStatement = (WhileStatement)statement;
 			Expression expression = whileStatement.getExpression();
-			expressionList.addAll(getExpressions(expression));
-			expressionList.addAll(getExpressions(whileStatement.getBody()));
+			getExpressions(expression, expressionList);
+			getExpressions(whileStatement.getBody(), expressionList);
 		}
 		else if(statement instanceof DoStatement) {
 			DoStatement doStatement = (DoStatement)statement;
 			Expression expression = doStatement.getExpression();
-			expressionList.addAll(getExpressions(expression));
-			expressionList.addAll(getExpressions(doStatement.getBody()));
+			getExpressions(expression, expressionList);
+			getExpressions(doStatement.getBody(), expressionList);
 		}
 		else if(statement instanceof ExpressionStatement) {
 			ExpressionStatement expressionStatement = (ExpressionStatement)statement;
 			Expression expression = expressionStatement.getExpression();
-			expressionList.addAll(getExpressions(expression));
+			getExpressions(expression, expressionList);
 		}
 		else if(statement instanceof SwitchStatement) {
 			SwitchStatement switchStatement = (SwitchStatement)statement;
 			Expression expression = switchStatement.getExpression();
-			expressionList.addAll(getExpressions(expression));
+			getExpressions(expression, expressionList);
 			List<Statement> switchStatements = switchStatement.statements();
 			for(Statement switchStatement2 : switchStatements)
-				expressionList.addAll(getExpressions(switchStatement2));
+				getExpressions(switchStatement2, expressionList);
 		}
 		else if(statement instanceof SwitchCase) {
 			SwitchCase switchCase = (SwitchCase)statement;
 			Expression expression = switchCase.getExpression();
 			if(expression != null)
-				expressionList.addAll(getExpressions(expression));
+				getExpressions(expression, expressionList);
 		}
 		else if(statement instanceof AssertStatement) {
 			AssertStatement assertStatement = (AssertStatement)statement;
 			Expression expression = assertStatement.getExpression();
-			expressionList.addAll(getExpressions(expression));
+			getExpressions(expression, expressionList);
 			Expression message = assertStatement.getMessage();
 			if(message != null)
-				expressionList.addAll(getExpressions(message));
+				getExpressions(message, expressionList);
 		}
 		else if(statement instanceof LabeledStatement) {
 			LabeledStatement labeledStatement = (LabeledStatement)statement;
 			if(labeledStatement.getLabel() != null)
-				expressionList.addAll(getExpressions(labeledStatement.getLabel()));
-			expressionList.addAll(getExpressions(labeledStatement.getBody()));
+				getExpressions(labeledStatement.getLabel(), expressionList);
+			getExpressions(labeledStatement.getBody(), expressionList);
 		}
 		else if(statement instanceof ReturnStatement) {
 			ReturnStatement returnStatement = (ReturnStatement)statement;
 			Expression expression = returnStatement.getExpression();
-			expressionList.addAll(getExpressions(expression));	
+			getExpressions(expression, expressionList);	
 		}
 		else if(statement instanceof SynchronizedStatement) {
 			SynchronizedStatement synchronizedStatement = (SynchronizedStatement)statement;
 			Expression expression = synchronizedStatement.getExpression();
-			expressionList.addAll(getExpressions(expression));
-			expressionList.addAll(getExpressions(synchronizedStatement.getBody()));
+			getExpressions(expression, expressionList);
+			getExpressions(synchronizedStatement.getBody(), expressionList);
 		}
 		else if(statement instanceof ThrowStatement) {
 			ThrowStatement throwStatement = (ThrowStatement)statement;
 			Expression expression = throwStatement.getExpression();
-			expressionList.addAll(getExpressions(expression));
+			getExpressions(expression, expressionList);
 		}
 		else if(statement instanceof TryStatement) {
 			TryStatement tryStatement = (TryStatement)statement;
 			List<VariableDeclarationExpression> resources = tryStatement.resources();
 			for(VariableDeclarationExpression expression : resources) {
-				expressionList.addAll(getExpressions(expression));
+				getExpressions(expression, expressionList);
 			}
-			expressionList.addAll(getExpressions(tryStatement.getBody()));
+			getExpressions(tryStatement.getBody(), expressionList);
 			List<CatchClause> catchClauses = tryStatement.catchClauses();
 			for(CatchClause catchClause : catchClauses) {
 				SingleVariableDeclaration variableDeclaration = catchClause.getException();
-				expressionList.addAll(getExpressions(variableDeclaration.getName()));
+				getExpressions(variableDeclaration.getName(), expressionList);
 				if(variableDeclaration.getInitializer() != null)
-					expressionList.addAll(getExpressions(variableDeclaration.getInitializer()));
-				expressionList.addAll(getExpressions(catchClause.getBody()));
+					getExpressions(variableDeclaration.getInitializer(), expressionList);
+				getExpressions(catchClause.getBody(), expressionList);
 			}
 			Block finallyBlock = tryStatement.getFinally();
 			if(finallyBlock != null)
-				expressionList.addAll(getExpressions(finallyBlock));
+				getExpressions(finallyBlock, expressionList);
 		}
 		else if(statement instanceof VariableDeclarationStatement) {
 			VariableDeclarationStatement variableDeclarationStatement = (VariableDeclarationStatement)statement;
 			List<VariableDeclarationFragment> fragments = variableDeclarationStatement.fragments();
 			for(VariableDeclarationFragment fragment : fragments) {
-				expressionList.addAll(getExpressions(fragment.getName()));
-				expressionList.addAll(getExpressions(fragment.getInitializer()));
+				getExpressions(fragment.getName(), expressionList);
+				getExpressions(fragment.getInitializer(), expressionList);
 			}
 		}
 		else if(statement instanceof ConstructorInvocation) {
 			ConstructorInvocation constructorInvocation = (ConstructorInvocation)statement;
 			List<Expression> arguments = constructorInvocation.arguments();
 			for(Expression argument : arguments)
-				expressionList.addAll(getExpressions(argument));
+				getExpressions(argument, expressionList);
 		}
 		else if(statement instanceof SuperConstructorInvocation) {
 			SuperConstructorInvocation superConstructorInvocation = (SuperConstructorInvocation)statement;
 			if(superConstructorInvocation.getExpression() != null)
-				expressionList.addAll(getExpressions(superConstructorInvocation.getExpression()));
+				getExpressions(superConstructorInvocation.getExpression(), expressionList);
 			List<Expression> arguments = superConstructorInvocation.arguments();
 			for(Expression argument : arguments)
-				expressionList.addAll(getExpressions(argument));
+				getExpressions(argument, expressionList);
 		}
 		else if(statement instanceof BreakStatement) {
 			BreakStatement breakStatement = (BreakStatement)statement;
 			if(breakStatement.getLabel() != null)
-				expressionList.addAll(getExpressions(breakStatement.getLabel()));
+				getExpressions(breakStatement.getLabel(), expressionList);
 		}
 		else if(statement instanceof ContinueStatement) {
 			ContinueStatement continueStatement = (ContinueStatement)statement;
 			if(continueStatement.getLabel() != null)
-				expressionList.addAll(getExpressions(continueStatement.getLabel()));
+				getExpressions(continueStatement.getLabel(), expressionList);
 		}
-		
-		return expressionList;
 	}
 	
-	private List<Expression> getExpressions(Expression expression) {
-		List<Expression> expressionList = new ArrayList<Expression>();
+	private void getExpressions(Expression expression, List<Expression> expressionList) {
 		if(expression instanceof MethodInvocation) {
 			MethodInvocation methodInvocation = (MethodInvocation)expression;
 			if(methodInvocation.getExpression() != null)
-				expressionList.addAll(getExpressions(methodInvocation.getExpression()));
+				getExpressions(methodInvocation.getExpression(), expressionList);
 			List<Expression> arguments = methodInvocation.arguments();
 			for(Expression argument : arguments)
-				expressionList.addAll(getExpressions(argument));
+				getExpressions(argument, expressionList);
 			if(instanceChecker.instanceOf(methodInvocation))
 				expressionList.add(methodInvocation);
 		}
 		else if(expression instanceof Assignment) {
 			Assignment assignment = (Assignment)expression;
-			expressionList.addAll(getExpressions(assignment.getLeftHandSide()));
-			expressionList.addAll(getExpressions(assignment.getRightHandSide()));
+			getExpressions(assignment.getLeftHandSide(), expressionList);
+			getExpressions(assignment.getRightHandSide(), expressionList);
 			if(instanceChecker.instanceOf(assignment))
 				expressionList.add(assignment);
 		}
 		else if(expression instanceof CastExpression) {
 			CastExpression castExpression = (CastExpression)expression;
-			expressionList.addAll(getExpressions(castExpression.getExpression()));
+			getExpressions(castExpression.getExpression(), expressionList);
 			if(instanceChecker.instanceOf(castExpression))
 				expressionList.add(castExpression);
 		}
 		else if(expression instanceof ClassInstanceCreation) {
 			ClassInstanceCreation classInstanceCreation = (ClassInstanceCreation)expression;
 			if(classInstanceCreation.getExpression() != null)
-				expressionList.addAll(getExpressions(classInstanceCreation.getExpression()));
+				getExpressions(classInstanceCreation.getExpression(), expressionList);
 			List<Expression> arguments = classInstanceCreation.arguments();
 			for(Expression argument : arguments)
-				expressionList.addAll(getExpressions(argument));
+				getExpressions(argument, expressionList);
 			if(instanceChecker.instanceOf(classInstanceCreation))
 				expressionList.add(classInstanceCreation);
 			AnonymousClassDeclaration anonymousClassDeclaration = classInstanceCreation.getAnonymousClassDeclaration();
 			if(anonymousClassDeclaration != null) {
-				expressionList.addAll(getExpressions(anonymousClassDeclaration));
+				getExpressions(anonymousClassDeclaration, expressionList);
 			}
 		}
 		else if(expression instanceof ConditionalExpression) {
 			ConditionalExpression conditionalExpression = (ConditionalExpression)expression;
-			expressionList.addAll(getExpressions(conditionalExpression.getExpression()));
-			expressionList.addAll(getExpressions(conditionalExpression.getThenExpression()));
-			expressionList.addAll(getExpressions(conditionalExpression.getElseExpression()));
+			getExpressions(conditionalExpression.getExpression(), expressionList);
+			getExpressions(conditionalExpression.getThenExpression(), expressionList);
+			getExpressions(conditionalExpression.getElseExpression(), expressionList);
 			if(instanceChecker.instanceOf(conditionalExpression))
 				expressionList.add(conditionalExpression);
 		}
 		else if(expression instanceof FieldAccess) {
 			FieldAccess fieldAccess = (FieldAccess)expression;
-			expressionList.addAll(getExpressions(fieldAccess.getExpression()));
-			expressionList.addAll(getExpressions(fieldAccess.getName()));
+			getExpressions(fieldAccess.getExpression(), expressionList);
+			getExpressions(fieldAccess.getName(), expressionList);
 			if(instanceChecker.instanceOf(fieldAccess))
 				expressionList.add(fieldAccess);
 		}
 		else if(expression instanceof InfixExpression) {
 			InfixExpression infixExpression = (InfixExpression)expression;
-			expressionList.addAll(getExpressions(infixExpression.getLeftOperand()));
-			expressionList.addAll(getExpressions(infixExpression.getRightOperand()));
+			getExpressions(infixExpression.getLeftOperand(), expressionList);
+			getExpressions(infixExpression.getRightOperand(), expressionList);
 			List<Expression> extendedOperands = infixExpression.extendedOperands();
 			for(Expression operand : extendedOperands)
-				expressionList.addAll(getExpressions(operand));
+				getExpressions(operand, expressionList);
 			if(instanceChecker.instanceOf(infixExpression))
 				expressionList.add(infixExpression);
 		}
 		else if(expression instanceof InstanceofExpression) {
 			InstanceofExpression instanceofExpression = (InstanceofExpression)expression;
-			expressionList.addAll(getExpressions(instanceofExpression.getLeftOperand()));
+			getExpressions(instanceofExpression.getLeftOperand(), expressionList);
 			if(instanceChecker.instanceOf(instanceofExpression))
 				expressionList.add(instanceofExpression);
 		}
 		else if(expression instanceof ParenthesizedExpression) {
 			ParenthesizedExpression parenthesizedExpression = (ParenthesizedExpression)expression;
-			expressionList.addAll(getExpressions(parenthesizedExpression.getExpression()));
+			getExpressions(parenthesizedExpression.getExpression(), expressionList);
 			if(instanceChecker.instanceOf(parenthesizedExpression))
 				expressionList.add(parenthesizedExpression);
 		}
 		else if(expression instanceof PostfixExpression) {
 			PostfixExpression postfixExpression = (PostfixExpression)expression;
-			expressionList.addAll(getExpressions(postfixExpression.getOperand()));
+			getExpressions(postfixExpression.getOperand(), expressionList);
 			if(instanceChecker.instanceOf(postfixExpression))
 				expressionList.add(postfixExpression);
 		}
 		else if(expression instanceof PrefixExpression) {
 			PrefixExpression prefixExpression = (PrefixExpression)expression;
-			expressionList.addAll(getExpressions(prefixExpression.getOperand()));
+			getExpressions(prefixExpression.getOperand(), expressionList);
 			if(instanceChecker.instanceOf(prefixExpression))
 				expressionList.add(prefixExpression);
 		}
@@ -547,7 +556,7 @@ public class ExpressionExtractor {
 			SuperMethodInvocation superMethodInvocation = (SuperMethodInvocation)expression;
 			List<Expression> arguments = superMethodInvocation.arguments();
 			for(Expression argument : arguments)
-				expressionList.addAll(getExpressions(argument));
+				getExpressions(argument, expressionList);
 			if(instanceChecker.instanceOf(superMethodInvocation))
 				expressionList.add(superMethodInvocation);
 		}
@@ -556,17 +565,17 @@ public class ExpressionExtractor {
 			List<VariableDeclarationFragment> fragments = variableDeclarationExpression.fragments();
 			for(VariableDeclarationFragment fragment : fragments) {
 				Expression nameExpression = fragment.getName();
-				expressionList.addAll(getExpressions(nameExpression));
+				getExpressions(nameExpression, expressionList);
 				Expression initializerExpression = fragment.getInitializer();
-				expressionList.addAll(getExpressions(initializerExpression));
+				getExpressions(initializerExpression, expressionList);
 			}
 			if(instanceChecker.instanceOf(variableDeclarationExpression))
 				expressionList.add(variableDeclarationExpression);
 		}
 		else if(expression instanceof ArrayAccess) {
 			ArrayAccess arrayAccess = (ArrayAccess)expression;
-			expressionList.addAll(getExpressions(arrayAccess.getArray()));
-			expressionList.addAll(getExpressions(arrayAccess.getIndex()));
+			getExpressions(arrayAccess.getArray(), expressionList);
+			getExpressions(arrayAccess.getIndex(), expressionList);
 			if(instanceChecker.instanceOf(arrayAccess))
 				expressionList.add(arrayAccess);
 		}
@@ -574,8 +583,8 @@ public class ExpressionExtractor {
 			ArrayCreation arrayCreation = (ArrayCreation)expression;
 			List<Expression> dimensions = arrayCreation.dimensions();
 			for(Expression dimension : dimensions)
-				expressionList.addAll(getExpressions(dimension));
-			expressionList.addAll(getExpressions(arrayCreation.getInitializer()));
+				getExpressions(dimension, expressionList);
+			getExpressions(arrayCreation.getInitializer(), expressionList);
 			if(instanceChecker.instanceOf(arrayCreation))
 				expressionList.add(arrayCreation);
 		}
@@ -583,7 +592,7 @@ public class ExpressionExtractor {
 			ArrayInitializer arrayInitializer = (ArrayInitializer)expression;
 			List<Expression> expressions = arrayInitializer.expressions();
 			for(Expression arrayInitializerExpression : expressions)
-				expressionList.addAll(getExpressions(arrayInitializerExpression));
+				getExpressions(arrayInitializerExpression, expressionList);
 			if(instanceChecker.instanceOf(arrayInitializer))
 				expressionList.add(arrayInitializer);
 		}
@@ -594,21 +603,21 @@ public class ExpressionExtractor {
 		}
 		else if(expression instanceof QualifiedName) {
 			QualifiedName qualifiedName = (QualifiedName)expression;
-			expressionList.addAll(getExpressions(qualifiedName.getQualifier()));
-			expressionList.addAll(getExpressions(qualifiedName.getName()));
+			getExpressions(qualifiedName.getQualifier(), expressionList);
+			getExpressions(qualifiedName.getName(), expressionList);
 			if(instanceChecker.instanceOf(qualifiedName))
 				expressionList.add(qualifiedName);
 		}
 		else if(expression instanceof SuperFieldAccess) {
 			SuperFieldAccess superFieldAccess = (SuperFieldAccess)expression;
-			expressionList.addAll(getExpressions(superFieldAccess.getName()));
+			getExpressions(superFieldAccess.getName(), expressionList);
 			if(instanceChecker.instanceOf(superFieldAccess))
 				expressionList.add(superFieldAccess);
 		}
 		else if(expression instanceof ThisExpression) {
 			ThisExpression thisExpression = (ThisExpression)expression;
 			if(thisExpression.getQualifier() != null)
-				expressionList.addAll(getExpressions(thisExpression.getQualifier()));
+				getExpressions(thisExpression.getQualifier(), expressionList);
 			if(instanceChecker.instanceOf(thisExpression))
 				expressionList.add(thisExpression);
 		}
@@ -642,11 +651,9 @@ public class ExpressionExtractor {
 			if(instanceChecker.instanceOf(characterLiteral))
 				expressionList.add(characterLiteral);
 		}
-		return expressionList;
 	}
 	
-	private List<Expression> getExpressions(AnonymousClassDeclaration anonymousClassDeclaration) {
-		List<Expression> expressionList = new ArrayList<Expression>();
+	private void getExpressions(AnonymousClassDeclaration anonymousClassDeclaration, List<Expression> expressionList) {
 		List<BodyDeclaration> bodyDeclarations = anonymousClassDeclaration.bodyDeclarations();
 		for(BodyDeclaration bodyDeclaration : bodyDeclarations) {
 			if(bodyDeclaration instanceof MethodDeclaration) {
@@ -655,11 +662,10 @@ public class ExpressionExtractor {
 				if(body != null) {
 					List<Statement> statements = body.statements();
 					for(Statement statement : statements) {
-						expressionList.addAll(getExpressions(statement));
+						getExpressions(statement, expressionList);
 					}
 				}
 			}
 		}
-		return expressionList;
 	}
 }
@@ -0,0 +1,105 @@
+package gr.uom.java.ast.util;
+
+import java.util.Arrays;
+
+/*
+ * A hash map from int keys to values with open addressing and linear probing, so that the keys are not boxed
+ * and a lookup does not allocate. Entries cannot be removed individually, only the whole map can be cleared.
+ */
+public class IntHashMap<V> {
+	private static final int INITIAL_CAPACITY = 16;
+	private int[] keys;
+	private Object[] values;
+	private boolean[] used;
+	private int size;
+
+	public IntHashMap() {
+		this.keys = new int[INITIAL_CAPACITY];
+		this.values = new Object[INITIAL_CAPACITY];
+		this.used = new boolean[INITIAL_CAPACITY];
+		this.size = 0;
+	}
+
+	private static int hash(int key) {
+		int hash = key * 0x9E3779B9;
+		return hash ^ (hash >>> 16);
+	}
+
+	private int indexOf(int key) {
+		int mask = keys.length - 1;
+		int index = hash(key) & mask;
+		while(used[index]) {
+			if(keys[index] == key)
+				return index;
+			index = (index + 1) & mask;
+		}
+		return -(index + 1);
+	}
+
+	@SuppressWarnings("unchecked")
+	public V get(int key) {
+		int index = indexOf(key);
+		return index >= 0 ? (V)values[index] : null;
+	}
+
+	public boolean containsKey(int key) {
+		return indexOf(key) >= 0;
+	}
+
+	@SuppressWarnings("unchecked")
+	public V put(int key, V value) {
+		int index = indexOf(key);
+		if(index >= 0) {
+			V previousValue = (V)values[index];
+			values[index] = value;
+			return previousValue;
+		}
+		index = -index - 1;
+		keys[index] = key;
+		values[index] = value;
+		used[index] = true;
+		size++;
+		//the load factor is kept at most 1/2
+		if(2*size > keys.length)
+			resize(2*keys.length);
+		return null;
+	}
+
+	private void resize(int capacity) {
+		int[] oldKeys = keys;
+		Object[] oldValues = values;
+		boolean[] oldUsed = used;
+		keys = new int[capacity];
+		values = new Object[capacity];
+		used = new boolean[capacity];
+		for(int i=0; i<oldKeys.length; i++) {
+			if(oldUsed[i]) {
+				int index = -indexOf(oldKeys[i]) - 1;
+				keys[index] = oldKeys[i];
+				values[index] = oldValues[i];
+				used[index] = true;
+			}
+		}
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public void clear() {
+		if(keys.length > INITIAL_CAPACITY) {
+			keys = new int[INITIAL_CAPACITY];
+			values = new Object[INITIAL_CAPACITY];
+			used = new boolean[INITIAL_CAPACITY];
+		}
+		else {
+			Arrays.fill(values, null);
+			Arrays.fill(used, false);
+		}
+		size = 0;
+	}
+}
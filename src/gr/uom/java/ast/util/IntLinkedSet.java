@@ -0,0 +1,96 @@
+package gr.uom.java.ast.util;
+
+/*
+ * A set of int values iterated in insertion order, kept in an array of elements.
+ * The small sets (e.g., the methods invoked by a method) are searched linearly,
+ * and a hash table of element positions is built only when a set grows beyond a few elements.
+ */
+public class IntLinkedSet {
+	private static final int MAXIMUM_LINEAR_SIZE = 8;
+	private int[] elements;
+	private int size;
+	//positions of the elements plus one, 0 denotes an empty slot
+	private int[] table;
+
+	public IntLinkedSet() {
+		this.elements = new int[4];
+		this.size = 0;
+	}
+
+	public boolean contains(int element) {
+		return indexOf(element) != -1;
+	}
+
+	private int indexOf(int element) {
+		if(table == null) {
+			for(int i=0; i<size; i++) {
+				if(elements[i] == element)
+					return i;
+			}
+			return -1;
+		}
+		int mask = table.length - 1;
+		int slot = hash(element) & mask;
+		while(table[slot] != 0) {
+			int index = table[slot] - 1;
+			if(elements[index] == element)
+				return index;
+			slot = (slot + 1) & mask;
+		}
+		return -1;
+	}
+
+	public boolean add(int element) {
+		if(indexOf(element) != -1)
+			return false;
+		if(size == elements.length) {
+			int[] grown = new int[2*size];
+			System.arraycopy(elements, 0, grown, 0, size);
+			elements = grown;
+		}
+		elements[size++] = element;
+		if(table != null) {
+			if(2*size > table.length)
+				rebuildTable();
+			else
+				insert(size-1);
+		}
+		else if(size > MAXIMUM_LINEAR_SIZE) {
+			rebuildTable();
+		}
+		return true;
+	}
+
+	private void rebuildTable() {
+		table = new int[Integer.highestOneBit(4*size)];
+		for(int i=0; i<size; i++)
+			insert(i);
+	}
+
+	private void insert(int index) {
+		int mask = table.length - 1;
+		int slot = hash(elements[index]) & mask;
+		while(table[slot] != 0)
+			slot = (slot + 1) & mask;
+		table[slot] = index + 1;
+	}
+
+	private static int hash(int element) {
+		int hash = element * 0x9E3779B9;
+		return hash ^ (hash >>> 16);
+	}
+
+	public int get(int index) {
+		if(index >= size)
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		return elements[index];
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+}
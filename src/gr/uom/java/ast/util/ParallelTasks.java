@@ -0,0 +1,94 @@
+package gr.uom.java.ast.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+
+/*
+ * Runs independent tasks on a fixed thread pool and returns their results in the order of the tasks.
+ * The monitor is polled for cancellation while the results are awaited, and the work of a task is reported once the task and all the tasks before it have completed.
+ * An exception thrown by a task is rethrown unwrapped in the calling thread, and the tasks that have not completed yet are cancelled.
+ * A thread can be given a budget that bounds the thread count of the pools it starts, e.g., when it is itself a worker of an outer pool.
+ */
+public class ParallelTasks {
+	private static final long CANCELLATION_POLLING_INTERVAL = 100;
+	private static final ThreadLocal<Integer> threadBudget = new ThreadLocal<Integer>();
+
+	public static void setThreadBudget(int threadCount) {
+		threadBudget.set(threadCount);
+	}
+
+	public static void clearThreadBudget() {
+		threadBudget.remove();
+	}
+
+	//the requested thread count (e.g., from a preference) bounded by the budget of the current thread
+	public static int getThreadCount(int requestedThreadCount) {
+		Integer budget = threadBudget.get();
+		if(budget != null)
+			return Math.min(requestedThreadCount, budget);
+		return requestedThreadCount;
+	}
+
+	public static <T> List<T> runInParallel(List<? extends Callable<T>> tasks, int threadCount, IProgressMonitor monitor) {
+		int[] taskWork = new int[tasks.size()];
+		Arrays.fill(taskWork, 1);
+		return runInParallel(tasks, threadCount, taskWork, monitor);
+	}
+
+	public static <T> List<T> runInParallel(List<? extends Callable<T>> tasks, int threadCount, int[] taskWork, IProgressMonitor monitor) {
+		List<T> results = new ArrayList<T>();
+		if(tasks.isEmpty())
+			return results;
+		ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(getThreadCount(threadCount), tasks.size())));
+		try {
+			List<Future<T>> futures = new ArrayList<Future<T>>();
+			for(Callable<T> task : tasks) {
+				futures.add(executor.submit(task));
+			}
+			for(int i=0; i<futures.size(); i++) {
+				results.add(waitFor(futures.get(i), monitor));
+				if(monitor != null && taskWork[i] > 0)
+					monitor.worked(taskWork[i]);
+			}
+		}
+		catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new OperationCanceledException();
+		}
+		catch(ExecutionException e) {
+			Throwable cause = e.getCause();
+			if(cause instanceof RuntimeException)
+				throw (RuntimeException)cause;
+			if(cause instanceof Error)
+				throw (Error)cause;
+			throw new IllegalStateException(cause);
+		}
+		finally {
+			executor.shutdownNow();
+		}
+		return results;
+	}
+
+	private static <T> T waitFor(Future<T> future, IProgressMonitor monitor) throws InterruptedException, ExecutionException {
+		while(true) {
+			if(monitor != null && monitor.isCanceled())
+				throw new OperationCanceledException();
+			try {
+				return future.get(CANCELLATION_POLLING_INTERVAL, TimeUnit.MILLISECONDS);
+			}
+			catch(TimeoutException e) {
+			}
+		}
+	}
+}
@@ -0,0 +1,181 @@
+package gr.uom.java.ast.util;
+
+import java.util.Arrays;
+
+/*
+ * An immutable map from int keys to values, stored as a hash array mapped trie in which a key is its own hash:
+ * every level of the trie branches on the next 5 bits of the key, and a node keeps only its occupied slots along with a bitmap of them.
+ * An update copies only the nodes on the path of its key and shares all the other nodes with the map it was applied to,
+ * so that keeping a snapshot of a map costs O(1) and an update costs O(log n).
+ */
+public class PersistentIntMap<V> {
+	private static final int BITS = 5;
+	private static final int MASK = (1 << BITS) - 1;
+	@SuppressWarnings("rawtypes")
+	private static final PersistentIntMap EMPTY = new PersistentIntMap(null, 0);
+	private final Node root;
+	private final int size;
+
+	private PersistentIntMap(Node root, int size) {
+		this.root = root;
+		this.size = size;
+	}
+
+	@SuppressWarnings("unchecked")
+	public static <V> PersistentIntMap<V> empty() {
+		return (PersistentIntMap<V>)EMPTY;
+	}
+
+	@SuppressWarnings("unchecked")
+	public V get(int key) {
+		Node node = root;
+		int shift = 0;
+		while(node != null) {
+			int bit = 1 << ((key >>> shift) & MASK);
+			if((node.bitmap & bit) == 0)
+				return null;
+			Object child = node.children[node.index(bit)];
+			if(child instanceof Leaf) {
+				Leaf leaf = (Leaf)child;
+				return leaf.key == key ? (V)leaf.value : null;
+			}
+			node = (Node)child;
+			shift += BITS;
+		}
+		return null;
+	}
+
+	public boolean containsKey(int key) {
+		return get(key) != null;
+	}
+
+	//null values are not supported, since a null value stands for a missing key
+	public PersistentIntMap<V> put(int key, V value) {
+		Leaf leaf = new Leaf(key, value);
+		if(root == null)
+			return new PersistentIntMap<V>(new Node(0, new Object[0]).with(key, 0, leaf), 1);
+		boolean[] added = new boolean[1];
+		Node newRoot = put(root, 0, leaf, added);
+		return new PersistentIntMap<V>(newRoot, added[0] ? size + 1 : size);
+	}
+
+	private static Node put(Node node, int shift, Leaf leaf, boolean[] added) {
+		int bit = 1 << ((leaf.key >>> shift) & MASK);
+		if((node.bitmap & bit) == 0) {
+			added[0] = true;
+			return node.with(leaf.key, shift, leaf);
+		}
+		Object child = node.children[node.index(bit)];
+		if(child instanceof Leaf) {
+			Leaf existingLeaf = (Leaf)child;
+			if(existingLeaf.key == leaf.key)
+				return node.replace(bit, leaf);
+			added[0] = true;
+			Node subNode = new Node(0, new Object[0]).with(existingLeaf.key, shift + BITS, existingLeaf);
+			subNode = put(subNode, shift + BITS, leaf, added);
+			return node.replace(bit, subNode);
+		}
+		return node.replace(bit, put((Node)child, shift + BITS, leaf, added));
+	}
+
+	public PersistentIntMap<V> remove(int key) {
+		if(root == null || !containsKey(key))
+			return this;
+		Object newRoot = remove(root, 0, key);
+		if(newRoot instanceof Leaf) {
+			Leaf leaf = (Leaf)newRoot;
+			newRoot = new Node(0, new Object[0]).with(leaf.key, 0, leaf);
+		}
+		return new PersistentIntMap<V>((Node)newRoot, size - 1);
+	}
+
+	//returns the node without the key, the single leaf left in the node (to be pulled up to the parent), or null if the node becomes empty
+	private static Object remove(Node node, int shift, int key) {
+		int bit = 1 << ((key >>> shift) & MASK);
+		Object child = node.children[node.index(bit)];
+		Object newChild = null;
+		if(child instanceof Node)
+			newChild = remove((Node)child, shift + BITS, key);
+		Node newNode = newChild != null ? node.replace(bit, newChild) : node.without(bit);
+		if(newNode.children.length == 0)
+			return null;
+		if(newNode.children.length == 1 && newNode.children[0] instanceof Leaf)
+			return newNode.children[0];
+		return newNode;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	//the keys in ascending order
+	public int[] keys() {
+		int[] keys = new int[size];
+		if(root != null)
+			collectKeys(root, keys, 0);
+		Arrays.sort(keys);
+		return keys;
+	}
+
+	private static int collectKeys(Node node, int[] keys, int position) {
+		for(Object child : node.children) {
+			if(child instanceof Leaf)
+				keys[position++] = ((Leaf)child).key;
+			else
+				position = collectKeys((Node)child, keys, position);
+		}
+		return position;
+	}
+
+	private static class Leaf {
+		private final int key;
+		private final Object value;
+
+		private Leaf(int key, Object value) {
+			this.key = key;
+			this.value = value;
+		}
+	}
+
+	private static class Node {
+		private final int bitmap;
+		private final Object[] children;
+
+		private Node(int bitmap, Object[] children) {
+			this.bitmap = bitmap;
+			this.children = children;
+		}
+
+		private int index(int bit) {
+			return Integer.bitCount(bitmap & (bit - 1));
+		}
+
+		private Node with(int key, int shift, Object child) {
+			int bit = 1 << ((key >>> shift) & MASK);
+			int index = index(bit);
+			Object[] newChildren = new Object[children.length + 1];
+			System.arraycopy(children, 0, newChildren, 0, index);
+			newChildren[index] = child;
+			System.arraycopy(children, index, newChildren, index + 1, children.length - index);
+			return new Node(bitmap | bit, newChildren);
+		}
+
+		private Node replace(int bit, Object child) {
+			Object[] newChildren = children.clone();
+			newChildren[index(bit)] = child;
+			return new Node(bitmap, newChildren);
+		}
+
+		private Node without(int bit) {
+			int index = index(bit);
+			Object[] newChildren = new Object[children.length - 1];
+			System.arraycopy(children, 0, newChildren, 0, index);
+			System.arraycopy(children, index + 1, newChildren, index, children.length - index - 1);
+			return new Node(bitmap & ~bit, newChildren);
+		}
+	}
+}
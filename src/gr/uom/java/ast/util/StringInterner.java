@@ -0,0 +1,27 @@
+package gr.uom.java.ast.util;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/*
+ * Canonical instances of the type names, member names and binding keys repeated in the objects of a SystemObject,
+ * so that equal strings created by different bindings share a single instance.
+ * The strings are weakly referenced, so they are discarded when no object of the system refers to them any more.
+ */
+public class StringInterner {
+	private static final Map<String, WeakReference<String>> stringMap = new WeakHashMap<String, WeakReference<String>>();
+
+	public static synchronized String intern(String string) {
+		if(string == null)
+			return null;
+		WeakReference<String> reference = stringMap.get(string);
+		if(reference != null) {
+			String canonicalString = reference.get();
+			if(canonicalString != null)
+				return canonicalString;
+		}
+		stringMap.put(string, new WeakReference<String>(string));
+		return string;
+	}
+}
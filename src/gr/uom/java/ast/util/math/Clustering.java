@@ -9,11 +9,19 @@ public abstract class Clustering {
 
 	protected ArrayList<ArrayList<Double>> distanceList;
 	protected double[][] distanceMatrix;
+	public static final int HIERARCHICAL = 0;
+	//same merges and clusters as HIERARCHICAL, without rebuilding the distance matrix after every merge
+	public static final int FAST_HIERARCHICAL = 1;
+	public static final int FAST_HIERARCHICAL_COMPLETE_LINKAGE = 2;
 	
 	public static Clustering getInstance(int type, double[][] distanceMatrix) {
 		switch(type) {
-		case 0:
+		case HIERARCHICAL:
 			return new Hierarchical(distanceMatrix);
+		case FAST_HIERARCHICAL:
+			return new FastHierarchical(distanceMatrix, false);
+		case FAST_HIERARCHICAL_COMPLETE_LINKAGE:
+			return new FastHierarchical(distanceMatrix, true);
 		default:
 			return null;
 		}
@@ -0,0 +1,135 @@
+package gr.uom.java.ast.util.math;
+
+import gr.uom.java.distance.Entity;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+
+/*
+ * Agglomerative clustering producing exactly the same merges and clusters as Hierarchical.
+ * The distance matrix is updated in place (Lance-Williams update for single or complete linkage)
+ * and the merged clusters are deactivated, instead of rebuilding the matrix after every merge.
+ * Every active cluster caches its nearest neighbour among the clusters preceding it,
+ * so that the closest pair is found by scanning the active clusters instead of the whole matrix.
+ *
+ * Clusters are identified by their position in the initial matrix. A merged cluster keeps the position of the
+ * preceding cluster, so the relative order of the active clusters is the same as the order of the clusters in Hierarchical,
+ * and the ties are resolved in the same way (lowest row, then lowest column of the lower triangle).
+ */
+public class FastHierarchical extends Clustering {
+
+	private HashSet<Cluster> clusterSet;
+	private boolean completeLinkage;
+	private boolean[] active;
+	//the nearest preceding active cluster of each active cluster and the distance from it
+	private int[] nearestNeighbor;
+	private double[] nearestNeighborDistance;
+
+	public FastHierarchical(double[][] distanceMatrix, boolean completeLinkage) {
+		this.distanceMatrix = new double[distanceMatrix.length][];
+		for(int i=0; i<distanceMatrix.length; i++) {
+			this.distanceMatrix[i] = distanceMatrix[i].clone();
+		}
+		this.completeLinkage = completeLinkage;
+		this.clusterSet = new HashSet<Cluster>();
+	}
+
+	public HashSet<Cluster> clustering(ArrayList<Entity> entities) {
+		int n = entities.size();
+		Cluster[] clusters = new Cluster[n];
+		for(int i=0; i<n; i++) {
+			Cluster cluster = new Cluster();
+			cluster.addEntity(entities.get(i));
+			clusters[i] = cluster;
+		}
+		active = new boolean[n];
+		nearestNeighbor = new int[n];
+		nearestNeighborDistance = new double[n];
+		for(int i=0; i<n; i++) {
+			active[i] = true;
+			updateNearestNeighbor(i);
+		}
+		int numberOfActiveClusters = n;
+		while(numberOfActiveClusters > 2) {
+			HashSet<Cluster> clustersNotPresentable = new HashSet<Cluster>();
+			int minRow = -1;
+			double minVal = Double.POSITIVE_INFINITY;
+			for(int i=0; i<n; i++) {
+				if(active[i] && nearestNeighbor[i] != -1 && nearestNeighborDistance[i] < minVal) {
+					minVal = nearestNeighborDistance[i];
+					minRow = i;
+				}
+			}
+			if(minVal >= 1.0)
+				break;
+			int minCol = nearestNeighbor[minRow];
+			if(clusters[minRow].getEntities().size() == 1 && clusters[minCol].getEntities().size() > 1) {
+				clustersNotPresentable.add(new Cluster(clusters[minCol].getEntities()));
+			}
+			else if(clusters[minRow].getEntities().size() > 1 && clusters[minCol].getEntities().size() == 1) {
+				clustersNotPresentable.add(new Cluster(clusters[minRow].getEntities()));
+			}
+			clusters[minCol].addEntities(clusters[minRow].getEntities());
+			clusters[minRow] = null;
+			active[minRow] = false;
+			numberOfActiveClusters--;
+			merge(minRow, minCol);
+			clusterSet.removeAll(clustersNotPresentable);
+			//the clusters that were not merged have been already added in the iteration they were created
+			if(!(numberOfActiveClusters == 2 && containsSingletonCluster(clusters))) {
+				clusterSet.add(new Cluster(clusters[minCol].getEntities()));
+			}
+		}
+		return clusterSet;
+	}
+
+	private void merge(int minRow, int minCol) {
+		int n = distanceMatrix.length;
+		for(int i=0; i<n; i++) {
+			if(active[i] && i != minCol) {
+				double distance;
+				if(completeLinkage)
+					distance = distanceMatrix[minRow][i] > distanceMatrix[minCol][i] ? distanceMatrix[minRow][i] : distanceMatrix[minCol][i];
+				else
+					distance = distanceMatrix[minRow][i] < distanceMatrix[minCol][i] ? distanceMatrix[minRow][i] : distanceMatrix[minCol][i];
+				distanceMatrix[minCol][i] = distance;
+				distanceMatrix[i][minCol] = distance;
+			}
+		}
+		distanceMatrix[minCol][minCol] = 0.0;
+		updateNearestNeighbor(minCol);
+		for(int i=minCol+1; i<n; i++) {
+			if(active[i]) {
+				if(nearestNeighbor[i] == minRow || nearestNeighbor[i] == minCol) {
+					updateNearestNeighbor(i);
+				}
+				else {
+					double distance = distanceMatrix[i][minCol];
+					if(distance < nearestNeighborDistance[i] || (distance == nearestNeighborDistance[i] && minCol < nearestNeighbor[i]))  {
+						nearestNeighbor[i] = minCol;
+						nearestNeighborDistance[i] = distance;
+					}
+				}
+			}
+		}
+	}
+
+	private void updateNearestNeighbor(int row) {
+		nearestNeighbor[row] = -1;
+		nearestNeighborDistance[row] = Double.POSITIVE_INFINITY;
+		for(int j=0; j<row; j++) {
+			if(active[j] && (nearestNeighbor[row] == -1 || distanceMatrix[row][j] < nearestNeighborDistance[row])) {
+				nearestNeighbor[row] = j;
+				nearestNeighborDistance[row] = distanceMatrix[row][j];
+			}
+		}
+	}
+
+	private boolean containsSingletonCluster(Cluster[] clusters) {
+		for(Cluster cluster : clusters) {
+			if(cluster != null && cluster.getEntities().size() == 1)
+				return true;
+		}
+		return false;
+	}
+}
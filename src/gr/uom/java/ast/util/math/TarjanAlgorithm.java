@@ -41,6 +41,11 @@ public class TarjanAlgorithm {
 		}
 	}
 
+	//a component is found after all the components reachable from it (reverse topological order)
+	public LinkedHashSet<LinkedHashSet<Node>> getStronglyConnectedComponents() {
+		return SCC;
+	}
+
 	public boolean belongToTheSameStronglyConnectedComponent(String s1, String s2) {
 		Node n1 = new Node(s1);
 		Node n2 = new Node(s2);
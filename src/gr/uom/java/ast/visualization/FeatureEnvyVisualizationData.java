@@ -36,24 +36,25 @@ public class FeatureEnvyVisualizationData implements VisualizationData {
 		List<MethodInvocationObject> sourceMethodInvocations = methodToBeMoved.getNonDistinctInvokedMethodsThroughThisReference();
 		
 		this.targetMethodInvocationMap = new LinkedHashMap<MethodInvocationObject, Integer>();
-		List<FieldInstructionObject> fieldInstructions = methodToBeMoved.getFieldInstructions();
-		List<LocalVariableInstructionObject> localVariableInstructions = methodToBeMoved.getLocalVariableInstructions();
-		Map<AbstractVariable, ArrayList<MethodInvocationObject>> externalMethodInvocationsThroughFieldsMap = methodToBeMoved.getNonDistinctInvokedMethodsThroughFields();
-		Map<AbstractVariable, ArrayList<MethodInvocationObject>> externalMethodInvocationsThroughParametersMap = methodToBeMoved.getNonDistinctInvokedMethodsThroughParameters();
+		//the collections of the method are copied, since the collections of the delegate methods are merged in them
+		List<FieldInstructionObject> fieldInstructions = new ArrayList<FieldInstructionObject>(methodToBeMoved.getFieldInstructions());
+		List<LocalVariableInstructionObject> localVariableInstructions = new ArrayList<LocalVariableInstructionObject>(methodToBeMoved.getLocalVariableInstructions());
+		Map<AbstractVariable, ArrayList<MethodInvocationObject>> externalMethodInvocationsThroughFieldsMap = copy(methodToBeMoved.getNonDistinctInvokedMethodsThroughFields());
+		Map<AbstractVariable, ArrayList<MethodInvocationObject>> externalMethodInvocationsThroughParametersMap = copy(methodToBeMoved.getNonDistinctInvokedMethodsThroughParameters());
 		
 		this.sourceFieldReadMap = new LinkedHashMap<FieldInstructionObject, Integer>();
-		List<PlainVariable> usedFieldsThroughThisReference = methodToBeMoved.getNonDistinctUsedFieldsThroughThisReference();
+		List<PlainVariable> usedFieldsThroughThisReference = new ArrayList<PlainVariable>(methodToBeMoved.getNonDistinctUsedFieldsThroughThisReference());
 		
 		this.sourceFieldWriteMap = new LinkedHashMap<FieldInstructionObject, Integer>();
-		List<PlainVariable> definedFieldsThroughThisReference = methodToBeMoved.getNonDistinctDefinedFieldsThroughThisReference();
+		List<PlainVariable> definedFieldsThroughThisReference = new ArrayList<PlainVariable>(methodToBeMoved.getNonDistinctDefinedFieldsThroughThisReference());
 		
 		this.targetFieldReadMap = new LinkedHashMap<FieldInstructionObject, Integer>();
-		List<AbstractVariable> usedFieldsThroughFields = methodToBeMoved.getNonDistinctUsedFieldsThroughFields();
-		List<AbstractVariable> usedFieldsThroughParameters = methodToBeMoved.getNonDistinctUsedFieldsThroughParameters();
+		List<AbstractVariable> usedFieldsThroughFields = new ArrayList<AbstractVariable>(methodToBeMoved.getNonDistinctUsedFieldsThroughFields());
+		List<AbstractVariable> usedFieldsThroughParameters = new ArrayList<AbstractVariable>(methodToBeMoved.getNonDistinctUsedFieldsThroughParameters());
 		
 		this.targetFieldWriteMap = new LinkedHashMap<FieldInstructionObject, Integer>();
-		List<AbstractVariable> definedFieldsThroughFields = methodToBeMoved.getNonDistinctDefinedFieldsThroughFields();
-		List<AbstractVariable> definedFieldsThroughParameters = methodToBeMoved.getNonDistinctDefinedFieldsThroughParameters();
+		List<AbstractVariable> definedFieldsThroughFields = new ArrayList<AbstractVariable>(methodToBeMoved.getNonDistinctDefinedFieldsThroughFields());
+		List<AbstractVariable> definedFieldsThroughParameters = new ArrayList<AbstractVariable>(methodToBeMoved.getNonDistinctDefinedFieldsThroughParameters());
 		
 		for(MethodInvocationObject methodInvocation : sourceMethodInvocations) {
 			boolean delegatesToTarget = false;
@@ -71,7 +72,7 @@ public class FeatureEnvyVisualizationData implements VisualizationData {
 							externalMethodInvocationsThroughFieldsMap.get(variable).addAll(externalMethodInvocationsThroughFieldsMapDelegate.get(variable));
 						}
 						else {
-							externalMethodInvocationsThroughFieldsMap.put(variable, externalMethodInvocationsThroughFieldsMapDelegate.get(variable));
+							externalMethodInvocationsThroughFieldsMap.put(variable, new ArrayList<MethodInvocationObject>(externalMethodInvocationsThroughFieldsMapDelegate.get(variable)));
 						}
 					}
 					Map<AbstractVariable, ArrayList<MethodInvocationObject>> externalMethodInvocationsThroughParametersMapDelegate = delegateMethod.getNonDistinctInvokedMethodsThroughParameters();
@@ -80,7 +81,7 @@ public class FeatureEnvyVisualizationData implements VisualizationData {
 							externalMethodInvocationsThroughParametersMap.get(variable).addAll(externalMethodInvocationsThroughParametersMapDelegate.get(variable));
 						}
 						else {
-							externalMethodInvocationsThroughParametersMap.put(variable, externalMethodInvocationsThroughParametersMapDelegate.get(variable));
+							externalMethodInvocationsThroughParametersMap.put(variable, new ArrayList<MethodInvocationObject>(externalMethodInvocationsThroughParametersMapDelegate.get(variable)));
 						}
 					}
 					usedFieldsThroughThisReference.addAll(delegateMethod.getNonDistinctUsedFieldsThroughThisReference());
@@ -153,6 +154,14 @@ public class FeatureEnvyVisualizationData implements VisualizationData {
 		handleDefinedFields(definedFieldsThroughParameters, fieldInstructions, localVariableInstructions, targetClass);
 	}
 
+	private static Map<AbstractVariable, ArrayList<MethodInvocationObject>> copy(Map<AbstractVariable, ArrayList<MethodInvocationObject>> map) {
+		Map<AbstractVariable, ArrayList<MethodInvocationObject>> copy = new LinkedHashMap<AbstractVariable, ArrayList<MethodInvocationObject>>();
+		for(AbstractVariable key : map.keySet()) {
+			copy.put(key, new ArrayList<MethodInvocationObject>(map.get(key)));
+		}
+		return copy;
+	}
+
 	private void handleUsedFields(List<AbstractVariable> usedFields, List<FieldInstructionObject> fieldInstructions,
 			List<LocalVariableInstructionObject> localVariableInstructions, ClassObject targetClass) {
 		for(AbstractVariable abstractVariable : usedFields) {
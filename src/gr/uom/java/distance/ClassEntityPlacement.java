@@ -5,12 +5,17 @@ public class ClassEntityPlacement {
     private int numberOfOuterEntities;
     private double innerSum;
     private double outerSum;
+    //the exact sums of the distances added and removed through addInnerDistance/addOuterDistance and removeInnerDistance/removeOuterDistance
+    private DistanceSum innerDistanceSum;
+    private DistanceSum outerDistanceSum;
 
     public ClassEntityPlacement(int numberOfInnerEntities, int numberOfOuterEntities, double innerSum, double outerSum) {
         this.numberOfInnerEntities = numberOfInnerEntities;
         this.numberOfOuterEntities = numberOfOuterEntities;
         this.innerSum = innerSum;
         this.outerSum = outerSum;
+        this.innerDistanceSum = new DistanceSum();
+        this.outerDistanceSum = new DistanceSum();
     }
 
     public ClassEntityPlacement() {
@@ -18,6 +23,41 @@ public class ClassEntityPlacement {
         this.numberOfOuterEntities = 0;
         this.innerSum = 0;
         this.outerSum = 0;
+        this.innerDistanceSum = new DistanceSum();
+        this.outerDistanceSum = new DistanceSum();
+    }
+
+    public ClassEntityPlacement(ClassEntityPlacement classEntityPlacement) {
+        this.numberOfInnerEntities = classEntityPlacement.numberOfInnerEntities;
+        this.numberOfOuterEntities = classEntityPlacement.numberOfOuterEntities;
+        this.innerSum = classEntityPlacement.innerSum;
+        this.outerSum = classEntityPlacement.outerSum;
+        this.innerDistanceSum = new DistanceSum(classEntityPlacement.innerDistanceSum);
+        this.outerDistanceSum = new DistanceSum(classEntityPlacement.outerDistanceSum);
+    }
+
+    public void addInnerDistance(double distance) {
+        innerDistanceSum.add(distance);
+        innerSum = innerDistanceSum.doubleValue();
+        numberOfInnerEntities++;
+    }
+
+    public void removeInnerDistance(double distance) {
+        innerDistanceSum.remove(distance);
+        innerSum = innerDistanceSum.doubleValue();
+        numberOfInnerEntities--;
+    }
+
+    public void addOuterDistance(double distance) {
+        outerDistanceSum.add(distance);
+        outerSum = outerDistanceSum.doubleValue();
+        numberOfOuterEntities++;
+    }
+
+    public void removeOuterDistance(double distance) {
+        outerDistanceSum.remove(distance);
+        outerSum = outerDistanceSum.doubleValue();
+        numberOfOuterEntities--;
     }
 
     public Double getClassEntityPlacementValue() {
@@ -65,4 +105,45 @@ public class ClassEntityPlacement {
         else
             return null;
     }
+
+    /*
+     * The distances (1 - intersection/union rounded to double) are multiples of 2^-53 in [0, 1], so they are accumulated exactly
+     * as an integer part and a fraction of 2^53 units. The sum does not depend on the order the distances are added and removed,
+     * and a sum updated incrementally is the same as the sum of the same distances accumulated from scratch.
+     * The identity holds under this arithmetic only: the sums may differ in the last bits from the sequential floating point sums
+     * used before, so candidates whose entity placement values are within rounding error of each other may be ranked in a different order.
+     */
+    private static class DistanceSum {
+        private static final long UNITS = 1L << 53;
+        private long integerPart;
+        private long fractionUnits;
+
+        private DistanceSum() {
+        }
+
+        private DistanceSum(DistanceSum distanceSum) {
+            this.integerPart = distanceSum.integerPart;
+            this.fractionUnits = distanceSum.fractionUnits;
+        }
+
+        private void add(double distance) {
+            fractionUnits += (long)(distance * UNITS);
+            if(fractionUnits >= UNITS) {
+                integerPart++;
+                fractionUnits -= UNITS;
+            }
+        }
+
+        private void remove(double distance) {
+            fractionUnits -= (long)(distance * UNITS);
+            if(fractionUnits < 0) {
+                integerPart--;
+                fractionUnits += UNITS;
+            }
+        }
+
+        private double doubleValue() {
+            return (double)integerPart + (double)fractionUnits / UNITS;
+        }
+    }
 }
@@ -11,6 +11,29 @@ public class DistanceCalculator {
         return 1.0 - (double)intersection(set1,set2).size()/(double)union(set1,set2).size();
     }
 
+    public static double getDistance(EntityBitSet set1, EntityBitSet set2) {
+        int intersectionSize = set1.intersectionSize(set2);
+        return getDistance(intersectionSize, set1.cardinality() + set2.cardinality() - intersectionSize);
+    }
+
+    //the distance of set1 from set2 without the excluded entity (e.g., the entity from the entity set of its own class)
+    public static double getDistance(EntityBitSet set1, EntityBitSet set2, int excludedEntity) {
+        int intersectionSize = set1.intersectionSize(set2);
+        int set2Size = set2.cardinality();
+        if(set2.contains(excludedEntity)) {
+            set2Size--;
+            if(set1.contains(excludedEntity))
+                intersectionSize--;
+        }
+        return getDistance(intersectionSize, set1.cardinality() + set2Size - intersectionSize);
+    }
+
+    public static double getDistance(int intersectionSize, int unionSize) {
+        if(unionSize == 0)
+            return 1.0;
+        return 1.0 - (double)intersectionSize/(double)unionSize;
+    }
+
     public static Set<String> union(Set<String> set1, Set<String> set2) {
         Set<String> set = new HashSet<String>();
         set.addAll(set1);
@@ -7,10 +7,14 @@ import gr.uom.java.ast.MethodInvocationObject;
 import gr.uom.java.ast.MethodObject;
 import gr.uom.java.ast.ParameterObject;
 import gr.uom.java.ast.association.Association;
+import gr.uom.java.ast.util.ParallelTasks;
 import gr.uom.java.ast.util.math.Cluster;
 import gr.uom.java.ast.util.math.Clustering;
+import gr.uom.java.jdeodorant.preferences.PreferenceConstants;
+import gr.uom.java.jdeodorant.refactoring.Activator;
 
 import java.util.*;
+import java.util.concurrent.Callable;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.OperationCanceledException;
@@ -18,6 +22,7 @@ import org.eclipse.jdt.core.dom.Expression;
 import org.eclipse.jdt.core.dom.MethodDeclaration;
 import org.eclipse.jdt.core.dom.MethodInvocation;
 import org.eclipse.jdt.core.dom.SimpleName;
+import org.eclipse.jface.preference.IPreferenceStore;
 
 public class DistanceMatrix {
     private Map<String,Integer> entityIndexMap;
@@ -29,12 +34,26 @@ public class DistanceMatrix {
 
     //holds the entity set of each class
     private Map<String,Set<String>> classMap;
-    private Double[][] distanceMatrix;
-    private Integer[][] accessMatrix;
+    //sparse rows: for each entity, the indices (in ascending order) of the classes having at least one common
+    //entity with it and the corresponding distances. The distance from all other classes is 1.0
+    private int[][] accessedClassIndices;
+    private double[][] accessedClassDistances;
+    private EntityBitSet[] entityBitSets;
+    private EntityBitSet[] classBitSets;
+    //the EntityDictionary id of each entity name
+    private int[] entityIds;
     private String[] entityNames;
     private String[] classNames;
+    //inverted index: the indices of the classes whose entity set contains each EntityDictionary id
+    private int[][] classesContainingEntity;
+    //the indices of the entities having in their entity set at least one entity of each class
+    private Map<String,List<Integer>> dependentEntityMap;
+    private ClassEntityPlacement[] classEntityPlacements;
     private SystemEntityPlacement systemEntityPlacement;
     private MySystem system;
+    private int threadCount;
+    private int clusteringType;
+    private static final int ROWS_PER_TASK = 64;
 
     public DistanceMatrix(MySystem system) {
         this.system = system;
@@ -44,6 +63,12 @@ public class DistanceMatrix {
         classList = new ArrayList<MyClass>();
         entityMap = new LinkedHashMap<String,Set<String>>();
         classMap = new LinkedHashMap<String,Set<String>>();
+        IPreferenceStore store = Activator.getDefault().getPreferenceStore();
+        threadCount = ParallelTasks.getThreadCount(store.getInt(PreferenceConstants.P_DISTANCE_ANALYSIS_THREAD_COUNT));
+        if(store.getBoolean(PreferenceConstants.P_ENABLE_FAST_CLUSTERING))
+            clusteringType = Clustering.FAST_HIERARCHICAL;
+        else
+            clusteringType = Clustering.HIERARCHICAL;
     }
 
     public void generateDistances(IProgressMonitor monitor) {
@@ -70,64 +95,181 @@ public class DistanceMatrix {
 
         entityNames = new String[entityList.size()];
         classNames = new String[classList.size()];
-        distanceMatrix = new Double[entityList.size()][classList.size()];
-        accessMatrix = new Integer[entityList.size()][classList.size()];
+        accessedClassIndices = new int[entityList.size()][];
+        accessedClassDistances = new double[entityList.size()][];
         systemEntityPlacement = new SystemEntityPlacement();
-        
-        if(monitor != null)
-        	monitor.beginTask("Calculating distances", entityList.size()*classList.size());
         int i = 0;
         for(Entity entity : entityList) {
             entityNames[i] = entity.toString();
             entityIndexMap.put(entityNames[i],i);
-            int j = 0;
-            for(MyClass myClass : classList) {
-            	if(monitor != null && monitor.isCanceled())
-        			throw new OperationCanceledException();
-                classNames[j] = myClass.getName();
-                if(!classIndexMap.containsKey(classNames[j]))
-                    classIndexMap.put(classNames[j],j);
-                ClassEntityPlacement entityPlacement = systemEntityPlacement.getClassEntityPlacement(myClass.getName());
-                if(entity.getClassOrigin().equals(myClass.getName())) {
-                    Set<String> tempClassSet = new HashSet<String>();
-                    tempClassSet.addAll(classMap.get(classNames[j]));
-                    tempClassSet.remove(entityNames[i]);
-                    Set<String> entitySet = entityMap.get(entityNames[i]);
-                    Set<String> intersection = DistanceCalculator.intersection(entitySet,tempClassSet);
-                    Set<String> union = DistanceCalculator.union(entitySet,tempClassSet);
-                    accessMatrix[i][j] = intersection.size();
-                    if(union.isEmpty())
-                    	distanceMatrix[i][j] = 1.0;
-                    else
-                    	distanceMatrix[i][j] = 1.0 - (double)intersection.size()/(double)union.size();
-                    //distanceMatrix[i][j] = DistanceCalculator.getDistance(entityMap.get(entityNames[i]),tempClassSet);
-                    entityPlacement.setInnerSum(entityPlacement.getInnerSum() + distanceMatrix[i][j]);
-                    entityPlacement.setNumberOfInnerEntities(entityPlacement.getNumberOfInnerEntities() + 1);
+            i++;
+        }
+        int j = 0;
+        for(MyClass myClass : classList) {
+            classNames[j] = myClass.getName();
+            if(!classIndexMap.containsKey(classNames[j]))
+                classIndexMap.put(classNames[j],j);
+            j++;
+        }
+        entityBitSets = new EntityBitSet[entityNames.length];
+        entityIds = new int[entityNames.length];
+        for(i=0; i<entityNames.length; i++) {
+            entityBitSets[i] = new EntityBitSet(entityMap.get(entityNames[i]));
+            entityIds[i] = EntityDictionary.getId(entityNames[i]);
+        }
+        classBitSets = new EntityBitSet[classNames.length];
+        for(j=0; j<classNames.length; j++)
+            classBitSets[j] = new EntityBitSet(classMap.get(classNames[j]));
+        //inverted index: the indices of the classes whose entity set contains each entity id up to the highest id of the classes
+        int maxClassEntityId = -1;
+        for(j=0; j<classNames.length; j++)
+            maxClassEntityId = Math.max(maxClassEntityId, classBitSets[j].maxId());
+        int[] numberOfContainingClasses = new int[maxClassEntityId + 1];
+        for(j=0; j<classNames.length; j++) {
+            for(int id : classBitSets[j].toArray())
+                numberOfContainingClasses[id]++;
+        }
+        int[] noClasses = new int[0];
+        classesContainingEntity = new int[numberOfContainingClasses.length][];
+        for(int id=0; id<numberOfContainingClasses.length; id++) {
+            classesContainingEntity[id] = numberOfContainingClasses[id] == 0 ? noClasses : new int[numberOfContainingClasses[id]];
+            numberOfContainingClasses[id] = 0;
+        }
+        for(j=0; j<classNames.length; j++) {
+            for(int id : classBitSets[j].toArray())
+                classesContainingEntity[id][numberOfContainingClasses[id]++] = j;
+        }
+        dependentEntityMap = new HashMap<String,List<Integer>>();
+        for(i=0; i<entityNames.length; i++) {
+            Set<String> dependencies = new HashSet<String>();
+            for(String s : entityMap.get(entityNames[i])) {
+                String classOrigin = s.substring(0,s.indexOf("::"));
+                if(dependencies.add(classOrigin)) {
+                    List<Integer> dependentEntities = dependentEntityMap.get(classOrigin);
+                    if(dependentEntities == null) {
+                        dependentEntities = new ArrayList<Integer>();
+                        dependentEntityMap.put(classOrigin, dependentEntities);
+                    }
+                    dependentEntities.add(i);
                 }
-                else {
-                    Set<String> entitySet = entityMap.get(entityNames[i]);
-                    Set<String> classSet = classMap.get(classNames[j]);
-                    Set<String> intersection = DistanceCalculator.intersection(entitySet,classSet);
-                    Set<String> union = DistanceCalculator.union(entitySet,classSet);
-                    accessMatrix[i][j] = intersection.size();
-                    if(union.isEmpty())
-                    	distanceMatrix[i][j] = 1.0;
+            }
+        }
+
+        if(monitor != null)
+        	monitor.beginTask("Calculating distances", entityList.size());
+        if(threadCount > 1 && entityList.size() > ROWS_PER_TASK)
+            generateRowsInParallel(classesContainingEntity, monitor);
+        else
+            generateRows(0, entityList.size(), classesContainingEntity, monitor);
+
+        classEntityPlacements = new ClassEntityPlacement[classList.size()];
+        for(j=0; j<classNames.length; j++)
+            classEntityPlacements[j] = systemEntityPlacement.getClassEntityPlacement(classNames[j]);
+        //the entity placement sums are exact, so they can be updated incrementally by the virtual application of the candidates
+        if(!entityList.isEmpty()) {
+            for(i=0; i<entityNames.length; i++) {
+                String classOrigin = entityList.get(i).getClassOrigin();
+                int[] classIndices = accessedClassIndices[i];
+                int k = 0;
+                for(j=0; j<classNames.length; j++) {
+                    double distance = 1.0;
+                    if(k < classIndices.length && classIndices[k] == j) {
+                        distance = accessedClassDistances[i][k];
+                        k++;
+                    }
+                    if(classOrigin.equals(classNames[j]))
+                        classEntityPlacements[j].addInnerDistance(distance);
                     else
-                    	distanceMatrix[i][j] = 1.0 - (double)intersection.size()/(double)union.size();
-                	//distanceMatrix[i][j] = DistanceCalculator.getDistance(entityMap.get(entityNames[i]),classMap.get(classNames[j]));
-                    entityPlacement.setOuterSum(entityPlacement.getOuterSum() + distanceMatrix[i][j]);
-                    entityPlacement.setNumberOfOuterEntities(entityPlacement.getNumberOfOuterEntities() + 1);
+                        classEntityPlacements[j].addOuterDistance(distance);
                 }
-                j++;
-                if(monitor != null)
-                	monitor.worked(1);
             }
-            i++;
         }
         if(monitor != null)
         	monitor.done();
     }
 
+    private void generateRowsInParallel(final int[][] classesContainingEntity, IProgressMonitor monitor) {
+        List<Callable<Object>> tasks = new ArrayList<Callable<Object>>();
+        int[] taskWork = new int[(entityList.size() + ROWS_PER_TASK - 1) / ROWS_PER_TASK];
+        for(int k=0; k<taskWork.length; k++) {
+            final int start = k * ROWS_PER_TASK;
+            final int end = Math.min(start + ROWS_PER_TASK, entityList.size());
+            tasks.add(new Callable<Object>() {
+                public Object call() {
+                    generateRows(start, end, classesContainingEntity, null);
+                    return null;
+                }
+            });
+            taskWork[k] = end - start;
+        }
+        ParallelTasks.runInParallel(tasks, threadCount, taskWork, monitor);
+    }
+
+    //the rows are independent from each other, since they only read the entity sets of the entities and classes
+    private void generateRows(int start, int end, int[][] classesContainingEntity, IProgressMonitor monitor) {
+        int[] intersectionSizes = new int[classNames.length];
+        int[] accessedClasses = new int[classNames.length];
+        for(int i=start; i<end; i++) {
+            if(monitor != null && monitor.isCanceled())
+                throw new OperationCanceledException();
+            String classOrigin = entityList.get(i).getClassOrigin();
+            EntityBitSet entitySet = entityBitSets[i];
+            int numberOfAccessedClasses = 0;
+            for(int id : entitySet.toArray()) {
+                //an id that is higher than the ids of all classes is not contained in any class
+                if(id < classesContainingEntity.length) {
+                    for(int j : classesContainingEntity[id]) {
+                        if(intersectionSizes[j] == 0)
+                            accessedClasses[numberOfAccessedClasses++] = j;
+                        intersectionSizes[j]++;
+                    }
+                }
+            }
+            Arrays.sort(accessedClasses, 0, numberOfAccessedClasses);
+            int[] classIndices = new int[numberOfAccessedClasses];
+            double[] distances = new double[numberOfAccessedClasses];
+            int count = 0;
+            for(int k=0; k<numberOfAccessedClasses; k++) {
+                int j = accessedClasses[k];
+                int intersectionSize = intersectionSizes[j];
+                intersectionSizes[j] = 0;
+                EntityBitSet classSet = classBitSets[j];
+                int classSetSize = classSet.cardinality();
+                if(classOrigin.equals(classNames[j]) && classSet.contains(entityIds[i])) {
+                    //the entity itself is excluded from the entity set of its own class
+                    classSetSize--;
+                    if(entitySet.contains(entityIds[i]))
+                        intersectionSize--;
+                }
+                //when there is no common entity the distance is 1.0, even if the union is empty
+                if(intersectionSize > 0) {
+                    classIndices[count] = j;
+                    distances[count] = DistanceCalculator.getDistance(intersectionSize, entitySet.cardinality() + classSetSize - intersectionSize);
+                    count++;
+                }
+            }
+            if(count < numberOfAccessedClasses) {
+                int[] trimmedClassIndices = new int[count];
+                System.arraycopy(classIndices, 0, trimmedClassIndices, 0, count);
+                classIndices = trimmedClassIndices;
+                double[] trimmedDistances = new double[count];
+                System.arraycopy(distances, 0, trimmedDistances, 0, count);
+                distances = trimmedDistances;
+            }
+            accessedClassIndices[i] = classIndices;
+            accessedClassDistances[i] = distances;
+            if(monitor != null)
+                monitor.worked(1);
+        }
+    }
+
+    double getDistance(int entityIndex, int classIndex) {
+        int position = Arrays.binarySearch(accessedClassIndices[entityIndex], classIndex);
+        if(position >= 0)
+            return accessedClassDistances[entityIndex][position];
+        return 1.0;
+    }
+
     private List<MoveMethodCandidateRefactoring> identifyConceptualBindings(MyMethod method, Set<String> targetClasses) {
     	List<MoveMethodCandidateRefactoring> candidateRefactoringList = new ArrayList<MoveMethodCandidateRefactoring>();
     	MethodObject methodObject = method.getMethodObject();
@@ -190,7 +332,6 @@ public class DistanceMatrix {
 	    								}
 	    								if(intersectionWithTargetClass.size() >= intersectionWithSourceClass.size()) {
 	    									if(candidate.isApplicable()) {
-	    										candidate.apply();
 	    										candidateRefactoringList.add(candidate);
 	    									}
 	    								}
@@ -220,12 +361,13 @@ public class DistanceMatrix {
     	return false;
     }
 
+    //the candidates are identified first and then virtually applied, in parallel if more than one threads are used,
+    //since the virtual application of a candidate does not modify the system
     public List<MoveMethodCandidateRefactoring> getMoveMethodCandidateRefactoringsByAccess(Set<String> classNamesToBeExamined, IProgressMonitor monitor) {
     	List<MoveMethodCandidateRefactoring> candidateRefactoringList = new ArrayList<MoveMethodCandidateRefactoring>();
-    	double entityPlacement0 = this.getSystemEntityPlacementValue();
     	if(monitor != null)
-    		monitor.beginTask("Identification and virtual application of Move Method refactoring opportunities", distanceMatrix.length);
-    	for(int i=0; i<distanceMatrix.length; i++) {
+    		monitor.beginTask("Identification and virtual application of Move Method refactoring opportunities", 2*entityNames.length);
+    	for(int i=0; i<entityNames.length; i++) {
     		if(monitor != null && monitor.isCanceled())
     			throw new OperationCanceledException();
     		Entity entity = entityList.get(i);
@@ -262,7 +404,7 @@ public class DistanceMatrix {
     						//target classes are sorted by the distance of entity i from them
     						TreeMap<Double, ArrayList<String>> sortedByDistanceMap = new TreeMap<Double, ArrayList<String>>();
     						for(String targetClass : targetClasses) {
-    							double distance = distanceMatrix[i][classIndexMap.get(targetClass)];
+    							double distance = getDistance(i, classIndexMap.get(targetClass));
     							if(sortedByDistanceMap.containsKey(distance)) {
     								ArrayList<String> list = sortedByDistanceMap.get(distance);
     								list.add(targetClass);
@@ -306,12 +448,7 @@ public class DistanceMatrix {
     									}
     									if(intersectionWithTargetClass.size() >= intersectionWithSourceClass.size()) {
     										if(candidate.isApplicable() && !targetClassInheritedByAnotherCandidateTargetClass(targetClass, accessMap.keySet())) {
-    											candidate.apply();
-    											double entityPlacement1 = candidate.getEntityPlacement();
-    					    					double d = entityPlacement1 - entityPlacement0;
-    					    					//if (d < 0) {
-    					    						candidateRefactoringList.add(candidate);
-    					    					//}
+    											candidateRefactoringList.add(candidate);
     											candidateFound = true;
     										}
     									}
@@ -328,11 +465,57 @@ public class DistanceMatrix {
     		if(monitor != null)
     			monitor.worked(1);
     	}
+    	if(threadCount > 1 && candidateRefactoringList.size() > 1)
+    		applyCandidatesInParallel(candidateRefactoringList, monitor);
+    	else
+    		applyCandidates(candidateRefactoringList, monitor);
     	if(monitor != null)
     		monitor.done();
     	return candidateRefactoringList;
     }
 
+    //the work of the application phase (entityNames.length units) is distributed over the candidates
+    private void applyCandidates(List<MoveMethodCandidateRefactoring> candidates, IProgressMonitor monitor) {
+    	int worked = 0;
+    	for(int k=0; k<candidates.size(); k++) {
+    		if(monitor != null && monitor.isCanceled())
+    			throw new OperationCanceledException();
+    		candidates.get(k).apply();
+    		worked = reportApplicationProgress(k, candidates.size(), worked, monitor);
+    	}
+    	if(monitor != null)
+    		monitor.worked(entityNames.length - worked);
+    }
+
+    //the candidates have passed isApplicable, which collects everything their application needs from the ASTs and bindings
+    private void applyCandidatesInParallel(List<MoveMethodCandidateRefactoring> candidates, IProgressMonitor monitor) {
+        List<Callable<Object>> tasks = new ArrayList<Callable<Object>>();
+        int[] taskWork = new int[candidates.size()];
+        int worked = 0;
+        for(int k=0; k<candidates.size(); k++) {
+            final MoveMethodCandidateRefactoring candidate = candidates.get(k);
+            tasks.add(new Callable<Object>() {
+                public Object call() {
+                    candidate.apply();
+                    return null;
+                }
+            });
+            int total = (int)((long)(k + 1) * entityNames.length / candidates.size());
+            taskWork[k] = total - worked;
+            worked = total;
+        }
+        ParallelTasks.runInParallel(tasks, threadCount, taskWork, monitor);
+        if(monitor != null)
+            monitor.worked(entityNames.length - worked);
+    }
+
+    private int reportApplicationProgress(int candidateIndex, int candidateCount, int worked, IProgressMonitor monitor) {
+    	int total = (int)((long)(candidateIndex + 1) * entityNames.length / candidateCount);
+    	if(monitor != null && total > worked)
+    		monitor.worked(total - worked);
+    	return total;
+    }
+
 	private Map<String, ArrayList<String>> computeAccessMap(Set<String> entitySetI) {
 		//ArrayList<String> contains the accessed entities per target class (key)
 		Map<String, ArrayList<String>> accessMap = new LinkedHashMap<String, ArrayList<String>>();
@@ -367,7 +550,7 @@ public class DistanceMatrix {
     public List<MoveMethodCandidateRefactoring> getMoveMethodCandidateRefactoringsByDistance() {
     	List<MoveMethodCandidateRefactoring> candidateRefactoringList = new ArrayList<MoveMethodCandidateRefactoring>();
     	double entityPlacement0 = this.getSystemEntityPlacementValue();
-    	for(int i=0; i<distanceMatrix.length; i++) {
+    	for(int i=0; i<entityNames.length; i++) {
     		Entity entity = entityList.get(i);
     		if(entity instanceof MyMethod) {
     			String sourceClass = entity.getClassOrigin();
@@ -377,7 +560,7 @@ public class DistanceMatrix {
     			//ArrayList<String> contains the target classes from which entity i has key distance
     			TreeMap<Double, ArrayList<String>> sortedByDistanceMap = new TreeMap<Double, ArrayList<String>>();
     			for(String targetClass : accessMap.keySet()) {
-    				double distance = distanceMatrix[i][classIndexMap.get(targetClass)];
+    				double distance = getDistance(i, classIndexMap.get(targetClass));
     				if(sortedByDistanceMap.containsKey(distance)) {
     					ArrayList<String> list = sortedByDistanceMap.get(distance);
     					list.add(targetClass);
@@ -476,22 +659,22 @@ public class DistanceMatrix {
     			oldClasses.add(myClass);
     		}
     	}
+    	//the clustering of each class only reads the entity sets, whereas the virtual application of the candidates
+    	//temporarily modifies the system, so only the clustering is performed in parallel
+    	boolean parallel = threadCount > 1 && oldClasses.size() > 1;
     	if(monitor != null)
-    		monitor.beginTask("Identification and virtual application of Extract Class refactoring opportunities", oldClasses.size());
+    		monitor.beginTask("Identification and virtual application of Extract Class refactoring opportunities", parallel ? 2*oldClasses.size() : oldClasses.size());
+    	Map<MyClass, HashSet<Cluster>> clusterMap = null;
+    	if(parallel)
+    		clusterMap = generateClustersInParallel(oldClasses, monitor);
 
     	for(MyClass sourceClass : oldClasses) {
     		if(monitor != null && monitor.isCanceled())
     			throw new OperationCanceledException();
     		if (!sourceClass.getMethodList().isEmpty() && !sourceClass.getAttributeList().isEmpty()) {
-    			ExtractClassCandidateRefactoring candidate = new ExtractClassCandidateRefactoring(system, sourceClass, this);
-    			double[][] distanceMatrix = candidate.getJaccardDistanceMatrix();
-				Clustering clustering = Clustering.getInstance(0, distanceMatrix);
-				ArrayList<Entity> entities = new ArrayList<Entity>();
-				entities.addAll(sourceClass.getAttributeList());
-				entities.addAll(sourceClass.getMethodList());
-				HashSet<Cluster> clusters = clustering.clustering(entities);
+				HashSet<Cluster> clusters = parallel ? clusterMap.get(sourceClass) : generateClusters(sourceClass);
 				for (Cluster cluster : clusters) {
-    				candidate = new ExtractClassCandidateRefactoring(system, sourceClass, this);
+    				ExtractClassCandidateRefactoring candidate = new ExtractClassCandidateRefactoring(system, sourceClass, this);
     				for (Entity entity : cluster.getEntities()) {
     					candidate.addEntity(entity);
     				}
@@ -514,6 +697,47 @@ public class DistanceMatrix {
     	return candidateList;
     }
 
+    private HashSet<Cluster> generateClusters(MyClass sourceClass) {
+        ExtractClassCandidateRefactoring candidate = new ExtractClassCandidateRefactoring(system, sourceClass, this);
+        double[][] distanceMatrix = candidate.getJaccardDistanceMatrix();
+        Clustering clustering = Clustering.getInstance(clusteringType, distanceMatrix);
+        ArrayList<Entity> entities = new ArrayList<Entity>();
+        entities.addAll(sourceClass.getAttributeList());
+        entities.addAll(sourceClass.getMethodList());
+        return clustering.clustering(entities);
+    }
+
+    //the classes are scheduled largest-first, since the cost of clustering grows faster than the number of entities
+    private Map<MyClass, HashSet<Cluster>> generateClustersInParallel(List<MyClass> sourceClasses, IProgressMonitor monitor) {
+        List<MyClass> scheduledClasses = new ArrayList<MyClass>();
+        for(MyClass sourceClass : sourceClasses) {
+            if(!sourceClass.getMethodList().isEmpty() && !sourceClass.getAttributeList().isEmpty())
+                scheduledClasses.add(sourceClass);
+        }
+        Collections.sort(scheduledClasses, new Comparator<MyClass>() {
+            public int compare(MyClass class1, MyClass class2) {
+                int size1 = class1.getAttributeList().size() + class1.getMethodList().size();
+                int size2 = class2.getAttributeList().size() + class2.getMethodList().size();
+                return size2 < size1 ? -1 : (size2 == size1 ? 0 : 1);
+            }
+        });
+        List<Callable<HashSet<Cluster>>> tasks = new ArrayList<Callable<HashSet<Cluster>>>();
+        for(final MyClass sourceClass : scheduledClasses) {
+            tasks.add(new Callable<HashSet<Cluster>>() {
+                public HashSet<Cluster> call() {
+                    return generateClusters(sourceClass);
+                }
+            });
+        }
+        List<HashSet<Cluster>> clusters = ParallelTasks.runInParallel(tasks, threadCount, monitor);
+        Map<MyClass, HashSet<Cluster>> clusterMap = new HashMap<MyClass, HashSet<Cluster>>();
+        for(int k=0; k<scheduledClasses.size(); k++)
+            clusterMap.put(scheduledClasses.get(k), clusters.get(k));
+        if(monitor != null)
+            monitor.worked(sourceClasses.size() - scheduledClasses.size());
+        return clusterMap;
+    }
+
     public String[] getClassNames() {
         return classNames;
     }
@@ -522,13 +746,65 @@ public class DistanceMatrix {
         return entityNames;
     }
     
+    //materializes the full (entities x classes) matrix, the distances are internally kept in sparse rows
     public Double[][] getDistanceMatrix() {
+        Double[][] distanceMatrix = new Double[entityNames.length][classNames.length];
+        for(int i=0; i<entityNames.length; i++) {
+            for(int j=0; j<classNames.length; j++) {
+                distanceMatrix[i][j] = getDistance(i, j);
+            }
+        }
         return distanceMatrix;
     }
 
+    int getEntityIndex(String entityName) {
+        Integer index = entityIndexMap.get(entityName);
+        return index != null ? index : -1;
+    }
+
+    int getClassIndex(String className) {
+        Integer index = classIndexMap.get(className);
+        return index != null ? index : -1;
+    }
+
+    Entity getEntity(int entityIndex) {
+        return entityList.get(entityIndex);
+    }
+
+    EntityBitSet getEntityBitSet(int entityIndex) {
+        return entityBitSets[entityIndex];
+    }
+
+    EntityBitSet getClassBitSet(int classIndex) {
+        return classBitSets[classIndex];
+    }
+
+    ClassEntityPlacement getClassEntityPlacement(int classIndex) {
+        return classEntityPlacements[classIndex];
+    }
+
+    List<Integer> getDependentEntities(String className) {
+        List<Integer> dependentEntities = dependentEntityMap.get(className);
+        if(dependentEntities != null)
+            return dependentEntities;
+        return new ArrayList<Integer>();
+    }
+
+    //the classes having at least one common entity with the entity set (the distance from all other classes is 1.0)
+    boolean[] getIntersectingClasses(EntityBitSet entitySet) {
+        boolean[] intersectingClasses = new boolean[classNames.length];
+        for(int id : entitySet.toArray()) {
+            if(id < classesContainingEntity.length) {
+                for(int j : classesContainingEntity[id])
+                    intersectingClasses[j] = true;
+            }
+        }
+        return intersectingClasses;
+    }
+
     public Double getDistance(String entityName, String className) {
     	if(entityIndexMap.containsKey(entityName))
-    		return distanceMatrix[entityIndexMap.get(entityName)][classIndexMap.get(className)];
+    		return getDistance(entityIndexMap.get(entityName), classIndexMap.get(className));
     	else
     		return null;
     }
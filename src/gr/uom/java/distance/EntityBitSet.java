@@ -0,0 +1,85 @@
+package gr.uom.java.distance;
+
+import java.util.Set;
+
+//an immutable entity set encoded as a bit set over the ids of EntityDictionary.
+//only the words between the lowest and the highest id of the set are stored
+public class EntityBitSet {
+	private int firstWord;
+	private long[] words;
+	private int cardinality;
+
+	public EntityBitSet(Set<String> entitySet) {
+		int[] ids = new int[entitySet.size()];
+		int minId = Integer.MAX_VALUE;
+		int maxId = -1;
+		int k = 0;
+		for(String entity : entitySet) {
+			int id = EntityDictionary.getId(entity);
+			ids[k++] = id;
+			if(id < minId)
+				minId = id;
+			if(id > maxId)
+				maxId = id;
+		}
+		if(ids.length == 0) {
+			this.firstWord = 0;
+			this.words = new long[0];
+		}
+		else {
+			this.firstWord = minId >>> 6;
+			this.words = new long[(maxId >>> 6) - firstWord + 1];
+			for(int id : ids) {
+				words[(id >>> 6) - firstWord] |= 1L << id;
+			}
+		}
+		this.cardinality = ids.length;
+	}
+
+	public int cardinality() {
+		return cardinality;
+	}
+
+	public boolean isEmpty() {
+		return cardinality == 0;
+	}
+
+	public boolean contains(int id) {
+		int word = (id >>> 6) - firstWord;
+		if(word < 0 || word >= words.length)
+			return false;
+		return (words[word] & (1L << id)) != 0;
+	}
+
+	public int intersectionSize(EntityBitSet other) {
+		int from = Math.max(this.firstWord, other.firstWord);
+		int to = Math.min(this.firstWord + this.words.length, other.firstWord + other.words.length);
+		int size = 0;
+		for(int word=from; word<to; word++) {
+			size += Long.bitCount(this.words[word - this.firstWord] & other.words[word - other.firstWord]);
+		}
+		return size;
+	}
+
+	//returns -1 if the set is empty
+	public int maxId() {
+		for(int i=words.length-1; i>=0; i--) {
+			if(words[i] != 0)
+				return ((firstWord + i) << 6) + 63 - Long.numberOfLeadingZeros(words[i]);
+		}
+		return -1;
+	}
+
+	public int[] toArray() {
+		int[] ids = new int[cardinality];
+		int k = 0;
+		for(int i=0; i<words.length; i++) {
+			long word = words[i];
+			while(word != 0) {
+				ids[k++] = ((firstWord + i) << 6) + Long.numberOfTrailingZeros(word);
+				word &= word - 1;
+			}
+		}
+		return ids;
+	}
+}
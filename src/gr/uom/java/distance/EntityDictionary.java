@@ -0,0 +1,28 @@
+package gr.uom.java.distance;
+
+import java.util.HashMap;
+import java.util.Map;
+
+//assigns a dense int id to every entity string (e.g., "Class::attribute", "Class::method(int):void"),
+//the ids are stable until a new system is parsed, so that the entity bit sets of the analyses of the same system can be compared
+public class EntityDictionary {
+	private static final Map<String, Integer> idMap = new HashMap<String, Integer>();
+
+	public static synchronized int getId(String entity) {
+		Integer id = idMap.get(entity);
+		if(id == null) {
+			id = idMap.size();
+			idMap.put(entity, id);
+		}
+		return id;
+	}
+
+	public static synchronized int size() {
+		return idMap.size();
+	}
+
+	//releases the ids of the entities of the previously parsed system
+	public static synchronized void clear() {
+		idMap.clear();
+	}
+}
@@ -145,11 +145,15 @@ public class ExtractClassCandidateRefactoring extends CandidateRefactoring imple
 		ArrayList<Entity> entities = new ArrayList<Entity>();
 		entities.addAll(sourceClass.getAttributeList());
 		entities.addAll(sourceClass.getMethodList());
+		EntityBitSet[] fullEntitySets = new EntityBitSet[entities.size()];
+		for(int i=0; i<fullEntitySets.length; i++) {
+			fullEntitySets[i] = new EntityBitSet(entities.get(i).getFullEntitySet());
+		}
 		double[][] jaccardDistanceMatrix = new double[entities.size()][entities.size()];
 		for(int i=0; i<jaccardDistanceMatrix.length; i++) {
 			for(int j=0; j<jaccardDistanceMatrix.length; j++) {
 				if(i != j) {
-					jaccardDistanceMatrix[i][j] = DistanceCalculator.getDistance(entities.get(i).getFullEntitySet(), entities.get(j).getFullEntitySet());
+					jaccardDistanceMatrix[i][j] = DistanceCalculator.getDistance(fullEntitySets[i], fullEntitySets[j]);
 				}
 				else {
 					jaccardDistanceMatrix[i][j] = 0.0;
@@ -1,5 +1,6 @@
 package gr.uom.java.distance;
 
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
@@ -13,12 +14,15 @@ public class ExtractClassFastDistanceMatrix {
 
 	//holds the entity set of each class
 	private Map<MyClass, Set<String>> classMap;
+	//the bit set encoding of each class entity set, created on demand
+	private Map<MyClass, EntityBitSet> classBitSetMap;
 	private SystemEntityPlacement virtualSystemEntityPlacement;
 
 	public ExtractClassFastDistanceMatrix(MySystem virtualSystem, DistanceMatrix originalDistanceMatrix,
 			ExtractClassCandidateRefactoring candidate, MyClass newSourceClass, MyClass productClass) {
 		this.entityMap = new LinkedHashMap<Entity, Set<String>>();
 		this.classMap = new LinkedHashMap<MyClass, Set<String>>();
+		this.classBitSetMap = new HashMap<MyClass, EntityBitSet>();
 		this.virtualSystemEntityPlacement = new SystemEntityPlacement();
 		Set<Entity> oldEntities = candidate.getOldEntities();
 		Set<Entity> newEntities = candidate.getNewEntities();
@@ -88,6 +92,7 @@ public class ExtractClassFastDistanceMatrix {
 
 		for(Entity entity : entityMap.keySet()) {
 			Set<String> entitySet = entityMap.get(entity);
+			EntityBitSet entityBitSet = null;
 			String entityName = entity.toString();
 			Set<String> entityClassDependencies = new HashSet<String>();
 			for(String s : entitySet) {
@@ -95,37 +100,44 @@ public class ExtractClassFastDistanceMatrix {
 			}
 
 			for(MyClass myClass : classMap.keySet()) {
-				Set<String> classEntitySet = classMap.get(myClass);
 				ClassEntityPlacement entityPlacement = virtualSystemEntityPlacement.getClassEntityPlacement(myClass.getName());
 				if(entity.getClassOrigin().equals(myClass.getName())) {
 					double distance;
 					if( ((changedEntities.contains(entity) || entityClassDependencies.contains(myClass.getName())) && changedClasses.contains(myClass.getName())) ||
 							newEntities.contains(entity) || myClass.getName().equals(targetClassName)) {
-						Set<String> tempClassSet = new HashSet<String>();
-						tempClassSet.addAll(classEntitySet);
-						tempClassSet.remove(entityName);
-						distance = DistanceCalculator.getDistance(entitySet, tempClassSet);
+						if(entityBitSet == null)
+							entityBitSet = new EntityBitSet(entitySet);
+						distance = DistanceCalculator.getDistance(entityBitSet, getClassBitSet(myClass), EntityDictionary.getId(entityName));
 					}
 					else
 						distance = originalDistanceMatrix.getDistance(entityName, myClass.getName());
-					entityPlacement.setInnerSum(entityPlacement.getInnerSum() + distance);
-					entityPlacement.setNumberOfInnerEntities(entityPlacement.getNumberOfInnerEntities() + 1);
+					entityPlacement.addInnerDistance(distance);
 				}
 				else {
 					double distance;
 					if( ((changedEntities.contains(entity) || entityClassDependencies.contains(myClass.getName())) && changedClasses.contains(myClass.getName())) ||
 							newEntities.contains(entity)  || myClass.getName().equals(targetClassName)) {
-						distance = DistanceCalculator.getDistance(entitySet, classEntitySet);
+						if(entityBitSet == null)
+							entityBitSet = new EntityBitSet(entitySet);
+						distance = DistanceCalculator.getDistance(entityBitSet, getClassBitSet(myClass));
 					}
 					else
 						distance = originalDistanceMatrix.getDistance(entityName, myClass.getName());
-					entityPlacement.setOuterSum(entityPlacement.getOuterSum() + distance);
-					entityPlacement.setNumberOfOuterEntities(entityPlacement.getNumberOfOuterEntities() + 1);
+					entityPlacement.addOuterDistance(distance);
 				}
 			}
 		}
 	}
 
+	private EntityBitSet getClassBitSet(MyClass myClass) {
+		EntityBitSet classBitSet = classBitSetMap.get(myClass);
+		if(classBitSet == null) {
+			classBitSet = new EntityBitSet(classMap.get(myClass));
+			classBitSetMap.put(myClass, classBitSet);
+		}
+		return classBitSet;
+	}
+
 	public double getSystemEntityPlacementValue() {
 		return virtualSystemEntityPlacement.getSystemEntityPlacementValue();
 	}
@@ -8,6 +8,7 @@ import gr.uom.java.ast.visualization.FeatureEnvyVisualizationData;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
@@ -17,6 +18,7 @@ import java.util.Map;
 import java.util.Set;
 
 import org.eclipse.core.resources.IFile;
+import org.eclipse.jdt.core.dom.ITypeBinding;
 import org.eclipse.jdt.core.dom.MethodDeclaration;
 import org.eclipse.jdt.core.dom.MethodInvocation;
 import org.eclipse.jdt.core.dom.SingleVariableDeclaration;
@@ -37,6 +39,15 @@ public class MoveMethodCandidateRefactoring extends CandidateRefactoring impleme
     private Set<MyClass> changedClasses;
     private Set<MyMethod> oldMovedMethods;
     private Set<MyMethod> newMovedMethods;
+    //the entity sets of the changed entities and classes in the virtual system of this candidate,
+    //so that the entities and classes of the system are not modified and the candidates can be applied concurrently
+    private Map<Entity, Set<String>> newEntitySetMap;
+    private Map<MyClass, Set<String>> newClassEntitySetMap;
+    //the names and parameter types of the additional methods to be moved and their entities in the source class,
+    //collected by isApplicable so that the application does not resolve bindings or recover AST nodes while it runs concurrently
+    private List<String> additionalMethodNames;
+    private List<List<String>> additionalMethodParameterTypes;
+    private List<MyMethod> additionalMyMethodsToBeMoved;
     private FeatureEnvyVisualizationData visualizationData;
     private Integer userRate;
 
@@ -77,32 +88,111 @@ public class MoveMethodCandidateRefactoring extends CandidateRefactoring impleme
         this.changedClasses = new LinkedHashSet<MyClass>();
         this.oldMovedMethods = new LinkedHashSet<MyMethod>();
         this.newMovedMethods = new LinkedHashSet<MyMethod>();
+        this.newEntitySetMap = new HashMap<Entity, Set<String>>();
+        this.newClassEntitySetMap = new HashMap<MyClass, Set<String>>();
         this.visualizationData = new FeatureEnvyVisualizationData(sourceClass.getClassObject(),
 				sourceMethod.getMethodObject(), targetClass.getClassObject());
     }
 
 	public void apply() {
+    	if(additionalMyMethodsToBeMoved == null)
+    		collectAdditionalMethodsToBeMoved();
     	virtualApplication(system);
     	//FastDistanceMatrix fastDistanceMatrix = new FastDistanceMatrix(system, originalDistanceMatrix, this, oldMovedMethods, newMovedMethods);
     	MoveMethodFastDistanceMatrix fastDistanceMatrix = new MoveMethodFastDistanceMatrix(system, originalDistanceMatrix, this);
     	double fastEntityPlacement = fastDistanceMatrix.getSystemEntityPlacementValue();
     	this.entityPlacement = fastEntityPlacement;
-    	for(Entity entity : changedEntities) {
-    		entity.resetNewEntitySet();
+    	newEntitySetMap.clear();
+    	newClassEntitySetMap.clear();
+    }
+
+    //returns null if the entity has not changed in the virtual system
+    public Set<String> getNewEntitySet(Entity entity) {
+    	return newEntitySetMap.get(entity);
+    }
+
+    //returns null if the class has not changed in the virtual system
+    public Set<String> getNewEntitySet(MyClass myClass) {
+    	return newClassEntitySetMap.get(myClass);
+    }
+
+    private Set<String> initializeNewEntitySet(Entity entity) {
+    	Set<String> newEntitySet = newEntitySetMap.get(entity);
+    	if(newEntitySet == null) {
+    		newEntitySet = entity.getEntitySet();
+    		newEntitySetMap.put(entity, newEntitySet);
+    	}
+    	return newEntitySet;
+    }
+
+    private Set<String> initializeNewEntitySet(MyClass myClass) {
+    	Set<String> newEntitySet = newClassEntitySetMap.get(myClass);
+    	if(newEntitySet == null) {
+    		newEntitySet = myClass.getEntitySet();
+    		newClassEntitySetMap.put(myClass, newEntitySet);
+    	}
+    	return newEntitySet;
+    }
+
+    private boolean containsMethod(MyAttribute attribute, MyMethod method) {
+    	Set<String> newEntitySet = newEntitySetMap.get(attribute);
+    	if(newEntitySet != null)
+    		return newEntitySet.contains(method.toString());
+    	else
+    		return attribute.containsMethod(method);
+    }
+
+    private boolean containsMethodInvocation(MyMethod method, MyMethodInvocation invocation) {
+    	Set<String> newEntitySet = newEntitySetMap.get(method);
+    	if(newEntitySet != null)
+    		return newEntitySet.contains(invocation.toString());
+    	else
+    		return method.containsMethodInvocation(invocation);
+    }
+
+    private void replace(Set<String> newEntitySet, String oldEntity, String newEntity) {
+    	if(newEntitySet.contains(oldEntity)) {
+    		newEntitySet.remove(oldEntity);
+    		newEntitySet.add(newEntity);
     	}
-    	for(MyClass myClass : changedClasses)
-    		myClass.resetNewEntitySet();
     }
 
     public boolean isApplicable() {
     	if(!isSynchronized() && !containsSuperMethodInvocation() && !overridesMethod() && !containsFieldAssignment() && !isTargetClassAnInterface() &&
     			validTargetObject() && !oneToManyRelationshipWithTargetClass() && !containsAssignmentToTargetClassVariable() &&
-    			!containsMethodCallWithThisExpressionAsArgument() && !isTargetClassAnEnum())
+    			!containsMethodCallWithThisExpressionAsArgument() && !isTargetClassAnEnum()) {
+    		collectAdditionalMethodsToBeMoved();
     		return true;
+    	}
     	else
     		return false;
     }
 
+    private void collectAdditionalMethodsToBeMoved() {
+    	additionalMethodNames = new ArrayList<String>();
+    	additionalMethodParameterTypes = new ArrayList<List<String>>();
+    	Collection<MethodDeclaration> methodDeclarationsToBeMoved = additionalMethodsToBeMoved.values();
+    	for(MethodDeclaration methodDeclaration : methodDeclarationsToBeMoved) {
+    		additionalMethodNames.add(methodDeclaration.getName().getIdentifier());
+    		List<String> parameterTypes = new ArrayList<String>();
+    		List<SingleVariableDeclaration> methodDeclarationParameters = methodDeclaration.parameters();
+    		for(SingleVariableDeclaration parameter : methodDeclarationParameters) {
+    			ITypeBinding typeBinding = parameter.getType().resolveBinding();
+    			parameterTypes.add(typeBinding != null ? typeBinding.getQualifiedName() : null);
+    		}
+    		additionalMethodParameterTypes.add(parameterTypes);
+    	}
+    	additionalMyMethodsToBeMoved = new ArrayList<MyMethod>();
+    	if(!methodDeclarationsToBeMoved.isEmpty()) {
+    		ListIterator<MyMethod> sourceClassMethodIterator = sourceClass.getMethodIterator();
+    		while(sourceClassMethodIterator.hasNext()) {
+    			MyMethod sourceClassMethod = sourceClassMethodIterator.next();
+    			if(methodDeclarationsToBeMoved.contains(sourceClassMethod.getMethodObject().getMethodDeclaration()) && !additionalMyMethodsToBeMoved.contains(sourceClassMethod))
+    				additionalMyMethodsToBeMoved.add(sourceClassMethod);
+    		}
+    	}
+    }
+
     public boolean leaveDelegate() {
 		return system.getSystemObject().containsMethodInvocation(getSourceMethod().getMethodObject().generateMethodInvocation(), getSourceClass().getClassObject()) ||
 		system.getSystemObject().containsSuperMethodInvocation(getSourceMethod().getMethodObject().generateSuperMethodInvocation());
@@ -222,14 +312,15 @@ public class MoveMethodCandidateRefactoring extends CandidateRefactoring impleme
                 	MyMethod myMethod = sourceMethodIterator.next();
                 	//if a method of the source class invokes the method to be moved,
                 	//the fields accessed by the method to be moved should be passed as arguments to the modified method invocation of the moved method
-                	if(myMethod.containsMethodInvocation(oldMethodInvocation)) {
+                	if(containsMethodInvocation(myMethod, oldMethodInvocation)) {
                 		MyAttribute mySourceAttribute = virtualSourceClass.getAttribute(instruction);
-                		mySourceAttribute.initializeNewEntitySet();
+                		Set<String> attributeEntitySet = initializeNewEntitySet(mySourceAttribute);
                 		changedEntities.add(mySourceAttribute);
-                		mySourceAttribute.addMethod(myMethod);
-                		myMethod.initializeNewEntitySet();
+                		attributeEntitySet.add(myMethod.toString());
+                		Set<String> methodEntitySet = initializeNewEntitySet(myMethod);
                 		changedEntities.add(myMethod);
-                		myMethod.addAttributeInstructionInStatementsOrExpressionsContainingMethodInvocation(instruction, oldMethodInvocation);
+                		if(methodEntitySet.contains(oldMethodInvocation.toString()) && !instruction.isReference())
+                			methodEntitySet.add(instruction.toString());
                 	}
                 }
             }
@@ -259,14 +350,14 @@ public class MoveMethodCandidateRefactoring extends CandidateRefactoring impleme
         MyMethodInvocation oldMethodInvocation = oldMethod.generateMethodInvocation();
         MyMethodInvocation newMethodInvocation = newMethod.generateMethodInvocation();
         MyClass mySourceClass = virtualSystem.getClass(sourceClass.getName());
-        mySourceClass.initializeNewEntitySet();
+        Set<String> sourceClassEntitySet = initializeNewEntitySet(mySourceClass);
         changedClasses.add(mySourceClass);
-        mySourceClass.removeMethod(oldMethod);
+        sourceClassEntitySet.remove(oldMethod.toString());
         
         MyClass myTargetClass = virtualSystem.getClass(targetClass.getName());
-        myTargetClass.initializeNewEntitySet();
+        Set<String> targetClassEntitySet = initializeNewEntitySet(myTargetClass);
         changedClasses.add(myTargetClass);
-        myTargetClass.addMethod(newMethod);
+        targetClassEntitySet.add(newMethod.toString());
         
         Iterator<MyClass> classIterator = virtualSystem.getClassIterator();
         while(classIterator.hasNext()) {
@@ -274,46 +365,36 @@ public class MoveMethodCandidateRefactoring extends CandidateRefactoring impleme
             ListIterator<MyAttribute> attributeIterator = myClass.getAttributeIterator();
             while(attributeIterator.hasNext()) {
                 MyAttribute attribute = attributeIterator.next();
-                if(attribute.containsMethod(oldMethod)) {
-                	attribute.initializeNewEntitySet();
+                if(containsMethod(attribute, oldMethod)) {
+                	Set<String> attributeEntitySet = initializeNewEntitySet(attribute);
                 	changedEntities.add(attribute);
 	                if(attribute.getClassOrigin().equals(sourceClass.getName()))
-	                	attribute.removeMethod(oldMethod);
-	                attribute.replaceMethod(oldMethod,newMethod);
+	                	attributeEntitySet.remove(oldMethod.toString());
+	                replace(attributeEntitySet, oldMethod.toString(), newMethod.toString());
                 }
             }
             ListIterator<MyMethod> methodIterator = myClass.getMethodIterator();
             while(methodIterator.hasNext()) {
                 MyMethod myMethod = methodIterator.next();
-                if(myMethod.containsMethodInvocation(oldMethodInvocation)) {
-                	myMethod.initializeNewEntitySet();
+                if(containsMethodInvocation(myMethod, oldMethodInvocation)) {
+                	Set<String> methodEntitySet = initializeNewEntitySet(myMethod);
                 	changedEntities.add(myMethod);
-                	myMethod.replaceMethodInvocation(oldMethodInvocation,newMethodInvocation);
+                	replace(methodEntitySet, oldMethodInvocation.toString(), newMethodInvocation.toString());
                 }
             }
         }
         oldMovedMethods.add(oldMethod);
         newMovedMethods.add(newMethod);
         
-        List<MyMethod> methodsToBeMoved = new ArrayList<MyMethod>();
-        Collection<MethodDeclaration> methodDeclarationsToBeMoved = additionalMethodsToBeMoved.values();
-        ListIterator<MyMethod> sourceClassMethodIterator = sourceClass.getMethodIterator();
-        if(!methodDeclarationsToBeMoved.isEmpty()) {
-	        while(sourceClassMethodIterator.hasNext()) {
-	        	MyMethod sourceMethod = sourceClassMethodIterator.next();
-	        	if(methodDeclarationsToBeMoved.contains(sourceMethod.getMethodObject().getMethodDeclaration()) && !methodsToBeMoved.contains(sourceMethod))
-	        		methodsToBeMoved.add(sourceMethod);
-	        }
-        }
-        for(MyMethod oldMyMethod : methodsToBeMoved) {
+        for(MyMethod oldMyMethod : additionalMyMethodsToBeMoved) {
         	MyMethod newMyMethod = MyMethod.newInstance(oldMyMethod);
         	newMyMethod.setClassOrigin(targetClass.getName());
         	MyMethodInvocation oldMyMethodInvocation = oldMyMethod.generateMethodInvocation();
         	MyMethodInvocation newMyMethodInvocation = newMyMethod.generateMethodInvocation();
         	//virtualSystem.getClass(sourceClass.getName()).removeMethod(oldMyMethod);
             //virtualSystem.getClass(targetClass.getName()).addMethod(newMyMethod);
-        	mySourceClass.removeMethod(oldMyMethod);
-        	myTargetClass.addMethod(newMyMethod);
+        	sourceClassEntitySet.remove(oldMyMethod.toString());
+        	targetClassEntitySet.add(newMyMethod.toString());
             newMethod.replaceMethodInvocation(oldMyMethodInvocation, newMyMethodInvocation);
             oldMovedMethods.add(oldMyMethod);
             newMovedMethods.add(newMyMethod);
@@ -321,17 +402,18 @@ public class MoveMethodCandidateRefactoring extends CandidateRefactoring impleme
     }
 
     private boolean belongsToAdditionalMethodsToBeMoved(MyMethodInvocation methodInvocation) {
-    	for(MethodDeclaration methodDeclaration : additionalMethodsToBeMoved.values()) {
-    		if(methodDeclaration.getName().getIdentifier().equals(methodInvocation.getMethodName())) {
-    			List<SingleVariableDeclaration> methodDeclarationParameters = methodDeclaration.parameters();
+    	for(int k=0; k<additionalMethodNames.size(); k++) {
+    		if(additionalMethodNames.get(k).equals(methodInvocation.getMethodName())) {
+    			List<String> parameterTypes = additionalMethodParameterTypes.get(k);
     			List<String> methodInvocationTypeParameters = methodInvocation.getParameterList();
-    			if(methodDeclarationParameters.size() == methodInvocationTypeParameters.size()) {
+    			if(parameterTypes.size() == methodInvocationTypeParameters.size()) {
     				int numberOfSameTypeParameters = 0;
-    				for(int i=0; i<methodDeclarationParameters.size(); i++) {
-    					if(methodDeclarationParameters.get(i).getType().resolveBinding().getQualifiedName().equals(methodInvocationTypeParameters.get(i)))
+    				for(int i=0; i<parameterTypes.size(); i++) {
+    					String parameterType = parameterTypes.get(i);
+    					if(parameterType != null && parameterType.equals(methodInvocationTypeParameters.get(i)))
     						numberOfSameTypeParameters++;
     				}
-    				if(numberOfSameTypeParameters == methodDeclarationParameters.size())
+    				if(numberOfSameTypeParameters == parameterTypes.size())
     					return true;
     			}
     		}
@@ -1,100 +1,125 @@
 package gr.uom.java.distance;
 
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.LinkedHashMap;
-import java.util.ListIterator;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
 
+/*
+ * The entity placement of the virtual system is computed from the entity placement of the original system:
+ * the distances of the moved methods are removed, the distances of the methods in their new class are added,
+ * and the distances of the changed entities and the entities depending on a changed class are replaced for the changed classes.
+ * The distances of all the other entities from all the other classes are the same as in the original distance matrix.
+ * Since the sums of the distances are exact, the entity placement is the same as if it was computed from scratch for every entity and class.
+ */
 public class MoveMethodFastDistanceMatrix {
-	//holds the entity set of each entity
-	private Map<Entity, Set<String>> entityMap;
-
-	//holds the entity set of each class
-	private Map<MyClass, Set<String>> classMap;
 	private SystemEntityPlacement virtualSystemEntityPlacement;
-	
+
 	public MoveMethodFastDistanceMatrix(MySystem virtualSystem, DistanceMatrix originalDistanceMatrix,
 			MoveMethodCandidateRefactoring candidate) {
-		this.entityMap = new LinkedHashMap<Entity, Set<String>>();
-		this.classMap = new LinkedHashMap<MyClass, Set<String>>();
 		this.virtualSystemEntityPlacement = new SystemEntityPlacement();
 		Set<MyMethod> oldMovedMethods = candidate.getOldMovedMethods();
 		Set<MyMethod> newMovedMethods = candidate.getNewMovedMethods();
 		Set<Entity> changedEntities = candidate.getChangedEntities();
 		Set<MyClass> changedClasses = candidate.getChangedClasses();
-		
-		Iterator<MyClass> classIt = virtualSystem.getClassIterator();
-        while(classIt.hasNext()) {
-            MyClass myClass = classIt.next();
-            ListIterator<MyAttribute> attributeIterator = myClass.getAttributeIterator();
-            while(attributeIterator.hasNext()) {
-                MyAttribute attribute = attributeIterator.next();
-                if(!attribute.isReference()) {
-                	if(attribute.getNewEntitySet() != null)
-                		entityMap.put(attribute, attribute.getNewEntitySet());
-                	else
-                		entityMap.put(attribute, attribute.getEntitySet());
-                }
-            }
-            ListIterator<MyMethod> methodIterator = myClass.getMethodIterator();
-            while(methodIterator.hasNext()) {
-                MyMethod method = methodIterator.next();
-                if(!oldMovedMethods.contains(method)) {
-                	if(method.getNewEntitySet() != null)
-                		entityMap.put(method, method.getNewEntitySet());
-                	else
-                		entityMap.put(method, method.getEntitySet());
-                }
-            }
-            if(myClass.getNewEntitySet() != null)
-            	classMap.put(myClass, myClass.getNewEntitySet());
-            else
-            	classMap.put(myClass, myClass.getEntitySet());
-        }
-        for(MyMethod newMovedMethod : newMovedMethods) {
-        	entityMap.put(newMovedMethod, newMovedMethod.getEntitySet());
-        }
-        
-        for(Entity entity : entityMap.keySet()) {
-        	Set<String> entitySet = entityMap.get(entity);
-        	String entityName = entity.toString();
-        	Set<String> entityClassDependencies = new HashSet<String>();
-        	for(String s : entitySet) {
-        		entityClassDependencies.add(s.substring(0,s.indexOf("::")));
-        	}
-        	
-        	for(MyClass myClass : classMap.keySet()) {
-        		Set<String> classEntitySet = classMap.get(myClass);
-        		ClassEntityPlacement entityPlacement = virtualSystemEntityPlacement.getClassEntityPlacement(myClass.getName());
-        		if(entity.getClassOrigin().equals(myClass.getName())) {
-        			double distance;
-        			if( ((changedEntities.contains(entity) || entityClassDependencies.contains(myClass.getName())) && changedClasses.contains(myClass)) ||
-        					newMovedMethods.contains(entity) ) {
-        				Set<String> tempClassSet = new HashSet<String>();
-                        tempClassSet.addAll(classEntitySet);
-                        tempClassSet.remove(entityName);
-        				distance = DistanceCalculator.getDistance(entitySet, tempClassSet);
-        			}
-        			else
-        				distance = originalDistanceMatrix.getDistance(entityName, myClass.getName());
-        			entityPlacement.setInnerSum(entityPlacement.getInnerSum() + distance);
-        			entityPlacement.setNumberOfInnerEntities(entityPlacement.getNumberOfInnerEntities() + 1);
-        		}
-        		else {
-        			double distance;
-        			if( ((changedEntities.contains(entity) || entityClassDependencies.contains(myClass.getName())) && changedClasses.contains(myClass)) ||
-        					newMovedMethods.contains(entity) ) {
-        				distance = DistanceCalculator.getDistance(entitySet, classEntitySet);
-        			}
-        			else
-        				distance = originalDistanceMatrix.getDistance(entityName, myClass.getName());
-        			entityPlacement.setOuterSum(entityPlacement.getOuterSum() + distance);
-        			entityPlacement.setNumberOfOuterEntities(entityPlacement.getNumberOfOuterEntities() + 1);
-        		}
-        	}
-        }
+		String[] classNames = originalDistanceMatrix.getClassNames();
+		ClassEntityPlacement[] entityPlacements = new ClassEntityPlacement[classNames.length];
+		for(int j=0; j<classNames.length; j++)
+			entityPlacements[j] = new ClassEntityPlacement(originalDistanceMatrix.getClassEntityPlacement(j));
+
+		Set<Integer> oldMovedMethodIndices = new HashSet<Integer>();
+		for(MyMethod oldMovedMethod : oldMovedMethods) {
+			int i = originalDistanceMatrix.getEntityIndex(oldMovedMethod.toString());
+			if(i != -1 && oldMovedMethodIndices.add(i)) {
+				for(int j=0; j<classNames.length; j++) {
+					double distance = originalDistanceMatrix.getDistance(i, j);
+					if(oldMovedMethod.getClassOrigin().equals(classNames[j]))
+						entityPlacements[j].removeInnerDistance(distance);
+					else
+						entityPlacements[j].removeOuterDistance(distance);
+				}
+			}
+		}
+
+		//the entity sets of the changed classes
+		EntityBitSet[] changedClassBitSets = new EntityBitSet[classNames.length];
+		for(MyClass myClass : changedClasses) {
+			int j = originalDistanceMatrix.getClassIndex(myClass.getName());
+			if(j != -1) {
+				Set<String> newEntitySet = candidate.getNewEntitySet(myClass);
+				if(newEntitySet != null)
+					changedClassBitSets[j] = new EntityBitSet(newEntitySet);
+				else
+					changedClassBitSets[j] = new EntityBitSet(myClass.getEntitySet());
+			}
+		}
+
+		for(MyMethod newMovedMethod : newMovedMethods) {
+			EntityBitSet entityBitSet = new EntityBitSet(newMovedMethod.getEntitySet());
+			boolean[] intersectingClasses = originalDistanceMatrix.getIntersectingClasses(entityBitSet);
+			for(int j=0; j<classNames.length; j++) {
+				EntityBitSet classBitSet = changedClassBitSets[j];
+				if(classBitSet == null && intersectingClasses[j])
+					classBitSet = originalDistanceMatrix.getClassBitSet(j);
+				if(newMovedMethod.getClassOrigin().equals(classNames[j])) {
+					double distance = 1.0;
+					if(classBitSet != null)
+						distance = DistanceCalculator.getDistance(entityBitSet, classBitSet, EntityDictionary.getId(newMovedMethod.toString()));
+					entityPlacements[j].addInnerDistance(distance);
+				}
+				else {
+					double distance = 1.0;
+					if(classBitSet != null)
+						distance = DistanceCalculator.getDistance(entityBitSet, classBitSet);
+					entityPlacements[j].addOuterDistance(distance);
+				}
+			}
+		}
+
+		//the indices of the changed entities and their entity sets in the virtual system, which are the same for every changed class,
+		//the entities that are not changed have the same entity set as in the original system
+		Map<Integer, EntityBitSet> changedEntityBitSets = new LinkedHashMap<Integer, EntityBitSet>();
+		for(Entity changedEntity : changedEntities) {
+			int i = originalDistanceMatrix.getEntityIndex(changedEntity.toString());
+			if(i != -1 && !oldMovedMethodIndices.contains(i) && !changedEntityBitSets.containsKey(i)) {
+				Set<String> newEntitySet = candidate.getNewEntitySet(originalDistanceMatrix.getEntity(i));
+				if(newEntitySet != null)
+					changedEntityBitSets.put(i, new EntityBitSet(newEntitySet));
+				else
+					changedEntityBitSets.put(i, originalDistanceMatrix.getEntityBitSet(i));
+			}
+		}
+
+		for(int j=0; j<classNames.length; j++) {
+			if(changedClassBitSets[j] != null) {
+				Set<Integer> entityIndices = new LinkedHashSet<Integer>(changedEntityBitSets.keySet());
+				for(Integer i : originalDistanceMatrix.getDependentEntities(classNames[j])) {
+					if(!oldMovedMethodIndices.contains(i))
+						entityIndices.add(i);
+				}
+				for(int i : entityIndices) {
+					Entity entity = originalDistanceMatrix.getEntity(i);
+					EntityBitSet entityBitSet = changedEntityBitSets.get(i);
+					if(entityBitSet == null)
+						entityBitSet = originalDistanceMatrix.getEntityBitSet(i);
+					double originalDistance = originalDistanceMatrix.getDistance(i, j);
+					if(entity.getClassOrigin().equals(classNames[j])) {
+						double distance = DistanceCalculator.getDistance(entityBitSet, changedClassBitSets[j], EntityDictionary.getId(entity.toString()));
+						entityPlacements[j].removeInnerDistance(originalDistance);
+						entityPlacements[j].addInnerDistance(distance);
+					}
+					else {
+						double distance = DistanceCalculator.getDistance(entityBitSet, changedClassBitSets[j]);
+						entityPlacements[j].removeOuterDistance(originalDistance);
+						entityPlacements[j].addOuterDistance(distance);
+					}
+				}
+			}
+		}
+
+		for(int j=0; j<classNames.length; j++)
+			virtualSystemEntityPlacement.putClassEntityPlacement(classNames[j], entityPlacements[j]);
 	}
 
 	public double getSystemEntityPlacementValue() {
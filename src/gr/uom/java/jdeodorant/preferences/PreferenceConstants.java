@@ -19,9 +19,21 @@ public class PreferenceConstants {
 	
 	public static final String P_ENABLE_ALIAS_ANALYSIS = "enableAliasAnalysisPreference";
 	
-	public static final String P_PROJECT_COMPILATION_UNIT_CACHE_SIZE = "projectCompilationUnitCacheSize";
+	public static final String P_PROJECT_COMPILATION_UNIT_CACHE_MEMORY = "projectCompilationUnitCacheMemory";
 	
-	public static final String P_LIBRARY_COMPILATION_UNIT_CACHE_SIZE = "libraryCompilationUnitCacheSize";
+	public static final String P_LIBRARY_COMPILATION_UNIT_CACHE_MEMORY = "libraryCompilationUnitCacheMemory";
+	
+	public static final String P_SHARE_COMPILATION_UNIT_CACHE_MEMORY = "shareCompilationUnitCacheMemory";
+	
+	public static final String P_PROJECT_PARSING_THREAD_COUNT = "projectParsingThreadCount";
+	
+	public static final String P_ENABLE_SYSTEM_OBJECT_SNAPSHOT = "enableSystemObjectSnapshot";
+	
+	public static final String P_METHOD_ANALYSIS_THREAD_COUNT = "methodAnalysisThreadCount";
+	
+	public static final String P_DISTANCE_ANALYSIS_THREAD_COUNT = "distanceAnalysisThreadCount";
+	
+	public static final String P_ENABLE_FAST_CLUSTERING = "enableFastClustering";
 	
 	public static final String P_ENABLE_USAGE_REPORTING = "enableUsageReporting";
 	
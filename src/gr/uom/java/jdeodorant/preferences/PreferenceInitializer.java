@@ -24,8 +24,14 @@ public class PreferenceInitializer extends AbstractPreferenceInitializer {
 		store.setDefault(PreferenceConstants.P_MINIMUM_METHOD_SIZE, 0);
 		store.setDefault(PreferenceConstants.P_MAXIMUM_CALL_GRAPH_ANALYSIS_DEPTH, 3);
 		store.setDefault(PreferenceConstants.P_ENABLE_ALIAS_ANALYSIS, true);
-		store.setDefault(PreferenceConstants.P_PROJECT_COMPILATION_UNIT_CACHE_SIZE, 20);
-		store.setDefault(PreferenceConstants.P_LIBRARY_COMPILATION_UNIT_CACHE_SIZE, 50);
+		store.setDefault(PreferenceConstants.P_PROJECT_COMPILATION_UNIT_CACHE_MEMORY, 64);
+		store.setDefault(PreferenceConstants.P_LIBRARY_COMPILATION_UNIT_CACHE_MEMORY, 64);
+		store.setDefault(PreferenceConstants.P_SHARE_COMPILATION_UNIT_CACHE_MEMORY, false);
+		store.setDefault(PreferenceConstants.P_PROJECT_PARSING_THREAD_COUNT, 1);
+		store.setDefault(PreferenceConstants.P_ENABLE_SYSTEM_OBJECT_SNAPSHOT, false);
+		store.setDefault(PreferenceConstants.P_METHOD_ANALYSIS_THREAD_COUNT, 1);
+		store.setDefault(PreferenceConstants.P_DISTANCE_ANALYSIS_THREAD_COUNT, 1);
+		store.setDefault(PreferenceConstants.P_ENABLE_FAST_CLUSTERING, true);
 		store.setDefault(PreferenceConstants.P_ENABLE_USAGE_REPORTING, true);
 		store.setDefault(PreferenceConstants.P_ENABLE_SOURCE_CODE_REPORTING, false);
 	}
@@ -35,8 +35,14 @@ public class PropertyManagerPreferencePage
 	private IntegerFieldEditor minimumMethodSizeFieldEditor;
 	private IntegerFieldEditor maximumCallGraphAnalysisDepthFieldEditor;
 	private BooleanFieldEditor enableAliasAnalysisFieldEditor;
-	private IntegerFieldEditor projectCompilationUnitCacheSizeFieldEditor;
-	private IntegerFieldEditor libraryCompilationUnitCacheSizeFieldEditor;
+	private IntegerFieldEditor projectCompilationUnitCacheMemoryFieldEditor;
+	private IntegerFieldEditor libraryCompilationUnitCacheMemoryFieldEditor;
+	private BooleanFieldEditor shareCompilationUnitCacheMemoryFieldEditor;
+	private IntegerFieldEditor projectParsingThreadCountFieldEditor;
+	private BooleanFieldEditor enableSystemObjectSnapshotFieldEditor;
+	private IntegerFieldEditor methodAnalysisThreadCountFieldEditor;
+	private IntegerFieldEditor distanceAnalysisThreadCountFieldEditor;
+	private BooleanFieldEditor enableFastClusteringFieldEditor;
 	private BooleanFieldEditor enableUsageReportingFieldEditor;
 	private BooleanFieldEditor enableSourceCodeReportingFieldEditor;
 	
@@ -100,17 +106,50 @@ public class PropertyManagerPreferencePage
 				"&Enable Alias Analysis", sliceExtractionPreferenceGroup);
 		addField(enableAliasAnalysisFieldEditor);
 		
-		projectCompilationUnitCacheSizeFieldEditor = new IntegerFieldEditor(
-				PreferenceConstants.P_PROJECT_COMPILATION_UNIT_CACHE_SIZE,
-				"&Project CompilationUnit cache size:", sliceExtractionPreferenceGroup);
-		projectCompilationUnitCacheSizeFieldEditor.setEmptyStringAllowed(false);
-		addField(projectCompilationUnitCacheSizeFieldEditor);
+		projectCompilationUnitCacheMemoryFieldEditor = new IntegerFieldEditor(
+				PreferenceConstants.P_PROJECT_COMPILATION_UNIT_CACHE_MEMORY,
+				"&Project CompilationUnit cache memory (MB):", sliceExtractionPreferenceGroup);
+		projectCompilationUnitCacheMemoryFieldEditor.setEmptyStringAllowed(false);
+		addField(projectCompilationUnitCacheMemoryFieldEditor);
 
-		libraryCompilationUnitCacheSizeFieldEditor = new IntegerFieldEditor(
-				PreferenceConstants.P_LIBRARY_COMPILATION_UNIT_CACHE_SIZE,
-				"&Library CompilationUnit cache size:", sliceExtractionPreferenceGroup);
-		libraryCompilationUnitCacheSizeFieldEditor.setEmptyStringAllowed(false);
-		addField(libraryCompilationUnitCacheSizeFieldEditor);
+		libraryCompilationUnitCacheMemoryFieldEditor = new IntegerFieldEditor(
+				PreferenceConstants.P_LIBRARY_COMPILATION_UNIT_CACHE_MEMORY,
+				"&Library CompilationUnit cache memory (MB):", sliceExtractionPreferenceGroup);
+		libraryCompilationUnitCacheMemoryFieldEditor.setEmptyStringAllowed(false);
+		addField(libraryCompilationUnitCacheMemoryFieldEditor);
+		
+		shareCompilationUnitCacheMemoryFieldEditor = new BooleanFieldEditor(
+				PreferenceConstants.P_SHARE_COMPILATION_UNIT_CACHE_MEMORY,
+				"&Share cache memory between Project and Library CompilationUnits", sliceExtractionPreferenceGroup);
+		addField(shareCompilationUnitCacheMemoryFieldEditor);
+		
+		projectParsingThreadCountFieldEditor = new IntegerFieldEditor(
+				PreferenceConstants.P_PROJECT_PARSING_THREAD_COUNT,
+				"&Number of threads for parsing the Project:", sliceExtractionPreferenceGroup);
+		projectParsingThreadCountFieldEditor.setEmptyStringAllowed(false);
+		addField(projectParsingThreadCountFieldEditor);
+		
+		enableSystemObjectSnapshotFieldEditor = new BooleanFieldEditor(
+				PreferenceConstants.P_ENABLE_SYSTEM_OBJECT_SNAPSHOT,
+				"&Reuse the parsed classes of unchanged CompilationUnits between sessions", sliceExtractionPreferenceGroup);
+		addField(enableSystemObjectSnapshotFieldEditor);
+		
+		methodAnalysisThreadCountFieldEditor = new IntegerFieldEditor(
+				PreferenceConstants.P_METHOD_ANALYSIS_THREAD_COUNT,
+				"&Number of threads for analyzing methods:", sliceExtractionPreferenceGroup);
+		methodAnalysisThreadCountFieldEditor.setEmptyStringAllowed(false);
+		addField(methodAnalysisThreadCountFieldEditor);
+		
+		distanceAnalysisThreadCountFieldEditor = new IntegerFieldEditor(
+				PreferenceConstants.P_DISTANCE_ANALYSIS_THREAD_COUNT,
+				"&Number of threads for calculating distances:", sliceExtractionPreferenceGroup);
+		distanceAnalysisThreadCountFieldEditor.setEmptyStringAllowed(false);
+		addField(distanceAnalysisThreadCountFieldEditor);
+		
+		enableFastClusteringFieldEditor = new BooleanFieldEditor(
+				PreferenceConstants.P_ENABLE_FAST_CLUSTERING,
+				"&Enable fast hierarchical clustering for Extract Class", sliceExtractionPreferenceGroup);
+		addField(enableFastClusteringFieldEditor);
 		
 		Group usageReportingGroup = new Group(composite, SWT.SHADOW_ETCHED_IN);
 		usageReportingGroup.setLayout(new GridLayout(1, false));
@@ -233,36 +272,87 @@ public class PropertyManagerPreferencePage
 			return;
 		}
 		try {
-			int projectCompilationUnitCacheSize = projectCompilationUnitCacheSizeFieldEditor.getIntValue();
-			if(projectCompilationUnitCacheSize >= 10) {
+			int projectCompilationUnitCacheMemory = projectCompilationUnitCacheMemoryFieldEditor.getIntValue();
+			if(projectCompilationUnitCacheMemory >= 8) {
+				setErrorMessage(null);
+				setValid(true);
+			}
+			else {
+				setErrorMessage("Cache memory is recommended to be >= 8 MB");
+				setValid(false);
+				return;
+			}
+		}
+		catch(NumberFormatException e) {
+			setErrorMessage("Cache memory must be an Integer");
+			setValid(false);
+			return;
+		}
+		try {
+			int libraryCompilationUnitCacheMemory = libraryCompilationUnitCacheMemoryFieldEditor.getIntValue();
+			if(libraryCompilationUnitCacheMemory >= 8) {
+				setErrorMessage(null);
+				setValid(true);
+			}
+			else {
+				setErrorMessage("Cache memory is recommended to be >= 8 MB");
+				setValid(false);
+				return;
+			}
+		}
+		catch(NumberFormatException e) {
+			setErrorMessage("Cache memory must be an Integer");
+			setValid(false);
+			return;
+		}
+		try {
+			int projectParsingThreadCount = projectParsingThreadCountFieldEditor.getIntValue();
+			if(projectParsingThreadCount >= 1) {
+				setErrorMessage(null);
+				setValid(true);
+			}
+			else {
+				setErrorMessage("Number of parsing threads must be >= 1");
+				setValid(false);
+				return;
+			}
+		}
+		catch(NumberFormatException e) {
+			setErrorMessage("Number of parsing threads must be an Integer");
+			setValid(false);
+			return;
+		}
+		try {
+			int methodAnalysisThreadCount = methodAnalysisThreadCountFieldEditor.getIntValue();
+			if(methodAnalysisThreadCount >= 1) {
 				setErrorMessage(null);
 				setValid(true);
 			}
 			else {
-				setErrorMessage("Cache size is recommended to be >= 10");
+				setErrorMessage("Number of method analysis threads must be >= 1");
 				setValid(false);
 				return;
 			}
 		}
 		catch(NumberFormatException e) {
-			setErrorMessage("Cache size must be an Integer");
+			setErrorMessage("Number of method analysis threads must be an Integer");
 			setValid(false);
 			return;
 		}
 		try {
-			int libraryCompilationUnitCacheSize = libraryCompilationUnitCacheSizeFieldEditor.getIntValue();
-			if(libraryCompilationUnitCacheSize >= 20) {
+			int distanceAnalysisThreadCount = distanceAnalysisThreadCountFieldEditor.getIntValue();
+			if(distanceAnalysisThreadCount >= 1) {
 				setErrorMessage(null);
 				setValid(true);
 			}
 			else {
-				setErrorMessage("Cache size is recommended to be >= 20");
+				setErrorMessage("Number of distance calculation threads must be >= 1");
 				setValid(false);
 				return;
 			}
 		}
 		catch(NumberFormatException e) {
-			setErrorMessage("Cache size must be an Integer");
+			setErrorMessage("Number of distance calculation threads must be an Integer");
 			setValid(false);
 			return;
 		}
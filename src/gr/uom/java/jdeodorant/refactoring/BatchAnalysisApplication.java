@@ -0,0 +1,400 @@
+package gr.uom.java.jdeodorant.refactoring;
+
+import gr.uom.java.ast.Standalone;
+import gr.uom.java.ast.SystemObject;
+import gr.uom.java.ast.util.ParallelTasks;
+import gr.uom.java.distance.Entity;
+import gr.uom.java.distance.ExtractClassCandidateGroup;
+import gr.uom.java.distance.ExtractClassCandidateRefactoring;
+import gr.uom.java.distance.MoveMethodCandidateRefactoring;
+import gr.uom.java.jdeodorant.refactoring.manipulators.ASTSlice;
+import gr.uom.java.jdeodorant.refactoring.manipulators.ASTSliceGroup;
+import gr.uom.java.jdeodorant.refactoring.manipulators.TypeCheckElimination;
+import gr.uom.java.jdeodorant.refactoring.manipulators.TypeCheckEliminationGroup;
+
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.equinox.app.IApplication;
+import org.eclipse.equinox.app.IApplicationContext;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.JavaCore;
+
+/*
+ * Headless analysis of a workspace project, e.g.
+ *   eclipse -nosplash -application gr.uom.java.jdeodorant.batch -data <workspace>
+ *     -project <name> -output <file> [-detectors moveMethod,extractClass,typeChecking,extractMethod] [-threads <n>]
+ * The project is parsed once and the selected detectors run concurrently on the same SystemObject.
+ * The -threads budget bounds the parsing threads, and it is divided among the concurrent detectors for their own parallel stages.
+ * The results are written as one JSON object per line: a "candidate" record for every refactoring opportunity,
+ * a "phase" record with the elapsed time of the parsing, of every detector and of the whole analysis,
+ * and an "error" record for every detector that failed. The records of a detector are written together when it completes.
+ */
+public class BatchAnalysisApplication implements IApplication {
+	private static final Integer EXIT_ERROR = Integer.valueOf(1);
+	private static final String USAGE = "Usage: -project <name> -output <file> [-detectors moveMethod,extractClass,typeChecking,extractMethod] [-threads <n>]";
+	private Writer writer;
+	private int errorCount;
+
+	private enum Detector {
+		MOVE_METHOD("moveMethod") {
+			int run(SystemObject systemObject, List<Map<String, Object>> records) {
+				List<MoveMethodCandidateRefactoring> candidates = Standalone.getMoveMethodRefactoringOpportunities(systemObject);
+				for(MoveMethodCandidateRefactoring candidate : candidates) {
+					Map<String, Object> record = candidateRecord(this);
+					record.put("sourceEntity", candidate.getSourceEntity());
+					record.put("sourceClass", candidate.getSource());
+					record.put("targetClass", candidate.getTarget());
+					record.put("entityPlacement", candidate.getEntityPlacement());
+					record.put("distinctEnviedElements", candidate.getNumberOfDistinctEnviedElements());
+					records.add(record);
+				}
+				return candidates.size();
+			}
+		},
+		EXTRACT_CLASS("extractClass") {
+			int run(SystemObject systemObject, List<Map<String, Object>> records) {
+				int count = 0;
+				for(ExtractClassCandidateGroup group : Standalone.getExtractClassRefactoringOpportunities(systemObject)) {
+					for(ExtractClassCandidateRefactoring candidate : group.getCandidates()) {
+						Map<String, Object> record = candidateRecord(this);
+						record.put("sourceClass", group.getSource());
+						List<String> extractedEntities = new ArrayList<String>();
+						for(Entity entity : candidate.getExtractedEntities())
+							extractedEntities.add(entity.toString());
+						record.put("extractedEntities", extractedEntities);
+						record.put("entityPlacement", candidate.getEntityPlacement());
+						records.add(record);
+						count++;
+					}
+				}
+				return count;
+			}
+		},
+		TYPE_CHECKING("typeChecking") {
+			int run(SystemObject systemObject, List<Map<String, Object>> records) {
+				int count = 0;
+				for(TypeCheckEliminationGroup group : Standalone.getTypeCheckEliminationRefactoringOpportunities(systemObject)) {
+					for(TypeCheckElimination candidate : group.getCandidates()) {
+						Map<String, Object> record = candidateRecord(this);
+						record.put("sourceClass", candidate.getTypeCheckClass().resolveBinding().getQualifiedName());
+						record.put("sourceMethod", candidate.getTypeCheckMethod().resolveBinding().toString());
+						record.put("groupSizeAtClassLevel", candidate.getGroupSizeAtClassLevel());
+						record.put("averageNumberOfStatements", candidate.getAverageNumberOfStatements());
+						records.add(record);
+						count++;
+					}
+				}
+				return count;
+			}
+		},
+		EXTRACT_METHOD("extractMethod") {
+			int run(SystemObject systemObject, List<Map<String, Object>> records) {
+				int count = 0;
+				for(ASTSliceGroup group : Standalone.getExtractMethodRefactoringOpportunities(systemObject)) {
+					for(ASTSlice candidate : group.getCandidates()) {
+						Map<String, Object> record = candidateRecord(this);
+						record.put("sourceClass", candidate.getSourceTypeDeclaration().resolveBinding().getQualifiedName());
+						record.put("sourceMethod", candidate.getSourceMethodDeclaration().resolveBinding().toString());
+						record.put("variableCriterion", candidate.getLocalVariableCriterion().getName().getIdentifier());
+						int numberOfSliceStatements = candidate.getSliceStatements().size();
+						record.put("sliceStatements", numberOfSliceStatements);
+						record.put("duplicatedStatements", numberOfSliceStatements - candidate.getRemovableStatements().size());
+						records.add(record);
+						count++;
+					}
+				}
+				return count;
+			}
+		};
+
+		private final String name;
+
+		private Detector(String name) {
+			this.name = name;
+		}
+
+		//adds a record for every candidate and returns the number of candidates
+		abstract int run(SystemObject systemObject, List<Map<String, Object>> records);
+
+		//returns null if there is no detector with the given name
+		static Detector forName(String name) {
+			for(Detector detector : values()) {
+				if(detector.name.equals(name))
+					return detector;
+			}
+			return null;
+		}
+	}
+
+	public Object start(IApplicationContext context) throws Exception {
+		String[] args = (String[])context.getArguments().get(IApplicationContext.APPLICATION_ARGS);
+		String projectName = null;
+		String outputFile = null;
+		Set<Detector> detectors = new LinkedHashSet<Detector>();
+		int threadCount = Detector.values().length;
+		for(int i=0; i<args.length; i++) {
+			if(args[i].equals("-project") && i+1 < args.length) {
+				projectName = args[++i];
+			}
+			else if(args[i].equals("-output") && i+1 < args.length) {
+				outputFile = args[++i];
+			}
+			else if(args[i].equals("-detectors") && i+1 < args.length) {
+				for(String name : args[++i].split(",")) {
+					Detector detector = Detector.forName(name.trim());
+					if(detector == null) {
+						System.err.println("Unknown detector: " + name.trim());
+						System.err.println(USAGE);
+						return EXIT_ERROR;
+					}
+					detectors.add(detector);
+				}
+			}
+			else if(args[i].equals("-threads") && i+1 < args.length) {
+				try {
+					threadCount = Math.max(1, Integer.parseInt(args[++i]));
+				}
+				catch(NumberFormatException e) {
+					System.err.println("Invalid number of threads: " + args[i]);
+					System.err.println(USAGE);
+					return EXIT_ERROR;
+				}
+			}
+		}
+		if(projectName == null || outputFile == null) {
+			System.err.println(USAGE);
+			return EXIT_ERROR;
+		}
+		if(detectors.isEmpty()) {
+			for(Detector detector : Detector.values())
+				detectors.add(detector);
+		}
+		IProject project = ResourcesPlugin.getWorkspace().getRoot().getProject(projectName);
+		if(!project.exists()) {
+			System.err.println("Project " + projectName + " does not exist in the workspace");
+			return EXIT_ERROR;
+		}
+		if(!project.isOpen())
+			project.open(null);
+		IJavaProject javaProject = JavaCore.create(project);
+		errorCount = 0;
+		writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(outputFile), "UTF-8"));
+		try {
+			return analyze(javaProject, detectors, threadCount);
+		}
+		finally {
+			writer.close();
+		}
+	}
+
+	private Object analyze(IJavaProject javaProject, Set<Detector> detectors, int threadCount) throws IOException {
+		long analysisStart = System.currentTimeMillis();
+		long parseStart = System.currentTimeMillis();
+		final SystemObject systemObject;
+		ParallelTasks.setThreadBudget(threadCount);
+		try {
+			systemObject = Standalone.parseProject(javaProject);
+		}
+		finally {
+			ParallelTasks.clearThreadBudget();
+		}
+		Map<String, Object> parseRecord = phaseRecord("parse", System.currentTimeMillis() - parseStart);
+		parseRecord.put("classes", systemObject.getClassNumber());
+		write(parseRecord);
+		boolean failed = false;
+		int detectorThreadCount = Math.min(threadCount, detectors.size());
+		//the detectors running at the same time share the budget, so that at most threadCount threads are busy
+		final int detectorThreadBudget = Math.max(1, threadCount / detectorThreadCount);
+		ExecutorService executor = Executors.newFixedThreadPool(detectorThreadCount);
+		try {
+			List<Future<?>> futures = new ArrayList<Future<?>>();
+			for(final Detector detector : detectors) {
+				futures.add(executor.submit(new Runnable() {
+					public void run() {
+						ParallelTasks.setThreadBudget(detectorThreadBudget);
+						try {
+							runDetector(detector, systemObject);
+						}
+						finally {
+							ParallelTasks.clearThreadBudget();
+						}
+					}
+				}));
+			}
+			for(Future<?> future : futures) {
+				try {
+					future.get();
+				}
+				catch(InterruptedException e) {
+					Thread.currentThread().interrupt();
+					failed = true;
+				}
+				catch(ExecutionException e) {
+					//the detector failures are recorded by runDetector, only the failures to write a record get here
+					e.getCause().printStackTrace();
+					failed = true;
+				}
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+		write(phaseRecord("total", System.currentTimeMillis() - analysisStart));
+		synchronized(this) {
+			if(errorCount > 0)
+				failed = true;
+		}
+		return failed ? EXIT_ERROR : IApplication.EXIT_OK;
+	}
+
+	private void runDetector(Detector detector, SystemObject systemObject) {
+		List<Map<String, Object>> records = new ArrayList<Map<String, Object>>();
+		long start = System.currentTimeMillis();
+		try {
+			int count = detector.run(systemObject, records);
+			Map<String, Object> phaseRecord = phaseRecord(detector.name, System.currentTimeMillis() - start);
+			phaseRecord.put("candidates", count);
+			records.add(phaseRecord);
+		}
+		//an Error (e.g., OutOfMemoryError or StackOverflowError in a large method) fails only the detector that threw it
+		catch(Throwable e) {
+			e.printStackTrace();
+			records.clear();
+			Map<String, Object> errorRecord = new LinkedHashMap<String, Object>();
+			errorRecord.put("record", "error");
+			errorRecord.put("detector", detector.name);
+			errorRecord.put("message", e.toString());
+			records.add(errorRecord);
+			records.add(phaseRecord(detector.name, System.currentTimeMillis() - start));
+			synchronized(this) {
+				errorCount++;
+			}
+		}
+		try {
+			write(records);
+		}
+		catch(IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static Map<String, Object> candidateRecord(Detector detector) {
+		Map<String, Object> record = new LinkedHashMap<String, Object>();
+		record.put("record", "candidate");
+		record.put("detector", detector.name);
+		return record;
+	}
+
+	private static Map<String, Object> phaseRecord(String phase, long millis) {
+		Map<String, Object> record = new LinkedHashMap<String, Object>();
+		record.put("record", "phase");
+		record.put("phase", phase);
+		record.put("millis", millis);
+		return record;
+	}
+
+	private void write(Map<String, Object> record) throws IOException {
+		List<Map<String, Object>> records = new ArrayList<Map<String, Object>>();
+		records.add(record);
+		write(records);
+	}
+
+	private synchronized void write(List<Map<String, Object>> records) throws IOException {
+		for(Map<String, Object> record : records) {
+			StringBuilder sb = new StringBuilder();
+			appendValue(sb, record);
+			writer.write(sb.toString());
+			writer.write("\n");
+		}
+		writer.flush();
+	}
+
+	private static void appendValue(StringBuilder sb, Object value) {
+		if(value == null) {
+			sb.append("null");
+		}
+		else if(value instanceof Number || value instanceof Boolean) {
+			if(value instanceof Double && (((Double)value).isNaN() || ((Double)value).isInfinite()))
+				sb.append("null");
+			else
+				sb.append(value);
+		}
+		else if(value instanceof Map) {
+			sb.append("{");
+			boolean first = true;
+			for(Map.Entry<?, ?> entry : ((Map<?, ?>)value).entrySet()) {
+				if(!first)
+					sb.append(",");
+				appendString(sb, entry.getKey().toString());
+				sb.append(":");
+				appendValue(sb, entry.getValue());
+				first = false;
+			}
+			sb.append("}");
+		}
+		else if(value instanceof Collection) {
+			sb.append("[");
+			boolean first = true;
+			for(Object element : (Collection<?>)value) {
+				if(!first)
+					sb.append(",");
+				appendValue(sb, element);
+				first = false;
+			}
+			sb.append("]");
+		}
+		else {
+			appendString(sb, value.toString());
+		}
+	}
+
+	private static void appendString(StringBuilder sb, String string) {
+		sb.append("\"");
+		for(int i=0; i<string.length(); i++) {
+			char c = string.charAt(i);
+			switch(c) {
+			case '"':
+				sb.append("\\\"");
+				break;
+			case '\\':
+				sb.append("\\\\");
+				break;
+			case '\n':
+				sb.append("\\n");
+				break;
+			case '\r':
+				sb.append("\\r");
+				break;
+			case '\t':
+				sb.append("\\t");
+				break;
+			default:
+				if(c < 0x20)
+					sb.append(String.format("\\u%04x", (int)c));
+				else
+					sb.append(c);
+			}
+		}
+		sb.append("\"");
+	}
+
+	public void stop() {
+	}
+}
@@ -0,0 +1,191 @@
+package gr.uom.java.jdeodorant.refactoring.manipulators;
+
+import gr.uom.java.ast.AbstractMethodDeclaration;
+import gr.uom.java.ast.ClassObject;
+import gr.uom.java.ast.CompilationUnitCache;
+import gr.uom.java.ast.CompilationUnitPin;
+import gr.uom.java.ast.MethodObject;
+import gr.uom.java.ast.SystemObject;
+import gr.uom.java.ast.decomposition.cfg.CFG;
+import gr.uom.java.ast.decomposition.cfg.PDG;
+import gr.uom.java.ast.decomposition.cfg.PDGObjectSliceUnion;
+import gr.uom.java.ast.decomposition.cfg.PDGObjectSliceUnionCollection;
+import gr.uom.java.ast.decomposition.cfg.PDGSliceUnion;
+import gr.uom.java.ast.decomposition.cfg.PDGSliceUnionCollection;
+import gr.uom.java.ast.decomposition.cfg.PlainVariable;
+import gr.uom.java.ast.util.ParallelTasks;
+import gr.uom.java.ast.util.StatementExtractor;
+import gr.uom.java.jdeodorant.preferences.PreferenceConstants;
+import gr.uom.java.jdeodorant.refactoring.Activator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.jdt.core.dom.VariableDeclaration;
+import org.eclipse.jface.preference.IPreferenceStore;
+
+public class ASTSliceGroupGenerator {
+	private int minimumMethodSize;
+	private int threadCount;
+
+	public ASTSliceGroupGenerator() {
+		IPreferenceStore store = Activator.getDefault().getPreferenceStore();
+		this.minimumMethodSize = store.getInt(PreferenceConstants.P_MINIMUM_METHOD_SIZE);
+		this.threadCount = ParallelTasks.getThreadCount(store.getInt(PreferenceConstants.P_METHOD_ANALYSIS_THREAD_COUNT));
+	}
+
+	public List<ASTSliceGroup> generateSliceGroups(Set<ClassObject> classObjects, IProgressMonitor monitor) {
+		List<ClassObject> declaringClasses = new ArrayList<ClassObject>();
+		List<AbstractMethodDeclaration> methodObjects = new ArrayList<AbstractMethodDeclaration>();
+		for(ClassObject classObject : classObjects) {
+			if(!classObject.isEnum() && !classObject.isInterface()) {
+				ListIterator<MethodObject> methodIterator = classObject.getMethodIterator();
+				while(methodIterator.hasNext()) {
+					declaringClasses.add(classObject);
+					methodObjects.add(methodIterator.next());
+				}
+			}
+		}
+		return generateSliceGroups(declaringClasses, methodObjects, monitor);
+	}
+
+	public List<ASTSliceGroup> generateSliceGroups(Set<AbstractMethodDeclaration> methodObjects, SystemObject systemObject, IProgressMonitor monitor) {
+		List<ClassObject> declaringClasses = new ArrayList<ClassObject>();
+		for(AbstractMethodDeclaration methodObject : methodObjects) {
+			declaringClasses.add(systemObject.getClassObject(methodObject.getClassName()));
+		}
+		return generateSliceGroups(declaringClasses, new ArrayList<AbstractMethodDeclaration>(methodObjects), monitor);
+	}
+
+	private List<ASTSliceGroup> generateSliceGroups(List<ClassObject> declaringClasses, List<AbstractMethodDeclaration> methodObjects, IProgressMonitor monitor) {
+		List<ASTSliceGroup> extractedSliceGroups = new ArrayList<ASTSliceGroup>();
+		if(threadCount > 1 && methodObjects.size() > 1) {
+			generateSliceGroupsInParallel(declaringClasses, methodObjects, extractedSliceGroups, monitor);
+		}
+		else {
+			for(int i=0; i<methodObjects.size(); i++) {
+				if(monitor != null && monitor.isCanceled())
+					throw new OperationCanceledException();
+				ClassObject classObject = declaringClasses.get(i);
+				AbstractMethodDeclaration methodObject = methodObjects.get(i);
+				if(methodObject.getMethodBody() != null) {
+					CompilationUnitPin pin = CompilationUnitCache.getInstance().pin(classObject.getITypeRoot());
+					try {
+						extractedSliceGroups.addAll(processMethod(classObject, methodObject));
+					}
+					finally {
+						pin.unpin();
+						CompilationUnitCache.getInstance().clearMethodAnalysisCache();
+					}
+				}
+				if(monitor != null)
+					monitor.worked(1);
+			}
+		}
+		return extractedSliceGroups;
+	}
+
+	private void generateSliceGroupsInParallel(List<ClassObject> declaringClasses, List<AbstractMethodDeclaration> methodObjects,
+			List<ASTSliceGroup> extractedSliceGroups, IProgressMonitor monitor) {
+		List<Callable<List<ASTSliceGroup>>> tasks = new ArrayList<Callable<List<ASTSliceGroup>>>();
+		for(int i=0; i<methodObjects.size(); i++) {
+			final ClassObject classObject = declaringClasses.get(i);
+			final AbstractMethodDeclaration methodObject = methodObjects.get(i);
+			tasks.add(new Callable<List<ASTSliceGroup>>() {
+				public List<ASTSliceGroup> call() {
+					if(methodObject.getMethodBody() == null)
+						return new ArrayList<ASTSliceGroup>();
+					CompilationUnitPin pin = CompilationUnitCache.getInstance().pin(classObject.getITypeRoot());
+					try {
+						return processMethod(classObject, methodObject);
+					}
+					finally {
+						pin.unpin();
+						//the method analysis cache of the worker thread is cleared, as it is after every method in serial processing
+						CompilationUnitCache.getInstance().clearMethodAnalysisCache();
+					}
+				}
+			});
+		}
+		//the slice groups are collected in method order, so that the result is the same as in serial processing
+		for(List<ASTSliceGroup> sliceGroups : ParallelTasks.runInParallel(tasks, threadCount, monitor)) {
+			extractedSliceGroups.addAll(sliceGroups);
+		}
+	}
+
+	private List<ASTSliceGroup> processMethod(ClassObject classObject, AbstractMethodDeclaration methodObject) {
+		List<ASTSliceGroup> extractedSliceGroups = new ArrayList<ASTSliceGroup>();
+		StatementExtractor statementExtractor = new StatementExtractor();
+		int numberOfStatements = statementExtractor.getTotalNumberOfStatements(methodObject.getMethodBody().getCompositeStatement().getStatement());
+		if(numberOfStatements >= minimumMethodSize) {
+			CFG cfg = new CFG(methodObject);
+			PDG pdg = new PDG(cfg, classObject.getIFile(), classObject.getFieldsAccessedInsideMethod(methodObject), null);
+			for(VariableDeclaration declaration : pdg.getVariableDeclarationsInMethod()) {
+				PlainVariable variable = new PlainVariable(declaration);
+				PDGSliceUnionCollection sliceUnionCollection = new PDGSliceUnionCollection(pdg, variable);
+				double sumOfExtractedStatementsInGroup = 0.0;
+				double sumOfDuplicatedStatementsInGroup = 0.0;
+				double sumOfDuplicationRatioInGroup = 0.0;
+				int maximumNumberOfExtractedStatementsInGroup = 0;
+				int groupSize = sliceUnionCollection.getSliceUnions().size();
+				ASTSliceGroup sliceGroup = new ASTSliceGroup();
+				for(PDGSliceUnion sliceUnion : sliceUnionCollection.getSliceUnions()) {
+					ASTSlice slice = new ASTSlice(sliceUnion);
+					int numberOfExtractedStatements = slice.getSliceStatements().size();
+					int numberOfRemovableStatements = slice.getRemovableStatements().size();
+					int numberOfDuplicatedStatements = numberOfExtractedStatements - numberOfRemovableStatements;
+					double duplicationRatio = (double)numberOfDuplicatedStatements/(double)numberOfExtractedStatements;
+					sumOfExtractedStatementsInGroup += numberOfExtractedStatements;
+					sumOfDuplicatedStatementsInGroup += numberOfDuplicatedStatements;
+					sumOfDuplicationRatioInGroup += duplicationRatio;
+					if(numberOfExtractedStatements > maximumNumberOfExtractedStatementsInGroup)
+						maximumNumberOfExtractedStatementsInGroup = numberOfExtractedStatements;
+					sliceGroup.addCandidate(slice);
+				}
+				if(!sliceGroup.getCandidates().isEmpty()) {
+					sliceGroup.setAverageNumberOfExtractedStatementsInGroup(sumOfExtractedStatementsInGroup/(double)groupSize);
+					sliceGroup.setAverageNumberOfDuplicatedStatementsInGroup(sumOfDuplicatedStatementsInGroup/(double)groupSize);
+					sliceGroup.setAverageDuplicationRatioInGroup(sumOfDuplicationRatioInGroup/(double)groupSize);
+					sliceGroup.setMaximumNumberOfExtractedStatementsInGroup(maximumNumberOfExtractedStatementsInGroup);
+					extractedSliceGroups.add(sliceGroup);
+				}
+			}
+			for(VariableDeclaration declaration : pdg.getVariableDeclarationsAndAccessedFieldsInMethod()) {
+				PlainVariable variable = new PlainVariable(declaration);
+				PDGObjectSliceUnionCollection objectSliceUnionCollection = new PDGObjectSliceUnionCollection(pdg, variable);
+				double sumOfExtractedStatementsInGroup = 0.0;
+				double sumOfDuplicatedStatementsInGroup = 0.0;
+				double sumOfDuplicationRatioInGroup = 0.0;
+				int maximumNumberOfExtractedStatementsInGroup = 0;
+				int groupSize = objectSliceUnionCollection.getSliceUnions().size();
+				ASTSliceGroup sliceGroup = new ASTSliceGroup();
+				for(PDGObjectSliceUnion objectSliceUnion : objectSliceUnionCollection.getSliceUnions()) {
+					ASTSlice slice = new ASTSlice(objectSliceUnion);
+					int numberOfExtractedStatements = slice.getSliceStatements().size();
+					int numberOfRemovableStatements = slice.getRemovableStatements().size();
+					int numberOfDuplicatedStatements = numberOfExtractedStatements - numberOfRemovableStatements;
+					double duplicationRatio = (double)numberOfDuplicatedStatements/(double)numberOfExtractedStatements;
+					sumOfExtractedStatementsInGroup += numberOfExtractedStatements;
+					sumOfDuplicatedStatementsInGroup += numberOfDuplicatedStatements;
+					sumOfDuplicationRatioInGroup += duplicationRatio;
+					if(numberOfExtractedStatements > maximumNumberOfExtractedStatementsInGroup)
+						maximumNumberOfExtractedStatementsInGroup = numberOfExtractedStatements;
+					sliceGroup.addCandidate(slice);
+				}
+				if(!sliceGroup.getCandidates().isEmpty()) {
+					sliceGroup.setAverageNumberOfExtractedStatementsInGroup(sumOfExtractedStatementsInGroup/(double)groupSize);
+					sliceGroup.setAverageNumberOfDuplicatedStatementsInGroup(sumOfDuplicatedStatementsInGroup/(double)groupSize);
+					sliceGroup.setAverageDuplicationRatioInGroup(sumOfDuplicationRatioInGroup/(double)groupSize);
+					sliceGroup.setMaximumNumberOfExtractedStatementsInGroup(maximumNumberOfExtractedStatementsInGroup);
+					extractedSliceGroups.add(sliceGroup);
+				}
+			}
+		}
+		return extractedSliceGroups;
+	}
+}
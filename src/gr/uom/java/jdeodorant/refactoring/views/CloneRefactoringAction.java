@@ -4,6 +4,7 @@ import gr.uom.java.ast.ASTReader;
 import gr.uom.java.ast.AbstractMethodDeclaration;
 import gr.uom.java.ast.ClassObject;
 import gr.uom.java.ast.CompilationUnitCache;
+import gr.uom.java.ast.CompilationUnitPin;
 import gr.uom.java.ast.SystemObject;
 import gr.uom.java.ast.decomposition.cfg.CFG;
 import gr.uom.java.ast.decomposition.cfg.PDG;
@@ -40,6 +41,8 @@ public class CloneRefactoringAction implements IObjectActionDelegate {
 	private IWorkbenchPart part;
 	private ISelection selection;
 	private PDGMapper mapper;
+	private CompilationUnitPin pin1;
+	private CompilationUnitPin pin2;
 	
 	public void run(IAction action) {
 		try {
@@ -69,55 +72,62 @@ public class CloneRefactoringAction implements IObjectActionDelegate {
 						SystemObject systemObject = ASTReader.getSystemObject();
 						final AbstractMethodDeclaration methodObject1 = systemObject.getMethodObject(method1);
 						final AbstractMethodDeclaration methodObject2 = systemObject.getMethodObject(method2);
-						if(methodObject1 != null && methodObject2 != null && methodObject1.getMethodBody() != null && methodObject2.getMethodBody() != null) {
-							final ClassObject classObject1 = systemObject.getClassObject(methodObject1.getClassName());
-							final ClassObject classObject2 = systemObject.getClassObject(methodObject2.getClassName());
-							if(classObject1 != null && !classObject1.isEnum() && !classObject1.isInterface() &&
-									classObject2 != null && !classObject2.isEnum() && !classObject2.isInterface()) {
-								ps.busyCursorWhile(new IRunnableWithProgress() {
-									public void run(IProgressMonitor monitor) throws InvocationTargetException, InterruptedException {
-										ITypeRoot typeRoot1 = classObject1.getITypeRoot();
-										ITypeRoot typeRoot2 = classObject2.getITypeRoot();
-										CompilationUnitCache.getInstance().lock(typeRoot1);
-										CompilationUnitCache.getInstance().lock(typeRoot2);
-										CFG cfg1 = new CFG(methodObject1);
-										final PDG pdg1 = new PDG(cfg1, classObject1.getIFile(), classObject1.getFieldsAccessedInsideMethod(methodObject1), monitor);
-										CFG cfg2 = new CFG(methodObject2);
-										final PDG pdg2 = new PDG(cfg2, classObject2.getIFile(), classObject2.getFieldsAccessedInsideMethod(methodObject2), monitor);
-										mapper = new PDGMapper(pdg1, pdg2, monitor);
-										//CompilationUnitCache.getInstance().releaseLock();
-									}
-								});
+						try {
+							if(methodObject1 != null && methodObject2 != null && methodObject1.getMethodBody() != null && methodObject2.getMethodBody() != null) {
+								final ClassObject classObject1 = systemObject.getClassObject(methodObject1.getClassName());
+								final ClassObject classObject2 = systemObject.getClassObject(methodObject2.getClassName());
+								if(classObject1 != null && !classObject1.isEnum() && !classObject1.isInterface() &&
+										classObject2 != null && !classObject2.isEnum() && !classObject2.isInterface()) {
+									ps.busyCursorWhile(new IRunnableWithProgress() {
+										public void run(IProgressMonitor monitor) throws InvocationTargetException, InterruptedException {
+											ITypeRoot typeRoot1 = classObject1.getITypeRoot();
+											ITypeRoot typeRoot2 = classObject2.getITypeRoot();
+											pin1 = CompilationUnitCache.getInstance().pin(typeRoot1);
+											pin2 = CompilationUnitCache.getInstance().pin(typeRoot2);
+											CFG cfg1 = new CFG(methodObject1);
+											final PDG pdg1 = new PDG(cfg1, classObject1.getIFile(), classObject1.getFieldsAccessedInsideMethod(methodObject1), monitor);
+											CFG cfg2 = new CFG(methodObject2);
+											final PDG pdg2 = new PDG(cfg2, classObject2.getIFile(), classObject2.getFieldsAccessedInsideMethod(methodObject2), monitor);
+											mapper = new PDGMapper(pdg1, pdg2, monitor);
+										}
+									});
+								}
+								else
+									MessageDialog.openInformation(part.getSite().getShell(), "Duplicated Code Refactoring",
+											"At least one of the selected methods belongs to an interface, enum, or anonymous class.");
 							}
 							else
 								MessageDialog.openInformation(part.getSite().getShell(), "Duplicated Code Refactoring",
-										"At least one of the selected methods belongs to an interface, enum, or anonymous class.");
-						}
-						else
-							MessageDialog.openInformation(part.getSite().getShell(), "Duplicated Code Refactoring",
-									"At least one of the selected methods is abstract.");
-						if(mapper != null && !mapper.getSubTreeMappers().isEmpty()) {
-							try {
-								for(PDGSubTreeMapper subTreeMapper : mapper.getSubTreeMappers()) {
-									JavaUI.openInEditor(((CompilationUnit)subTreeMapper.getPDG1().getMethod().getMethodDeclaration().getRoot()).getJavaElement());
-									JavaUI.openInEditor(((CompilationUnit)subTreeMapper.getPDG2().getMethod().getMethodDeclaration().getRoot()).getJavaElement());
+										"At least one of the selected methods is abstract.");
+							if(mapper != null && !mapper.getSubTreeMappers().isEmpty()) {
+								try {
+									for(PDGSubTreeMapper subTreeMapper : mapper.getSubTreeMappers()) {
+										JavaUI.openInEditor(((CompilationUnit)subTreeMapper.getPDG1().getMethod().getMethodDeclaration().getRoot()).getJavaElement());
+										JavaUI.openInEditor(((CompilationUnit)subTreeMapper.getPDG2().getMethod().getMethodDeclaration().getRoot()).getJavaElement());
+									}
+								} catch (PartInitException e) {
+									e.printStackTrace();
+								} catch (JavaModelException e) {
+									e.printStackTrace();
+								}
+								Refactoring refactoring = new ExtractCloneRefactoring(mapper.getSubTreeMappers());
+								MyRefactoringWizard wizard = new MyRefactoringWizard(refactoring, null);
+								RefactoringWizardOpenOperation op = new RefactoringWizardOpenOperation(wizard);
+								try { 
+									String titleForFailedChecks = ""; //$NON-NLS-1$ 
+									op.run(PlatformUI.getWorkbench().getActiveWorkbenchWindow().getShell(), titleForFailedChecks); 
+								} catch(InterruptedException e) {
+									e.printStackTrace();
 								}
-							} catch (PartInitException e) {
-								e.printStackTrace();
-							} catch (JavaModelException e) {
-								e.printStackTrace();
-							}
-							Refactoring refactoring = new ExtractCloneRefactoring(mapper.getSubTreeMappers());
-							MyRefactoringWizard wizard = new MyRefactoringWizard(refactoring, null);
-							RefactoringWizardOpenOperation op = new RefactoringWizardOpenOperation(wizard);
-							try { 
-								String titleForFailedChecks = ""; //$NON-NLS-1$ 
-								op.run(PlatformUI.getWorkbench().getActiveWorkbenchWindow().getShell(), titleForFailedChecks); 
-							} catch(InterruptedException e) {
-								e.printStackTrace();
 							}
 						}
-						CompilationUnitCache.getInstance().releaseLock();
+						finally {
+							if(pin1 != null)
+								pin1.unpin();
+							if(pin2 != null)
+								pin2.unpin();
+							CompilationUnitCache.getInstance().clearMethodAnalysisCache();
+						}
 					}
 					else
 						MessageDialog.openInformation(part.getSite().getShell(), "Duplicated Code Refactoring",
@@ -13,7 +13,6 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.ListIterator;
 import java.util.Map;
 import java.util.Set;
 
@@ -21,27 +20,18 @@ import gr.uom.java.ast.ASTReader;
 import gr.uom.java.ast.AbstractMethodDeclaration;
 import gr.uom.java.ast.ClassObject;
 import gr.uom.java.ast.CompilationUnitCache;
-import gr.uom.java.ast.MethodObject;
 import gr.uom.java.ast.SystemObject;
-import gr.uom.java.ast.decomposition.cfg.CFG;
-import gr.uom.java.ast.decomposition.cfg.PDG;
-import gr.uom.java.ast.decomposition.cfg.PDGObjectSliceUnion;
-import gr.uom.java.ast.decomposition.cfg.PDGObjectSliceUnionCollection;
-import gr.uom.java.ast.decomposition.cfg.PDGSliceUnion;
-import gr.uom.java.ast.decomposition.cfg.PDGSliceUnionCollection;
-import gr.uom.java.ast.decomposition.cfg.PlainVariable;
-import gr.uom.java.ast.util.StatementExtractor;
 import gr.uom.java.jdeodorant.preferences.PreferenceConstants;
 import gr.uom.java.jdeodorant.refactoring.Activator;
 import gr.uom.java.jdeodorant.refactoring.manipulators.ASTSlice;
 import gr.uom.java.jdeodorant.refactoring.manipulators.ASTSliceGroup;
+import gr.uom.java.jdeodorant.refactoring.manipulators.ASTSliceGroupGenerator;
 import gr.uom.java.jdeodorant.refactoring.manipulators.ExtractMethodRefactoring;
 
 import org.eclipse.core.commands.operations.IOperationHistoryListener;
 import org.eclipse.core.commands.operations.OperationHistoryEvent;
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.runtime.IProgressMonitor;
-import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.jdt.core.ICompilationUnit;
 import org.eclipse.jdt.core.IJavaElement;
 import org.eclipse.jdt.core.IJavaProject;
@@ -49,12 +39,10 @@ import org.eclipse.jdt.core.IMethod;
 import org.eclipse.jdt.core.IPackageFragment;
 import org.eclipse.jdt.core.IPackageFragmentRoot;
 import org.eclipse.jdt.core.IType;
-import org.eclipse.jdt.core.ITypeRoot;
 import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.core.JavaModelException;
 import org.eclipse.jdt.core.dom.CompilationUnit;
 import org.eclipse.jdt.core.dom.TypeDeclaration;
-import org.eclipse.jdt.core.dom.VariableDeclaration;
 import org.eclipse.jdt.ui.JavaUI;
 import org.eclipse.jface.action.Action;
 import org.eclipse.jface.action.IToolBarManager;
@@ -733,29 +721,12 @@ public class LongMethod extends ViewPart {
 							workSize += classObject.getNumberOfMethods();
 						}
 						monitor.beginTask("Identification of Extract Method refactoring opportunities", workSize);
-						for(ClassObject classObject : classObjectsToBeExamined) {
-							if(!classObject.isEnum() && !classObject.isInterface()) {
-								ListIterator<MethodObject> methodIterator = classObject.getMethodIterator();
-								while(methodIterator.hasNext()) {
-									if(monitor.isCanceled())
-										throw new OperationCanceledException();
-									MethodObject methodObject = methodIterator.next();
-									processMethod(extractedSliceGroups,classObject, methodObject);
-									monitor.worked(1);
-								}
-							}
-						}
+						extractedSliceGroups.addAll(new ASTSliceGroupGenerator().generateSliceGroups(classObjectsToBeExamined, monitor));
 					}
 					else if(!methodObjectsToBeExamined.isEmpty()) {
 						int workSize = methodObjectsToBeExamined.size();
 						monitor.beginTask("Identification of Extract Method refactoring opportunities", workSize);
-						for(AbstractMethodDeclaration methodObject : methodObjectsToBeExamined) {
-							if(monitor.isCanceled())
-								throw new OperationCanceledException();
-							ClassObject classObject = systemObject.getClassObject(methodObject.getClassName());
-							processMethod(extractedSliceGroups, classObject, methodObject);
-							monitor.worked(1);
-						}
+						extractedSliceGroups.addAll(new ASTSliceGroupGenerator().generateSliceGroups(methodObjectsToBeExamined, systemObject, monitor));
 					}
 					monitor.done();
 				}
@@ -773,82 +744,6 @@ public class LongMethod extends ViewPart {
 		return table;
 	}
 
-	private void processMethod(final List<ASTSliceGroup> extractedSliceGroups, ClassObject classObject, AbstractMethodDeclaration methodObject) {
-		if(methodObject.getMethodBody() != null) {
-			IPreferenceStore store = Activator.getDefault().getPreferenceStore();
-			int minimumMethodSize = store.getInt(PreferenceConstants.P_MINIMUM_METHOD_SIZE);
-			StatementExtractor statementExtractor = new StatementExtractor();
-			int numberOfStatements = statementExtractor.getTotalNumberOfStatements(methodObject.getMethodBody().getCompositeStatement().getStatement());
-			if(numberOfStatements >= minimumMethodSize) {
-				ITypeRoot typeRoot = classObject.getITypeRoot();
-				CompilationUnitCache.getInstance().lock(typeRoot);
-				CFG cfg = new CFG(methodObject);
-				PDG pdg = new PDG(cfg, classObject.getIFile(), classObject.getFieldsAccessedInsideMethod(methodObject), null);
-				for(VariableDeclaration declaration : pdg.getVariableDeclarationsInMethod()) {
-					PlainVariable variable = new PlainVariable(declaration);
-					PDGSliceUnionCollection sliceUnionCollection = new PDGSliceUnionCollection(pdg, variable);
-					double sumOfExtractedStatementsInGroup = 0.0;
-					double sumOfDuplicatedStatementsInGroup = 0.0;
-					double sumOfDuplicationRatioInGroup = 0.0;
-					int maximumNumberOfExtractedStatementsInGroup = 0;
-					int groupSize = sliceUnionCollection.getSliceUnions().size();
-					ASTSliceGroup sliceGroup = new ASTSliceGroup();
-					for(PDGSliceUnion sliceUnion : sliceUnionCollection.getSliceUnions()) {
-						ASTSlice slice = new ASTSlice(sliceUnion);
-						int numberOfExtractedStatements = slice.getSliceStatements().size();
-						int numberOfRemovableStatements = slice.getRemovableStatements().size();
-						int numberOfDuplicatedStatements = numberOfExtractedStatements - numberOfRemovableStatements;
-						double duplicationRatio = (double)numberOfDuplicatedStatements/(double)numberOfExtractedStatements;
-						sumOfExtractedStatementsInGroup += numberOfExtractedStatements;
-						sumOfDuplicatedStatementsInGroup += numberOfDuplicatedStatements;
-						sumOfDuplicationRatioInGroup += duplicationRatio;
-						if(numberOfExtractedStatements > maximumNumberOfExtractedStatementsInGroup)
-							maximumNumberOfExtractedStatementsInGroup = numberOfExtractedStatements;
-						sliceGroup.addCandidate(slice);
-					}
-					if(!sliceGroup.getCandidates().isEmpty()) {
-						sliceGroup.setAverageNumberOfExtractedStatementsInGroup(sumOfExtractedStatementsInGroup/(double)groupSize);
-						sliceGroup.setAverageNumberOfDuplicatedStatementsInGroup(sumOfDuplicatedStatementsInGroup/(double)groupSize);
-						sliceGroup.setAverageDuplicationRatioInGroup(sumOfDuplicationRatioInGroup/(double)groupSize);
-						sliceGroup.setMaximumNumberOfExtractedStatementsInGroup(maximumNumberOfExtractedStatementsInGroup);
-						extractedSliceGroups.add(sliceGroup);
-					}
-				}
-				for(VariableDeclaration declaration : pdg.getVariableDeclarationsAndAccessedFieldsInMethod()) {
-					PlainVariable variable = new PlainVariable(declaration);
-					PDGObjectSliceUnionCollection objectSliceUnionCollection = new PDGObjectSliceUnionCollection(pdg, variable);
-					double sumOfExtractedStatementsInGroup = 0.0;
-					double sumOfDuplicatedStatementsInGroup = 0.0;
-					double sumOfDuplicationRatioInGroup = 0.0;
-					int maximumNumberOfExtractedStatementsInGroup = 0;
-					int groupSize = objectSliceUnionCollection.getSliceUnions().size();
-					ASTSliceGroup sliceGroup = new ASTSliceGroup();
-					for(PDGObjectSliceUnion objectSliceUnion : objectSliceUnionCollection.getSliceUnions()) {
-						ASTSlice slice = new ASTSlice(objectSliceUnion);
-						int numberOfExtractedStatements = slice.getSliceStatements().size();
-						int numberOfRemovableStatements = slice.getRemovableStatements().size();
-						int numberOfDuplicatedStatements = numberOfExtractedStatements - numberOfRemovableStatements;
-						double duplicationRatio = (double)numberOfDuplicatedStatements/(double)numberOfExtractedStatements;
-						sumOfExtractedStatementsInGroup += numberOfExtractedStatements;
-						sumOfDuplicatedStatementsInGroup += numberOfDuplicatedStatements;
-						sumOfDuplicationRatioInGroup += duplicationRatio;
-						if(numberOfExtractedStatements > maximumNumberOfExtractedStatementsInGroup)
-							maximumNumberOfExtractedStatementsInGroup = numberOfExtractedStatements;
-						sliceGroup.addCandidate(slice);
-					}
-					if(!sliceGroup.getCandidates().isEmpty()) {
-						sliceGroup.setAverageNumberOfExtractedStatementsInGroup(sumOfExtractedStatementsInGroup/(double)groupSize);
-						sliceGroup.setAverageNumberOfDuplicatedStatementsInGroup(sumOfDuplicatedStatementsInGroup/(double)groupSize);
-						sliceGroup.setAverageDuplicationRatioInGroup(sumOfDuplicationRatioInGroup/(double)groupSize);
-						sliceGroup.setMaximumNumberOfExtractedStatementsInGroup(maximumNumberOfExtractedStatementsInGroup);
-						extractedSliceGroups.add(sliceGroup);
-					}
-				}
-				CompilationUnitCache.getInstance().releaseLock();
-			}
-		}
-	}
-
 	private void saveResults() {
 		FileDialog fd = new FileDialog(getSite().getWorkbenchWindow().getShell(), SWT.SAVE);
 		fd.setText("Save Results");
@@ -4,6 +4,7 @@ import gr.uom.java.ast.ASTReader;
 import gr.uom.java.ast.AbstractMethodDeclaration;
 import gr.uom.java.ast.ClassObject;
 import gr.uom.java.ast.CompilationUnitCache;
+import gr.uom.java.ast.CompilationUnitPin;
 import gr.uom.java.ast.SystemObject;
 import gr.uom.java.ast.decomposition.cfg.CFG;
 import gr.uom.java.ast.decomposition.cfg.PDG;
@@ -70,10 +71,15 @@ public class SliceProfileAction implements IObjectActionDelegate {
 								ClassObject classObject = systemObject.getClassObject(methodObject.getClassName());
 								if(methodObject.getMethodBody() != null && classObject != null) {
 									ITypeRoot typeRoot = classObject.getITypeRoot();
-									CompilationUnitCache.getInstance().lock(typeRoot);
-									CFG cfg = new CFG(methodObject);
-									pdg = new PDG(cfg, classObject.getIFile(), classObject.getFieldsAccessedInsideMethod(methodObject), monitor);
-									CompilationUnitCache.getInstance().releaseLock();
+									CompilationUnitPin pin = CompilationUnitCache.getInstance().pin(typeRoot);
+									try {
+										CFG cfg = new CFG(methodObject);
+										pdg = new PDG(cfg, classObject.getIFile(), classObject.getFieldsAccessedInsideMethod(methodObject), monitor);
+									}
+									finally {
+										pin.unpin();
+										CompilationUnitCache.getInstance().clearMethodAnalysisCache();
+									}
 								}
 								else {
 									selectedMethodHasNoBody = true;